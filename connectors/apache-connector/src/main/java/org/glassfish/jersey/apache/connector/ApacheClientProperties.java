@@ -123,6 +123,102 @@ public final class ApacheClientProperties {
      */
     public static final String REQUEST_CONFIG = "jersey.config.apache.client.requestConfig";
 
+    /**
+     * If {@code true} the connection manager used by the connector is instrumented to collect per-route connection
+     * pool statistics (leased, available and pending connections, lease wait time histogram and connection reuse
+     * ratio). The collected statistics can be retrieved using
+     * {@link ApacheConnectorProvider#getConnectionPoolStatistics(javax.ws.rs.core.Configurable)}.
+     * <p/>
+     * Connection pool state (leased, available and pending connections) is reported only if the connection manager
+     * implements {@link org.apache.http.pool.ConnPoolControl}, e.g. the default
+     * {@link org.apache.http.impl.conn.PoolingHttpClientConnectionManager}.
+     * <p/>
+     * The value MUST be an instance of {@link java.lang.Boolean}.
+     * <p/>
+     * The default value is {@code false}.
+     * <p/>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     *
+     * @since 2.18
+     */
+    public static final String CONNECTION_POOL_STATISTICS_ENABLED =
+            "jersey.config.apache.client.connectionPool.statistics.enabled";
+
+    /**
+     * If {@code true} the connection pool statistics are collected (see {@link #CONNECTION_POOL_STATISTICS_ENABLED})
+     * and exposed as an MXBean registered with the platform MBean server. The MXBean is unregistered once the connector
+     * is closed.
+     * <p/>
+     * The value MUST be an instance of {@link java.lang.Boolean}.
+     * <p/>
+     * The default value is {@code false}.
+     * <p/>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     *
+     * @since 2.18
+     */
+    public static final String CONNECTION_POOL_STATISTICS_MBEANS_ENABLED =
+            "jersey.config.apache.client.connectionPool.statistics.mbeans.enabled";
+
+    /**
+     * If {@code true} the per-route connection limits of the pool are adjusted based on the observed connection lease
+     * wait times. The limit of a route is raised while the average lease wait time exceeds the
+     * {@link #CONNECTION_POOL_ADAPTIVE_LEASE_WAIT_THRESHOLD threshold} and lowered back towards the default per-route
+     * limit once the route is under-utilized. Enabling the adaptive sizing enables the
+     * {@link #CONNECTION_POOL_STATISTICS_ENABLED connection pool statistics} as well.
+     * <p/>
+     * The adaptive sizing is supported only if the connection manager implements
+     * {@link org.apache.http.pool.ConnPoolControl}, e.g. the default
+     * {@link org.apache.http.impl.conn.PoolingHttpClientConnectionManager}.
+     * <p/>
+     * The value MUST be an instance of {@link java.lang.Boolean}.
+     * <p/>
+     * The default value is {@code false}.
+     * <p/>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     *
+     * @since 2.18
+     */
+    public static final String CONNECTION_POOL_ADAPTIVE_SIZING_ENABLED =
+            "jersey.config.apache.client.connectionPool.adaptiveSizing.enabled";
+
+    /**
+     * The upper bound of a per-route connection limit set by the
+     * {@link #CONNECTION_POOL_ADAPTIVE_SIZING_ENABLED adaptive pool sizing}.
+     * <p/>
+     * The value MUST be an instance of {@link java.lang.Integer}.
+     * <p/>
+     * If the property is absent the total connection limit of the pool is used.
+     * <p/>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     *
+     * @since 2.18
+     */
+    public static final String CONNECTION_POOL_ADAPTIVE_MAX_PER_ROUTE =
+            "jersey.config.apache.client.connectionPool.adaptiveSizing.maxPerRoute";
+
+    /**
+     * The average connection lease wait time (in milliseconds) above which the
+     * {@link #CONNECTION_POOL_ADAPTIVE_SIZING_ENABLED adaptive pool sizing} raises the connection limit of a route.
+     * <p/>
+     * The value MUST be an instance of {@link java.lang.Integer}.
+     * <p/>
+     * The default value is {@value #DEFAULT_CONNECTION_POOL_ADAPTIVE_LEASE_WAIT_THRESHOLD}.
+     * <p/>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     *
+     * @since 2.18
+     */
+    public static final String CONNECTION_POOL_ADAPTIVE_LEASE_WAIT_THRESHOLD =
+            "jersey.config.apache.client.connectionPool.adaptiveSizing.leaseWaitThreshold";
+
+    /**
+     * Default value of the {@link #CONNECTION_POOL_ADAPTIVE_LEASE_WAIT_THRESHOLD} property.
+     *
+     * @since 2.18
+     */
+    public static final int DEFAULT_CONNECTION_POOL_ADAPTIVE_LEASE_WAIT_THRESHOLD = 10;
+
     /**
      * Get the value of the specified property.
      *
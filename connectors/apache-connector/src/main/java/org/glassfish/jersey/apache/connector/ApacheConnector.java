@@ -139,6 +139,9 @@ import jersey.repackaged.com.google.common.util.concurrent.MoreExecutors;
  * <li>{@link ClientProperties#PROXY_PASSWORD}</li>
  * <li>{@link ClientProperties#REQUEST_ENTITY_PROCESSING} - default value is {@link RequestEntityProcessing#CHUNKED}</li>
  * <li>{@link ApacheClientProperties#PREEMPTIVE_BASIC_AUTHENTICATION}</li>
+ * <li>{@link ApacheClientProperties#CONNECTION_POOL_STATISTICS_ENABLED}</li>
+ * <li>{@link ApacheClientProperties#CONNECTION_POOL_STATISTICS_MBEANS_ENABLED}</li>
+ * <li>{@link ApacheClientProperties#CONNECTION_POOL_ADAPTIVE_SIZING_ENABLED}</li>
  * </ul>
  * <p>
  * This connector uses {@link RequestEntityProcessing#CHUNKED chunked encoding} as a default setting. This can
@@ -196,6 +199,7 @@ class ApacheConnector implements Connector {
 
     private final CloseableHttpClient client;
     private final CookieStore cookieStore;
+    private final ConnectionPoolStatistics connectionPoolStatistics;
     private final boolean preemptiveBasicAuth;
     private final RequestConfig requestConfig;
 
@@ -236,7 +240,15 @@ class ApacheConnector implements Connector {
         final SSLContext sslContext = client.getSslContext();
         final HttpClientBuilder clientBuilder = HttpClientBuilder.create();
 
-        clientBuilder.setConnectionManager(getConnectionManager(config, sslContext));
+        HttpClientConnectionManager clientConnectionManager = getConnectionManager(config, sslContext);
+        if (InstrumentedConnectionManager.isEnabled(config)) {
+            final InstrumentedConnectionManager instrumented = new InstrumentedConnectionManager(clientConnectionManager, config);
+            clientConnectionManager = instrumented;
+            this.connectionPoolStatistics = instrumented;
+        } else {
+            this.connectionPoolStatistics = null;
+        }
+        clientBuilder.setConnectionManager(clientConnectionManager);
         clientBuilder.setSslcontext(sslContext);
 
         final RequestConfig.Builder requestConfigBuilder = RequestConfig.custom();
@@ -406,6 +418,16 @@ class ApacheConnector implements Connector {
         return cookieStore;
     }
 
+    /**
+     * Get the connection pool statistics of the connector.
+     *
+     * @return connection pool statistics or {@code null} if the statistics are not
+     * {@link ApacheClientProperties#CONNECTION_POOL_STATISTICS_ENABLED enabled}.
+     */
+    public ConnectionPoolStatistics getConnectionPoolStatistics() {
+        return connectionPoolStatistics;
+    }
+
     private static URI getProxyUri(final Object proxy) {
         if (proxy instanceof URI) {
             return (URI) proxy;
@@ -150,6 +150,24 @@ public class ApacheConnectorProvider implements ConnectorProvider {
         return getConnector(component).getCookieStore();
     }
 
+    /**
+     * Retrieve the connection pool statistics of the connector from
+     * {@link org.glassfish.jersey.client.JerseyClient} or {@link org.glassfish.jersey.client.JerseyWebTarget}
+     * configured to use {@code ApacheConnectorProvider}.
+     *
+     * @param component {@code JerseyClient} or {@code JerseyWebTarget} instance that is configured to use
+     *                  {@code ApacheConnectorProvider}.
+     * @return connection pool statistics or {@code null} if the statistics are not
+     * {@link ApacheClientProperties#CONNECTION_POOL_STATISTICS_ENABLED enabled}.
+     * @throws java.lang.IllegalArgumentException in case the {@code component} is neither {@code JerseyClient}
+     *                                            nor {@code JerseyWebTarget} instance or in case the component
+     *                                            is not configured to use a {@code ApacheConnectorProvider}.
+     * @since 2.18
+     */
+    public static ConnectionPoolStatistics getConnectionPoolStatistics(final Configurable<?> component) {
+        return getConnector(component).getConnectionPoolStatistics();
+    }
+
     private static ApacheConnector getConnector(final Configurable<?> component) {
         if (!(component instanceof Initializable)) {
             throw new IllegalArgumentException(
@@ -0,0 +1,119 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.apache.connector;
+
+import java.util.Map;
+
+import javax.management.MXBean;
+
+/**
+ * Connection pool statistics of an {@link ApacheConnectorProvider Apache connector}.
+ * <p/>
+ * Statistics are collected only if enabled using the
+ * {@link ApacheClientProperties#CONNECTION_POOL_STATISTICS_ENABLED} property. Connection counts are reported only
+ * if the connection manager of the connector implements {@link org.apache.http.pool.ConnPoolControl}, otherwise
+ * the connection counts are {@code 0}.
+ * <p/>
+ * The interface is an {@link MXBean MXBean} interface, instances are registered with the platform MBean server
+ * if the {@link ApacheClientProperties#CONNECTION_POOL_STATISTICS_MBEANS_ENABLED} property is set.
+ *
+ * @see ApacheConnectorProvider#getConnectionPoolStatistics(javax.ws.rs.core.Configurable)
+ * @since 2.18
+ */
+@MXBean
+public interface ConnectionPoolStatistics {
+
+    /**
+     * Get the maximum number of connections in the pool.
+     *
+     * @return maximum number of connections in the pool.
+     */
+    public int getMaxTotal();
+
+    /**
+     * Get the number of connections currently leased from the pool.
+     *
+     * @return number of leased connections.
+     */
+    public int getLeased();
+
+    /**
+     * Get the number of idle connections currently available in the pool.
+     *
+     * @return number of available connections.
+     */
+    public int getAvailable();
+
+    /**
+     * Get the number of connection requests currently waiting for a connection.
+     *
+     * @return number of pending connection requests.
+     */
+    public int getPending();
+
+    /**
+     * Get the total number of connection leases since the connector has been created.
+     *
+     * @return total number of connection leases.
+     */
+    public long getLeaseCount();
+
+    /**
+     * Get the total number of connection lease requests of all routes that failed to obtain a connection.
+     *
+     * @return total number of failed connection lease requests.
+     */
+    public long getLeaseTimeoutCount();
+
+    /**
+     * Get the ratio of connection leases that reused an already established connection.
+     *
+     * @return connection reuse ratio in the range {@code [0, 1]}, {@code 0} if no connection has been leased yet.
+     */
+    public double getConnectionReuseRatio();
+
+    /**
+     * Get the statistics of individual routes keyed by the route description
+     * (e.g. {@code {}->http://localhost:8080}).
+     *
+     * @return per-route connection pool statistics.
+     */
+    public Map<String, RouteStatistics> getRouteStatistics();
+}
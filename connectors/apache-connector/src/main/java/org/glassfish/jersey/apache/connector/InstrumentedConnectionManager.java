@@ -0,0 +1,549 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.apache.connector;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.core.Configuration;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.pool.ConnPoolControl;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * {@link HttpClientConnectionManager} decorator that collects {@link ConnectionPoolStatistics connection pool statistics}
+ * and optionally adjusts the per-route connection limits of the decorated pool based on the observed lease wait times.
+ */
+final class InstrumentedConnectionManager implements HttpClientConnectionManager, ConnectionPoolStatistics {
+
+    private static final Logger LOGGER = Logger.getLogger(InstrumentedConnectionManager.class.getName());
+
+    /**
+     * Upper bounds of the lease wait histogram buckets in milliseconds; the last bucket collects all the longer waits.
+     */
+    private static final long[] HISTOGRAM_BOUNDS = {1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+    private static final String[] HISTOGRAM_LABELS;
+
+    static {
+        HISTOGRAM_LABELS = new String[HISTOGRAM_BOUNDS.length + 1];
+        for (int i = 0; i < HISTOGRAM_BOUNDS.length; i++) {
+            HISTOGRAM_LABELS[i] = "<=" + HISTOGRAM_BOUNDS[i] + "ms";
+        }
+        HISTOGRAM_LABELS[HISTOGRAM_BOUNDS.length] = ">" + HISTOGRAM_BOUNDS[HISTOGRAM_BOUNDS.length - 1] + "ms";
+    }
+
+    /**
+     * The adaptive sizing evaluates the lease wait times of a route once per the given number of leases or once per
+     * the given period, whichever comes first.
+     */
+    private static final int ADAPTIVE_WINDOW_LEASES = 20;
+    private static final long ADAPTIVE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final String MBEAN_NAME_PREFIX = "org.glassfish.jersey:type=ApacheConnectionPool,id=";
+    private static final AtomicInteger MBEAN_COUNTER = new AtomicInteger();
+
+    private final HttpClientConnectionManager delegate;
+    private final ConnPoolControl<HttpRoute> pool;
+    private final ConcurrentMap<HttpRoute, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+    private final boolean adaptive;
+    private final int adaptiveMinPerRoute;
+    private final int adaptiveMaxPerRoute;
+    private final long leaseWaitThreshold;
+
+    private final ObjectName objectName;
+
+    /**
+     * Create new instrumented connection manager.
+     *
+     * @param delegate decorated connection manager.
+     * @param config   client configuration.
+     */
+    @SuppressWarnings("unchecked")
+    InstrumentedConnectionManager(final HttpClientConnectionManager delegate, final Configuration config) {
+        this.delegate = delegate;
+        this.pool = delegate instanceof ConnPoolControl ? (ConnPoolControl<HttpRoute>) delegate : null;
+
+        final Map<String, Object> properties = config.getProperties();
+        this.adaptive = pool != null
+                && PropertiesHelper.isProperty(properties, ApacheClientProperties.CONNECTION_POOL_ADAPTIVE_SIZING_ENABLED);
+        if (adaptive) {
+            this.adaptiveMinPerRoute = pool.getDefaultMaxPerRoute();
+            final Integer max = ApacheClientProperties.getValue(properties,
+                    ApacheClientProperties.CONNECTION_POOL_ADAPTIVE_MAX_PER_ROUTE, Integer.class);
+            this.adaptiveMaxPerRoute = Math.max(adaptiveMinPerRoute, max != null ? max : pool.getMaxTotal());
+            final Integer threshold = ApacheClientProperties.getValue(properties,
+                    ApacheClientProperties.CONNECTION_POOL_ADAPTIVE_LEASE_WAIT_THRESHOLD, Integer.class);
+            this.leaseWaitThreshold = TimeUnit.MILLISECONDS.toNanos(threshold != null
+                    ? threshold : ApacheClientProperties.DEFAULT_CONNECTION_POOL_ADAPTIVE_LEASE_WAIT_THRESHOLD);
+        } else {
+            this.adaptiveMinPerRoute = 0;
+            this.adaptiveMaxPerRoute = 0;
+            this.leaseWaitThreshold = 0;
+        }
+
+        if (PropertiesHelper.isProperty(properties, ApacheClientProperties.CONNECTION_POOL_STATISTICS_MBEANS_ENABLED)) {
+            this.objectName = registerMBean();
+        } else {
+            this.objectName = null;
+        }
+    }
+
+    /**
+     * Check whether the connection pool of the connector should be instrumented.
+     *
+     * @param config client configuration.
+     * @return {@code true} if any of the connection pool statistics related properties is enabled.
+     */
+    static boolean isEnabled(final Configuration config) {
+        final Map<String, Object> properties = config.getProperties();
+        return PropertiesHelper.isProperty(properties, ApacheClientProperties.CONNECTION_POOL_STATISTICS_ENABLED)
+                || PropertiesHelper.isProperty(properties, ApacheClientProperties.CONNECTION_POOL_STATISTICS_MBEANS_ENABLED)
+                || PropertiesHelper.isProperty(properties, ApacheClientProperties.CONNECTION_POOL_ADAPTIVE_SIZING_ENABLED);
+    }
+
+    private ObjectName registerMBean() {
+        final String name = MBEAN_NAME_PREFIX + MBEAN_COUNTER.incrementAndGet();
+        try {
+            final ObjectName objectName = new ObjectName(name);
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(new StandardMBean(this, ConnectionPoolStatistics.class, true), objectName);
+            return objectName;
+        } catch (final JMException e) {
+            LOGGER.log(Level.WARNING, LocalizationMessages.CONNECTION_POOL_MBEAN_REGISTRATION_FAILED(name), e);
+            return null;
+        }
+    }
+
+    private void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (mBeanServer.isRegistered(objectName)) {
+                mBeanServer.unregisterMBean(objectName);
+            }
+        } catch (final JMException e) {
+            LOGGER.log(Level.FINE, "Failed to unregister connection pool statistics MBean " + objectName, e);
+        }
+    }
+
+    private RouteMetrics metrics(final HttpRoute route) {
+        RouteMetrics metrics = routes.get(route);
+        if (metrics == null) {
+            final RouteMetrics created = new RouteMetrics();
+            metrics = routes.putIfAbsent(route, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(final HttpRoute route, final Object state) {
+        final ConnectionRequest request = delegate.requestConnection(route, state);
+        final RouteMetrics metrics = metrics(route);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(final long timeout, final TimeUnit tunit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                final long start = System.nanoTime();
+                boolean leased = false;
+                try {
+                    final HttpClientConnection connection = request.get(timeout, tunit);
+                    leased = true;
+                    return connection;
+                } finally {
+                    final long wait = System.nanoTime() - start;
+
+                    metrics.waited(wait, leased);
+                    if (adaptive) {
+                        adapt(route, metrics, wait);
+                    }
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    private void adapt(final HttpRoute route, final RouteMetrics metrics, final long wait) {
+        synchronized (metrics) {
+            metrics.windowLeases++;
+            metrics.windowWait += wait;
+            final long now = System.nanoTime();
+            if (metrics.windowLeases < ADAPTIVE_WINDOW_LEASES && now - metrics.windowStart < ADAPTIVE_WINDOW_NANOS) {
+                return;
+            }
+            final long averageWait = metrics.windowWait / metrics.windowLeases;
+            metrics.windowLeases = 0;
+            metrics.windowWait = 0;
+            metrics.windowStart = now;
+
+            final int current = pool.getMaxPerRoute(route);
+            int updated = current;
+            if (averageWait > leaseWaitThreshold) {
+                // connections of the route are saturated - grow the limit by half
+                updated = Math.min(adaptiveMaxPerRoute, current + Math.max(1, current / 2));
+            } else if (averageWait < leaseWaitThreshold / 4 && current > adaptiveMinPerRoute) {
+                // shrink the limit slowly while at most half of the allowed connections is in use
+                final PoolStats stats = pool.getStats(route);
+                if (stats.getLeased() + stats.getPending() <= current / 2) {
+                    updated = current - 1;
+                }
+            }
+
+            if (updated != current) {
+                pool.setMaxPerRoute(route, updated);
+                if (LOGGER.isLoggable(Level.FINE)) {
+                    LOGGER.log(Level.FINE, "Connection limit of route " + route + " changed from " + current + " to "
+                            + updated + " (average lease wait " + TimeUnit.NANOSECONDS.toMillis(averageWait) + " ms).");
+                }
+            }
+        }
+    }
+
+    @Override
+    public void releaseConnection(final HttpClientConnection conn,
+                                  final Object newState,
+                                  final long validDuration,
+                                  final TimeUnit timeUnit) {
+        delegate.releaseConnection(conn, newState, validDuration, timeUnit);
+    }
+
+    @Override
+    public void connect(final HttpClientConnection conn,
+                        final HttpRoute route,
+                        final int connectTimeout,
+                        final HttpContext context) throws IOException {
+        // the HTTP client connects only the connections that have not been established yet
+        metrics(route).newConnections.incrementAndGet();
+        delegate.connect(conn, route, connectTimeout, context);
+    }
+
+    @Override
+    public void upgrade(final HttpClientConnection conn, final HttpRoute route, final HttpContext context)
+            throws IOException {
+        delegate.upgrade(conn, route, context);
+    }
+
+    @Override
+    public void routeComplete(final HttpClientConnection conn, final HttpRoute route, final HttpContext context)
+            throws IOException {
+        delegate.routeComplete(conn, route, context);
+    }
+
+    @Override
+    public void closeIdleConnections(final long idletime, final TimeUnit tunit) {
+        delegate.closeIdleConnections(idletime, tunit);
+    }
+
+    @Override
+    public void closeExpiredConnections() {
+        delegate.closeExpiredConnections();
+    }
+
+    @Override
+    public void shutdown() {
+        unregisterMBean();
+        delegate.shutdown();
+    }
+
+    @Override
+    public int getMaxTotal() {
+        return pool != null ? pool.getMaxTotal() : 0;
+    }
+
+    @Override
+    public int getLeased() {
+        return pool != null ? pool.getTotalStats().getLeased() : 0;
+    }
+
+    @Override
+    public int getAvailable() {
+        return pool != null ? pool.getTotalStats().getAvailable() : 0;
+    }
+
+    @Override
+    public int getPending() {
+        return pool != null ? pool.getTotalStats().getPending() : 0;
+    }
+
+    @Override
+    public long getLeaseCount() {
+        long leases = 0;
+        for (final RouteMetrics metrics : routes.values()) {
+            leases += metrics.leases.get();
+        }
+        return leases;
+    }
+
+    @Override
+    public long getLeaseTimeoutCount() {
+        long timeouts = 0;
+        for (final RouteMetrics metrics : routes.values()) {
+            timeouts += metrics.leaseTimeouts.get();
+        }
+        return timeouts;
+    }
+
+    @Override
+    public double getConnectionReuseRatio() {
+        long leases = 0;
+        long newConnections = 0;
+        for (final RouteMetrics metrics : routes.values()) {
+            leases += metrics.leases.get();
+            newConnections += metrics.newConnections.get();
+        }
+        return reuseRatio(leases, newConnections);
+    }
+
+    @Override
+    public Map<String, RouteStatistics> getRouteStatistics() {
+        final SortedMap<String, RouteStatistics> statistics = new TreeMap<>();
+        for (final Map.Entry<HttpRoute, RouteMetrics> entry : routes.entrySet()) {
+            final HttpRoute route = entry.getKey();
+            final PoolStats stats = pool != null ? pool.getStats(route) : null;
+            statistics.put(route.toString(), entry.getValue().snapshot(stats));
+        }
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    private static double reuseRatio(final long leases, final long newConnections) {
+        if (leases == 0) {
+            return 0;
+        }
+        return Math.max(0, leases - newConnections) / (double) leases;
+    }
+
+    /**
+     * Mutable statistics of a single route.
+     */
+    private static final class RouteMetrics {
+
+        private final AtomicLong leases = new AtomicLong();
+        private final AtomicLong leaseTimeouts = new AtomicLong();
+        private final AtomicLong newConnections = new AtomicLong();
+        private final AtomicLong totalWait = new AtomicLong();
+        private final AtomicLong maxWait = new AtomicLong();
+        private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_LABELS.length);
+
+        // adaptive sizing window, guarded by this
+        private int windowLeases = 0;
+        private long windowWait = 0;
+        private long windowStart = System.nanoTime();
+
+        private void waited(final long wait, final boolean leased) {
+            if (leased) {
+                leases.incrementAndGet();
+            } else {
+                leaseTimeouts.incrementAndGet();
+            }
+            totalWait.addAndGet(wait);
+
+            long max;
+            while (wait > (max = maxWait.get()) && !maxWait.compareAndSet(max, wait)) {
+                // retry
+            }
+
+            final long waitMillis = TimeUnit.NANOSECONDS.toMillis(wait);
+            int bucket = 0;
+            while (bucket < HISTOGRAM_BOUNDS.length && waitMillis > HISTOGRAM_BOUNDS[bucket]) {
+                bucket++;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+
+        private RouteStatistics snapshot(final PoolStats stats) {
+            final long leaseCount = leases.get();
+            final long leaseTimeoutCount = leaseTimeouts.get();
+            final long waitCount = leaseCount + leaseTimeoutCount;
+            final Map<String, Long> waits = new LinkedHashMap<>();
+            for (int i = 0; i < HISTOGRAM_LABELS.length; i++) {
+                waits.put(HISTOGRAM_LABELS[i], histogram.get(i));
+            }
+            return new RouteSnapshot(
+                    stats != null ? stats.getMax() : 0,
+                    stats != null ? stats.getLeased() : 0,
+                    stats != null ? stats.getAvailable() : 0,
+                    stats != null ? stats.getPending() : 0,
+                    leaseCount,
+                    leaseTimeoutCount,
+                    newConnections.get(),
+                    waitCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalWait.get()) / 1000.0 / waitCount,
+                    TimeUnit.NANOSECONDS.toMillis(maxWait.get()),
+                    Collections.unmodifiableMap(waits));
+        }
+    }
+
+    /**
+     * Immutable snapshot of route statistics.
+     */
+    private static final class RouteSnapshot implements RouteStatistics {
+
+        private final int max;
+        private final int leased;
+        private final int available;
+        private final int pending;
+        private final long leaseCount;
+        private final long leaseTimeoutCount;
+        private final long newConnectionCount;
+        private final double averageLeaseWait;
+        private final long maxLeaseWait;
+        private final Map<String, Long> leaseWaitHistogram;
+
+        private RouteSnapshot(final int max,
+                              final int leased,
+                              final int available,
+                              final int pending,
+                              final long leaseCount,
+                              final long leaseTimeoutCount,
+                              final long newConnectionCount,
+                              final double averageLeaseWait,
+                              final long maxLeaseWait,
+                              final Map<String, Long> leaseWaitHistogram) {
+            this.max = max;
+            this.leased = leased;
+            this.available = available;
+            this.pending = pending;
+            this.leaseCount = leaseCount;
+            this.leaseTimeoutCount = leaseTimeoutCount;
+            this.newConnectionCount = newConnectionCount;
+            this.averageLeaseWait = averageLeaseWait;
+            this.maxLeaseWait = maxLeaseWait;
+            this.leaseWaitHistogram = leaseWaitHistogram;
+        }
+
+        @Override
+        public int getMax() {
+            return max;
+        }
+
+        @Override
+        public int getLeased() {
+            return leased;
+        }
+
+        @Override
+        public int getAvailable() {
+            return available;
+        }
+
+        @Override
+        public int getPending() {
+            return pending;
+        }
+
+        @Override
+        public long getLeaseCount() {
+            return leaseCount;
+        }
+
+        @Override
+        public long getLeaseTimeoutCount() {
+            return leaseTimeoutCount;
+        }
+
+        @Override
+        public long getNewConnectionCount() {
+            return newConnectionCount;
+        }
+
+        @Override
+        public double getConnectionReuseRatio() {
+            return reuseRatio(leaseCount, newConnectionCount);
+        }
+
+        @Override
+        public double getAverageLeaseWait() {
+            return averageLeaseWait;
+        }
+
+        @Override
+        public long getMaxLeaseWait() {
+            return maxLeaseWait;
+        }
+
+        @Override
+        public Map<String, Long> getLeaseWaitHistogram() {
+            return leaseWaitHistogram;
+        }
+
+        @Override
+        public String toString() {
+            return "RouteStatistics{max=" + max + ", leased=" + leased + ", available=" + available + ", pending=" + pending
+                    + ", leaseCount=" + leaseCount + ", leaseTimeoutCount=" + leaseTimeoutCount
+                    + ", newConnectionCount=" + newConnectionCount
+                    + ", averageLeaseWait=" + averageLeaseWait + ", maxLeaseWait=" + maxLeaseWait + '}';
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.apache.connector;
+
+import java.util.Map;
+
+/**
+ * Connection pool statistics of a single route.
+ *
+ * @see ConnectionPoolStatistics#getRouteStatistics()
+ * @since 2.18
+ */
+public interface RouteStatistics {
+
+    /**
+     * Get the current connection limit of the route.
+     *
+     * @return maximum number of connections of the route.
+     */
+    public int getMax();
+
+    /**
+     * Get the number of connections of the route currently leased from the pool.
+     *
+     * @return number of leased connections.
+     */
+    public int getLeased();
+
+    /**
+     * Get the number of idle connections of the route currently available in the pool.
+     *
+     * @return number of available connections.
+     */
+    public int getAvailable();
+
+    /**
+     * Get the number of connection requests of the route currently waiting for a connection.
+     *
+     * @return number of pending connection requests.
+     */
+    public int getPending();
+
+    /**
+     * Get the total number of connection leases of the route.
+     *
+     * @return total number of connection leases.
+     */
+    public long getLeaseCount();
+
+    /**
+     * Get the total number of connection lease requests of the route that failed to obtain a connection,
+     * e.g. because the connection request timeout expired or the waiting thread has been interrupted.
+     *
+     * @return total number of failed connection lease requests.
+     */
+    public long getLeaseTimeoutCount();
+
+    /**
+     * Get the total number of new connections established for the route.
+     *
+     * @return total number of established connections.
+     */
+    public long getNewConnectionCount();
+
+    /**
+     * Get the ratio of connection leases that reused an already established connection.
+     *
+     * @return connection reuse ratio in the range {@code [0, 1]}, {@code 0} if no connection has been leased yet.
+     */
+    public double getConnectionReuseRatio();
+
+    /**
+     * Get the average time spent waiting for a connection lease in milliseconds. Lease requests that failed
+     * to obtain a connection are included.
+     *
+     * @return average lease wait time in milliseconds.
+     */
+    public double getAverageLeaseWait();
+
+    /**
+     * Get the longest time spent waiting for a connection lease in milliseconds, including the failed lease requests.
+     *
+     * @return maximum lease wait time in milliseconds.
+     */
+    public long getMaxLeaseWait();
+
+    /**
+     * Get the histogram of connection lease wait times. The keys of the returned map are the bucket labels
+     * (e.g. {@code <=5ms}) in the ascending order, the values are the numbers of leases that fall into the bucket. Lease requests that failed
+     * to obtain a connection are counted in the bucket of their wait time.
+     *
+     * @return lease wait time histogram.
+     */
+    public Map<String, Long> getLeaseWaitHistogram();
+}
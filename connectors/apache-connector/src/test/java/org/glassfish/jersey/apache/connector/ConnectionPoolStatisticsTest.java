@@ -0,0 +1,230 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.apache.connector;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.Application;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Connection pool statistics and adaptive pool sizing tests.
+ */
+public class ConnectionPoolStatisticsTest extends JerseyTest {
+
+    @Path("test")
+    public static class TestResource {
+
+        @GET
+        public String get() {
+            return "GET";
+        }
+
+        @GET
+        @Path("slow/{millis}")
+        public String slow(@PathParam("millis") final long millis) throws InterruptedException {
+            Thread.sleep(millis);
+            return "SLOW";
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(TestResource.class);
+    }
+
+    private Client createClient(final ClientConfig config) {
+        return ClientBuilder.newClient(config.connectorProvider(new ApacheConnectorProvider()));
+    }
+
+    @Test
+    public void testStatisticsDisabledByDefault() {
+        final Client client = createClient(new ClientConfig());
+        try {
+            assertNull(ApacheConnectorProvider.getConnectionPoolStatistics(client));
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testRouteStatistics() {
+        final Client client = createClient(new ClientConfig()
+                .property(ApacheClientProperties.CONNECTION_POOL_STATISTICS_ENABLED, true));
+        try {
+            final ConnectionPoolStatistics statistics = ApacheConnectorProvider.getConnectionPoolStatistics(client);
+            assertNotNull(statistics);
+
+            for (int i = 0; i < 10; i++) {
+                assertEquals("GET", client.target(getBaseUri()).path("test").request().get(String.class));
+            }
+
+            assertEquals(10, statistics.getLeaseCount());
+            assertEquals(0, statistics.getLeased());
+            assertTrue(statistics.getConnectionReuseRatio() >= 0.9);
+
+            assertEquals(1, statistics.getRouteStatistics().size());
+            final RouteStatistics route = statistics.getRouteStatistics().values().iterator().next();
+            assertEquals(10, route.getLeaseCount());
+            assertEquals(1, route.getNewConnectionCount());
+            assertEquals(1, route.getAvailable());
+
+            long histogramTotal = 0;
+            for (final Long count : route.getLeaseWaitHistogram().values()) {
+                histogramTotal += count;
+            }
+            assertEquals(10, histogramTotal);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testMBeanRegistration() throws Exception {
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName query = new ObjectName("org.glassfish.jersey:type=ApacheConnectionPool,*");
+        final int registered = mBeanServer.queryNames(query, null).size();
+
+        final Client client = createClient(new ClientConfig()
+                .property(ApacheClientProperties.CONNECTION_POOL_STATISTICS_MBEANS_ENABLED, true));
+        assertNotNull(ApacheConnectorProvider.getConnectionPoolStatistics(client));
+        assertEquals("GET", client.target(getBaseUri()).path("test").request().get(String.class));
+        assertEquals(registered + 1, mBeanServer.queryNames(query, null).size());
+
+        final ObjectName name = mBeanServer.queryNames(query, null).iterator().next();
+        assertFalse(mBeanServer.getAttribute(name, "RouteStatistics") == null);
+
+        client.close();
+        assertEquals(registered, mBeanServer.queryNames(query, null).size());
+    }
+
+    @Test
+    public void testLeaseTimeoutStatistics() throws Exception {
+        final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setDefaultMaxPerRoute(1);
+        final RequestConfig requestConfig = RequestConfig.custom().setConnectionRequestTimeout(100).build();
+        final Client client = createClient(new ClientConfig()
+                .property(ApacheClientProperties.CONNECTION_POOL_STATISTICS_ENABLED, true)
+                .property(ApacheClientProperties.CONNECTION_MANAGER, connectionManager)
+                .property(ApacheClientProperties.REQUEST_CONFIG, requestConfig));
+        try {
+            final ConnectionPoolStatistics statistics = ApacheConnectorProvider.getConnectionPoolStatistics(client);
+
+            final Future<String> slow = client.target(getBaseUri()).path("test/slow/1000").request().async().get(String.class);
+            while (statistics.getLeaseCount() == 0) {
+                Thread.sleep(10);
+            }
+            try {
+                client.target(getBaseUri()).path("test").request().get(String.class);
+                fail("Connection lease should have timed out.");
+            } catch (final ProcessingException expected) {
+                // expected
+            }
+            assertEquals("SLOW", slow.get(30, TimeUnit.SECONDS));
+
+            assertEquals(1, statistics.getLeaseCount());
+            assertEquals(1, statistics.getLeaseTimeoutCount());
+
+            final RouteStatistics route = statistics.getRouteStatistics().values().iterator().next();
+            assertEquals(1, route.getLeaseTimeoutCount());
+            assertTrue("Lease timeout wait has not been recorded: " + route, route.getMaxLeaseWait() >= 100);
+
+            long histogramTotal = 0;
+            for (final Long count : route.getLeaseWaitHistogram().values()) {
+                histogramTotal += count;
+            }
+            assertEquals(2, histogramTotal);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testAdaptiveSizing() throws Exception {
+        final Client client = createClient(new ClientConfig()
+                .property(ApacheClientProperties.CONNECTION_POOL_ADAPTIVE_SIZING_ENABLED, true)
+                .property(ApacheClientProperties.CONNECTION_POOL_ADAPTIVE_MAX_PER_ROUTE, 8)
+                .property(ApacheClientProperties.CONNECTION_POOL_ADAPTIVE_LEASE_WAIT_THRESHOLD, 5));
+        try {
+            final ConnectionPoolStatistics statistics = ApacheConnectorProvider.getConnectionPoolStatistics(client);
+
+            final List<Future<String>> responses = new ArrayList<>();
+            for (int i = 0; i < 60; i++) {
+                responses.add(client.target(getBaseUri()).path("test/slow/50").request().async().get(String.class));
+            }
+            for (final Future<String> response : responses) {
+                assertEquals("SLOW", response.get(30, TimeUnit.SECONDS));
+            }
+
+            final RouteStatistics route = statistics.getRouteStatistics().values().iterator().next();
+            assertTrue("Connection limit of the route has not been raised: " + route, route.getMax() > 2);
+            assertTrue("Connection limit of the route exceeds the configured maximum: " + route, route.getMax() <= 8);
+        } finally {
+            client.close();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.ListIterator;
+
+/**
+ * Connections and pending exchanges of a single remote host.
+ * <p>
+ * A pending exchange is assigned to an idle connection if there is one, otherwise a new connection is opened
+ * unless the per-host connection limit has been reached. Once the limit has been reached, idempotent exchanges
+ * may be pipelined on the least loaded connection, all the other exchanges wait until a connection is released.
+ * The pool is accessed by the selector thread only.
+ * </p>
+ */
+final class HostPool {
+
+    private final NioSelectorLoop loop;
+    private final List<HttpConnection> connections = new ArrayList<HttpConnection>();
+    private final Deque<HttpExchange> pending = new ArrayDeque<HttpExchange>();
+
+    /**
+     * Create new host pool.
+     *
+     * @param loop selector loop processing the host connections.
+     */
+    HostPool(final NioSelectorLoop loop) {
+        this.loop = loop;
+    }
+
+    /**
+     * Submit a new exchange.
+     *
+     * @param exchange exchange to be processed.
+     */
+    void submit(final HttpExchange exchange) {
+        if (loop.isClosed()) {
+            exchange.fail(new IOException(LocalizationMessages.CONNECTOR_CLOSED()));
+            return;
+        }
+        pending.add(exchange);
+        dispatch();
+    }
+
+    /**
+     * Abort the exchange.
+     *
+     * @param exchange aborted exchange.
+     * @param cause    abort cause.
+     */
+    void abort(final HttpExchange exchange, final Throwable cause) {
+        if (exchange.getConnection() != null) {
+            exchange.getConnection().abort(exchange, cause);
+        } else {
+            pending.remove(exchange);
+            exchange.fail(cause);
+        }
+    }
+
+    private void dispatch() {
+        HttpExchange exchange;
+        while ((exchange = pending.peek()) != null) {
+            HttpConnection connection = findIdle();
+            if (connection == null && connections.size() < loop.getMaxConnectionsPerHost()) {
+                try {
+                    connection = new HttpConnection(this, loop, exchange.getAddress(), exchange.getHostKey(),
+                            exchange.getConnectTimeout());
+                    connections.add(connection);
+                } catch (final IOException e) {
+                    pending.poll();
+                    exchange.fail(e);
+                    continue;
+                }
+            }
+            if (connection == null && exchange.isIdempotent()) {
+                connection = findPipelinable();
+            }
+            if (connection == null) {
+                // wait until a connection is released
+                return;
+            }
+            pending.poll();
+            connection.enqueue(exchange);
+        }
+    }
+
+    private HttpConnection findIdle() {
+        for (final HttpConnection connection : connections) {
+            if (connection.isIdle()) {
+                return connection;
+            }
+        }
+        return null;
+    }
+
+    private HttpConnection findPipelinable() {
+        final int limit = loop.getPipeliningLimit();
+        if (limit <= 1) {
+            return null;
+        }
+        HttpConnection selected = null;
+        for (final HttpConnection connection : connections) {
+            if (connection.canPipeline(limit) && (selected == null || connection.getLoad() < selected.getLoad())) {
+                selected = connection;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Notify the pool that a connection has become idle.
+     *
+     * @param connection released connection.
+     */
+    void connectionReleased(final HttpConnection connection) {
+        dispatch();
+    }
+
+    /**
+     * Notify the pool that a connection has been closed.
+     *
+     * @param connection closed connection.
+     * @param retried    exchanges of the closed connection that should be processed again.
+     */
+    void connectionClosed(final HttpConnection connection, final List<HttpExchange> retried) {
+        connections.remove(connection);
+        final ListIterator<HttpExchange> iterator = retried.listIterator(retried.size());
+        while (iterator.hasPrevious()) {
+            pending.addFirst(iterator.previous());
+        }
+        if (loop.isClosed()) {
+            failPending(new IOException(LocalizationMessages.CONNECTOR_CLOSED()));
+        } else {
+            dispatch();
+        }
+    }
+
+    /**
+     * Check timeouts of the pool connections.
+     *
+     * @param now         current time [nanoseconds].
+     * @param idleTimeout idle connection timeout in milliseconds, {@code 0} means no timeout.
+     */
+    void checkTimeouts(final long now, final long idleTimeout) {
+        for (final HttpConnection connection : new ArrayList<HttpConnection>(connections)) {
+            connection.checkTimeouts(now, idleTimeout);
+        }
+    }
+
+    /**
+     * Check whether the pool has no connections and no pending exchanges.
+     *
+     * @return {@code true} if the pool is not used.
+     */
+    boolean isUnused() {
+        return connections.isEmpty() && pending.isEmpty();
+    }
+
+    /**
+     * Close all the pool connections and fail all the pending exchanges.
+     *
+     * @param cause close cause.
+     */
+    void close(final IOException cause) {
+        failPending(cause);
+        for (final HttpConnection connection : new ArrayList<HttpConnection>(connections)) {
+            connection.close(cause);
+        }
+    }
+
+    private void failPending(final IOException cause) {
+        HttpExchange exchange;
+        while ((exchange = pending.poll()) != null) {
+            exchange.fail(cause);
+        }
+    }
+}
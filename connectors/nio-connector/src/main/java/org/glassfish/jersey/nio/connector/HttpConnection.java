@@ -0,0 +1,461 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Non-blocking HTTP/1.1 client connection to a single host.
+ * <p>
+ * The connection keeps the list of exchanges assigned to it in the order in which the requests are written.
+ * The first exchange in the list is the one whose response is being received. The connection is accessed
+ * by the selector thread only.
+ * </p>
+ */
+final class HttpConnection implements HttpResponseParser.Listener {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpConnection.class.getName());
+
+    private final HostPool pool;
+    private final NioSelectorLoop loop;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final HttpResponseParser parser;
+    private final String hostKey;
+    private final long connectTimeout;
+    private final Runnable resumeReading;
+
+    private final List<HttpExchange> exchanges = new ArrayList<HttpExchange>();
+    // number of exchanges at the head of the list whose request has been completely written
+    private int written = 0;
+
+    private boolean connected = false;
+    private boolean readSuspended = false;
+    private boolean closeAfterResponse = false;
+    private boolean closed = false;
+    private final long created;
+    private long idleSince;
+
+    /**
+     * Open a new connection. The connection is registered with the selector of the loop and the connect
+     * operation is initiated.
+     *
+     * @param pool           host pool the connection belongs to.
+     * @param loop           selector loop processing the connection.
+     * @param address        remote address.
+     * @param hostKey        remote host and port used in messages.
+     * @param connectTimeout connect timeout in milliseconds, {@code 0} means no timeout.
+     * @throws IOException in case the connection could not be opened.
+     */
+    HttpConnection(final HostPool pool,
+                   final NioSelectorLoop loop,
+                   final InetSocketAddress address,
+                   final String hostKey,
+                   final long connectTimeout) throws IOException {
+        this.pool = pool;
+        this.loop = loop;
+        this.hostKey = hostKey;
+        this.connectTimeout = connectTimeout;
+        this.parser = new HttpResponseParser(this);
+        this.created = System.nanoTime();
+        this.idleSince = created;
+        this.resumeReading = new Runnable() {
+            @Override
+            public void run() {
+                loop.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        resumeRead();
+                    }
+                });
+            }
+        };
+
+        channel = SocketChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.setOption(StandardSocketOptions.SO_KEEPALIVE, true);
+            connected = channel.connect(address);
+            key = channel.register(loop.getSelector(), connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT, this);
+        } catch (final IOException e) {
+            closeChannel();
+            throw e;
+        }
+    }
+
+    /**
+     * Check whether the connection is open and has no exchange assigned.
+     *
+     * @return {@code true} if the connection may accept a new exchange without pipelining.
+     */
+    boolean isIdle() {
+        return !closed && !closeAfterResponse && exchanges.isEmpty();
+    }
+
+    /**
+     * Check whether another idempotent exchange may be pipelined on this connection.
+     *
+     * @param pipeliningLimit maximum number of exchanges assigned to a single connection.
+     * @return {@code true} if the exchange may be pipelined on this connection.
+     */
+    boolean canPipeline(final int pipeliningLimit) {
+        if (closed || closeAfterResponse || !connected || exchanges.size() >= pipeliningLimit) {
+            return false;
+        }
+        for (final HttpExchange exchange : exchanges) {
+            if (!exchange.isIdempotent()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Get the number of exchanges assigned to the connection.
+     *
+     * @return number of exchanges assigned to the connection.
+     */
+    int getLoad() {
+        return exchanges.size();
+    }
+
+    /**
+     * Assign a new exchange to the connection.
+     *
+     * @param exchange exchange to be processed by the connection.
+     */
+    void enqueue(final HttpExchange exchange) {
+        exchange.assign(this, System.nanoTime());
+        exchanges.add(exchange);
+        if (exchanges.size() == 1) {
+            parser.reset(exchange.isHeadRequest());
+        }
+        flush();
+    }
+
+    /**
+     * Notify the connection that new request entity data are available for writing.
+     */
+    void requestDataAvailable() {
+        flush();
+    }
+
+    /**
+     * Process the ready operations of the connection selection key.
+     *
+     * @param now current time [nanoseconds].
+     */
+    void handle(final long now) {
+        try {
+            if (!key.isValid()) {
+                close(new IOException(LocalizationMessages.CONNECTION_CLOSED(hostKey)));
+                return;
+            }
+            if (key.isConnectable()) {
+                channel.finishConnect();
+                connected = true;
+                idleSince = now;
+            }
+            if (key.isValid() && key.isWritable()) {
+                write();
+            }
+            if (key.isValid() && key.isReadable()) {
+                read(now);
+            }
+            updateInterest();
+        } catch (final IOException e) {
+            close(e);
+        }
+    }
+
+    private void flush() {
+        if (closed) {
+            return;
+        }
+        try {
+            write();
+            updateInterest();
+        } catch (final IOException e) {
+            close(e);
+        }
+    }
+
+    private void write() throws IOException {
+        if (!connected) {
+            return;
+        }
+        while (written < exchanges.size()) {
+            final HttpExchange exchange = exchanges.get(written);
+            final ByteBuffer head = exchange.getHead();
+            if (head.hasRemaining()) {
+                channel.write(head);
+                if (head.hasRemaining()) {
+                    return;
+                }
+            }
+            final RequestEntityStream body = exchange.getBody();
+            if (body != null) {
+                ByteBuffer data;
+                while ((data = body.peek()) != null) {
+                    channel.write(data);
+                    if (data.hasRemaining()) {
+                        return;
+                    }
+                    body.consumed();
+                }
+                if (!body.isComplete()) {
+                    // waiting for more data from the application
+                    return;
+                }
+            }
+            // the read timeout starts once the request has been completely written
+            exchange.touch(System.nanoTime());
+            written++;
+        }
+    }
+
+    private boolean hasDataToWrite() {
+        if (written >= exchanges.size()) {
+            return false;
+        }
+        final HttpExchange exchange = exchanges.get(written);
+        if (exchange.getHead().hasRemaining()) {
+            return true;
+        }
+        final RequestEntityStream body = exchange.getBody();
+        return body != null && body.peek() != null;
+    }
+
+    private void updateInterest() {
+        if (closed || !key.isValid()) {
+            return;
+        }
+        int ops;
+        if (!connected) {
+            ops = SelectionKey.OP_CONNECT;
+        } else {
+            ops = readSuspended ? 0 : SelectionKey.OP_READ;
+            if (hasDataToWrite()) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+        }
+        if (key.interestOps() != ops) {
+            key.interestOps(ops);
+        }
+    }
+
+    private void read(final long now) throws IOException {
+        final ByteBuffer buffer = loop.getReadBuffer();
+        buffer.clear();
+        final int read = channel.read(buffer);
+        if (read < 0) {
+            endOfStream();
+            return;
+        }
+        buffer.flip();
+
+        while (buffer.hasRemaining() && !closed) {
+            if (exchanges.isEmpty()) {
+                close(new IOException(LocalizationMessages.INVALID_RESPONSE("unexpected data received on an idle connection")));
+                return;
+            }
+            final HttpExchange exchange = exchanges.get(0);
+            exchange.touch(now);
+            exchange.onResponseData();
+            parser.parse(buffer);
+            if (parser.isComplete()) {
+                responseCompleted(now);
+            }
+        }
+    }
+
+    private void endOfStream() {
+        if (!exchanges.isEmpty() && parser.endOfStream()) {
+            closeAfterResponse = true;
+            responseCompleted(System.nanoTime());
+        }
+        close(new IOException(LocalizationMessages.CONNECTION_CLOSED(hostKey)));
+    }
+
+    private void responseCompleted(final long now) {
+        final HttpExchange exchange = exchanges.remove(0);
+        if (written > 0) {
+            written--;
+        } else {
+            // response received before the request has been completely sent - the connection cannot be reused
+            closeAfterResponse = true;
+        }
+        readSuspended = false;
+        exchange.onComplete();
+
+        if (closeAfterResponse) {
+            close(new IOException(LocalizationMessages.CONNECTION_CLOSED(hostKey)));
+        } else if (!exchanges.isEmpty()) {
+            parser.reset(exchanges.get(0).isHeadRequest());
+        } else {
+            idleSince = now;
+            pool.connectionReleased(this);
+        }
+    }
+
+    @Override
+    public void onHeaders(final int status, final String reason, final List<String> headerNames,
+                          final List<String> headerValues) {
+        exchanges.get(0).onHeaders(status, reason, headerNames, headerValues, loop.getMaxBufferedResponseBytes(),
+                resumeReading);
+    }
+
+    @Override
+    public void onContent(final ByteBuffer data) {
+        if (!exchanges.get(0).onContent(data)) {
+            readSuspended = true;
+        }
+    }
+
+    @Override
+    public void onComplete(final boolean closeConnection) {
+        closeAfterResponse |= closeConnection;
+    }
+
+    private void resumeRead() {
+        if (!closed && readSuspended) {
+            readSuspended = false;
+            updateInterest();
+        }
+    }
+
+    /**
+     * Abort the exchange processed by the connection. The connection is closed as its state is no longer
+     * consistent, any other exchanges assigned to the connection are retried or failed.
+     *
+     * @param exchange aborted exchange.
+     * @param cause    abort cause.
+     */
+    void abort(final HttpExchange exchange, final Throwable cause) {
+        exchange.fail(cause);
+        if (exchanges.remove(exchange)) {
+            close(new IOException(LocalizationMessages.CONNECTION_CLOSED(hostKey)));
+        }
+    }
+
+    /**
+     * Check the connect, read and idle timeouts of the connection.
+     *
+     * @param now         current time [nanoseconds].
+     * @param idleTimeout idle connection timeout in milliseconds, {@code 0} means no timeout.
+     */
+    void checkTimeouts(final long now, final long idleTimeout) {
+        if (closed) {
+            return;
+        }
+        if (!connected) {
+            if (connectTimeout > 0 && now - created > connectTimeout * 1000000L) {
+                final SocketTimeoutException timeout = new SocketTimeoutException(
+                        LocalizationMessages.CONNECT_TIMEOUT(hostKey, connectTimeout));
+                failAll(timeout);
+                close(timeout);
+            }
+        } else if (!exchanges.isEmpty()) {
+            final HttpExchange exchange = exchanges.get(0);
+            if (written > 0 && !readSuspended && exchange.isTimedOut(now)) {
+                exchanges.remove(0);
+                exchange.fail(new SocketTimeoutException(LocalizationMessages.READ_TIMEOUT(exchange.getReadTimeout())));
+                close(new IOException(LocalizationMessages.CONNECTION_CLOSED(hostKey)));
+            }
+        } else if (idleTimeout > 0 && now - idleSince > idleTimeout * 1000000L) {
+            close(new IOException(LocalizationMessages.CONNECTION_CLOSED(hostKey)));
+        }
+    }
+
+    private void failAll(final IOException cause) {
+        final List<HttpExchange> failed = new ArrayList<HttpExchange>(exchanges);
+        exchanges.clear();
+        for (final HttpExchange exchange : failed) {
+            exchange.fail(cause);
+        }
+    }
+
+    /**
+     * Close the connection. Exchanges assigned to the connection that may be safely retried are returned
+     * to the host pool, the other exchanges are failed.
+     *
+     * @param cause close cause.
+     */
+    void close(final IOException cause) {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        key.cancel();
+        closeChannel();
+
+        final List<HttpExchange> retried = new ArrayList<HttpExchange>();
+        for (final HttpExchange exchange : exchanges) {
+            if (exchange.prepareRetry()) {
+                retried.add(exchange);
+            } else {
+                exchange.fail(cause);
+            }
+        }
+        exchanges.clear();
+        written = 0;
+
+        pool.connectionClosed(this, retried);
+    }
+
+    private void closeChannel() {
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close the connection channel.", e);
+        }
+    }
+}
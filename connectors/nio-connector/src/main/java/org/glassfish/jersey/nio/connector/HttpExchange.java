@@ -0,0 +1,357 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.ws.rs.ProcessingException;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.message.internal.HeaderUtils;
+import org.glassfish.jersey.message.internal.Statuses;
+
+import jersey.repackaged.com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * A single HTTP request-response exchange processed by the {@link NioConnector}.
+ * <p>
+ * Apart from the construction and the request entity writing, the exchange is accessed only by the selector thread.
+ * </p>
+ */
+final class HttpExchange {
+
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+
+    private final ClientRequest request;
+    private final AsyncConnectorCallback callback;
+    private final SettableFuture<ClientResponse> responseFuture;
+    private final NioSelectorLoop loop;
+
+    private final InetSocketAddress address;
+    private final String hostKey;
+    private final boolean headRequest;
+    private final long readTimeout;
+    private final long connectTimeout;
+    private final AtomicBoolean callbackInvoked = new AtomicBoolean(false);
+
+    private volatile ByteBuffer head;
+    private volatile RequestEntityStream body;
+    private Map<String, String> headersSnapshot;
+
+    // accessed by the selector thread only
+    private HttpConnection connection;
+    private ClientResponse response;
+    private ResponseEntityStream responseStream;
+    private boolean responseStarted = false;
+    private boolean retried = false;
+    private long lastActivity;
+
+    /**
+     * Create new exchange.
+     *
+     * @param request        client request.
+     * @param callback       asynchronous connector callback.
+     * @param responseFuture future completed once the response has been fully received.
+     * @param loop           selector loop processing the exchange.
+     * @throws ProcessingException in case the request URI is not supported.
+     */
+    HttpExchange(final ClientRequest request,
+                 final AsyncConnectorCallback callback,
+                 final SettableFuture<ClientResponse> responseFuture,
+                 final NioSelectorLoop loop) {
+        this.request = request;
+        this.callback = callback;
+        this.responseFuture = responseFuture;
+        this.loop = loop;
+
+        final URI uri = request.getUri();
+        if (!"http".equalsIgnoreCase(uri.getScheme()) || uri.getHost() == null) {
+            throw new ProcessingException(LocalizationMessages.SCHEME_NOT_SUPPORTED(uri));
+        }
+        final int port = uri.getPort() == -1 ? 80 : uri.getPort();
+        this.address = new InetSocketAddress(uri.getHost(), port);
+        this.hostKey = uri.getHost().toLowerCase() + ':' + port;
+        this.headRequest = "HEAD".equalsIgnoreCase(request.getMethod());
+
+        final Integer timeout = request.resolveProperty(ClientProperties.READ_TIMEOUT, Integer.class);
+        this.readTimeout = (timeout == null || timeout < 0) ? 0 : timeout;
+        final Integer connect = request.resolveProperty(ClientProperties.CONNECT_TIMEOUT, Integer.class);
+        this.connectTimeout = (connect == null || connect < 0) ? 0 : connect;
+    }
+
+    /**
+     * Commit the request head. Invoked by the application thread once the request headers are final.
+     *
+     * @param hasEntity     {@code true} if the request has an entity.
+     * @param contentLength request entity length or {@code -1} if not known in advance.
+     * @return request entity stream or {@code null} if the request has no entity.
+     */
+    RequestEntityStream commit(final boolean hasEntity, final long contentLength) {
+        headersSnapshot = HeaderUtils.asStringHeadersSingleValue(request.getHeaders());
+
+        final URI uri = request.getUri();
+        final StringBuilder sb = new StringBuilder(256);
+        sb.append(request.getMethod()).append(' ');
+        final String path = uri.getRawPath();
+        sb.append(path == null || path.isEmpty() ? "/" : path);
+        if (uri.getRawQuery() != null) {
+            sb.append('?').append(uri.getRawQuery());
+        }
+        sb.append(" HTTP/1.1\r\n");
+
+        boolean hostSet = false;
+        boolean lengthSet = false;
+        for (final Map.Entry<String, String> header : headersSnapshot.entrySet()) {
+            final String name = header.getKey();
+            if ("Host".equalsIgnoreCase(name)) {
+                hostSet = true;
+            } else if ("Content-Length".equalsIgnoreCase(name) || "Transfer-Encoding".equalsIgnoreCase(name)) {
+                lengthSet = true;
+            }
+            sb.append(name).append(": ").append(header.getValue()).append("\r\n");
+        }
+        if (!hostSet) {
+            sb.append("Host: ").append(uri.getHost());
+            if (uri.getPort() != -1) {
+                sb.append(':').append(uri.getPort());
+            }
+            sb.append("\r\n");
+        }
+
+        boolean chunked = false;
+        if (hasEntity && !lengthSet) {
+            if (contentLength >= 0) {
+                sb.append("Content-Length: ").append(contentLength).append("\r\n");
+            } else {
+                sb.append("Transfer-Encoding: chunked\r\n");
+                chunked = true;
+            }
+        }
+        sb.append("\r\n");
+
+        if (hasEntity) {
+            body = new RequestEntityStream(chunked, new Runnable() {
+                @Override
+                public void run() {
+                    loop.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (connection != null) {
+                                connection.requestDataAvailable();
+                            }
+                        }
+                    });
+                }
+            });
+        }
+        head = ByteBuffer.wrap(sb.toString().getBytes(ISO_8859_1));
+        return body;
+    }
+
+    InetSocketAddress getAddress() {
+        return address;
+    }
+
+    String getHostKey() {
+        return hostKey;
+    }
+
+    boolean isHeadRequest() {
+        return headRequest;
+    }
+
+    /**
+     * Check whether the request may be pipelined and safely retried.
+     *
+     * @return {@code true} for idempotent requests without an entity.
+     */
+    boolean isIdempotent() {
+        return body == null && ("GET".equalsIgnoreCase(request.getMethod()) || headRequest);
+    }
+
+    ByteBuffer getHead() {
+        return head;
+    }
+
+    RequestEntityStream getBody() {
+        return body;
+    }
+
+    HttpConnection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Assign the exchange to a connection. Invoked by the selector thread.
+     *
+     * @param connection connection the exchange is assigned to.
+     * @param now        current time [nanoseconds].
+     */
+    void assign(final HttpConnection connection, final long now) {
+        this.connection = connection;
+        this.lastActivity = now;
+    }
+
+    /**
+     * Record an I/O activity on the exchange. Invoked by the selector thread.
+     *
+     * @param now current time [nanoseconds].
+     */
+    void touch(final long now) {
+        this.lastActivity = now;
+    }
+
+    /**
+     * Check whether the exchange read timeout has elapsed.
+     *
+     * @param now current time [nanoseconds].
+     * @return {@code true} if no data have been received for longer than the read timeout.
+     */
+    boolean isTimedOut(final long now) {
+        return readTimeout > 0 && now - lastActivity > readTimeout * 1000000L;
+    }
+
+    long getReadTimeout() {
+        return readTimeout;
+    }
+
+    long getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    /**
+     * Check whether the exchange may be retried on another connection after the connection has been lost.
+     *
+     * @return {@code true} if the exchange has not received any response data yet and may be safely retried.
+     */
+    boolean prepareRetry() {
+        if (retried || responseStarted || !isIdempotent()) {
+            return false;
+        }
+        retried = true;
+        head.rewind();
+        connection = null;
+        return true;
+    }
+
+    void onResponseData() {
+        responseStarted = true;
+    }
+
+    /**
+     * Process the received response head. Invoked by the selector thread.
+     *
+     * @param status        response status code.
+     * @param reason        response reason phrase.
+     * @param headerNames   response header names.
+     * @param headerValues  response header values.
+     * @param maxBuffered   maximum number of buffered response entity bytes.
+     * @param resumeReading task resuming the reading from the connection.
+     */
+    void onHeaders(final int status, final String reason, final List<String> headerNames, final List<String> headerValues,
+                   final int maxBuffered, final Runnable resumeReading) {
+        HeaderUtils.checkHeaderChanges(headersSnapshot, request.getHeaders(), NioConnector.class.getName());
+
+        response = new ClientResponse(reason == null || reason.isEmpty()
+                ? Statuses.from(status) : Statuses.from(status, reason), request);
+        for (int i = 0; i < headerNames.size(); i++) {
+            response.getHeaders().add(headerNames.get(i), headerValues.get(i));
+        }
+        responseStream = new ResponseEntityStream(maxBuffered, resumeReading);
+        response.setEntityStream(responseStream);
+
+        if (callbackInvoked.compareAndSet(false, true)) {
+            callback.response(response);
+        }
+    }
+
+    /**
+     * Process received response entity data. Invoked by the selector thread.
+     *
+     * @param data response entity data.
+     * @return {@code true} if the reading may continue, {@code false} if the reading should be suspended.
+     */
+    boolean onContent(final ByteBuffer data) {
+        return responseStream.put(data);
+    }
+
+    /**
+     * Complete the exchange. Invoked by the selector thread.
+     */
+    void onComplete() {
+        responseStream.complete();
+        responseFuture.set(response);
+    }
+
+    /**
+     * Fail the exchange.
+     *
+     * @param cause failure cause.
+     */
+    void fail(final Throwable cause) {
+        final IOException ioFailure = cause instanceof IOException ? (IOException) cause : new IOException(cause);
+
+        final RequestEntityStream requestStream = body;
+        if (requestStream != null) {
+            requestStream.fail(ioFailure);
+        }
+        if (responseStream != null) {
+            responseStream.fail(ioFailure);
+        }
+
+        if (callbackInvoked.compareAndSet(false, true)) {
+            final Throwable failure = cause instanceof ProcessingException ? cause : new ProcessingException(cause);
+            callback.failure(failure);
+            responseFuture.setException(failure);
+        } else {
+            responseFuture.setException(cause);
+        }
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Incremental HTTP/1.1 response parser.
+ * <p>
+ * The parser is fed with the data read from a connection as they arrive and reports the parsed response
+ * head, entity data and response completion to a {@link Listener}. It supports fixed-length, chunked and
+ * connection-close delimited entities and skips any interim ({@code 1xx}) responses.
+ * </p>
+ * <p>
+ * Instances are not thread-safe; a parser is used by the selector thread of a single connection and
+ * {@link #reset(boolean) reset} for every response.
+ * </p>
+ */
+final class HttpResponseParser {
+
+    private static final Charset ISO_8859_1 = Charset.forName("ISO-8859-1");
+    /**
+     * Maximum length of the response head (status line and headers), trailers and chunk size lines.
+     */
+    private static final int MAX_HEAD_LENGTH = 64 * 1024;
+
+    /**
+     * Parsed response events listener.
+     */
+    interface Listener {
+
+        /**
+         * Invoked when the response status line and headers have been parsed.
+         *
+         * @param status       response status code.
+         * @param reason       response reason phrase.
+         * @param headerNames  response header names.
+         * @param headerValues response header values, in the same order as the names.
+         */
+        void onHeaders(int status, String reason, List<String> headerNames, List<String> headerValues);
+
+        /**
+         * Invoked when a part of the response entity has been parsed.
+         *
+         * @param data response entity data. The buffer is not reused by the parser.
+         */
+        void onContent(ByteBuffer data);
+
+        /**
+         * Invoked when the response has been fully parsed.
+         *
+         * @param closeConnection {@code true} if the connection must not be reused for another request.
+         */
+        void onComplete(boolean closeConnection);
+    }
+
+    private static enum State {
+        STATUS_LINE,
+        HEADERS,
+        FIXED_BODY,
+        CHUNK_SIZE,
+        CHUNK_DATA,
+        CHUNK_END,
+        TRAILERS,
+        UNTIL_CLOSE_BODY,
+        COMPLETE
+    }
+
+    private final Listener listener;
+
+    private State state = State.COMPLETE;
+    private boolean headRequest;
+
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int headLength;
+
+    private boolean http10;
+    private int status;
+    private String reason;
+    private final List<String> headerNames = new ArrayList<String>();
+    private final List<String> headerValues = new ArrayList<String>();
+
+    private long remaining;
+    private boolean closeConnection;
+
+    /**
+     * Create new response parser.
+     *
+     * @param listener parsed response events listener.
+     */
+    HttpResponseParser(final Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Prepare the parser for parsing a new response.
+     *
+     * @param headRequest {@code true} if the response is a response to a {@code HEAD} request,
+     *                    i.e. the response does not contain any entity.
+     */
+    void reset(final boolean headRequest) {
+        this.headRequest = headRequest;
+        resetHead();
+    }
+
+    private void resetHead() {
+        state = State.STATUS_LINE;
+        lineLength = 0;
+        headLength = 0;
+        headerNames.clear();
+        headerValues.clear();
+        closeConnection = false;
+    }
+
+    /**
+     * Check whether the response has been completely parsed.
+     *
+     * @return {@code true} if the response has been completely parsed.
+     */
+    boolean isComplete() {
+        return state == State.COMPLETE;
+    }
+
+    /**
+     * Check whether the response head has been parsed.
+     *
+     * @return {@code true} if at least the response head has been parsed.
+     */
+    boolean isHeadParsed() {
+        return state != State.STATUS_LINE && state != State.HEADERS;
+    }
+
+    /**
+     * Parse the response data available in the buffer.
+     * <p>
+     * The method returns once all the data have been consumed or once the response has been
+     * {@link #isComplete() completed}. In the latter case, any data remaining in the buffer belong
+     * to the next (pipelined) response.
+     * </p>
+     *
+     * @param buffer response data.
+     * @throws IOException in case the response is not a valid HTTP response.
+     */
+    void parse(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining() && state != State.COMPLETE) {
+            switch (state) {
+                case STATUS_LINE:
+                    if (readLine(buffer)) {
+                        parseStatusLine();
+                    }
+                    break;
+                case HEADERS:
+                    if (readLine(buffer)) {
+                        if (lineLength == 0) {
+                            headersComplete();
+                        } else {
+                            parseHeader();
+                        }
+                    }
+                    break;
+                case FIXED_BODY:
+                    remaining -= content(buffer, remaining);
+                    if (remaining == 0) {
+                        complete();
+                    }
+                    break;
+                case CHUNK_SIZE:
+                    if (readLine(buffer)) {
+                        headLength = 0;
+                        parseChunkSize();
+                    }
+                    break;
+                case CHUNK_DATA:
+                    remaining -= content(buffer, remaining);
+                    if (remaining == 0) {
+                        state = State.CHUNK_END;
+                    }
+                    break;
+                case CHUNK_END:
+                    if (readLine(buffer)) {
+                        headLength = 0;
+                        if (lineLength != 0) {
+                            throw invalid("missing CRLF after chunk data");
+                        }
+                        state = State.CHUNK_SIZE;
+                    }
+                    break;
+                case TRAILERS:
+                    if (readLine(buffer)) {
+                        // trailers are ignored
+                        final boolean end = lineLength == 0;
+                        lineLength = 0;
+                        if (end) {
+                            complete();
+                        }
+                    }
+                    break;
+                case UNTIL_CLOSE_BODY:
+                    content(buffer, buffer.remaining());
+                    break;
+                default:
+                    throw new IllegalStateException(state.name());
+            }
+        }
+    }
+
+    /**
+     * Signal the end of the response data stream (i.e. the connection has been closed by the server).
+     *
+     * @return {@code true} if the end of stream completed the response, {@code false} if the response
+     * has been truncated.
+     */
+    boolean endOfStream() {
+        if (state == State.UNTIL_CLOSE_BODY) {
+            complete();
+            return true;
+        }
+        return state == State.COMPLETE;
+    }
+
+    private boolean readLine(final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            final byte b = buffer.get();
+            if (++headLength > MAX_HEAD_LENGTH) {
+                throw invalid("response head too long");
+            }
+            if (b == '\n') {
+                if (lineLength > 0 && line[lineLength - 1] == '\r') {
+                    lineLength--;
+                }
+                return true;
+            }
+            if (lineLength == line.length) {
+                line = Arrays.copyOf(line, line.length * 2);
+            }
+            line[lineLength++] = b;
+        }
+        return false;
+    }
+
+    private String takeLine(final int from, final int to) {
+        return new String(line, from, to - from, ISO_8859_1);
+    }
+
+    private void parseStatusLine() throws IOException {
+        final int length = lineLength;
+        lineLength = 0;
+        if (length == 0) {
+            // tolerate empty lines before the status line
+            return;
+        }
+
+        final String statusLine = takeLine(0, length);
+        if (!statusLine.startsWith("HTTP/1.")) {
+            throw invalid(statusLine);
+        }
+        final int codeStart = statusLine.indexOf(' ');
+        if (codeStart < 0 || statusLine.length() < codeStart + 4) {
+            throw invalid(statusLine);
+        }
+        try {
+            status = Integer.parseInt(statusLine.substring(codeStart + 1, codeStart + 4));
+        } catch (final NumberFormatException e) {
+            throw invalid(statusLine);
+        }
+        reason = statusLine.length() > codeStart + 5 ? statusLine.substring(codeStart + 5) : "";
+        http10 = statusLine.startsWith("HTTP/1.0");
+        state = State.HEADERS;
+    }
+
+    private void parseHeader() throws IOException {
+        final int length = lineLength;
+        lineLength = 0;
+
+        if (line[0] == ' ' || line[0] == '\t') {
+            // obsolete line folding - append to the previous header value
+            if (headerValues.isEmpty()) {
+                throw invalid(takeLine(0, length));
+            }
+            final int last = headerValues.size() - 1;
+            headerValues.set(last, headerValues.get(last) + ' ' + takeLine(0, length).trim());
+            return;
+        }
+
+        int colon = 0;
+        while (colon < length && line[colon] != ':') {
+            colon++;
+        }
+        if (colon == 0 || colon == length) {
+            throw invalid(takeLine(0, length));
+        }
+        headerNames.add(takeLine(0, colon).trim());
+        headerValues.add(takeLine(colon + 1, length).trim());
+    }
+
+    private void headersComplete() throws IOException {
+        lineLength = 0;
+        if (status >= 100 && status < 200 && status != 101) {
+            // interim response - wait for the final one
+            final boolean head = headRequest;
+            resetHead();
+            headRequest = head;
+            return;
+        }
+
+        long contentLength = -1;
+        boolean chunked = false;
+        boolean keepAlive = false;
+        for (int i = 0; i < headerNames.size(); i++) {
+            final String name = headerNames.get(i);
+            final String value = headerValues.get(i);
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                try {
+                    contentLength = Long.parseLong(value);
+                } catch (final NumberFormatException e) {
+                    throw invalid("Content-Length: " + value);
+                }
+            } else if ("Transfer-Encoding".equalsIgnoreCase(name)) {
+                chunked = value.toLowerCase().endsWith("chunked");
+            } else if ("Connection".equalsIgnoreCase(name)) {
+                final String connection = value.toLowerCase();
+                if (connection.contains("close")) {
+                    closeConnection = true;
+                } else if (connection.contains("keep-alive")) {
+                    keepAlive = true;
+                }
+            }
+        }
+        if (http10 && !keepAlive) {
+            closeConnection = true;
+        }
+
+        listener.onHeaders(status, reason, headerNames, headerValues);
+
+        if (headRequest || status == 204 || status == 304 || status == 101) {
+            complete();
+        } else if (chunked) {
+            state = State.CHUNK_SIZE;
+        } else if (contentLength >= 0) {
+            remaining = contentLength;
+            if (remaining == 0) {
+                complete();
+            } else {
+                state = State.FIXED_BODY;
+            }
+        } else {
+            closeConnection = true;
+            state = State.UNTIL_CLOSE_BODY;
+        }
+    }
+
+    private void parseChunkSize() throws IOException {
+        final int length = lineLength;
+        lineLength = 0;
+
+        int end = 0;
+        while (end < length && line[end] != ';' && line[end] != ' ') {
+            end++;
+        }
+        final String size = takeLine(0, end);
+        try {
+            remaining = Long.parseLong(size, 16);
+        } catch (final NumberFormatException e) {
+            throw invalid("chunk size " + size);
+        }
+        if (remaining < 0) {
+            throw invalid("chunk size " + size);
+        }
+
+        if (remaining == 0) {
+            headLength = 0;
+            state = State.TRAILERS;
+        } else {
+            state = State.CHUNK_DATA;
+        }
+    }
+
+    private long content(final ByteBuffer buffer, final long max) {
+        final int length = (int) Math.min(max, buffer.remaining());
+        final byte[] data = new byte[length];
+        buffer.get(data);
+        listener.onContent(ByteBuffer.wrap(data));
+        return length;
+    }
+
+    private void complete() {
+        state = State.COMPLETE;
+        listener.onComplete(closeConnection);
+    }
+
+    private static IOException invalid(final String detail) {
+        return new IOException(LocalizationMessages.INVALID_RESPONSE(detail));
+    }
+}
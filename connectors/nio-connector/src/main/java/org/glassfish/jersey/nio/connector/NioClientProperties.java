@@ -0,0 +1,152 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.util.Map;
+
+import org.glassfish.jersey.internal.util.PropertiesClass;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+
+/**
+ * Configuration options specific to the Client API that utilizes {@link NioConnectorProvider}.
+ *
+ * @since 2.18
+ */
+@PropertiesClass
+public final class NioClientProperties {
+
+    /**
+     * Prevents instantiation.
+     */
+    private NioClientProperties() {
+        throw new AssertionError("No instances allowed.");
+    }
+
+    /**
+     * Maximum number of connections opened to a single host (and port).
+     * <p>
+     * Requests that cannot be served by an open connection when the limit is reached are queued
+     * until a connection becomes available.
+     * </p>
+     * <p>
+     * The value MUST be an instance of {@link java.lang.Integer}.
+     * If the property is absent the default value is {@value #DEFAULT_MAX_CONNECTIONS_PER_HOST}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     */
+    public static final String MAX_CONNECTIONS_PER_HOST = "jersey.config.nio.client.maxConnectionsPerHost";
+
+    /**
+     * Default value of the {@link #MAX_CONNECTIONS_PER_HOST} property.
+     */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 8;
+
+    /**
+     * Maximum number of requests sent on a single connection before the response to the first one
+     * has been fully received (HTTP/1.1 pipelining).
+     * <p>
+     * Only requests without an entity and using the {@code GET} or {@code HEAD} method are pipelined.
+     * A value of {@code 1} disables pipelining.
+     * </p>
+     * <p>
+     * The value MUST be an instance of {@link java.lang.Integer}.
+     * If the property is absent the default value is {@code 1}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     */
+    public static final String PIPELINING_LIMIT = "jersey.config.nio.client.pipeliningLimit";
+
+    /**
+     * Time in milliseconds after which an idle pooled connection is closed.
+     * <p>
+     * The value MUST be an instance of {@link java.lang.Integer}.
+     * If the property is absent the default value is {@value #DEFAULT_IDLE_TIMEOUT}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     */
+    public static final String IDLE_TIMEOUT = "jersey.config.nio.client.idleTimeout";
+
+    /**
+     * Default value of the {@link #IDLE_TIMEOUT} property.
+     */
+    public static final int DEFAULT_IDLE_TIMEOUT = 60000;
+
+    /**
+     * Maximum number of response entity bytes buffered by the connector for a single response.
+     * <p>
+     * Once the limit is reached, the connector stops reading from the connection until the application
+     * consumes some of the buffered data from the response entity stream.
+     * </p>
+     * <p>
+     * The value MUST be an instance of {@link java.lang.Integer}.
+     * If the property is absent the default value is {@value #DEFAULT_MAX_BUFFERED_RESPONSE_BYTES}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     */
+    public static final String MAX_BUFFERED_RESPONSE_BYTES = "jersey.config.nio.client.maxBufferedResponseBytes";
+
+    /**
+     * Default value of the {@link #MAX_BUFFERED_RESPONSE_BYTES} property.
+     */
+    public static final int DEFAULT_MAX_BUFFERED_RESPONSE_BYTES = 256 * 1024;
+
+    /**
+     * Get the value of the specified property.
+     *
+     * If the property is not set or the real value type is not compatible with the specified value type, returns {@code null}.
+     *
+     * @param properties Map of properties to get the property value from.
+     * @param key        Name of the property.
+     * @param type       Type to retrieve the value as.
+     * @param <T>        Type of the property value.
+     * @return Value of the property or {@code null}.
+     */
+    public static <T> T getValue(final Map<String, ?> properties, final String key, final Class<T> type) {
+        return PropertiesHelper.getValue(properties, key, type, null);
+    }
+}
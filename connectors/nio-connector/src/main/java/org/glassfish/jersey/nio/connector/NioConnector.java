@@ -0,0 +1,215 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.UnknownHostException;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.Configuration;
+
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.message.internal.OutboundMessageContext;
+
+import jersey.repackaged.com.google.common.util.concurrent.FutureCallback;
+import jersey.repackaged.com.google.common.util.concurrent.Futures;
+import jersey.repackaged.com.google.common.util.concurrent.SettableFuture;
+
+/**
+ * A {@link Connector} that uses non-blocking NIO socket channels served by a single selector thread.
+ * <p>
+ * The synchronous {@link #apply(ClientRequest)} method blocks the calling thread only until the response
+ * headers are received, the response entity is streamed afterwards. The asynchronous
+ * {@link #apply(ClientRequest, AsyncConnectorCallback)} method does not block the calling thread
+ * except while the request entity is being written.
+ * </p>
+ */
+class NioConnector implements Connector {
+
+    private final NioSelectorLoop loop;
+
+    /**
+     * Create the new NIO connector.
+     *
+     * @param config client runtime configuration.
+     */
+    NioConnector(final Configuration config) {
+        final Map<String, Object> properties = config.getProperties();
+        try {
+            this.loop = new NioSelectorLoop(
+                    intValue(properties, NioClientProperties.MAX_CONNECTIONS_PER_HOST,
+                            NioClientProperties.DEFAULT_MAX_CONNECTIONS_PER_HOST),
+                    intValue(properties, NioClientProperties.PIPELINING_LIMIT, 1),
+                    intValue(properties, NioClientProperties.IDLE_TIMEOUT, NioClientProperties.DEFAULT_IDLE_TIMEOUT),
+                    intValue(properties, NioClientProperties.MAX_BUFFERED_RESPONSE_BYTES,
+                            NioClientProperties.DEFAULT_MAX_BUFFERED_RESPONSE_BYTES));
+        } catch (final IOException e) {
+            throw new ProcessingException("Failed to open the connector selector.", e);
+        }
+    }
+
+    private static int intValue(final Map<String, Object> properties, final String name, final int defaultValue) {
+        final Integer value = NioClientProperties.getValue(properties, name, Integer.class);
+        return value == null ? defaultValue : value;
+    }
+
+    @Override
+    public ClientResponse apply(final ClientRequest request) throws ProcessingException {
+        final SettableFuture<ClientResponse> headersReceived = SettableFuture.create();
+        final HttpExchange exchange = dispatch(request, new AsyncConnectorCallback() {
+            @Override
+            public void response(final ClientResponse response) {
+                headersReceived.set(response);
+            }
+
+            @Override
+            public void failure(final Throwable failure) {
+                headersReceived.setException(failure);
+            }
+        }, SettableFuture.<ClientResponse>create());
+
+        try {
+            return headersReceived.get();
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ProcessingException) {
+                throw (ProcessingException) cause;
+            }
+            throw new ProcessingException(cause);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            final ProcessingException failure = new ProcessingException(e);
+            loop.abort(exchange, failure);
+            throw failure;
+        }
+    }
+
+    @Override
+    public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+        final SettableFuture<ClientResponse> responseFuture = SettableFuture.create();
+        try {
+            final HttpExchange exchange = dispatch(request, callback, responseFuture);
+            Futures.addCallback(responseFuture, new FutureCallback<ClientResponse>() {
+                @Override
+                public void onSuccess(final ClientResponse result) {
+                }
+
+                @Override
+                public void onFailure(final Throwable t) {
+                    if (t instanceof CancellationException) {
+                        // take care of future cancellation
+                        loop.abort(exchange, t);
+                    }
+                }
+            });
+            return responseFuture;
+        } catch (final ProcessingException e) {
+            callback.failure(e);
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
+    /**
+     * Create a new exchange for the request and submit it to the selector loop.
+     * <p>
+     * If the request has an entity, the exchange is submitted once the request headers are committed and
+     * the entity is written by the calling thread. Any failure that occurs after the exchange has been created
+     * is reported to the callback.
+     * </p>
+     *
+     * @param request        client request.
+     * @param callback       callback notified about the response headers or a failure.
+     * @param responseFuture future completed once the response has been fully received.
+     * @return submitted exchange.
+     * @throws ProcessingException in case the exchange cannot be created.
+     */
+    private HttpExchange dispatch(final ClientRequest request,
+                                  final AsyncConnectorCallback callback,
+                                  final SettableFuture<ClientResponse> responseFuture) throws ProcessingException {
+        final HttpExchange exchange = new HttpExchange(request, callback, responseFuture, loop);
+        if (exchange.getAddress().isUnresolved()) {
+            throw new ProcessingException(new UnknownHostException(exchange.getAddress().getHostName()));
+        }
+
+        if (request.hasEntity()) {
+            request.setStreamProvider(new OutboundMessageContext.StreamProvider() {
+                @Override
+                public OutputStream getOutputStream(final int contentLength) throws IOException {
+                    final RequestEntityStream body = exchange.commit(true, contentLength);
+                    if (!loop.submit(exchange)) {
+                        throw new IOException(LocalizationMessages.CONNECTOR_CLOSED());
+                    }
+                    return body;
+                }
+            });
+            try {
+                request.writeEntity();
+            } catch (final IOException e) {
+                loop.abort(exchange, new ProcessingException(LocalizationMessages.REQUEST_ENTITY_WRITE_FAILED(), e));
+            } catch (final RuntimeException e) {
+                loop.abort(exchange, e);
+            }
+        } else {
+            exchange.commit(false, -1);
+            if (!loop.submit(exchange)) {
+                throw new ProcessingException(LocalizationMessages.CONNECTOR_CLOSED());
+            }
+        }
+        return exchange;
+    }
+
+    @Override
+    public String getName() {
+        return "NIO connector";
+    }
+
+    @Override
+    public void close() {
+        loop.close();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.core.Configuration;
+
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+
+/**
+ * Connector provider for Jersey {@link Connector connectors} that use non-blocking NIO socket channels
+ * to send and receive HTTP/1.1 requests and responses without any third-party HTTP client library.
+ * <p>
+ * All connections of a connector are served by a single selector thread, so an outstanding request does not
+ * hold a thread while waiting for the response. Connections are pooled per host with an explicit
+ * {@link NioClientProperties#MAX_CONNECTIONS_PER_HOST limit} and idempotent requests may be
+ * {@link NioClientProperties#PIPELINING_LIMIT pipelined}. Request and response entities are streamed.
+ * </p>
+ * <p>
+ * The following properties are supported:
+ * <ul>
+ * <li>{@link org.glassfish.jersey.client.ClientProperties#CONNECT_TIMEOUT}</li>
+ * <li>{@link org.glassfish.jersey.client.ClientProperties#READ_TIMEOUT}</li>
+ * <li>{@link NioClientProperties#MAX_CONNECTIONS_PER_HOST}</li>
+ * <li>{@link NioClientProperties#PIPELINING_LIMIT}</li>
+ * <li>{@link NioClientProperties#IDLE_TIMEOUT}</li>
+ * <li>{@link NioClientProperties#MAX_BUFFERED_RESPONSE_BYTES}</li>
+ * </ul>
+ * </p>
+ * <p>
+ * The connector supports only plain {@code http} requests; proxies and redirect following are not supported.
+ * </p>
+ * <p>
+ * Typical usage:
+ * </p>
+ * <pre>
+ * {@code
+ * ClientConfig config = new ClientConfig();
+ * config.connectorProvider(new NioConnectorProvider());
+ * Client client = ClientBuilder.newClient(config);
+ * }
+ * </pre>
+ *
+ * @since 2.18
+ */
+public class NioConnectorProvider implements ConnectorProvider {
+
+    @Override
+    public Connector getConnector(final Client client, final Configuration runtimeConfig) {
+        return new NioConnector(runtimeConfig);
+    }
+}
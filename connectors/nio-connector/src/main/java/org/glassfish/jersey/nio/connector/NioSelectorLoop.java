@@ -0,0 +1,280 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jersey.repackaged.com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Selector loop of the {@link NioConnector}.
+ * <p>
+ * A single daemon thread multiplexes all the connections of the connector. Any state of the host pools,
+ * connections and exchanges is modified only by the selector thread, other threads submit tasks
+ * to the loop using the {@link #execute(Runnable)} method.
+ * </p>
+ */
+final class NioSelectorLoop implements Runnable {
+
+    private static final Logger LOGGER = Logger.getLogger(NioSelectorLoop.class.getName());
+
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final long SELECT_TIMEOUT = 100;
+    private static final long TIMEOUT_CHECK_PERIOD = SELECT_TIMEOUT * 1000000L;
+
+    private final Selector selector;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private final Map<String, HostPool> pools = new HashMap<String, HostPool>();
+
+    private final int maxConnectionsPerHost;
+    private final int pipeliningLimit;
+    private final long idleTimeout;
+    private final int maxBufferedResponseBytes;
+
+    // guarded by tasks
+    private final Queue<Runnable> tasks = new ArrayDeque<Runnable>();
+    private volatile boolean closed = false;
+
+    private long lastTimeoutCheck = System.nanoTime();
+
+    /**
+     * Create new selector loop and start the selector thread.
+     *
+     * @param maxConnectionsPerHost    maximum number of connections per remote host.
+     * @param pipeliningLimit          maximum number of exchanges pipelined on a single connection.
+     * @param idleTimeout              idle connection timeout in milliseconds, {@code 0} means no timeout.
+     * @param maxBufferedResponseBytes maximum number of buffered response entity bytes per exchange.
+     * @throws IOException in case the selector could not be opened.
+     */
+    NioSelectorLoop(final int maxConnectionsPerHost,
+                    final int pipeliningLimit,
+                    final long idleTimeout,
+                    final int maxBufferedResponseBytes) throws IOException {
+        this.maxConnectionsPerHost = Math.max(1, maxConnectionsPerHost);
+        this.pipeliningLimit = Math.max(1, pipeliningLimit);
+        this.idleTimeout = Math.max(0, idleTimeout);
+        this.maxBufferedResponseBytes = Math.max(1, maxBufferedResponseBytes);
+
+        this.selector = Selector.open();
+        new ThreadFactoryBuilder()
+                .setNameFormat("jersey-nio-connector-selector-%d")
+                .setDaemon(true)
+                .build()
+                .newThread(this)
+                .start();
+    }
+
+    Selector getSelector() {
+        return selector;
+    }
+
+    ByteBuffer getReadBuffer() {
+        return readBuffer;
+    }
+
+    int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    int getPipeliningLimit() {
+        return pipeliningLimit;
+    }
+
+    int getMaxBufferedResponseBytes() {
+        return maxBufferedResponseBytes;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Execute the task in the selector thread.
+     *
+     * @param task task to be executed.
+     * @return {@code true} if the task has been accepted, {@code false} if the loop has already been closed.
+     */
+    boolean execute(final Runnable task) {
+        synchronized (tasks) {
+            if (closed) {
+                return false;
+            }
+            tasks.add(task);
+        }
+        selector.wakeup();
+        return true;
+    }
+
+    /**
+     * Submit a new exchange for processing.
+     *
+     * @param exchange exchange to be processed.
+     * @return {@code true} if the exchange has been accepted, {@code false} if the loop has already been closed.
+     */
+    boolean submit(final HttpExchange exchange) {
+        return execute(new Runnable() {
+            @Override
+            public void run() {
+                HostPool pool = pools.get(exchange.getHostKey());
+                if (pool == null) {
+                    pool = new HostPool(NioSelectorLoop.this);
+                    pools.put(exchange.getHostKey(), pool);
+                }
+                pool.submit(exchange);
+            }
+        });
+    }
+
+    /**
+     * Abort the exchange.
+     *
+     * @param exchange aborted exchange.
+     * @param cause    abort cause.
+     */
+    void abort(final HttpExchange exchange, final Throwable cause) {
+        final boolean accepted = execute(new Runnable() {
+            @Override
+            public void run() {
+                final HostPool pool = pools.get(exchange.getHostKey());
+                if (pool != null) {
+                    pool.abort(exchange, cause);
+                } else {
+                    exchange.fail(cause);
+                }
+            }
+        });
+        if (!accepted) {
+            exchange.fail(cause);
+        }
+    }
+
+    /**
+     * Close the loop. All the connections are closed and all the pending exchanges are failed.
+     */
+    void close() {
+        synchronized (tasks) {
+            closed = true;
+        }
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!closed) {
+                runTasks();
+                selector.select(SELECT_TIMEOUT);
+
+                final long now = System.nanoTime();
+                final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    final SelectionKey key = keys.next();
+                    keys.remove();
+                    ((HttpConnection) key.attachment()).handle(now);
+                }
+
+                if (now - lastTimeoutCheck >= TIMEOUT_CHECK_PERIOD) {
+                    lastTimeoutCheck = now;
+                    checkTimeouts(now);
+                }
+            }
+        } catch (final Throwable t) {
+            LOGGER.log(Level.SEVERE, "Selector loop of the NIO connector failed.", t);
+            close();
+        } finally {
+            shutdown();
+        }
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = pollTask()) != null) {
+            try {
+                task.run();
+            } catch (final RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Selector loop task of the NIO connector failed.", e);
+            }
+        }
+    }
+
+    private Runnable pollTask() {
+        synchronized (tasks) {
+            return tasks.poll();
+        }
+    }
+
+    private void checkTimeouts(final long now) {
+        final Iterator<HostPool> iterator = pools.values().iterator();
+        while (iterator.hasNext()) {
+            final HostPool pool = iterator.next();
+            pool.checkTimeouts(now, idleTimeout);
+            if (pool.isUnused()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void shutdown() {
+        // tasks submitted before the loop has been closed
+        runTasks();
+
+        final IOException cause = new IOException(LocalizationMessages.CONNECTOR_CLOSED());
+        for (final HostPool pool : pools.values()) {
+            pool.close(cause);
+        }
+        pools.clear();
+
+        try {
+            selector.close();
+        } catch (final IOException e) {
+            LOGGER.log(Level.FINE, "Failed to close the selector.", e);
+        }
+    }
+}
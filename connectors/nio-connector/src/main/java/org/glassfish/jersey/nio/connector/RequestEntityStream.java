@@ -0,0 +1,229 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Request entity output stream drained by the selector thread of a connection.
+ * <p>
+ * The data written by the application are published to the connection in buffers of limited size.
+ * The writing thread blocks once the amount of published data not yet written to the connection reaches
+ * the limit, so that a slow server does not cause the whole entity to be buffered in memory.
+ * If the length of the entity is not known in advance, the entity is sent using the chunked transfer coding.
+ * </p>
+ */
+final class RequestEntityStream extends OutputStream {
+
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(ASCII);
+
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_PENDING = 8 * BUFFER_SIZE;
+
+    private final boolean chunked;
+    private final Runnable dataAvailable;
+
+    // accessed by the writing thread only
+    private ByteBuffer current;
+    private boolean closed = false;
+
+    // guarded by this
+    private final Deque<ByteBuffer> pending = new ArrayDeque<ByteBuffer>();
+    private long pendingBytes = 0;
+    private boolean complete = false;
+    private IOException failure = null;
+
+    /**
+     * Create new request entity stream.
+     *
+     * @param chunked       if {@code true}, the entity data are sent using the chunked transfer coding.
+     * @param dataAvailable task invoked (in the writing thread) when new data have been published to the connection.
+     */
+    RequestEntityStream(final boolean chunked, final Runnable dataAvailable) {
+        this.chunked = chunked;
+        this.dataAvailable = dataAvailable;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        ensureOpen();
+        if (current == null) {
+            current = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+        current.put((byte) b);
+        if (!current.hasRemaining()) {
+            publishCurrent();
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            if (current == null) {
+                current = ByteBuffer.allocate(BUFFER_SIZE);
+            }
+            final int count = Math.min(len, current.remaining());
+            current.put(b, off, count);
+            off += count;
+            len -= count;
+            if (!current.hasRemaining()) {
+                publishCurrent();
+            }
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        publishCurrent();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        publishCurrent();
+        closed = true;
+        if (chunked) {
+            publish(ByteBuffer.wrap(LAST_CHUNK));
+        }
+        synchronized (this) {
+            complete = true;
+        }
+        dataAvailable.run();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException(LocalizationMessages.ENTITY_STREAM_CLOSED());
+        }
+    }
+
+    private void publishCurrent() throws IOException {
+        if (current == null || current.position() == 0) {
+            return;
+        }
+        current.flip();
+        final ByteBuffer data;
+        if (chunked) {
+            final byte[] size = Integer.toHexString(current.remaining()).getBytes(ASCII);
+            data = ByteBuffer.allocate(size.length + current.remaining() + 2 * CRLF.length);
+            data.put(size).put(CRLF).put(current).put(CRLF);
+            data.flip();
+        } else {
+            data = current;
+        }
+        current = null;
+        publish(data);
+    }
+
+    private void publish(final ByteBuffer data) throws IOException {
+        synchronized (this) {
+            while (pendingBytes >= MAX_PENDING && failure == null) {
+                try {
+                    wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException(e.getMessage());
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            pending.add(data);
+            pendingBytes += data.remaining();
+        }
+        dataAvailable.run();
+    }
+
+    /**
+     * Get the next buffer of entity data to be written to the connection. Invoked by the selector thread.
+     *
+     * @return next buffer to be written or {@code null} if there are no data available at the moment.
+     */
+    synchronized ByteBuffer peek() {
+        return pending.peek();
+    }
+
+    /**
+     * Signal that the buffer returned by {@link #peek()} has been fully written to the connection.
+     * Invoked by the selector thread.
+     */
+    synchronized void consumed() {
+        final ByteBuffer data = pending.poll();
+        if (data != null) {
+            pendingBytes -= data.limit();
+            notifyAll();
+        }
+    }
+
+    /**
+     * Check whether all the entity data have been published and written to the connection.
+     *
+     * @return {@code true} if the entity has been fully written.
+     */
+    synchronized boolean isComplete() {
+        return complete && pending.isEmpty();
+    }
+
+    /**
+     * Fail the stream. Any pending or subsequent write from the writing thread fails with the given cause.
+     *
+     * @param cause failure cause.
+     */
+    synchronized void fail(final IOException cause) {
+        if (failure == null) {
+            failure = cause;
+        }
+        pending.clear();
+        pendingBytes = 0;
+        notifyAll();
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Response entity input stream fed by the selector thread of a connection.
+ * <p>
+ * The stream buffers the response entity data received from the connection until they are read by the application.
+ * Once the amount of buffered data reaches the configured limit, the stream asks the connection to stop reading
+ * and resumes the reading once the application has consumed at least half of the buffered data.
+ * </p>
+ */
+final class ResponseEntityStream extends InputStream {
+
+    private final int maxBuffered;
+    private final Runnable resumeReading;
+
+    // guarded by this
+    private final Deque<ByteBuffer> buffers = new ArrayDeque<ByteBuffer>();
+    private long buffered = 0;
+    private boolean suspended = false;
+    private boolean eof = false;
+    private boolean closed = false;
+    private IOException failure = null;
+
+    /**
+     * Create new response entity stream.
+     *
+     * @param maxBuffered   maximum number of buffered bytes before the reading from the connection is suspended.
+     * @param resumeReading task invoked (in the reading thread) when the reading from the connection should be resumed.
+     */
+    ResponseEntityStream(final int maxBuffered, final Runnable resumeReading) {
+        this.maxBuffered = maxBuffered;
+        this.resumeReading = resumeReading;
+    }
+
+    /**
+     * Add response entity data to the stream. Invoked by the selector thread.
+     *
+     * @param data response entity data.
+     * @return {@code true} if the connection may continue reading, {@code false} if the reading should be
+     * suspended until the buffered data are consumed.
+     */
+    synchronized boolean put(final ByteBuffer data) {
+        if (closed) {
+            // nobody is interested in the rest of the entity - discard it
+            return true;
+        }
+        buffers.add(data);
+        buffered += data.remaining();
+        notifyAll();
+
+        if (buffered >= maxBuffered) {
+            suspended = true;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Signal the end of the response entity. Invoked by the selector thread.
+     */
+    synchronized void complete() {
+        eof = true;
+        notifyAll();
+    }
+
+    /**
+     * Signal a failure while receiving the response entity. Invoked by the selector thread.
+     *
+     * @param cause failure cause.
+     */
+    synchronized void fail(final IOException cause) {
+        if (!eof) {
+            failure = cause;
+            notifyAll();
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        final byte[] b = new byte[1];
+        final int read = read(b, 0, 1);
+        return read == -1 ? -1 : b[0] & 0xFF;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+
+        final int read;
+        boolean resume = false;
+        synchronized (this) {
+            while (buffers.isEmpty()) {
+                if (closed) {
+                    throw new IOException(LocalizationMessages.ENTITY_STREAM_CLOSED());
+                }
+                if (failure != null) {
+                    throw failure;
+                }
+                if (eof) {
+                    return -1;
+                }
+                try {
+                    wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException(e.getMessage());
+                }
+            }
+
+            final ByteBuffer head = buffers.peek();
+            read = Math.min(len, head.remaining());
+            head.get(b, off, read);
+            if (!head.hasRemaining()) {
+                buffers.poll();
+            }
+            buffered -= read;
+
+            if (suspended && buffered <= maxBuffered / 2) {
+                suspended = false;
+                resume = true;
+            }
+        }
+
+        if (resume) {
+            resumeReading.run();
+        }
+        return read;
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+        return (int) Math.min(buffered, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        final boolean resume;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            buffers.clear();
+            buffered = 0;
+            resume = suspended;
+            suspended = false;
+            notifyAll();
+        }
+
+        if (resume) {
+            // the rest of the entity will be discarded
+            resumeReading.run();
+        }
+    }
+}
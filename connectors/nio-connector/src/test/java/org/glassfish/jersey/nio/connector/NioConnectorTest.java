@@ -0,0 +1,279 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.nio.connector;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HEAD;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link NioConnector} tests.
+ */
+public class NioConnectorTest extends JerseyTest {
+
+    private static final int LARGE_ENTITY_SIZE = 2 * 1024 * 1024;
+
+    @Path("test")
+    public static class TestResource {
+
+        @GET
+        public String get() {
+            return "GET";
+        }
+
+        @HEAD
+        @Path("head")
+        public Response head() {
+            return Response.ok().header("X-Test", "head").build();
+        }
+
+        @POST
+        @Path("echo")
+        public String echo(final String entity) {
+            return entity;
+        }
+
+        @POST
+        @Path("length")
+        public String length(final InputStream entity) throws IOException {
+            final byte[] buffer = new byte[8192];
+            long length = 0;
+            int read;
+            while ((read = entity.read(buffer)) != -1) {
+                length += read;
+            }
+            return Long.toString(length);
+        }
+
+        @GET
+        @Path("large")
+        @Produces(MediaType.APPLICATION_OCTET_STREAM)
+        public StreamingOutput large() {
+            return new StreamingOutput() {
+                @Override
+                public void write(final OutputStream output) throws IOException {
+                    final byte[] chunk = new byte[8192];
+                    for (int i = 0; i < LARGE_ENTITY_SIZE / chunk.length; i++) {
+                        chunk[0] = (byte) i;
+                        output.write(chunk);
+                    }
+                }
+            };
+        }
+
+        @GET
+        @Path("slow/{millis}")
+        public String slow(@PathParam("millis") final long millis) throws InterruptedException {
+            Thread.sleep(millis);
+            return "SLOW";
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(TestResource.class);
+    }
+
+    @Override
+    protected void configureClient(final ClientConfig config) {
+        config.connectorProvider(new NioConnectorProvider());
+    }
+
+    @Test
+    public void testGet() {
+        final Response response = target("test").request().get();
+        assertEquals(200, response.getStatus());
+        assertEquals("GET", response.readEntity(String.class));
+    }
+
+    @Test
+    public void testHead() {
+        final Response response = target("test/head").request().head();
+        assertEquals(200, response.getStatus());
+        assertEquals("head", response.getHeaderString("X-Test"));
+        assertFalse(response.hasEntity());
+
+        // the connection is reused for the next request
+        assertEquals("GET", target("test").request().get(String.class));
+    }
+
+    @Test
+    public void testPostBuffered() {
+        final Response response = target("test/echo").request().post(Entity.text("hello"));
+        assertEquals(200, response.getStatus());
+        assertEquals("hello", response.readEntity(String.class));
+    }
+
+    @Test
+    public void testPostChunked() {
+        final byte[] entity = new byte[LARGE_ENTITY_SIZE];
+        final Response response = target("test/length")
+                .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED)
+                .request()
+                .post(Entity.entity(entity, MediaType.APPLICATION_OCTET_STREAM_TYPE));
+        assertEquals(200, response.getStatus());
+        assertEquals(Integer.toString(LARGE_ENTITY_SIZE), response.readEntity(String.class));
+    }
+
+    @Test
+    public void testLargeResponse() throws IOException {
+        final InputStream entity = target("test/large").request().get(InputStream.class);
+        try {
+            final byte[] buffer = new byte[8192];
+            long length = 0;
+            int read;
+            while ((read = entity.read(buffer)) != -1) {
+                length += read;
+            }
+            assertEquals(LARGE_ENTITY_SIZE, length);
+        } finally {
+            entity.close();
+        }
+        // the connection is reused for the next request
+        assertEquals("GET", target("test").request().get(String.class));
+    }
+
+    @Test
+    public void testLargeResponseClosedEarly() throws IOException {
+        final InputStream entity = target("test/large").request().get(InputStream.class);
+        final byte[] buffer = new byte[100];
+        assertEquals(100, entity.read(buffer));
+        entity.close();
+
+        assertEquals("GET", target("test").request().get(String.class));
+    }
+
+    @Test
+    public void testAsync() throws Exception {
+        final List<Future<String>> futures = new ArrayList<Future<String>>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(target("test/echo").request().async().post(Entity.text("request-" + i), String.class));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals("request-" + i, futures.get(i).get(10, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    public void testPipelining() throws Exception {
+        final Client client = ClientBuilder.newClient(new ClientConfig()
+                .property(NioClientProperties.MAX_CONNECTIONS_PER_HOST, 1)
+                .property(NioClientProperties.PIPELINING_LIMIT, 4)
+                .connectorProvider(new NioConnectorProvider()));
+        try {
+            final List<Future<String>> futures = new ArrayList<Future<String>>();
+            for (int i = 0; i < 10; i++) {
+                futures.add(client.target(getBaseUri()).path("test").request().async().get(String.class));
+            }
+            for (final Future<String> future : futures) {
+                assertEquals("GET", future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testReadTimeout() {
+        final Client client = ClientBuilder.newClient(new ClientConfig()
+                .property(ClientProperties.READ_TIMEOUT, 500)
+                .connectorProvider(new NioConnectorProvider()));
+        try {
+            client.target(getBaseUri()).path("test/slow/3000").request().get(String.class);
+            fail("Read timeout expected.");
+        } catch (final ProcessingException e) {
+            assertThat(e.getCause(), instanceOf(java.net.SocketTimeoutException.class));
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testUnsupportedScheme() {
+        try {
+            ClientBuilder.newClient(new ClientConfig().connectorProvider(new NioConnectorProvider()))
+                    .target("https://localhost:1/").request().get();
+            fail("ProcessingException expected.");
+        } catch (final ProcessingException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testLargeEntityAsArray() {
+        final byte[] entity = target("test/large").request().get(byte[].class);
+        assertEquals(LARGE_ENTITY_SIZE, entity.length);
+        final byte[] expectedStart = new byte[] {0, 0, 0};
+        assertArrayEquals(expectedStart, new byte[] {entity[0], entity[1], entity[2]});
+    }
+}
@@ -0,0 +1,138 @@
+
+package org.glassfish.jersey.nio.connector;
+
+import org.glassfish.jersey.internal.l10n.Localizable;
+import org.glassfish.jersey.internal.l10n.LocalizableMessageFactory;
+import org.glassfish.jersey.internal.l10n.Localizer;
+
+
+/**
+ * Defines string formatting method for each constant in the resource file
+ * 
+ */
+public final class LocalizationMessages {
+
+    private final static LocalizableMessageFactory messageFactory = new LocalizableMessageFactory("org.glassfish.jersey.nio.connector.localization");
+    private final static Localizer localizer = new Localizer();
+
+    public static Localizable localizableEXPECTED_CONNECTOR_PROVIDER_NOT_USED() {
+        return messageFactory.getMessage("expected.connector.provider.not.used");
+    }
+
+    /**
+     * The supplied component is not configured to use a NioConnectorProvider.
+     * 
+     */
+    public static String EXPECTED_CONNECTOR_PROVIDER_NOT_USED() {
+        return localizer.localize(localizableEXPECTED_CONNECTOR_PROVIDER_NOT_USED());
+    }
+
+    public static Localizable localizableCONNECTION_CLOSED(Object arg0) {
+        return messageFactory.getMessage("connection.closed", arg0);
+    }
+
+    /**
+     * Connection to {0} has been closed before the response was fully received.
+     * 
+     */
+    public static String CONNECTION_CLOSED(Object arg0) {
+        return localizer.localize(localizableCONNECTION_CLOSED(arg0));
+    }
+
+    public static Localizable localizableREAD_TIMEOUT(Object arg0) {
+        return messageFactory.getMessage("read.timeout", arg0);
+    }
+
+    /**
+     * Read timed out after {0} ms.
+     * 
+     */
+    public static String READ_TIMEOUT(Object arg0) {
+        return localizer.localize(localizableREAD_TIMEOUT(arg0));
+    }
+
+    public static Localizable localizableCONNECT_TIMEOUT(Object arg0, Object arg1) {
+        return messageFactory.getMessage("connect.timeout", arg0, arg1);
+    }
+
+    /**
+     * Connecting to {0} timed out after {1} ms.
+     * 
+     */
+    public static String CONNECT_TIMEOUT(Object arg0, Object arg1) {
+        return localizer.localize(localizableCONNECT_TIMEOUT(arg0, arg1));
+    }
+
+    public static Localizable localizableINVALID_CONFIGURABLE_COMPONENT_TYPE(Object arg0) {
+        return messageFactory.getMessage("invalid.configurable.component.type", arg0);
+    }
+
+    /**
+     * The supplied component "{0}" is not assignable from JerseyClient or JerseyWebTarget.
+     * 
+     */
+    public static String INVALID_CONFIGURABLE_COMPONENT_TYPE(Object arg0) {
+        return localizer.localize(localizableINVALID_CONFIGURABLE_COMPONENT_TYPE(arg0));
+    }
+
+    public static Localizable localizableCONNECTOR_CLOSED() {
+        return messageFactory.getMessage("connector.closed");
+    }
+
+    /**
+     * The connector has been closed.
+     * 
+     */
+    public static String CONNECTOR_CLOSED() {
+        return localizer.localize(localizableCONNECTOR_CLOSED());
+    }
+
+    public static Localizable localizableREQUEST_ENTITY_WRITE_FAILED() {
+        return messageFactory.getMessage("request.entity.write.failed");
+    }
+
+    /**
+     * Failed to write request entity.
+     * 
+     */
+    public static String REQUEST_ENTITY_WRITE_FAILED() {
+        return localizer.localize(localizableREQUEST_ENTITY_WRITE_FAILED());
+    }
+
+    public static Localizable localizableSCHEME_NOT_SUPPORTED(Object arg0) {
+        return messageFactory.getMessage("scheme.not.supported", arg0);
+    }
+
+    /**
+     * Scheme of the request URI "{0}" is not supported. Only plain "http" is supported by this connector.
+     * 
+     */
+    public static String SCHEME_NOT_SUPPORTED(Object arg0) {
+        return localizer.localize(localizableSCHEME_NOT_SUPPORTED(arg0));
+    }
+
+    public static Localizable localizableENTITY_STREAM_CLOSED() {
+        return messageFactory.getMessage("entity.stream.closed");
+    }
+
+    /**
+     * The entity stream has been closed.
+     * 
+     */
+    public static String ENTITY_STREAM_CLOSED() {
+        return localizer.localize(localizableENTITY_STREAM_CLOSED());
+    }
+
+    public static Localizable localizableINVALID_RESPONSE(Object arg0) {
+        return messageFactory.getMessage("invalid.response", arg0);
+    }
+
+    /**
+     * Invalid HTTP response received: {0}
+     * 
+     */
+    public static String INVALID_RESPONSE(Object arg0) {
+        return localizer.localize(localizableINVALID_RESPONSE(arg0));
+    }
+
+}
@@ -48,6 +48,7 @@ import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -84,11 +85,20 @@ import org.glassfish.hk2.utilities.binding.AbstractBinder;
 import org.glassfish.grizzly.CompletionHandler;
 import org.glassfish.grizzly.http.server.HttpHandler;
 import org.glassfish.grizzly.http.server.Request;
+import org.glassfish.grizzly.http.server.RequestExecutorProvider;
 import org.glassfish.grizzly.http.server.Response;
 import org.glassfish.grizzly.utils.Charsets;
 
 /**
  * Jersey {@code Container} implementation based on Grizzly {@link org.glassfish.grizzly.http.server.HttpHandler}.
+ * <p>
+ * Requests targeting {@link org.glassfish.jersey.server.NonBlocking non-blocking} resource methods are processed
+ * directly on the thread that invoked the handler, provided their entity has already been received. To avoid the
+ * worker thread hand-off for such requests, the underlying transport has to be configured with the
+ * {@link org.glassfish.grizzly.strategies.SameThreadIOStrategy same-thread I/O strategy} (the
+ * {@link GrizzlyHttpServerFactory} does this automatically); all other requests are then dispatched to the worker
+ * thread pool by the container.
+ * </p>
  *
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
  * @author Libor Kramolis (libor.kramolis at oracle.com)
@@ -270,7 +280,7 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
                     }
                 }
 
-                return grizzlyResponse.getOutputStream();
+                return new GrizzlyResponseOutputStream(grizzlyResponse);
             } finally {
                 logger.debugLog("{0} - writeResponseStatusAndHeaders() called", name);
             }
@@ -324,6 +334,18 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
 
     private volatile ApplicationHandler appHandler;
     private volatile ContainerLifecycleListener containerListener;
+    private volatile SelectorThreadDispatcher selectorThreadDispatcher;
+
+    private final RequestExecutorProvider selectorThreadExecutorProvider = new RequestExecutorProvider() {
+        @Override
+        public Executor getExecutor(final Request request) {
+            final SelectorThreadDispatcher dispatcher = selectorThreadDispatcher;
+            if (dispatcher != null && dispatcher.isInlineDispatchable(request)) {
+                return null;
+            }
+            return GrizzlyHttpContainer.super.getRequestExecutorProvider().getExecutor(request);
+        }
+    };
 
     /**
      * Create a new Grizzly HTTP container.
@@ -333,6 +355,7 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
     GrizzlyHttpContainer(final Application application) {
         this.appHandler = new ApplicationHandler(application, new GrizzlyBinder());
         this.containerListener = ConfigHelper.getContainerLifecycleListener(appHandler);
+        this.selectorThreadDispatcher = SelectorThreadDispatcher.create(appHandler);
         cacheConfigSetStatusOverSendError();
     }
 
@@ -346,6 +369,7 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
     GrizzlyHttpContainer(final Application application, final ServiceLocator parentLocator) {
         this.appHandler = new ApplicationHandler(application, new GrizzlyBinder(), parentLocator);
         this.containerListener = ConfigHelper.getContainerLifecycleListener(appHandler);
+        this.selectorThreadDispatcher = SelectorThreadDispatcher.create(appHandler);
         cacheConfigSetStatusOverSendError();
     }
 
@@ -365,9 +389,7 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
                     getRequestUri(baseUri, request), request.getMethod().getMethodString(),
                     getSecurityContext(request), new GrizzlyRequestPropertiesDelegate(request));
             requestContext.setEntityStream(request.getInputStream());
-            for (final String headerName : request.getHeaderNames()) {
-                requestContext.headers(headerName, request.getHeaders(headerName));
-            }
+            requestContext.headers(new GrizzlyRequestHeaderSource(request));
             requestContext.setWriter(responseWriter);
 
             requestContext.setRequestScopedInitializer(new RequestScopedInitializer() {
@@ -384,6 +406,29 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the application contains {@link org.glassfish.jersey.server.NonBlocking non-blocking} resource methods,
+     * the returned provider keeps requests to such methods whose entity is already available on the current thread
+     * and dispatches all other requests using the default Grizzly request executor provider.
+     * </p>
+     */
+    @Override
+    public RequestExecutorProvider getRequestExecutorProvider() {
+        return selectorThreadDispatcher == null ? super.getRequestExecutorProvider() : selectorThreadExecutorProvider;
+    }
+
+    /**
+     * Check whether the deployed application contains any {@link org.glassfish.jersey.server.NonBlocking non-blocking}
+     * resource methods eligible for processing on the Grizzly selector thread.
+     *
+     * @return {@code true} if the selector thread dispatch should be enabled for this container.
+     */
+    boolean isSelectorThreadDispatchEnabled() {
+        return selectorThreadDispatcher != null;
+    }
+
     @Override
     public ResourceConfig getConfiguration() {
         return appHandler.getConfiguration();
@@ -399,6 +444,7 @@ public final class GrizzlyHttpContainer extends HttpHandler implements Container
         this.containerListener.onShutdown(this);
         appHandler = new ApplicationHandler(configuration, new GrizzlyBinder());
         this.containerListener = ConfigHelper.getContainerLifecycleListener(appHandler);
+        this.selectorThreadDispatcher = SelectorThreadDispatcher.create(appHandler);
         containerListener.onReload(this);
         containerListener.onStartup(this);
         cacheConfigSetStatusOverSendError();
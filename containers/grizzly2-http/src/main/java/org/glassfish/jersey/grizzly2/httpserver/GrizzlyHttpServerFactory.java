@@ -56,7 +56,10 @@ import org.glassfish.grizzly.http.server.HttpHandlerRegistration;
 import org.glassfish.grizzly.http.server.HttpServer;
 import org.glassfish.grizzly.http.server.NetworkListener;
 import org.glassfish.grizzly.http.server.ServerConfiguration;
+import org.glassfish.grizzly.nio.transport.TCPNIOTransport;
 import org.glassfish.grizzly.ssl.SSLEngineConfigurator;
+import org.glassfish.grizzly.strategies.SameThreadIOStrategy;
+import org.glassfish.grizzly.threadpool.ThreadPoolConfig;
 
 import jersey.repackaged.com.google.common.util.concurrent.ThreadFactoryBuilder;
 
@@ -272,7 +275,13 @@ public final class GrizzlyHttpServerFactory {
 
         final NetworkListener listener = new NetworkListener("grizzly", host, port);
 
-        listener.getTransport().getWorkerThreadPoolConfig().setThreadFactory(new ThreadFactoryBuilder()
+        final TCPNIOTransport transport = listener.getTransport();
+        if (handler != null && handler.isSelectorThreadDispatchEnabled()) {
+            // Non-blocking resource methods run on the selector thread, the container hands off the rest.
+            transport.setIOStrategy(SameThreadIOStrategy.getInstance());
+            transport.setWorkerThreadPoolConfig(ThreadPoolConfig.defaultConfig());
+        }
+        transport.getWorkerThreadPoolConfig().setThreadFactory(new ThreadFactoryBuilder()
                 .setNameFormat("grizzly-http-server-%d")
                 .setUncaughtExceptionHandler(new JerseyProcessingUncaughtExceptionHandler())
                 .build());
@@ -0,0 +1,112 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly2.httpserver;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.glassfish.jersey.message.internal.ReaderWriter;
+import org.glassfish.jersey.spi.ZeroCopyOutput;
+
+import org.glassfish.grizzly.http.io.OutputBuffer;
+import org.glassfish.grizzly.http.server.Response;
+
+/**
+ * Grizzly response output stream that passes byte buffers and file regions written via the {@link ZeroCopyOutput}
+ * contract directly to the Grizzly {@link OutputBuffer response output buffer}, without copying them into heap byte arrays.
+ * File regions are memory mapped and written as mapped byte buffers.
+ */
+final class GrizzlyResponseOutputStream extends OutputStream implements ZeroCopyOutput {
+
+    private final OutputStream out;
+    private final OutputBuffer outputBuffer;
+
+    /**
+     * Create new Grizzly response output stream.
+     *
+     * @param response Grizzly response.
+     */
+    GrizzlyResponseOutputStream(final Response response) {
+        this.out = response.getOutputStream();
+        this.outputBuffer = response.getOutputBuffer();
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        out.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        out.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        out.write(b, off, len);
+    }
+
+    @Override
+    public void write(final ByteBuffer buffer) throws IOException {
+        if (buffer.hasRemaining()) {
+            // Grizzly may keep the buffer and write it after this method returns; the duplicate keeps its position and
+            // limit independent of the caller, the content is shared and must not be modified (see ZeroCopyOutput)
+            outputBuffer.writeByteBuffer(buffer.duplicate());
+            buffer.position(buffer.limit());
+        }
+    }
+
+    @Override
+    public long transferFrom(final FileChannel channel, final long position, final long count) throws IOException {
+        return ReaderWriter.writeMapped(channel, position, count, this);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly2.httpserver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.ws.rs.HttpMethod;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ExtendedResourceContext;
+import org.glassfish.jersey.server.internal.routing.PathPrefixTrie;
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.model.ResourceModel;
+import org.glassfish.jersey.uri.PathPattern;
+
+import org.glassfish.grizzly.http.server.Request;
+
+/**
+ * Decides which requests may be processed directly on the Grizzly selector thread.
+ * <p>
+ * A request qualifies only if it targets a {@link org.glassfish.jersey.server.NonBlocking non-blocking}
+ * resource method, its entity (if any) has already been fully received and no other blocking resource
+ * method or sub-resource locator of the application matches the same request. The resolution is
+ * deliberately conservative: in case of any doubt the request is dispatched to the worker thread pool.
+ * </p>
+ * <p>
+ * The routes are indexed by their literal path prefix (see {@link PathPrefixTrie}), so that only the routes
+ * which may match the request path are matched using their regular expression on the selector thread.
+ * </p>
+ */
+final class SelectorThreadDispatcher {
+
+    private static final String TRANSFER_ENCODING = "Transfer-Encoding";
+
+    private static final class Route {
+
+        private final String httpMethod; // null for sub-resource locators
+        private final PathPattern pattern;
+        private final boolean nonBlocking;
+
+        private Route(final String httpMethod, final PathPattern pattern, final boolean nonBlocking) {
+            this.httpMethod = httpMethod;
+            this.pattern = pattern;
+            this.nonBlocking = nonBlocking;
+        }
+    }
+
+    private final Route[] routes;
+    private final PathPrefixTrie prefixTrie;
+    private final Set<String> nonBlockingMethods;
+
+    private SelectorThreadDispatcher(final List<Route> routes, final Set<String> nonBlockingMethods) {
+        this.routes = routes.toArray(new Route[routes.size()]);
+        final List<PathPattern> patterns = new ArrayList<>(routes.size());
+        for (final Route route : routes) {
+            patterns.add(route.pattern);
+        }
+        this.prefixTrie = new PathPrefixTrie(patterns);
+        this.nonBlockingMethods = nonBlockingMethods;
+    }
+
+    /**
+     * Create a dispatcher for the application deployed by the given application handler.
+     *
+     * @param appHandler application handler.
+     * @return new dispatcher or {@code null} if the application does not contain any non-blocking resource method.
+     */
+    static SelectorThreadDispatcher create(final ApplicationHandler appHandler) {
+        final ResourceModel model = appHandler.getServiceLocator()
+                .getService(ExtendedResourceContext.class).getResourceModel();
+
+        final List<Route> routes = new ArrayList<>();
+        final Set<String> nonBlockingMethods = new HashSet<>();
+        for (final Resource resource : model.getRootResources()) {
+            collectRoutes(resource, "", routes, nonBlockingMethods);
+        }
+
+        if (nonBlockingMethods.isEmpty()) {
+            return null;
+        }
+        if (nonBlockingMethods.contains(HttpMethod.GET)) {
+            // HEAD requests are served by GET resource methods unless there is an explicit HEAD method.
+            nonBlockingMethods.add(HttpMethod.HEAD);
+        }
+
+        return new SelectorThreadDispatcher(routes, Collections.unmodifiableSet(nonBlockingMethods));
+    }
+
+    private static void collectRoutes(final Resource resource,
+                                      final String parentPath,
+                                      final List<Route> routes,
+                                      final Set<String> nonBlockingMethods) {
+        final String path = joinPath(parentPath, resource.getPath());
+
+        final PathPattern closed = new PathPattern(path, PathPattern.RightHandPath.capturingZeroSegments);
+        for (final ResourceMethod method : resource.getResourceMethods()) {
+            routes.add(new Route(method.getHttpMethod(), closed, method.isNonBlocking()));
+            if (method.isNonBlocking()) {
+                nonBlockingMethods.add(method.getHttpMethod());
+            }
+        }
+        if (resource.getResourceLocator() != null) {
+            routes.add(new Route(null, new PathPattern(path), false));
+        }
+
+        for (final Resource child : resource.getChildResources()) {
+            collectRoutes(child, path, routes, nonBlockingMethods);
+        }
+    }
+
+    private static String joinPath(final String parent, final String path) {
+        if (path == null || path.isEmpty()) {
+            return parent;
+        }
+        final String joined = parent + '/' + path;
+        return joined.replaceAll("/{2,}", "/");
+    }
+
+    /**
+     * Check whether the request can be processed on the current (selector) thread.
+     *
+     * @param request Grizzly request.
+     * @return {@code true} if the request may be processed without a thread hand-off, {@code false} otherwise.
+     */
+    boolean isInlineDispatchable(final Request request) {
+        final String method = request.getMethod().getMethodString();
+        if (!nonBlockingMethods.contains(method) || !isEntityBuffered(request)) {
+            return false;
+        }
+
+        final String path = getApplicationPath(request);
+        if (path == null) {
+            return false;
+        }
+
+        boolean matched = false;
+        for (final int candidate : prefixTrie.candidates(path)) {
+            final Route route = routes[candidate];
+            if (route.httpMethod != null && !matches(route.httpMethod, method)) {
+                continue;
+            }
+            if (route.pattern.match(path) == null) {
+                continue;
+            }
+            if (!route.nonBlocking) {
+                // a locator or blocking method may be selected by the router
+                return false;
+            }
+            matched = true;
+        }
+        return matched;
+    }
+
+    private static boolean matches(final String routeMethod, final String requestMethod) {
+        return routeMethod.equals(requestMethod)
+                || (HttpMethod.HEAD.equals(requestMethod) && HttpMethod.GET.equals(routeMethod));
+    }
+
+    private static boolean isEntityBuffered(final Request request) {
+        final long contentLength = request.getContentLengthLong();
+        if (contentLength < 0) {
+            // no entity unless chunked
+            return request.getHeader(TRANSFER_ENCODING) == null;
+        }
+        return contentLength == 0 || request.getInputBuffer().readyData() >= contentLength;
+    }
+
+    private static String getApplicationPath(final Request request) {
+        final String uri = request.getRequestURI();
+        final String contextPath = request.getContextPath();
+
+        if (contextPath == null || contextPath.isEmpty()) {
+            return uri;
+        }
+        return uri.startsWith(contextPath) ? uri.substring(contextPath.length()) : null;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly2.httpserver;
+
+import java.net.URI;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.UriBuilder;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.glassfish.jersey.server.NonBlocking;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test that requests to {@link NonBlocking non-blocking} resource methods are processed on the Grizzly selector
+ * thread while all other requests are dispatched to the worker thread pool.
+ */
+public class SelectorThreadDispatchTest {
+
+    private static final String WORKER_THREAD_PREFIX = "grizzly-http-server-";
+    private static final int PORT = Integer.getInteger("jersey.config.test.container.port", 9998);
+
+    @Path("thread")
+    public static class ThreadResource {
+
+        @GET
+        @NonBlocking
+        @Path("non-blocking")
+        public String getNonBlocking() {
+            return Thread.currentThread().getName();
+        }
+
+        @POST
+        @NonBlocking
+        @Path("non-blocking")
+        public String postNonBlocking(final String entity) {
+            return Thread.currentThread().getName();
+        }
+
+        @GET
+        @Path("blocking")
+        public String getBlocking() {
+            return Thread.currentThread().getName();
+        }
+    }
+
+    @Path("template")
+    public static class TemplateResource {
+
+        @GET
+        @NonBlocking
+        @Path("literal")
+        public String getNonBlocking() {
+            return Thread.currentThread().getName();
+        }
+
+        @GET
+        @Path("{name}")
+        public String getBlocking() {
+            return Thread.currentThread().getName();
+        }
+    }
+
+    private HttpServer server;
+    private Client client;
+
+    @Before
+    public void setUp() {
+        final URI baseUri = UriBuilder.fromUri("http://localhost/").port(PORT).build();
+        server = GrizzlyHttpServerFactory.createHttpServer(baseUri,
+                new ResourceConfig(ThreadResource.class, TemplateResource.class));
+        client = ClientBuilder.newClient();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    private WebTarget target(final String path) {
+        return client.target(UriBuilder.fromUri("http://localhost/").port(PORT).path("thread").path(path));
+    }
+
+    private WebTarget templateTarget(final String path) {
+        return client.target(UriBuilder.fromUri("http://localhost/").port(PORT).path("template").path(path));
+    }
+
+    @Test
+    public void testNonBlockingGetOnSelectorThread() {
+        final String thread = target("non-blocking").request().get(String.class);
+        assertFalse(thread, thread.startsWith(WORKER_THREAD_PREFIX));
+    }
+
+    @Test
+    public void testBufferedNonBlockingPostOnSelectorThread() {
+        final String thread = target("non-blocking").request().post(Entity.text("entity"), String.class);
+        assertFalse(thread, thread.startsWith(WORKER_THREAD_PREFIX));
+    }
+
+    @Test
+    public void testBlockingGetOnWorkerThread() {
+        final String thread = target("blocking").request().get(String.class);
+        assertTrue(thread, thread.startsWith(WORKER_THREAD_PREFIX));
+    }
+
+    @Test
+    public void testChunkedNonBlockingPostOnWorkerThread() {
+        final String thread = target("non-blocking")
+                .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED)
+                .request()
+                .post(Entity.text("entity"), String.class);
+        assertTrue(thread, thread.startsWith(WORKER_THREAD_PREFIX));
+    }
+
+    @Test
+    public void testNonBlockingGetMatchedByBlockingTemplateOnWorkerThread() {
+        // the blocking "{name}" method matches the same path, so the request must be dispatched to a worker thread
+        final String thread = templateTarget("literal").request().get(String.class);
+        assertTrue(thread, thread.startsWith(WORKER_THREAD_PREFIX));
+    }
+}
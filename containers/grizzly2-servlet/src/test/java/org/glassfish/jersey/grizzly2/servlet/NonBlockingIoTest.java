@@ -0,0 +1,297 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.grizzly2.servlet;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletRegistration;
+import javax.servlet.http.HttpServletRequest;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.UriBuilder;
+
+import org.glassfish.jersey.client.ClientProperties;
+import org.glassfish.jersey.client.RequestEntityProcessing;
+import org.glassfish.jersey.grizzly2.httpserver.GrizzlyHttpServerFactory;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.servlet.ServletContainer;
+import org.glassfish.jersey.servlet.ServletProperties;
+
+import org.glassfish.grizzly.http.server.HttpServer;
+import org.glassfish.grizzly.servlet.WebappContext;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test of the {@link ServletProperties#NON_BLOCKING_IO_ENABLED non-blocking I/O mode} in the Grizzly Servlet 3.1
+ * container.
+ */
+public class NonBlockingIoTest {
+
+    private static final int PORT = Integer.getInteger("jersey.config.test.container.port", 9998);
+    private static final int MAX_ENTITY_SIZE = 1024;
+    private static final int OUTPUT_BUFFER_SIZE = 16 * 1024;
+    private static final int CHUNK_SIZE = 8192;
+    private static final int LARGE_ENTITY_SIZE = 64 * 1024 * 1024;
+    private static final int SYNC_ENTITY_SIZE = 64 * 1024 * 1024;
+
+    @Path("echo")
+    public static class EchoResource {
+
+        @POST
+        public String echo(final String entity, @Context final HttpServletRequest request) {
+            return request.isAsyncStarted() + ":" + entity;
+        }
+    }
+
+    @Path("large")
+    public static class LargeResource {
+
+        private static volatile long written;
+
+        @GET
+        public void get(@Suspended final AsyncResponse response) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    response.resume(new StreamingOutput() {
+                        @Override
+                        public void write(final OutputStream output) throws IOException, WebApplicationException {
+                            final byte[] chunk = chunk();
+                            for (int i = 0; i < LARGE_ENTITY_SIZE / CHUNK_SIZE; i++) {
+                                output.write(chunk);
+                            }
+                            written = System.nanoTime();
+                        }
+                    });
+                }
+            }).start();
+        }
+    }
+
+    @Path("sync-large")
+    public static class SyncLargeResource {
+
+        /**
+         * Written by the container thread the request has been dispatched on.
+         */
+        @GET
+        public StreamingOutput get() {
+            return new StreamingOutput() {
+                @Override
+                public void write(final OutputStream output) throws IOException, WebApplicationException {
+                    final byte[] chunk = chunk();
+                    for (int i = 0; i < SYNC_ENTITY_SIZE / CHUNK_SIZE; i++) {
+                        output.write(chunk);
+                    }
+                }
+            };
+        }
+    }
+
+    private static byte[] chunk() {
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (byte) i;
+        }
+        return chunk;
+    }
+
+    private HttpServer server;
+    private Client client;
+
+    @Before
+    public void setUp() throws IOException {
+        final ResourceConfig config = new ResourceConfig(EchoResource.class, LargeResource.class, SyncLargeResource.class)
+                .property(ServletProperties.NON_BLOCKING_IO_ENABLED, true)
+                .property(ServletProperties.NON_BLOCKING_IO_MAX_ENTITY_SIZE, MAX_ENTITY_SIZE)
+                .property(ServletProperties.NON_BLOCKING_IO_OUTPUT_BUFFER_SIZE, OUTPUT_BUFFER_SIZE);
+
+        final WebappContext context = new WebappContext("non-blocking-io", "");
+        final ServletRegistration.Dynamic registration = context.addServlet("jersey", new ServletContainer(config));
+        registration.addMapping("/*");
+        registration.setAsyncSupported(true);
+
+        server = GrizzlyHttpServerFactory.createHttpServer(baseUri());
+        context.deploy(server);
+        client = ClientBuilder.newClient();
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.shutdownNow();
+    }
+
+    private static URI baseUri() {
+        return UriBuilder.fromUri("http://localhost/").port(PORT).build();
+    }
+
+    private WebTarget target(final String path) {
+        return client.target(baseUri()).path(path);
+    }
+
+    private static String entity(final int length) {
+        final char[] entity = new char[length];
+        Arrays.fill(entity, 'a');
+        return new String(entity);
+    }
+
+    @Test
+    public void testEntityReadAsynchronously() {
+        final String entity = entity(MAX_ENTITY_SIZE);
+        assertEquals("true:" + entity, target("echo").request().post(Entity.text(entity), String.class));
+    }
+
+    @Test
+    public void testChunkedEntityReadAsynchronously() {
+        final String entity = entity(MAX_ENTITY_SIZE);
+        assertEquals("true:" + entity, target("echo")
+                .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED)
+                .request()
+                .post(Entity.text(entity), String.class));
+    }
+
+    @Test
+    public void testEntityTooLarge() {
+        final Response response = target("echo").request().post(Entity.text(entity(MAX_ENTITY_SIZE + 1)));
+        assertEquals(413, response.getStatus());
+        response.close();
+    }
+
+    @Test
+    public void testChunkedEntityTooLarge() {
+        final Response response = target("echo")
+                .property(ClientProperties.REQUEST_ENTITY_PROCESSING, RequestEntityProcessing.CHUNKED)
+                .request()
+                .post(Entity.text(entity(4 * MAX_ENTITY_SIZE)));
+        assertEquals(413, response.getStatus());
+        response.close();
+    }
+
+    @Test
+    public void testLargeResponseWrittenToSlowClient() throws Exception {
+        final Socket socket = new Socket("localhost", PORT);
+        try {
+            final OutputStream out = socket.getOutputStream();
+            // HTTP/1.0 - the response entity is not chunk-encoded and delimited by closing the connection
+            out.write("GET /large HTTP/1.0\r\n\r\n".getBytes("US-ASCII"));
+            out.flush();
+
+            // let the response fill all the buffers - the application writer must wait for the client
+            TimeUnit.SECONDS.sleep(1);
+            final long reading = System.nanoTime();
+
+            assertEquals(LARGE_ENTITY_SIZE, readEntity(socket.getInputStream()));
+            assertTrue("Response writer has not been held back by the output buffer.", LargeResource.written > reading);
+        } finally {
+            socket.close();
+        }
+    }
+
+    @Test
+    public void testLargeSyncResponseWrittenToSlowClient() throws Exception {
+        final Socket socket = new Socket("localhost", PORT);
+        try {
+            final OutputStream out = socket.getOutputStream();
+            out.write("GET /sync-large HTTP/1.0\r\n\r\n".getBytes("US-ASCII"));
+            out.flush();
+
+            // the dispatching container thread exceeds the output buffer while the client is not reading
+            TimeUnit.SECONDS.sleep(1);
+
+            assertEquals(SYNC_ENTITY_SIZE, readEntity(socket.getInputStream()));
+        } finally {
+            socket.close();
+        }
+    }
+
+    /**
+     * Read the response to an HTTP/1.0 request and check that the entity consists of the test {@link #chunk() chunks}.
+     *
+     * @return number of entity bytes received.
+     */
+    private static long readEntity(final InputStream in) throws IOException {
+        skipHeaders(in);
+        final byte[] expected = chunk();
+        final byte[] chunk = new byte[CHUNK_SIZE];
+        long received = 0;
+        int read;
+        while ((read = in.read(chunk, 0, CHUNK_SIZE - (int) (received % CHUNK_SIZE))) != -1) {
+            final int offset = (int) (received % CHUNK_SIZE);
+            assertArrayEquals(Arrays.copyOfRange(expected, offset, offset + read), Arrays.copyOf(chunk, read));
+            received += read;
+        }
+        return received;
+    }
+
+    private static void skipHeaders(final InputStream in) throws IOException {
+        int last = 0;
+        while (last != 0x0d0a0d0a) {
+            final int b = in.read();
+            if (b == -1) {
+                throw new IOException("Unexpected end of the response headers.");
+            }
+            last = (last << 8) | b;
+        }
+    }
+}
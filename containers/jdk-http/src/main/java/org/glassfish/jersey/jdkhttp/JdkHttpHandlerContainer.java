@@ -61,6 +61,7 @@ import javax.ws.rs.core.UriBuilder;
 
 import org.glassfish.jersey.internal.MapPropertiesDelegate;
 import org.glassfish.jersey.jdkhttp.internal.LocalizationMessages;
+import org.glassfish.jersey.message.internal.InboundHeaderSource;
 import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ContainerException;
 import org.glassfish.jersey.server.ContainerRequest;
@@ -152,11 +153,12 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
         final boolean isSecure = exchange instanceof HttpsExchange;
         final String scheme = isSecure ? "https" : "http";
 
+        final Headers requestHeaders = exchange.getRequestHeaders();
         final URI baseUri;
         try {
-            final List<String> hostHeader = exchange.getRequestHeaders().get("Host");
-            if (hostHeader != null) {
-                baseUri = new URI(scheme + "://" + hostHeader.get(0) + decodedBasePath);
+            final String host = requestHeaders.getFirst("Host");
+            if (host != null) {
+                baseUri = new URI(scheme + "://" + host + decodedBasePath);
             } else {
                 final InetSocketAddress addr = exchange.getLocalAddress();
                 baseUri = new URI(scheme, null, addr.getHostName(), addr.getPort(),
@@ -173,7 +175,7 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
                 exchange.getRequestMethod(), getSecurityContext(exchange.getPrincipal(), isSecure),
                 new MapPropertiesDelegate());
         requestContext.setEntityStream(exchange.getRequestBody());
-        requestContext.getHeaders().putAll(exchange.getRequestHeaders());
+        requestContext.headers(new RequestHeaderSource(requestHeaders));
         requestContext.setWriter(responseWriter);
         try {
             appHandler.handle(requestContext);
@@ -251,6 +253,29 @@ public class JdkHttpHandlerContainer implements HttpHandler, Container {
         this.containerListener.onShutdown(this);
     }
 
+    /**
+     * Header source reading the request headers directly from the JDK HTTP server request headers.
+     */
+    private static final class RequestHeaderSource implements InboundHeaderSource {
+
+        private final Headers headers;
+
+        private RequestHeaderSource(final Headers headers) {
+            this.headers = headers;
+        }
+
+        @Override
+        public List<String> get(final String name) {
+            // JDK server headers are case insensitive
+            return headers.get(name);
+        }
+
+        @Override
+        public void copyTo(final MultivaluedMap<String, String> target) {
+            target.putAll(headers);
+        }
+    }
+
     private static final class ResponseWriter implements ContainerResponseWriter {
 
         private final HttpExchange exchange;
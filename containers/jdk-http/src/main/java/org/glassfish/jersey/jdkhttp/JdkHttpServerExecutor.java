@@ -0,0 +1,203 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.jdkhttp;
+
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.glassfish.jersey.process.JerseyProcessingUncaughtExceptionHandler;
+import org.glassfish.jersey.server.ServerProperties;
+
+import jersey.repackaged.com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * {@link Executor} used by the {@link JdkHttpServerFactory JDK HTTP server} to process requests.
+ * <p>
+ * Depending on the {@link JdkHttpServerProperties configuration}, requests are processed by an unbounded or bounded
+ * pool of worker threads, or by a new thread per request. The executor keeps track of the submitted, running and
+ * completed requests, so that the server load (most notably the number of requests waiting for a thread) can be
+ * monitored. The executor of a server created by the factory can be obtained via
+ * {@link com.sun.net.httpserver.HttpServer#getExecutor()}.
+ * </p>
+ *
+ * @since 2.18
+ */
+public final class JdkHttpServerExecutor implements Executor {
+
+    private static final long IDLE_THREAD_KEEP_ALIVE = 60; // seconds
+
+    private final ThreadPoolExecutor pool; // null in thread-per-request mode
+    private final ThreadFactory threadFactory;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicInteger active = new AtomicInteger();
+
+    private JdkHttpServerExecutor(final ThreadPoolExecutor pool, final ThreadFactory threadFactory) {
+        this.pool = pool;
+        this.threadFactory = threadFactory;
+    }
+
+    /**
+     * Create new executor configured by the given {@link JdkHttpServerProperties properties}.
+     *
+     * @param properties application configuration properties.
+     * @return new executor.
+     */
+    static JdkHttpServerExecutor create(final Map<String, ?> properties) {
+        ThreadFactory threadFactory = ServerProperties.getValue(properties, JdkHttpServerProperties.THREAD_FACTORY,
+                ThreadFactory.class);
+        if (threadFactory == null) {
+            threadFactory = new ThreadFactoryBuilder()
+                    .setNameFormat("jdk-http-server-%d")
+                    .setUncaughtExceptionHandler(new JerseyProcessingUncaughtExceptionHandler())
+                    .build();
+        }
+
+        if (ServerProperties.getValue(properties, JdkHttpServerProperties.THREAD_PER_REQUEST, false, Boolean.class)) {
+            return new JdkHttpServerExecutor(null, threadFactory);
+        }
+
+        final int poolSize = ServerProperties.getValue(properties, JdkHttpServerProperties.WORKER_POOL_SIZE, 0,
+                Integer.class);
+        final ThreadPoolExecutor pool;
+        if (poolSize > 0) {
+            final int queueCapacity = ServerProperties.getValue(properties, JdkHttpServerProperties.WORKER_QUEUE_CAPACITY,
+                    Integer.MAX_VALUE, Integer.class);
+            pool = new ThreadPoolExecutor(poolSize, poolSize, IDLE_THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(Math.max(1, queueCapacity)), threadFactory,
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            pool.allowCoreThreadTimeOut(true);
+        } else {
+            pool = new ThreadPoolExecutor(0, Integer.MAX_VALUE, IDLE_THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(), threadFactory);
+        }
+        return new JdkHttpServerExecutor(pool, threadFactory);
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        submitted.incrementAndGet();
+
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                active.incrementAndGet();
+                try {
+                    command.run();
+                } finally {
+                    completed.incrementAndGet();
+                    active.decrementAndGet();
+                }
+            }
+        };
+
+        if (pool != null) {
+            pool.execute(task);
+        } else {
+            threadFactory.newThread(task).start();
+        }
+    }
+
+    /**
+     * Get the number of requests waiting for a thread to be processed.
+     *
+     * @return current request queue depth.
+     */
+    public long getQueueSize() {
+        // read in the reverse order of updates so that a finishing request is never reported as queued
+        final int running = active.get();
+        final long done = completed.get();
+        return Math.max(0, submitted.get() - done - running);
+    }
+
+    /**
+     * Get the number of requests being currently processed.
+     *
+     * @return number of active requests.
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * Get the total number of requests submitted to the executor.
+     *
+     * @return number of submitted requests.
+     */
+    public long getSubmittedCount() {
+        return submitted.get();
+    }
+
+    /**
+     * Get the total number of requests processed by the executor.
+     *
+     * @return number of completed requests.
+     */
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    /**
+     * Get the current number of pooled worker threads.
+     *
+     * @return number of threads in the worker pool or {@code -1} if threads are not pooled
+     * ({@link JdkHttpServerProperties#THREAD_PER_REQUEST thread-per-request} mode).
+     */
+    public int getPoolSize() {
+        return pool == null ? -1 : pool.getPoolSize();
+    }
+
+    /**
+     * Shut the executor down. Requests being processed are completed, no new requests are accepted.
+     */
+    void shutdown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
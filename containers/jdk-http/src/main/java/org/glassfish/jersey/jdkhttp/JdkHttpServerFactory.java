@@ -44,7 +44,6 @@ import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.logging.Logger;
 
 import javax.ws.rs.ProcessingException;
@@ -52,7 +51,6 @@ import javax.ws.rs.ProcessingException;
 import javax.net.ssl.SSLContext;
 
 import org.glassfish.jersey.jdkhttp.internal.LocalizationMessages;
-import org.glassfish.jersey.process.JerseyProcessingUncaughtExceptionHandler;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.internal.ConfigHelper;
 
@@ -64,10 +62,12 @@ import com.sun.net.httpserver.HttpServer;
 import com.sun.net.httpserver.HttpsConfigurator;
 import com.sun.net.httpserver.HttpsServer;
 
-import jersey.repackaged.com.google.common.util.concurrent.ThreadFactoryBuilder;
-
 /**
  * Factory for creating {@link HttpServer JDK HttpServer} instances to run Jersey applications.
+ * <p>
+ * Requests are processed by a {@link JdkHttpServerExecutor} configured using the {@link JdkHttpServerProperties JDK
+ * HTTP server properties} of the deployed application. The executor is shut down when the server is stopped.
+ * </p>
  *
  * @author Miroslav Fuksa
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -266,10 +266,7 @@ public final class JdkHttpServerFactory {
             ((HttpsServer) server).setHttpsConfigurator(httpsConfigurator);
         }
 
-        server.setExecutor(Executors.newCachedThreadPool(new ThreadFactoryBuilder()
-                .setNameFormat("jdk-http-server-%d")
-                .setUncaughtExceptionHandler(new JerseyProcessingUncaughtExceptionHandler())
-                .build()));
+        server.setExecutor(JdkHttpServerExecutor.create(handler.getConfiguration().getProperties()));
         server.createContext(path, handler);
 
         final HttpServer wrapper = isHttp
@@ -283,6 +280,13 @@ public final class JdkHttpServerFactory {
         return wrapper;
     }
 
+    private static void shutdownExecutor(final HttpServer server) {
+        final Executor executor = server.getExecutor();
+        if (executor instanceof JdkHttpServerExecutor) {
+            ((JdkHttpServerExecutor) executor).shutdown();
+        }
+    }
+
     private static HttpServer createHttpsServerWrapper(final HttpsServer delegate, final JdkHttpHandlerContainer handler) {
         return new HttpsServer() {
 
@@ -321,6 +325,7 @@ public final class JdkHttpServerFactory {
             public void stop(final int i) {
                 handler.onServerStop();
                 delegate.stop(i);
+                shutdownExecutor(delegate);
             }
 
             @Override
@@ -378,6 +383,7 @@ public final class JdkHttpServerFactory {
             public void stop(final int i) {
                 handler.onServerStop();
                 delegate.stop(i);
+                shutdownExecutor(delegate);
             }
 
             @Override
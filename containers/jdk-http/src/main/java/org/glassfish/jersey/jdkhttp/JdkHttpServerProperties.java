@@ -0,0 +1,122 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.jdkhttp;
+
+import org.glassfish.jersey.internal.util.PropertiesClass;
+
+/**
+ * Jersey JDK HTTP server container configuration properties.
+ * <p>
+ * The properties are read from the {@link org.glassfish.jersey.server.ResourceConfig application configuration}
+ * by the {@link JdkHttpServerFactory} when the server is created and configure the {@link JdkHttpServerExecutor
+ * executor} used to process the requests.
+ * </p>
+ *
+ * @since 2.18
+ */
+@PropertiesClass
+public final class JdkHttpServerProperties {
+
+    /**
+     * Maximum number of worker threads processing the requests.
+     * <p>
+     * If set to a positive value, requests are processed by a bounded pool with the given number of threads; requests
+     * that arrive while all the threads are busy wait in a queue (see {@link #WORKER_QUEUE_CAPACITY}). Otherwise an
+     * unbounded pool, creating new threads as needed and reusing the idle ones, is used.
+     * </p>
+     * <p>
+     * The property is ignored if {@link #THREAD_PER_REQUEST} is enabled.
+     * </p>
+     * <p>
+     * The default value is {@code 0}, i.e. the pool is unbounded.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     */
+    public static final String WORKER_POOL_SIZE = "jersey.config.jdkhttp.server.workerPool.size";
+
+    /**
+     * Maximum number of requests waiting for a worker thread of a bounded worker pool.
+     * <p>
+     * Once the queue is full, further requests are processed on the server dispatcher thread, which stops the server
+     * from accepting new connections until a request completes. The property is only effective with a bounded
+     * {@link #WORKER_POOL_SIZE worker pool}.
+     * </p>
+     * <p>
+     * The default value is {@code Integer.MAX_VALUE}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     */
+    public static final String WORKER_QUEUE_CAPACITY = "jersey.config.jdkhttp.server.workerPool.queueCapacity";
+
+    /**
+     * If {@code true}, every request is processed by a new thread created by the {@link #THREAD_FACTORY thread factory}
+     * and threads are not pooled.
+     * <p>
+     * This mode is intended for JVMs providing light-weight (virtual) threads, e.g. configured with
+     * {@code Thread.ofVirtual().factory()} as the {@link #THREAD_FACTORY thread factory}.
+     * </p>
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     */
+    public static final String THREAD_PER_REQUEST = "jersey.config.jdkhttp.server.threadPerRequest";
+
+    /**
+     * A {@link java.util.concurrent.ThreadFactory} instance used to create the threads processing the requests.
+     * <p>
+     * If not set, Jersey creates the threads named {@code jdk-http-server-<n>}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     */
+    public static final String THREAD_FACTORY = "jersey.config.jdkhttp.server.threadFactory";
+
+    private JdkHttpServerProperties() {
+        // prevents instantiation
+    }
+}
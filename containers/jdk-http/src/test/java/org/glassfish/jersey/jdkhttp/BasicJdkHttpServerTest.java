@@ -40,6 +40,11 @@
 
 package org.glassfish.jersey.jdkhttp;
 
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import javax.ws.rs.GET;
 import javax.ws.rs.Path;
 import javax.ws.rs.core.UriBuilder;
@@ -51,6 +56,8 @@ import org.junit.Test;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import com.sun.net.httpserver.HttpServer;
 import com.sun.net.httpserver.HttpsServer;
@@ -92,6 +99,50 @@ public class BasicJdkHttpServerTest extends AbstractJdkHttpServerTester {
         assertThat(server, instanceOf(HttpsServer.class));
     }
 
+    @Test
+    public void testWorkerPoolConfiguration() throws Exception {
+        final ResourceConfig config = new ResourceConfig(TestResource.class)
+                .property(JdkHttpServerProperties.WORKER_POOL_SIZE, 2);
+        final URI uri = UriBuilder.fromUri("http://localhost/").port(getPort()).build();
+        server = JdkHttpServerFactory.createHttpServer(uri, config);
+
+        assertThat(server.getExecutor(), instanceOf(JdkHttpServerExecutor.class));
+        final JdkHttpServerExecutor executor = (JdkHttpServerExecutor) server.getExecutor();
+
+        for (int i = 0; i < 3; i++) {
+            final HttpURLConnection connection = (HttpURLConnection) uri.resolve("test").toURL().openConnection();
+            assertEquals(200, connection.getResponseCode());
+            connection.disconnect();
+        }
+
+        assertTrue(executor.getSubmittedCount() >= 3);
+        assertTrue(executor.getPoolSize() <= 2);
+        assertEquals(0, executor.getQueueSize());
+    }
+
+    @Test
+    public void testThreadPerRequestConfiguration() throws Exception {
+        final AtomicInteger threads = new AtomicInteger();
+        final ResourceConfig config = new ResourceConfig(TestResource.class)
+                .property(JdkHttpServerProperties.THREAD_PER_REQUEST, true)
+                .property(JdkHttpServerProperties.THREAD_FACTORY, new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable r) {
+                        threads.incrementAndGet();
+                        return new Thread(r);
+                    }
+                });
+        final URI uri = UriBuilder.fromUri("http://localhost/").port(getPort()).build();
+        server = JdkHttpServerFactory.createHttpServer(uri, config);
+
+        final HttpURLConnection connection = (HttpURLConnection) uri.resolve("test").toURL().openConnection();
+        assertEquals(200, connection.getResponseCode());
+        connection.disconnect();
+
+        assertTrue(threads.get() >= 1);
+        assertEquals(-1, ((JdkHttpServerExecutor) server.getExecutor()).getPoolSize());
+    }
+
     @After
     public void tearDown() {
         if (server != null) {
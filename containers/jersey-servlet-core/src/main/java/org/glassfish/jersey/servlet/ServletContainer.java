@@ -545,11 +545,13 @@ public class ServletContainer extends HttpServlet implements Filter, Container {
             return;
         }
 
-        final int status = service(baseUri, requestUri, request, response).get();
+        final Value<Integer> status = service(baseUri, requestUri, request, response);
 
         // If forwarding is configured and response is a 404 with no entity
-        // body then call the next filter in the chain
-        if (webComponent.forwardOn404 && status == 404 && !response.isCommitted()) {
+        // body then call the next filter in the chain.
+        // The status is evaluated only if needed - in non-blocking I/O mode it is not known until the request
+        // entity has been read and the request processed.
+        if (webComponent.forwardOn404 && status.get() == 404 && !response.isCommitted()) {
             // lets clear the response to OK before we forward to the next in the chain
             // as OK is the default set by servlet containers before filters/servlets do any wor
             // so lets hide our footsteps and pretend we were never in the chain at all and let the
@@ -163,6 +163,70 @@ public final class ServletProperties {
      */
     public static final String QUERY_PARAMS_AS_FORM_PARAMS_DISABLED = "jersey.config.servlet.form.queryParams.disabled";
 
+    /**
+     * If {@code true} then request and response entities are transferred using the Servlet 3.1 non-blocking I/O.
+     * <p>
+     * The request entity is read using a {@code javax.servlet.ReadListener} and buffered in memory before the request
+     * is dispatched to the application, and the response entity is written using a {@code javax.servlet.WriteListener},
+     * buffering the bytes the client is not ready to receive. Container threads are therefore not blocked by slow clients,
+     * at the cost of holding the entities in memory. The response status is always set using
+     * {@link javax.servlet.http.HttpServletResponse#setStatus} in this mode
+     * (see {@link org.glassfish.jersey.server.ServerProperties#RESPONSE_SET_STATUS_OVER_SEND_ERROR}).
+     * </p>
+     * <p>
+     * The property is effective only with the Jersey Servlet 3.x container module deployed in a Servlet 3.1 (or newer)
+     * container, for servlets and filters supporting asynchronous processing. If Jersey is deployed as a filter,
+     * the property is ignored when {@link #FILTER_FORWARD_ON_404} is enabled.
+     * </p>
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.18
+     */
+    public static final String NON_BLOCKING_IO_ENABLED = "jersey.config.servlet.nonBlockingIo.enabled";
+
+    /**
+     * Maximal size (in bytes) of a request entity read using the {@link #NON_BLOCKING_IO_ENABLED non-blocking I/O}.
+     * <p>
+     * The request entity is buffered in memory before the request is dispatched to the application. Requests with
+     * a larger entity are rejected with the {@code 413 Request Entity Too Large} response status. A negative value
+     * removes the limit.
+     * </p>
+     * <p>
+     * The default value is {@code 10485760} (10 MiB).
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.18
+     */
+    public static final String NON_BLOCKING_IO_MAX_ENTITY_SIZE = "jersey.config.servlet.nonBlockingIo.maxEntitySize";
+
+    /**
+     * Maximal number of response bytes buffered by the {@link #NON_BLOCKING_IO_ENABLED non-blocking I/O} while
+     * the client is not ready to receive them.
+     * <p>
+     * Once the buffer is full, the application threads writing the response entity are blocked until the container
+     * is ready to accept more bytes. The container thread that dispatched the request to the application (e.g. running
+     * a synchronous resource method) must not be blocked, so the bytes it writes are buffered regardless of the limit
+     * and written once the client is ready to receive them.
+     * </p>
+     * <p>
+     * The default value is {@code 1048576} (1 MiB).
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.18
+     */
+    public static final String NON_BLOCKING_IO_OUTPUT_BUFFER_SIZE = "jersey.config.servlet.nonBlockingIo.outputBufferSize";
+
     /**
      * Identifies the object that will be used as a parent {@link ServiceLocator} in the Jersey
      * {@link WebComponent}.
@@ -40,6 +40,7 @@
 package org.glassfish.jersey.servlet;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.net.URI;
 import java.security.AccessController;
@@ -54,11 +55,11 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.ws.rs.RuntimeType;
+import javax.ws.rs.WebApplicationException;
 import javax.ws.rs.core.Form;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.MultivaluedMap;
@@ -83,12 +84,14 @@ import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.internal.util.collection.Value;
 import org.glassfish.jersey.internal.util.collection.Values;
 import org.glassfish.jersey.message.internal.HeaderValueException;
+import org.glassfish.jersey.message.internal.InboundHeaderSource;
 import org.glassfish.jersey.message.internal.MediaTypes;
 import org.glassfish.jersey.process.internal.RequestScoped;
 import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.server.ServerProperties;
+import org.glassfish.jersey.server.internal.HashedWheelTimer;
 import org.glassfish.jersey.server.internal.InternalServerProperties;
 import org.glassfish.jersey.server.internal.RuntimeExecutorsBinder;
 import org.glassfish.jersey.server.spi.RequestScopedInitializer;
@@ -100,6 +103,8 @@ import org.glassfish.jersey.servlet.internal.Utils;
 import org.glassfish.jersey.servlet.internal.spi.ServletContainerProvider;
 import org.glassfish.jersey.servlet.spi.AsyncContextDelegate;
 import org.glassfish.jersey.servlet.spi.AsyncContextDelegateProvider;
+import org.glassfish.jersey.servlet.spi.NonBlockingIoDelegate;
+import org.glassfish.jersey.servlet.spi.NonBlockingIoDelegateProvider;
 import org.glassfish.jersey.uri.UriComponent;
 
 import org.glassfish.hk2.api.Factory;
@@ -124,6 +129,9 @@ public class WebComponent {
 
     private static final Logger LOGGER = Logger.getLogger(WebComponent.class.getName());
 
+    private static final int DEFAULT_NON_BLOCKING_IO_MAX_ENTITY_SIZE = 10 * 1024 * 1024;
+    private static final int DEFAULT_NON_BLOCKING_IO_OUTPUT_BUFFER_SIZE = 1024 * 1024;
+
     private final Type REQUEST_TYPE = (new TypeLiteral<Ref<HttpServletRequest>>() {}).getType();
     private final Type RESPONSE_TYPE = (new TypeLiteral<Ref<HttpServletResponse>>() {}).getType();
 
@@ -162,6 +170,27 @@ public class WebComponent {
         };
     }
 
+    /**
+     * Return the first found {@link NonBlockingIoDelegateProvider} or {@code null} if the non-blocking I/O mode
+     * is not enabled or no provider can be found.
+     *
+     * @param resourceConfig Jersey application configuration.
+     * @return non-blocking I/O delegate provider or {@code null}.
+     */
+    private NonBlockingIoDelegateProvider getNonBlockingIoDelegateProvider(final ResourceConfig resourceConfig) {
+        if (forwardOn404 || !resourceConfig.isProperty(ServletProperties.NON_BLOCKING_IO_ENABLED)) {
+            return null;
+        }
+        final Iterator<NonBlockingIoDelegateProvider> providers = Providers.getAllProviders(appHandler.getServiceLocator(),
+                NonBlockingIoDelegateProvider.class).iterator();
+        if (providers.hasNext()) {
+            return providers.next();
+        }
+
+        LOGGER.warning(LocalizationMessages.NON_BLOCKING_IO_NOT_SUPPORTED());
+        return null;
+    }
+
     @SuppressWarnings("JavaDoc")
     private static class HttpServletRequestReferencingFactory extends ReferencingFactory<HttpServletRequest> {
 
@@ -269,6 +298,7 @@ public class WebComponent {
             }).to(WebConfig.class).in(Singleton.class);
 
             install(new ServiceFinderBinder<>(AsyncContextDelegateProvider.class, applicationProperties, RuntimeType.SERVER));
+            install(new ServiceFinderBinder<>(NonBlockingIoDelegateProvider.class, applicationProperties, RuntimeType.SERVER));
         }
     }
 
@@ -278,9 +308,9 @@ public class WebComponent {
     final ApplicationHandler appHandler;
 
     /**
-     * Jersey background task scheduler - used for scheduling request timeout event handling tasks.
+     * Jersey background timer - used for scheduling request timeout event handling tasks.
      */
-    final ScheduledExecutorService backgroundTaskScheduler;
+    final HashedWheelTimer backgroundTimer;
 
     /**
      * Web component configuration.
@@ -304,6 +334,21 @@ public class WebComponent {
      */
     private final AsyncContextDelegateProvider asyncExtensionDelegate;
 
+    /**
+     * Non-blocking I/O delegate provider, {@code null} if the non-blocking I/O mode is not enabled.
+     */
+    private final NonBlockingIoDelegateProvider nonBlockingIoProvider;
+
+    /**
+     * Maximal size of a request entity read using non-blocking I/O, negative if not limited.
+     */
+    private final long nonBlockingIoMaxEntitySize;
+
+    /**
+     * Maximal number of response bytes buffered by the non-blocking I/O.
+     */
+    private final int nonBlockingIoOutputBufferSize;
+
     /**
      * Flag whether query parameters should be kept as entity form params if a servlet filter consumes entity and
      * Jersey has to retrieve form params from servlet request parameters.
@@ -343,12 +388,22 @@ public class WebComponent {
         this.queryParamsAsFormParams = !resourceConfig.isProperty(ServletProperties.QUERY_PARAMS_AS_FORM_PARAMS_DISABLED);
         this.configSetStatusOverSendError = ServerProperties.getValue(resourceConfig.getProperties(),
                 ServerProperties.RESPONSE_SET_STATUS_OVER_SEND_ERROR, false, Boolean.class);
-        this.backgroundTaskScheduler = appHandler.getServiceLocator()
-                .getService(ScheduledExecutorService.class, new RuntimeExecutorsBinder.BackgroundSchedulerLiteral());
+        this.backgroundTimer = appHandler.getServiceLocator()
+                .getService(HashedWheelTimer.class, new RuntimeExecutorsBinder.BackgroundSchedulerLiteral());
+        this.nonBlockingIoProvider = getNonBlockingIoDelegateProvider(resourceConfig);
+        this.nonBlockingIoMaxEntitySize = ServerProperties.getValue(resourceConfig.getProperties(),
+                ServletProperties.NON_BLOCKING_IO_MAX_ENTITY_SIZE, DEFAULT_NON_BLOCKING_IO_MAX_ENTITY_SIZE, Integer.class);
+        this.nonBlockingIoOutputBufferSize = ServerProperties.getValue(resourceConfig.getProperties(),
+                ServletProperties.NON_BLOCKING_IO_OUTPUT_BUFFER_SIZE, DEFAULT_NON_BLOCKING_IO_OUTPUT_BUFFER_SIZE, Integer.class);
     }
 
     /**
      * Dispatch client requests to a resource class.
+     * <p>
+     * If the {@link ServletProperties#NON_BLOCKING_IO_ENABLED non-blocking I/O mode} is enabled and supported,
+     * the method returns once the request entity reading has started and the request is dispatched to the resource
+     * later, on the container thread that completes the entity reading.
+     * </p>
      *
      * @param baseUri         the base URI of the request.
      * @param requestUri      the URI of the request.
@@ -373,21 +428,72 @@ public class WebComponent {
 
         final ContainerRequest requestContext = new ContainerRequest(baseUri, requestUri,
                 servletRequest.getMethod(), getSecurityContext(servletRequest), new ServletPropertiesDelegate(servletRequest));
-        requestContext.setEntityStream(servletRequest.getInputStream());
         addRequestHeaders(servletRequest, requestContext);
 
-        try {
-            // Check if any servlet filters have consumed a request entity
-            // of the media type application/x-www-form-urlencoded
-            // This can happen if a filter calls request.getParameter(...)
-            filterFormParameters(servletRequest, requestContext);
-
+        final NonBlockingIoDelegate nonBlockingIo = nonBlockingIoProvider != null
+                ? nonBlockingIoProvider.createDelegate(servletRequest, servletResponse,
+                        nonBlockingIoMaxEntitySize, nonBlockingIoOutputBufferSize)
+                : null;
+        if (nonBlockingIo == null) {
+            requestContext.setEntityStream(servletRequest.getInputStream());
             final ResponseWriter responseWriter = new ResponseWriter(
                     forwardOn404,
                     configSetStatusOverSendError,
                     servletResponse,
                     asyncExtensionDelegate.createDelegate(servletRequest, servletResponse),
-                    backgroundTaskScheduler);
+                    backgroundTimer);
+
+            return serviceImpl(requestContext, servletRequest, servletResponse, responseWriter, null);
+        }
+
+        // sendError cannot be combined with a response entity written asynchronously
+        final ResponseWriter responseWriter = new ResponseWriter(
+                forwardOn404,
+                true,
+                servletResponse,
+                nonBlockingIo,
+                backgroundTimer);
+
+        nonBlockingIo.readEntity(new NonBlockingIoDelegate.EntityCallback() {
+            @Override
+            public void entity(final InputStream entity) {
+                requestContext.setEntityStream(entity);
+                try {
+                    serviceImpl(requestContext, servletRequest, servletResponse, responseWriter, nonBlockingIo);
+                } catch (final ServletException | IOException | RuntimeException e) {
+                    LOGGER.log(Level.WARNING, LocalizationMessages.NON_BLOCKING_IO_REQUEST_FAILED(), e);
+                    completeFailed(servletResponse, nonBlockingIo, Response.Status.INTERNAL_SERVER_ERROR);
+                }
+            }
+
+            @Override
+            public void failure(final Throwable error) {
+                LOGGER.log(Level.FINE, LocalizationMessages.NON_BLOCKING_IO_READ_FAILED(), error);
+                final Response.StatusType status = error instanceof WebApplicationException
+                        ? ((WebApplicationException) error).getResponse().getStatusInfo()
+                        : Response.Status.BAD_REQUEST;
+                completeFailed(servletResponse, nonBlockingIo, status);
+            }
+        });
+
+        return Values.lazy(new Value<Integer>() {
+            @Override
+            public Integer get() {
+                return responseWriter.getResponseStatus();
+            }
+        });
+    }
+
+    private Value<Integer> serviceImpl(final ContainerRequest requestContext,
+                                       final HttpServletRequest servletRequest,
+                                       final HttpServletResponse servletResponse,
+                                       final ResponseWriter responseWriter,
+                                       final NonBlockingIoDelegate nonBlockingIo) throws ServletException, IOException {
+        try {
+            // Check if any servlet filters have consumed a request entity
+            // of the media type application/x-www-form-urlencoded
+            // This can happen if a filter calls request.getParameter(...)
+            filterFormParameters(servletRequest, requestContext);
 
             requestContext.setRequestScopedInitializer(new RequestScopedInitializer() {
                 @Override
@@ -408,7 +514,9 @@ public class WebComponent {
             });
         } catch (final HeaderValueException hve) {
             final Response.Status status = Response.Status.BAD_REQUEST;
-            if (configSetStatusOverSendError) {
+            if (nonBlockingIo != null) {
+                completeFailed(servletResponse, nonBlockingIo, status);
+            } else if (configSetStatusOverSendError) {
                 servletResponse.reset();
                 //noinspection deprecation
                 servletResponse.setStatus(status.getStatusCode(), status.getReasonPhrase());
@@ -420,7 +528,27 @@ public class WebComponent {
         } catch (final Exception e) {
             throw new ServletException(e);
         }
+    }
 
+    /**
+     * Set the failure status (unless the response has already been committed) and complete
+     * the non-blocking request processing.
+     */
+    private static void completeFailed(final HttpServletResponse servletResponse,
+                                       final NonBlockingIoDelegate nonBlockingIo,
+                                       final Response.StatusType status) {
+        try {
+            if (!servletResponse.isCommitted()) {
+                servletResponse.reset();
+                //noinspection deprecation
+                servletResponse.setStatus(status.getStatusCode(), status.getReasonPhrase());
+            }
+        } catch (final IllegalStateException ex) {
+            // a race condition externally committing the response can still occur...
+            LOGGER.log(Level.FINER, "Unable to reset failed response.", ex);
+        } finally {
+            nonBlockingIo.complete();
+        }
     }
 
     /**
@@ -522,22 +650,64 @@ public class WebComponent {
     }
 
     /**
-     * Copy request headers present in {@code request} into {@code requestContext} ignoring {@code null} values.
+     * Make request headers present in {@code request} available in {@code requestContext} ignoring {@code null} values.
+     * <p>
+     * The headers are read from the servlet request on demand, they are only copied into the {@code requestContext}
+     * once the whole header map is requested.
+     * </p>
      *
-     * @param request http servlet request to copy headers from.
-     * @param requestContext container request to copy headers to.
+     * @param request        http servlet request to read headers from.
+     * @param requestContext container request to provide the headers to.
      */
-    @SuppressWarnings("unchecked")
     private void addRequestHeaders(final HttpServletRequest request, final ContainerRequest requestContext) {
-        final Enumeration<String> names = request.getHeaderNames();
-        while (names.hasMoreElements()) {
-            final String name = names.nextElement();
+        requestContext.headers(new RequestHeaderSource(request));
+    }
+
+    /**
+     * Header source reading the request headers directly from the servlet request.
+     */
+    private static final class RequestHeaderSource implements InboundHeaderSource {
 
+        private final HttpServletRequest request;
+
+        private RequestHeaderSource(final HttpServletRequest request) {
+            this.request = request;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public List<String> get(final String name) {
             final Enumeration<String> values = request.getHeaders(name);
+            if (values == null) {
+                return null;
+            }
+
+            List<String> result = null;
             while (values.hasMoreElements()) {
                 final String value = values.nextElement();
                 if (value != null) { // filter out null values
-                    requestContext.header(name, value);
+                    if (result == null) {
+                        result = new ArrayList<>(1);
+                    }
+                    result.add(value);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void copyTo(final MultivaluedMap<String, String> headers) {
+            final Enumeration<String> names = request.getHeaderNames();
+            while (names.hasMoreElements()) {
+                final String name = names.nextElement();
+
+                final Enumeration<String> values = request.getHeaders(name);
+                while (values.hasMoreElements()) {
+                    final String value = values.nextElement();
+                    if (value != null) { // filter out null values
+                        headers.add(name, value);
+                    }
                 }
             }
         }
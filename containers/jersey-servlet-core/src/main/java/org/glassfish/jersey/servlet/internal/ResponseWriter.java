@@ -45,7 +45,6 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -57,9 +56,11 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.glassfish.jersey.server.ContainerException;
 import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.internal.HashedWheelTimer;
 import org.glassfish.jersey.server.internal.JerseyRequestTimeoutHandler;
 import org.glassfish.jersey.server.spi.ContainerResponseWriter;
 import org.glassfish.jersey.servlet.spi.AsyncContextDelegate;
+import org.glassfish.jersey.servlet.spi.NonBlockingIoDelegate;
 
 import jersey.repackaged.com.google.common.util.concurrent.SettableFuture;
 
@@ -97,21 +98,21 @@ public class ResponseWriter implements ContainerResponseWriter {
      *                                     {@link HttpServletResponse#sendError}
      * @param response                     original HttpResponseRequest
      * @param asyncExt                     delegate to use for async features implementation
-     * @param timeoutTaskExecutor          Jersey runtime executor used for background execution of timeout
+     * @param timeoutTimer                 Jersey runtime background timer used to track and execute timeout
      *                                     handling tasks.
      */
     public ResponseWriter(final boolean useSetStatusOn404,
                           final boolean configSetStatusOverSendError,
                           final HttpServletResponse response,
                           final AsyncContextDelegate asyncExt,
-                          final ScheduledExecutorService timeoutTaskExecutor) {
+                          final HashedWheelTimer timeoutTimer) {
         this.useSetStatusOn404 = useSetStatusOn404;
         this.configSetStatusOverSendError = configSetStatusOverSendError;
         this.response = response;
         this.asyncExt = asyncExt;
         this.responseContext = SettableFuture.create();
 
-        this.requestTimeoutHandler = new JerseyRequestTimeoutHandler(this, timeoutTaskExecutor);
+        this.requestTimeoutHandler = new JerseyRequestTimeoutHandler(this, timeoutTimer);
     }
 
     @Override
@@ -173,7 +174,9 @@ public class ResponseWriter implements ContainerResponseWriter {
             return null;
         } else {
             try {
-                final OutputStream outputStream = response.getOutputStream();
+                // non-blocking output stream never blocks the caller, the bytes are written once the container is ready
+                final OutputStream outputStream = asyncExt instanceof NonBlockingIoDelegate
+                        ? ((NonBlockingIoDelegate) asyncExt).getOutputStream() : response.getOutputStream();
 
                 // delegating output stream prevents closing the underlying servlet output stream,
                 // so that any Servlet filters in the chain can still write to the response after us.
@@ -0,0 +1,100 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.servlet.spi;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Utilized by the Servlet container to read the request entity and write the response entity without blocking
+ * the container threads. Individual instances are created by {@link NonBlockingIoDelegateProvider}.
+ * <p>
+ * The request is put into the asynchronous mode as soon as the {@link #readEntity(EntityCallback) entity reading}
+ * starts, therefore {@link #suspend()} does not need to do anything. The asynchronous mode is {@link #complete()
+ * completed} only after all the response bytes have been written to the container.
+ * </p>
+ *
+ * @see NonBlockingIoDelegateProvider
+ * @since 2.18
+ */
+public interface NonBlockingIoDelegate extends AsyncContextDelegate {
+
+    /**
+     * Callback notified once the request entity has been read.
+     */
+    public static interface EntityCallback {
+
+        /**
+         * Invoked once the whole request entity has been read.
+         *
+         * @param entity buffered request entity.
+         */
+        public void entity(InputStream entity);
+
+        /**
+         * Invoked if the request entity reading has failed.
+         *
+         * @param error reading failure. A {@link javax.ws.rs.WebApplicationException} carries the response status
+         *              the request should be rejected with.
+         */
+        public void failure(Throwable error);
+    }
+
+    /**
+     * Put the request into the asynchronous mode and read the request entity without blocking the calling thread.
+     * The callback is invoked on a container thread once the entity has been read; requests without an entity
+     * may be reported directly from within this method.
+     *
+     * @param callback entity callback.
+     */
+    public void readEntity(EntityCallback callback);
+
+    /**
+     * Get the response output stream. Bytes written to the stream are passed to the container as soon as
+     * the container is ready to accept them, the remaining bytes are buffered up to a limit. Once the limit
+     * is reached, writing blocks until the container accepts more bytes; writing from the container thread
+     * the request has been dispatched on fails with an {@link IOException} instead.
+     *
+     * @return non-blocking response output stream.
+     * @throws IOException in case the servlet output stream cannot be obtained.
+     */
+    public OutputStream getOutputStream() throws IOException;
+}
@@ -0,0 +1,434 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.servlet.async;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.ClientErrorException;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.servlet.spi.NonBlockingIoDelegate;
+
+/**
+ * Servlet 3.1 {@link NonBlockingIoDelegate} reading the request entity using a {@link ReadListener}
+ * and writing the response entity using a {@link WriteListener}.
+ * <p>
+ * Both directions are bounded: request entities exceeding the configured maximal size are rejected
+ * with {@code 413 Request Entity Too Large} and writers of the response entity are held back once
+ * the configured number of response bytes is waiting for the client.
+ * </p>
+ */
+final class NonBlockingIoDelegateImpl implements NonBlockingIoDelegate {
+
+    private static final int NEVER_TIMEOUT_VALUE = -1;
+    private static final int BUFFER_SIZE = 8192;
+
+    private final HttpServletRequest request;
+    private final HttpServletResponse response;
+    private final long maxEntitySize;
+    private final int outputBufferSize;
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+
+    private volatile AsyncContext asyncContext;
+    private volatile NonBlockingOutputStream outputStream;
+    /**
+     * Container thread currently dispatching the request to the application, must never be blocked.
+     */
+    private volatile Thread dispatchThread;
+
+    /**
+     * Create a Servlet 3.1 {@link NonBlockingIoDelegate} with given {@code request} and {@code response}.
+     *
+     * @param request          request to be processed.
+     * @param response         response to be written.
+     * @param maxEntitySize    maximal request entity size in bytes, negative if not limited.
+     * @param outputBufferSize maximal number of buffered response bytes.
+     */
+    NonBlockingIoDelegateImpl(final HttpServletRequest request,
+                              final HttpServletResponse response,
+                              final long maxEntitySize,
+                              final int outputBufferSize) {
+        this.request = request;
+        this.response = response;
+        this.maxEntitySize = maxEntitySize;
+        this.outputBufferSize = outputBufferSize;
+    }
+
+    @Override
+    public void readEntity(final EntityCallback callback) {
+        final long contentLength;
+        try {
+            final AsyncContext context = request.startAsync(request, response);
+            // Tell underlying asyncContext to never time out.
+            context.setTimeout(NEVER_TIMEOUT_VALUE);
+            asyncContext = context;
+
+            contentLength = request.getContentLengthLong();
+        } catch (final IllegalStateException e) {
+            callback.failure(e);
+            return;
+        }
+
+        if (contentLength == 0 || (contentLength < 0 && request.getHeader("Transfer-Encoding") == null)) {
+            // nothing to read - dispatch directly
+            dispatch(callback, new byte[0]);
+            return;
+        }
+        if (isTooLarge(contentLength)) {
+            callback.failure(new ClientErrorException(Response.Status.REQUEST_ENTITY_TOO_LARGE));
+            return;
+        }
+
+        final ServletInputStream in;
+        try {
+            in = request.getInputStream();
+        } catch (final IOException e) {
+            callback.failure(e);
+            return;
+        }
+
+        final EntityReader reader = new EntityReader(in, callback, contentLength);
+        in.setReadListener(reader);
+        // not every container starts reading on its own before the input stream has been asked whether it is ready
+        try {
+            reader.onDataAvailable();
+        } catch (final IOException e) {
+            reader.onError(e);
+        }
+    }
+
+    private boolean isTooLarge(final long size) {
+        return maxEntitySize >= 0 && size > maxEntitySize;
+    }
+
+    private void dispatch(final EntityCallback callback, final byte[] entity) {
+        dispatchThread = Thread.currentThread();
+        try {
+            callback.entity(new ByteArrayInputStream(entity));
+        } finally {
+            dispatchThread = null;
+        }
+    }
+
+    @Override
+    public void suspend() throws IllegalStateException {
+        // the request has been put into the asynchronous mode before the entity has been read
+    }
+
+    @Override
+    public void complete() {
+        if (completed.compareAndSet(false, true)) {
+            final NonBlockingOutputStream out = outputStream;
+            if (out != null) {
+                out.complete();
+            } else {
+                completeAsync();
+            }
+        }
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            final NonBlockingOutputStream out = new NonBlockingOutputStream(response.getOutputStream());
+            outputStream = out;
+            out.register();
+        }
+        return outputStream;
+    }
+
+    private void completeAsync() {
+        final AsyncContext context = asyncContext;
+        if (context != null) {
+            context.complete();
+        }
+    }
+
+    /**
+     * {@link ReadListener} collecting the request entity and dispatching the request once the whole entity has been read.
+     * <p>
+     * Reading is synchronized as the listener may be driven by both the container and the thread registering it.
+     * The request is dispatched (or failed) at most once and never while holding the reader lock.
+     * </p>
+     */
+    private final class EntityReader implements ReadListener {
+
+        private final ServletInputStream in;
+        private final EntityCallback callback;
+        private final ByteArrayOutputStream entity;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        private EntityReader(final ServletInputStream in, final EntityCallback callback, final long contentLength) {
+            this.in = in;
+            this.callback = callback;
+            this.entity = new ByteArrayOutputStream(
+                    contentLength > 0 && contentLength < Integer.MAX_VALUE ? (int) contentLength : BUFFER_SIZE);
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            final boolean allRead;
+            synchronized (this) {
+                allRead = readAvailable();
+            }
+            if (allRead) {
+                // some containers do not call onAllDataRead() once the end of the stream has been read here
+                onAllDataRead();
+            }
+        }
+
+        /**
+         * Read the available bytes.
+         *
+         * @return {@code true} if the end of the entity has been reached, {@code false} otherwise.
+         * @throws IOException in case of an I/O error.
+         */
+        private boolean readAvailable() throws IOException {
+            while (!done.get() && in.isReady()) {
+                final int read = in.read(buffer);
+                if (read == -1) {
+                    return true;
+                }
+                if (isTooLarge(entity.size() + (long) read)) {
+                    // stop reading, the rest of the entity is left to the container
+                    if (done.compareAndSet(false, true)) {
+                        callback.failure(new ClientErrorException(Response.Status.REQUEST_ENTITY_TOO_LARGE));
+                    }
+                    return false;
+                }
+                entity.write(buffer, 0, read);
+            }
+            return false;
+        }
+
+        @Override
+        public void onAllDataRead() {
+            if (done.compareAndSet(false, true)) {
+                final byte[] bytes;
+                synchronized (this) {
+                    bytes = entity.toByteArray();
+                }
+                dispatch(callback, bytes);
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            if (done.compareAndSet(false, true)) {
+                callback.failure(t);
+            }
+        }
+    }
+
+    /**
+     * Output stream passing the bytes to the servlet output stream as long as the container is ready to accept them
+     * and buffering the remaining bytes until the {@link WriteListener} is notified. The stream does not close
+     * the servlet output stream, the response is finished by completing the asynchronous context once all the bytes
+     * have been written.
+     * <p>
+     * At most {@code outputBufferSize} bytes are buffered (a single larger write is accepted into an empty buffer).
+     * Writers exceeding the limit wait until the container drains the buffer, except for the dispatching container
+     * thread, which would never be notified. The bytes written by the dispatching thread are always buffered and
+     * drained from {@link #onWritePossible()}, so the limit only holds back application threads.
+     * </p>
+     */
+    private final class NonBlockingOutputStream extends OutputStream implements WriteListener {
+
+        private final ServletOutputStream out;
+        private final ArrayDeque<byte[]> pending = new ArrayDeque<>();
+        private long pendingBytes;
+
+        private boolean flushRequested;
+        private boolean completeRequested;
+        private boolean finished;
+        private Throwable error;
+
+        private NonBlockingOutputStream(final ServletOutputStream out) {
+            this.out = out;
+        }
+
+        private void register() {
+            out.setWriteListener(this);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            synchronized (this) {
+                checkError();
+                drain();
+                // the dispatching container thread keeps buffering - it must not wait for the container
+                while (!pending.isEmpty() && pendingBytes + len > outputBufferSize && Thread.currentThread() != dispatchThread) {
+                    try {
+                        // notified once the container drains the buffer or the write fails
+                        wait();
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                    checkError();
+                }
+                pending.add(Arrays.copyOfRange(b, off, off + len));
+                pendingBytes += len;
+                drain();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            synchronized (this) {
+                checkError();
+                flushRequested = true;
+                drain();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            // do not close - the response is finished by completing the asynchronous context
+            flush();
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            synchronized (this) {
+                drain();
+            }
+        }
+
+        @Override
+        public void onError(final Throwable t) {
+            synchronized (this) {
+                error = t;
+                pending.clear();
+                pendingBytes = 0;
+                notifyAll();
+                if (finished) {
+                    return;
+                }
+                finished = true;
+            }
+            completeAsync();
+        }
+
+        private void complete() {
+            boolean completeNow = false;
+            synchronized (this) {
+                completeRequested = true;
+                try {
+                    drain();
+                } catch (final IOException e) {
+                    error = e;
+                    pending.clear();
+                    pendingBytes = 0;
+                    notifyAll();
+                    if (!finished) {
+                        finished = true;
+                        completeNow = true;
+                    }
+                }
+            }
+            if (completeNow) {
+                completeAsync();
+            }
+        }
+
+        /**
+         * Write the pending bytes while the container is ready. Must be invoked while holding the stream lock.
+         * Completes the asynchronous context once all the bytes of a completed response have been written.
+         */
+        private void drain() throws IOException {
+            if (finished || error != null) {
+                return;
+            }
+            final long buffered = pendingBytes;
+            while (!pending.isEmpty() && out.isReady()) {
+                final byte[] bytes = pending.poll();
+                pendingBytes -= bytes.length;
+                out.write(bytes);
+            }
+            if (pendingBytes < buffered) {
+                // wake up the writers waiting for the buffer space
+                notifyAll();
+            }
+            if (!pending.isEmpty()) {
+                // the container will call onWritePossible once it is ready again
+                return;
+            }
+            if (flushRequested && out.isReady()) {
+                flushRequested = false;
+                out.flush();
+            }
+            if (completeRequested && out.isReady()) {
+                finished = true;
+                completeAsync();
+            }
+        }
+
+        private void checkError() throws IOException {
+            if (error != null) {
+                throw error instanceof IOException ? (IOException) error : new IOException(error);
+            }
+        }
+    }
+}
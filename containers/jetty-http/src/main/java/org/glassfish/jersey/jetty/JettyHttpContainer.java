@@ -45,6 +45,7 @@ import java.lang.reflect.Type;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.security.Principal;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map;
@@ -53,6 +54,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.SecurityContext;
 
 import javax.inject.Inject;
@@ -66,6 +68,7 @@ import org.glassfish.jersey.internal.inject.ReferencingFactory;
 import org.glassfish.jersey.internal.util.ExtendedLogger;
 import org.glassfish.jersey.internal.util.collection.Ref;
 import org.glassfish.jersey.jetty.internal.LocalizationMessages;
+import org.glassfish.jersey.message.internal.InboundHeaderSource;
 import org.glassfish.jersey.process.internal.RequestScoped;
 import org.glassfish.jersey.server.ApplicationHandler;
 import org.glassfish.jersey.server.ContainerException;
@@ -88,6 +91,7 @@ import org.eclipse.jetty.continuation.Continuation;
 import org.eclipse.jetty.continuation.ContinuationListener;
 import org.eclipse.jetty.continuation.ContinuationSupport;
 import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.server.HttpOutput;
 import org.eclipse.jetty.server.Request;
 import org.eclipse.jetty.server.Response;
 import org.eclipse.jetty.server.handler.AbstractHandler;
@@ -183,11 +187,7 @@ public final class JettyHttpContainer extends AbstractHandler implements Contain
                     getSecurityContext(request),
                     new MapPropertiesDelegate());
             requestContext.setEntityStream(request.getInputStream());
-            final Enumeration<String> headerNames = request.getHeaderNames();
-            while (headerNames.hasMoreElements()) {
-                final String headerName = headerNames.nextElement();
-                requestContext.headers(headerName, request.getHeader(headerName));
-            }
+            requestContext.headers(new RequestHeaderSource(request));
             requestContext.setWriter(responseWriter);
             requestContext.setRequestScopedInitializer(new RequestScopedInitializer() {
                 @Override
@@ -253,6 +253,33 @@ public final class JettyHttpContainer extends AbstractHandler implements Contain
         }
     }
 
+    /**
+     * Header source reading the request headers directly from the Jetty request.
+     */
+    private static final class RequestHeaderSource implements InboundHeaderSource {
+
+        private final Request request;
+
+        RequestHeaderSource(final Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public List<String> get(final String name) {
+            final String value = request.getHeader(name);
+            return value == null ? null : Collections.singletonList(value);
+        }
+
+        @Override
+        public void copyTo(final MultivaluedMap<String, String> headers) {
+            final Enumeration<String> headerNames = request.getHeaderNames();
+            while (headerNames.hasMoreElements()) {
+                final String headerName = headerNames.nextElement();
+                headers.add(headerName, request.getHeader(headerName));
+            }
+        }
+    }
+
     private static final class ResponseWriter implements ContainerResponseWriter {
 
         private final Response response;
@@ -287,7 +314,8 @@ public final class JettyHttpContainer extends AbstractHandler implements Contain
             }
 
             try {
-                return response.getOutputStream();
+                final OutputStream out = response.getOutputStream();
+                return out instanceof HttpOutput ? new JettyResponseOutputStream((HttpOutput) out) : out;
             } catch (final IOException ioe) {
                 throw new ContainerException("Error during writing out the response headers.", ioe);
             }
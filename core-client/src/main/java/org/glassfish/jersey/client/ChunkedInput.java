@@ -42,6 +42,7 @@ package org.glassfish.jersey.client;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.annotation.Annotation;
@@ -109,13 +110,27 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
 
     private static class FixedBoundaryParser implements ChunkParser {
         private final byte[] delimiter;
+        /**
+         * Boyer-Moore-Horspool bad character shift table.
+         */
+        private final int[] shifts;
 
         public FixedBoundaryParser(final byte[] boundary) {
             delimiter = Arrays.copyOf(boundary, boundary.length);
+
+            shifts = new int[256];
+            Arrays.fill(shifts, delimiter.length);
+            for (int i = 0; i < delimiter.length - 1; i++) {
+                shifts[delimiter[i] & 0xFF] = delimiter.length - 1 - i;
+            }
         }
 
         @Override
         public byte[] readChunk(final InputStream in) throws IOException {
+            if (in instanceof ReadAheadInputStream && delimiter.length > 0) {
+                return readChunk((ReadAheadInputStream) in);
+            }
+
             final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
             final byte[] delimiterBuffer = new byte[delimiter.length];
 
@@ -145,6 +160,158 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
             }
             return null;
         }
+
+        /**
+         * Read the next non-empty chunk by scanning the read-ahead buffer of the stream for the delimiter.
+         *
+         * The chunk data are kept in the stream buffer until the delimiter is found, so the chunk is copied only once.
+         * Any data read past the delimiter stay buffered in the stream for the next chunk.
+         *
+         * @param in read-ahead response entity stream.
+         * @return next chunk data or {@code null} if the stream has been fully consumed.
+         * @throws IOException in case reading from the response entity fails.
+         */
+        private byte[] readChunk(final ReadAheadInputStream in) throws IOException {
+            // number of bytes after the stream position known not to start a delimiter
+            int scanned = 0;
+            while (true) {
+                final int match = indexOfDelimiter(in.buffer, in.position + scanned, in.limit);
+                if (match >= 0) {
+                    final int start = in.position;
+                    in.position = match + delimiter.length;
+                    if (match > start) {
+                        return Arrays.copyOfRange(in.buffer, start, match);
+                    }
+                    // empty chunk - skip
+                    scanned = 0;
+                    continue;
+                }
+
+                scanned = Math.max(0, in.limit - in.position - delimiter.length + 1);
+                if (in.fill() < 0) {
+                    if (in.limit > in.position) {
+                        final byte[] chunk = Arrays.copyOfRange(in.buffer, in.position, in.limit);
+                        in.position = in.limit;
+                        return chunk;
+                    }
+                    return null;
+                }
+            }
+        }
+
+        private int indexOfDelimiter(final byte[] buffer, final int from, final int to) {
+            final int last = delimiter.length - 1;
+            int i = from;
+            while (i + last < to) {
+                int j = last;
+                while (buffer[i + j] == delimiter[j]) {
+                    if (j == 0) {
+                        return i;
+                    }
+                    j--;
+                }
+                i += shifts[buffer[i + last] & 0xFF];
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Response entity stream wrapper that keeps a read-ahead buffer accessible to the {@link FixedBoundaryParser}.
+     *
+     * Chunk parsers may be shared by multiple chunked inputs (and threads), so the data read past a chunk delimiter
+     * are kept with the stream rather than in the parser.
+     */
+    static final class ReadAheadInputStream extends FilterInputStream {
+
+        private static final int INITIAL_BUFFER_SIZE = 8192;
+
+        private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+        private int position = 0;
+        private int limit = 0;
+
+        ReadAheadInputStream(final InputStream in) {
+            super(in);
+        }
+
+        /**
+         * Read more data into the buffer. The unread data are moved to the beginning of the buffer
+         * and the buffer is enlarged if there is no space left.
+         *
+         * @return number of bytes read or {@code -1} if the end of the stream has been reached.
+         * @throws IOException in case reading from the underlying stream fails.
+         */
+        private int fill() throws IOException {
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                limit -= position;
+                position = 0;
+            }
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+
+            final int read = in.read(buffer, limit, buffer.length - limit);
+            if (read > 0) {
+                limit += read;
+            }
+            return read;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position < limit) {
+                return buffer[position++] & 0xFF;
+            }
+            return in.read();
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (position < limit) {
+                final int count = Math.min(len, limit - position);
+                System.arraycopy(buffer, position, b, off, count);
+                position += count;
+                return count;
+            }
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            if (n <= 0) {
+                return 0;
+            }
+            if (position < limit) {
+                final int count = (int) Math.min(n, limit - position);
+                position += count;
+                return count;
+            }
+            return in.skip(n);
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (limit - position) + in.available();
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public synchronized void mark(final int readLimit) {
+            // not supported
+        }
+
+        @Override
+        public synchronized void reset() throws IOException {
+            throw new IOException("mark/reset not supported");
+        }
     }
 
     /**
@@ -168,7 +335,7 @@ public class ChunkedInput<T> extends GenericType<T> implements Closeable {
             final PropertiesDelegate propertiesDelegate) {
         super(chunkType);
 
-        this.inputStream = inputStream;
+        this.inputStream = (inputStream == null) ? null : new ReadAheadInputStream(inputStream);
         this.annotations = annotations;
         this.mediaType = mediaType;
         this.headers = headers;
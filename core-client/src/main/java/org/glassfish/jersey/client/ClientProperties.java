@@ -385,6 +385,123 @@ public final class ClientProperties {
      */
     public static final String REQUEST_ENTITY_PROCESSING = "jersey.config.client.request.entity.processing";
 
+    /**
+     * If {@code true}, identical concurrent {@code GET} and {@code HEAD} requests are coalesced into a single
+     * {@link org.glassfish.jersey.client.spi.Connector connector} invocation.
+     * <p>
+     * Requests are identical if they have the same method, URI, headers and properties (after the request filters have been
+     * applied), so that requests overriding e.g. the {@link #READ_TIMEOUT read timeout} are never coalesced with other requests.
+     * Requests that arrive while an identical request is in flight wait for its response instead of being sent.
+     * The response entity is buffered in memory and every coalesced request receives its own copy of the response.
+     * Only responses of a known length up to the {@link #REQUEST_COALESCING_MAX_ENTITY_SIZE maximum entity size} are
+     * buffered. Event streams, chunked responses and responses of an unknown length are passed to the first request
+     * as they are and the waiting requests are sent on their own. Requests accepting only {@code text/event-stream}
+     * are never coalesced.
+     * </p>
+     * <p>
+     * A single request can opt out of coalescing by setting the property to {@code false} in its request properties.
+     * </p>
+     * <p>
+     * The value MUST be an instance of {@link java.lang.Boolean}.
+     * </p>
+     * <p>
+     * The default value is {@code false}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @see RequestCoalescingFeature
+     * @since 2.18
+     */
+    public static final String REQUEST_COALESCING = "jersey.config.client.request.coalescing";
+
+    /**
+     * Maximum size [bytes] of a response entity that is buffered and shared by the {@link #REQUEST_COALESCING coalesced}
+     * requests.
+     * <p>
+     * If the response to the first of the coalesced requests declares a larger {@code Content-Length}, the response
+     * is passed to the first request as it is and the other requests are sent on their own.
+     * </p>
+     * <p>
+     * The value MUST be an instance of {@link java.lang.Integer}.
+     * </p>
+     * <p>
+     * The default value is {@value #DEFAULT_REQUEST_COALESCING_MAX_ENTITY_SIZE}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.18
+     */
+    public static final String REQUEST_COALESCING_MAX_ENTITY_SIZE = "jersey.config.client.request.coalescing.maxEntitySize";
+
+    /**
+     * Default value of the {@link #REQUEST_COALESCING_MAX_ENTITY_SIZE} property.
+     *
+     * @since 2.18
+     */
+    public static final int DEFAULT_REQUEST_COALESCING_MAX_ENTITY_SIZE = 1024 * 1024;
+
+    /**
+     * Base URIs of replicated endpoints the client requests are balanced across.
+     * <p>
+     * A request addressed to (a sub-resource of) any of the replica base URIs is sent to the replica with the lowest
+     * expected latency, computed from the exponentially weighted moving average of the replica response times and the
+     * number of requests currently in flight to the replica. Idempotent requests may additionally be hedged
+     * (see {@link #HEDGING_PERCENTILE}).
+     * </p>
+     * <p>
+     * The replica is chosen when the request is sent, after the client request filters have been invoked; the filters
+     * see the URI the request is addressed to, not the URI of the chosen replica.
+     * </p>
+     * <p>
+     * The value MUST be an instance of {@link java.lang.String} containing comma-separated URIs, an array or
+     * a {@link java.util.Collection} of {@link java.lang.String Strings} or {@link java.net.URI URIs}.
+     * </p>
+     * <p>
+     * There is no default value, requests are sent to the URI they are addressed to.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @see HedgedRequestsFeature
+     * @since 2.18
+     */
+    public static final String REPLICAS = "jersey.config.client.replicas";
+
+    /**
+     * Percentile of the recent response times after which a hedged duplicate of a pending idempotent request
+     * ({@code GET}, {@code HEAD} or {@code OPTIONS} without an entity) is sent to another {@link #REPLICAS replica}.
+     * <p>
+     * The first response received is used, the other request is cancelled. Hedging starts once enough response times
+     * have been observed. A value of {@code 0} disables hedging while keeping the latency-based replica selection.
+     * The property is effective only if at least two replicas are configured.
+     * </p>
+     * <p>
+     * The value MUST be an instance of {@link java.lang.Integer} between {@code 0} and {@code 100}.
+     * </p>
+     * <p>
+     * The default value is {@value #DEFAULT_HEDGING_PERCENTILE}.
+     * </p>
+     * <p>
+     * The name of the configuration property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @see HedgedRequestsFeature
+     * @since 2.18
+     */
+    public static final String HEDGING_PERCENTILE = "jersey.config.client.hedging.percentile";
+
+    /**
+     * Default value of the {@link #HEDGING_PERCENTILE} property.
+     *
+     * @since 2.18
+     */
+    public static final int DEFAULT_HEDGING_PERCENTILE = 95;
+
     private ClientProperties() {
         // prevents instantiation
     }
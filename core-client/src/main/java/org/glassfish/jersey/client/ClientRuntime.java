@@ -39,10 +39,12 @@
  */
 package org.glassfish.jersey.client;
 
+import java.net.URI;
 import java.util.Arrays;
-import java.util.concurrent.ExecutionException;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -57,6 +59,7 @@ import org.glassfish.jersey.client.spi.Connector;
 import org.glassfish.jersey.internal.Version;
 import org.glassfish.jersey.internal.inject.Injections;
 import org.glassfish.jersey.internal.inject.Providers;
+import org.glassfish.jersey.internal.util.PropertiesHelper;
 import org.glassfish.jersey.message.MessageBodyWorkers;
 import org.glassfish.jersey.process.internal.ChainableStage;
 import org.glassfish.jersey.process.internal.RequestScope;
@@ -65,8 +68,6 @@ import org.glassfish.jersey.process.internal.Stages;
 
 import org.glassfish.hk2.api.ServiceLocator;
 
-import jersey.repackaged.com.google.common.util.concurrent.SettableFuture;
-
 /**
  * Client-side request processing runtime.
  *
@@ -80,6 +81,8 @@ class ClientRuntime implements JerseyClient.ShutdownHook {
     private final Stage<ClientResponse> responseProcessingRoot;
 
     private final Connector connector;
+    private final Connector transport;
+    private final RequestCoalescer coalescer;
     private final ClientConfig config;
 
     private final RequestScope requestScope;
@@ -117,6 +120,17 @@ class ClientRuntime implements JerseyClient.ShutdownHook {
         asyncThreadPoolSize = (asyncThreadPoolSize < 0) ? 0 : asyncThreadPoolSize;
         this.asyncExecutorsFactory = new ClientAsyncExecutorFactory(locator, asyncThreadPoolSize);
 
+        final List<URI> replicas = HedgingConnector.replicas(config.getProperties());
+        this.transport = replicas.isEmpty() ? connector : new HedgingConnector(connector, asyncExecutorsFactory, replicas,
+                ClientProperties.getValue(config.getProperties(), ClientProperties.HEDGING_PERCENTILE,
+                        ClientProperties.DEFAULT_HEDGING_PERCENTILE));
+
+        this.coalescer = PropertiesHelper.isProperty(config.getProperties(), ClientProperties.REQUEST_COALESCING)
+                ? new RequestCoalescer(transport, asyncExecutorsFactory,
+                        ClientProperties.getValue(config.getProperties(), ClientProperties.REQUEST_COALESCING_MAX_ENTITY_SIZE,
+                                ClientProperties.DEFAULT_REQUEST_COALESCING_MAX_ENTITY_SIZE, Integer.class))
+                : null;
+
         this.locator = locator;
 
         this.lifecycleListeners = Providers.getAllProviders(locator, ClientLifecycleListener.class);
@@ -136,6 +150,15 @@ class ClientRuntime implements JerseyClient.ShutdownHook {
      * Both, the request processing as well as response callback invocation will be executed
      * in a context of an active {@link RequestScope.Instance request scope instance}.
      * </p>
+     * <p>
+     * The request processing runs on a thread of the client async executor. Once the request is passed to the
+     * {@link Connector#apply(ClientRequest, AsyncConnectorCallback) connector}, the thread is released. The response
+     * processing continues when the connector invokes the {@link AsyncConnectorCallback connector callback} - directly in
+     * the callback if the connector invokes it before returning from the {@code apply} method (i.e. the connector is
+     * blocking), otherwise as a new task submitted to the client async executor, so that the response filters and
+     * entity readers never run on connector I/O threads. The number of in-flight requests therefore does not depend
+     * on the size of the client async executor.
+     * </p>
      *
      * @param request  client request to be sent.
      * @param callback asynchronous response callback.
@@ -154,30 +177,104 @@ class ClientRuntime implements JerseyClient.ShutdownHook {
                     return;
                 }
 
+                final ConnectorCallback connectorCallback =
+                        new ConnectorCallback(requestScope.suspendCurrent(), callback);
                 try {
-                    final SettableFuture<ClientResponse> responseFuture = SettableFuture.create();
-                    final AsyncConnectorCallback connectorCallback = new AsyncConnectorCallback() {
+                    if (coalescer != null) {
+                        coalescer.apply(processedRequest, connectorCallback);
+                    } else {
+                        transport.apply(processedRequest, connectorCallback);
+                    }
+                } catch (final Throwable throwable) {
+                    connectorCallback.failure(throwable);
+                } finally {
+                    connectorCallback.applied();
+                }
+            }
+        });
+    }
 
-                        @Override
-                        public void response(final ClientResponse response) {
-                            responseFuture.set(response);
-                        }
+    /**
+     * Connector callback continuing the asynchronous request processing with the response processing
+     * in the request scope of the request.
+     */
+    private final class ConnectorCallback implements AsyncConnectorCallback {
+
+        private final RequestScope.Instance scopeInstance;
+        private final ResponseCallback callback;
+        private final AtomicBoolean completed = new AtomicBoolean(false);
+        /**
+         * Thread invoking the {@link Connector#apply(ClientRequest, AsyncConnectorCallback)} method,
+         * {@code null} once the method returned.
+         */
+        private volatile Thread applyingThread = Thread.currentThread();
+
+        private ConnectorCallback(final RequestScope.Instance scopeInstance, final ResponseCallback callback) {
+            this.scopeInstance = scopeInstance;
+            this.callback = callback;
+        }
 
-                        @Override
-                        public void failure(final Throwable failure) {
-                            responseFuture.setException(failure);
-                        }
-                    };
-                    connector.apply(processedRequest, connectorCallback);
+        @Override
+        public void response(final ClientResponse response) {
+            complete(new Runnable() {
+                @Override
+                public void run() {
+                    processResponse(response, callback);
+                }
+            });
+        }
 
-                    processResponse(responseFuture.get(), callback);
-                } catch (final ExecutionException e) {
-                    processFailure(e.getCause(), callback);
-                } catch (final Throwable throwable) {
-                    processFailure(throwable, callback);
+        @Override
+        public void failure(final Throwable failure) {
+            complete(new Runnable() {
+                @Override
+                public void run() {
+                    processFailure(failure, callback);
                 }
+            });
+        }
+
+        /**
+         * Invoked once the connector returned from the {@code apply} method.
+         */
+        private void applied() {
+            applyingThread = null;
+        }
+
+        private void complete(final Runnable continuation) {
+            if (!completed.compareAndSet(false, true)) {
+                return;
             }
-        });
+
+            if (Thread.currentThread() == applyingThread) {
+                // invoked by a blocking connector from within the apply method - already running in the request scope
+                try {
+                    continuation.run();
+                } finally {
+                    scopeInstance.release();
+                }
+                return;
+            }
+
+            try {
+                asyncExecutorsFactory.getExecutor().submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            requestScope.runInScope(scopeInstance, continuation);
+                        } finally {
+                            scopeInstance.release();
+                        }
+                    }
+                });
+            } catch (final RejectedExecutionException ex) {
+                try {
+                    requestScope.runInScope(scopeInstance, continuation);
+                } finally {
+                    scopeInstance.release();
+                }
+            }
+        }
     }
 
     private void processResponse(final ClientResponse response, final ResponseCallback callback) {
@@ -245,7 +342,9 @@ class ClientRuntime implements JerseyClient.ShutdownHook {
         ClientResponse response;
         try {
             try {
-                response = connector.apply(addUserAgent(Stages.process(request, requestProcessingRoot), connector.getName()));
+                final ClientRequest processedRequest =
+                        addUserAgent(Stages.process(request, requestProcessingRoot), connector.getName());
+                response = coalescer != null ? coalescer.apply(processedRequest) : transport.apply(processedRequest);
             } catch (final AbortException aborted) {
                 response = aborted.getAbortResponse();
             }
@@ -306,7 +405,7 @@ class ClientRuntime implements JerseyClient.ShutdownHook {
                 }
             } finally {
                 try {
-                    connector.close();
+                    transport.close();
                 } finally {
                     try {
                         asyncExecutorsFactory.close();
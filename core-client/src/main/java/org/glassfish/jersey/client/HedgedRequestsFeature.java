@@ -0,0 +1,116 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.util.Arrays;
+
+import javax.ws.rs.core.Feature;
+import javax.ws.rs.core.FeatureContext;
+
+/**
+ * Feature that balances requests across replicated endpoints and hedges slow idempotent requests
+ * (see {@link ClientProperties#REPLICAS} and {@link ClientProperties#HEDGING_PERCENTILE}).
+ * <p>
+ * Requests addressed to any of the replicas are sent to the replica with the lowest expected latency. If a
+ * {@code GET}, {@code HEAD} or {@code OPTIONS} request has not been answered within the configured percentile of
+ * the recent response times, a duplicate request is sent to another replica and the slower request is cancelled.
+ * Responses with status {@code 502}, {@code 503} or {@code 504} are treated as failures of the replica.
+ * The replica is chosen after the client request filters have been invoked, so the filters see the URI the request
+ * is addressed to:
+ * </p>
+ * <pre>
+ * ClientConfig config = new ClientConfig()
+ *         .register(new HedgedRequestsFeature("http://replica1:8080/api", "http://replica2:8080/api"));
+ * Client client = ClientBuilder.newClient(config);
+ * client.target("http://replica1:8080/api").path("items").request().get();
+ * </pre>
+ * <p>
+ * Hedging works best with connectors that implement the asynchronous
+ * {@link org.glassfish.jersey.client.spi.Connector#apply(ClientRequest,
+ * org.glassfish.jersey.client.spi.AsyncConnectorCallback) apply} method in a non-blocking way; for blocking
+ * connectors each hedged request occupies a thread of the client async executor.
+ * </p>
+ *
+ * @since 2.18
+ */
+public class HedgedRequestsFeature implements Feature {
+
+    private final int percentile;
+    private final String[] replicas;
+
+    /**
+     * Create a new instance of the feature using the {@link ClientProperties#DEFAULT_HEDGING_PERCENTILE default}
+     * hedging percentile.
+     *
+     * @param replicas base URIs of the replicas.
+     */
+    public HedgedRequestsFeature(final String... replicas) {
+        this(ClientProperties.DEFAULT_HEDGING_PERCENTILE, replicas);
+    }
+
+    /**
+     * Create a new instance of the feature.
+     *
+     * @param percentile percentile of the recent response times used as the hedging delay, {@code 0} disables hedging.
+     * @param replicas   base URIs of the replicas.
+     */
+    public HedgedRequestsFeature(final int percentile, final String... replicas) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile");
+        }
+        if (replicas.length == 0) {
+            throw new IllegalArgumentException("replicas");
+        }
+        this.percentile = percentile;
+        this.replicas = Arrays.copyOf(replicas, replicas.length);
+    }
+
+    @Override
+    public boolean configure(final FeatureContext context) {
+        // properties take precedence over the constructor values
+        if (!context.getConfiguration().getProperties().containsKey(ClientProperties.REPLICAS)) {
+            context.property(ClientProperties.REPLICAS, replicas);
+        }
+        if (!context.getConfiguration().getProperties().containsKey(ClientProperties.HEDGING_PERCENTILE)) {
+            context.property(ClientProperties.HEDGING_PERCENTILE, percentile);
+        }
+        return true;
+    }
+}
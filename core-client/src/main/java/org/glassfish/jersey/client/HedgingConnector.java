@@ -0,0 +1,677 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+
+import org.glassfish.jersey.client.internal.LocalizationMessages;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+
+import jersey.repackaged.com.google.common.util.concurrent.FutureCallback;
+import jersey.repackaged.com.google.common.util.concurrent.Futures;
+import jersey.repackaged.com.google.common.util.concurrent.SettableFuture;
+import jersey.repackaged.com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Connector decorator that balances requests across replicated endpoints and hedges slow idempotent requests.
+ * <p>
+ * Requests addressed to one of the {@link ClientProperties#REPLICAS configured replicas} are re-targeted to the
+ * replica with the lowest expected latency. The expected latency of a replica is the exponentially weighted moving
+ * average of its response times multiplied by the number of its in-flight requests; the average decays over time,
+ * so that replicas that have not been used for a while (e.g. after a failure) are eventually tried again.
+ * </p>
+ * <p>
+ * Idempotent requests without an entity ({@code GET}, {@code HEAD} and {@code OPTIONS}) are hedged: if no response
+ * arrives within the {@link ClientProperties#HEDGING_PERCENTILE configured percentile} of the recently observed
+ * response times, a duplicate request is sent to another replica. The first response wins, the other attempt is
+ * cancelled and its late response, if any, is closed. A failed attempt triggers the hedge immediately.
+ * </p>
+ * <p>
+ * Responses with status {@code 502 Bad Gateway}, {@code 503 Service Unavailable} or {@code 504 Gateway Timeout}
+ * indicate an unavailable replica: they penalize the replica and trigger the hedge just like a failed attempt.
+ * Such a response is returned only if no other attempt succeeds, otherwise it is closed.
+ * </p>
+ * <p>
+ * Requests are re-targeted by this connector, i.e. after the client request filters have been invoked; the filters
+ * therefore see the logical request URI rather than the URI of the chosen replica.
+ * </p>
+ *
+ * @see HedgedRequestsFeature
+ */
+final class HedgingConnector implements Connector {
+
+    /**
+     * Number of latency samples the hedging delay is computed from.
+     */
+    private static final int LATENCY_WINDOW = 256;
+    /**
+     * Minimum number of latency samples required to start hedging.
+     */
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    /**
+     * Number of new latency samples after which the hedging delay is recomputed.
+     */
+    private static final int DELAY_UPDATE_INTERVAL = 16;
+    private static final double EWMA_WEIGHT = 0.3;
+    private static final long EWMA_DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Connector connector;
+    private final ClientAsyncExecutorFactory executorFactory;
+    private final Replica[] replicas;
+    private final int percentile;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private final long[] latencies = new long[LATENCY_WINDOW];
+    private int latencyCount;
+    private int latencyIndex;
+    private volatile long hedgingDelay = -1;
+
+    private ScheduledExecutorService scheduler;
+    private boolean closed;
+
+    /**
+     * Create new hedging connector.
+     *
+     * @param connector       connector used to send the requests.
+     * @param executorFactory factory of the executor used to dispatch the hedged requests.
+     * @param replicas        base URIs of the replicas.
+     * @param percentile      percentile of the response times used as the hedging delay, {@code 0} to disable hedging.
+     */
+    HedgingConnector(final Connector connector,
+                     final ClientAsyncExecutorFactory executorFactory,
+                     final List<URI> replicas,
+                     final int percentile) {
+        this.connector = connector;
+        this.executorFactory = executorFactory;
+        this.replicas = new Replica[replicas.size()];
+        for (int i = 0; i < this.replicas.length; i++) {
+            this.replicas[i] = new Replica(replicas.get(i));
+        }
+        this.percentile = percentile;
+    }
+
+    /**
+     * Get the base URIs of the replicas configured by the {@link ClientProperties#REPLICAS} property.
+     *
+     * @param properties client configuration properties.
+     * @return list of replica base URIs, empty if the property is not set.
+     */
+    static List<URI> replicas(final Map<String, Object> properties) {
+        final Object value = properties.get(ClientProperties.REPLICAS);
+        final List<URI> replicas = new ArrayList<URI>();
+        if (value instanceof String) {
+            for (final String replica : ((String) value).split("[,\\s]+")) {
+                if (!replica.isEmpty()) {
+                    replicas.add(URI.create(replica));
+                }
+            }
+        } else if (value instanceof Object[]) {
+            for (final Object replica : (Object[]) value) {
+                replicas.add(URI.create(replica.toString()));
+            }
+        } else if (value instanceof Collection) {
+            for (final Object replica : (Collection<?>) value) {
+                replicas.add(URI.create(replica.toString()));
+            }
+        } else if (value != null) {
+            throw new IllegalArgumentException(ClientProperties.REPLICAS);
+        }
+        return replicas;
+    }
+
+    @Override
+    public ClientResponse apply(final ClientRequest request) {
+        final Replica origin = match(request.getUri());
+        if (origin == null) {
+            return connector.apply(request);
+        }
+
+        if (!isHedgeable(request) || hedgingDelay < 0) {
+            final Replica replica = select(null);
+            final Attempt attempt = new Attempt(null, replica, retarget(request, origin, replica));
+            final ClientResponse response;
+            try {
+                response = connector.apply(attempt.request);
+            } catch (final RuntimeException failure) {
+                attempt.failed();
+                throw failure;
+            } catch (final Error failure) {
+                attempt.failed();
+                throw failure;
+            }
+            if (isUnavailable(response)) {
+                attempt.failed();
+            } else {
+                attempt.completed();
+            }
+            return response;
+        }
+
+        // dispatch the first attempt on an executor too, so that blocking connectors can be hedged
+        final SettableFuture<ClientResponse> result = SettableFuture.create();
+        new Exchange(request, origin, result).start(true);
+        try {
+            return result.get();
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ProcessingException) {
+                throw (ProcessingException) cause;
+            }
+            throw new ProcessingException(cause);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new ProcessingException(e);
+        }
+    }
+
+    @Override
+    public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+        final Replica origin = match(request.getUri());
+        if (origin == null) {
+            return connector.apply(request, callback);
+        }
+
+        final SettableFuture<ClientResponse> result = SettableFuture.create();
+        Futures.addCallback(result, new FutureCallback<ClientResponse>() {
+            @Override
+            public void onSuccess(final ClientResponse response) {
+                callback.response(response);
+            }
+
+            @Override
+            public void onFailure(final Throwable failure) {
+                if (!(failure instanceof CancellationException)) {
+                    callback.failure(failure);
+                }
+            }
+        });
+        new Exchange(request, origin, result).start(false);
+        return result;
+    }
+
+    @Override
+    public String getName() {
+        return connector.getName();
+    }
+
+    @Override
+    public void close() {
+        try {
+            synchronized (this) {
+                closed = true;
+                if (scheduler != null) {
+                    scheduler.shutdownNow();
+                }
+            }
+        } finally {
+            connector.close();
+        }
+    }
+
+    private static boolean isHedgeable(final ClientRequest request) {
+        final String method = request.getMethod();
+        return (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method) || HttpMethod.OPTIONS.equals(method))
+                && !request.hasEntity();
+    }
+
+    private static boolean isUnavailable(final ClientResponse response) {
+        final int status = response.getStatus();
+        return status == 502 || status == 503 || status == 504;
+    }
+
+    private static void close(final ClientResponse response) {
+        if (response != null) {
+            response.close();
+        }
+    }
+
+    private Replica match(final URI uri) {
+        for (final Replica replica : replicas) {
+            if (replica.matches(uri)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Select the replica with the lowest expected latency. The search starts at a rotating position
+     * so that the ties (e.g. replicas without any latency samples) are broken in a round-robin fashion.
+     */
+    private Replica select(final Replica excluded) {
+        final long now = System.nanoTime();
+        final int offset = (nextReplica.getAndIncrement() & Integer.MAX_VALUE) % replicas.length;
+        Replica selected = null;
+        double selectedCost = 0;
+        for (int i = 0; i < replicas.length; i++) {
+            final Replica replica = replicas[(offset + i) % replicas.length];
+            if (replica == excluded) {
+                continue;
+            }
+            final double cost = replica.cost(now);
+            if (selected == null || cost < selectedCost) {
+                selected = replica;
+                selectedCost = cost;
+            }
+        }
+        return selected;
+    }
+
+    private static ClientRequest retarget(final ClientRequest request, final Replica origin, final Replica replica) {
+        if (replica != origin) {
+            request.setUri(replica.resolve(origin, request.getUri()));
+        }
+        return request;
+    }
+
+    private void recordLatency(final long nanos) {
+        synchronized (latencies) {
+            latencies[latencyIndex] = nanos;
+            latencyIndex = (latencyIndex + 1) % LATENCY_WINDOW;
+            latencyCount++;
+            if (percentile > 0 && replicas.length > 1
+                    && latencyCount >= MIN_LATENCY_SAMPLES && latencyCount % DELAY_UPDATE_INTERVAL == 0) {
+                final long[] window = Arrays.copyOf(latencies, Math.min(latencyCount, LATENCY_WINDOW));
+                Arrays.sort(window);
+                hedgingDelay = window[Math.max(0, (int) Math.ceil(window.length * percentile / 100.0) - 1)];
+            }
+        }
+    }
+
+    private synchronized ScheduledExecutorService scheduler() {
+        if (closed) {
+            throw new ProcessingException(LocalizationMessages.ERROR_REQUEST_CANCELLED());
+        }
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                    .setNameFormat("jersey-client-hedging-%d")
+                    .setDaemon(true)
+                    .build());
+        }
+        return scheduler;
+    }
+
+    /**
+     * Replica endpoint and its latency statistics.
+     */
+    private static final class Replica {
+
+        private final String scheme;
+        private final String host;
+        private final int port;
+        private final String path;
+        private final String base;
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private double ewma;
+        private long lastUpdate;
+
+        private Replica(final URI uri) {
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                throw new IllegalArgumentException(ClientProperties.REPLICAS + ": " + uri);
+            }
+            this.scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            this.host = uri.getHost().toLowerCase(Locale.ROOT);
+            this.port = port(uri);
+            final String rawPath = uri.getRawPath() == null ? "" : uri.getRawPath();
+            this.path = rawPath.endsWith("/") ? rawPath.substring(0, rawPath.length() - 1) : rawPath;
+            this.base = scheme + "://" + uri.getRawAuthority() + path;
+        }
+
+        private static int port(final URI uri) {
+            if (uri.getPort() != -1) {
+                return uri.getPort();
+            }
+            return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+        }
+
+        private boolean matches(final URI uri) {
+            if (uri.getHost() == null || !scheme.equalsIgnoreCase(uri.getScheme()) || !host.equalsIgnoreCase(uri.getHost())
+                    || port != port(uri)) {
+                return false;
+            }
+            final String rawPath = uri.getRawPath() == null ? "" : uri.getRawPath();
+            return rawPath.startsWith(path) && (rawPath.length() == path.length() || rawPath.charAt(path.length()) == '/');
+        }
+
+        private URI resolve(final Replica origin, final URI uri) {
+            final StringBuilder resolved = new StringBuilder(base).append(uri.getRawPath().substring(origin.path.length()));
+            if (uri.getRawQuery() != null) {
+                resolved.append('?').append(uri.getRawQuery());
+            }
+            return URI.create(resolved.toString());
+        }
+
+        private synchronized double cost(final long now) {
+            final double decayed = ewma * Math.exp(-(double) (now - lastUpdate) / EWMA_DECAY_NANOS);
+            return decayed * (outstanding.get() + 1);
+        }
+
+        private synchronized void update(final long nanos, final long now) {
+            ewma = lastUpdate == 0 ? nanos : ewma + EWMA_WEIGHT * (nanos - ewma);
+            lastUpdate = now;
+        }
+
+        private synchronized void penalize(final long nanos, final long now) {
+            update(Math.max(FAILURE_PENALTY_NANOS, 2 * Math.max(nanos, (long) ewma)), now);
+        }
+    }
+
+    /**
+     * Single request sent to a replica.
+     */
+    private final class Attempt implements AsyncConnectorCallback {
+
+        private final Exchange exchange;
+        private final Replica replica;
+        private final ClientRequest request;
+        private final long start;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private volatile boolean cancelled;
+        private volatile Future<?> future;
+
+        private Attempt(final Exchange exchange, final Replica replica, final ClientRequest request) {
+            this.exchange = exchange;
+            this.replica = replica;
+            this.request = request;
+            this.start = System.nanoTime();
+            replica.outstanding.incrementAndGet();
+        }
+
+        private void dispatch() {
+            if (cancelled) {
+                // the exchange completed before this attempt got a chance to run
+                return;
+            }
+            try {
+                final Future<?> f = connector.apply(request, this);
+                future = f;
+                if (cancelled) {
+                    // cancelled while the connector was being invoked
+                    f.cancel(true);
+                }
+            } catch (final Throwable failure) {
+                failure(failure);
+            }
+        }
+
+        @Override
+        public void response(final ClientResponse response) {
+            exchange.completed(this, response);
+        }
+
+        @Override
+        public void failure(final Throwable failure) {
+            exchange.failed(this, failure);
+        }
+
+        private boolean completed() {
+            if (finished.compareAndSet(false, true)) {
+                final long now = System.nanoTime();
+                replica.outstanding.decrementAndGet();
+                replica.update(now - start, now);
+                recordLatency(now - start);
+                return true;
+            }
+            return false;
+        }
+
+        private void failed() {
+            if (finished.compareAndSet(false, true)) {
+                final long now = System.nanoTime();
+                replica.outstanding.decrementAndGet();
+                replica.penalize(now - start, now);
+            }
+        }
+
+        private void cancel() {
+            if (finished.compareAndSet(false, true)) {
+                // the replica has been at least as slow as the time elapsed so far
+                final long now = System.nanoTime();
+                replica.outstanding.decrementAndGet();
+                replica.update(now - start, now);
+            }
+            cancelled = true;
+            final Future<?> f = future;
+            if (f != null) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Request and its attempts. The first response completes the exchange.
+     */
+    private final class Exchange {
+
+        private final ClientRequest hedgeTemplate;
+        private final Replica origin;
+        private final SettableFuture<ClientResponse> result;
+        private final List<Attempt> attempts = new ArrayList<Attempt>(2);
+
+        private ScheduledFuture<?> hedgeTimer;
+        private boolean hedged;
+        private int failures;
+        private boolean done;
+        /**
+         * Response of an unavailable replica, returned only if all the attempts fail.
+         */
+        private ClientResponse fallback;
+
+        private Exchange(final ClientRequest request, final Replica origin, final SettableFuture<ClientResponse> result) {
+            this.origin = origin;
+            this.result = result;
+            // copy the request before it is passed to the connector
+            this.hedgeTemplate = isHedgeable(request) && hedgingDelay >= 0 ? new ClientRequest(request) : null;
+
+            final Replica replica = select(null);
+            this.attempts.add(new Attempt(this, replica, retarget(request, origin, replica)));
+
+            Futures.addCallback(result, new FutureCallback<ClientResponse>() {
+                @Override
+                public void onSuccess(final ClientResponse response) {
+                }
+
+                @Override
+                public void onFailure(final Throwable failure) {
+                    if (failure instanceof CancellationException) {
+                        cancelAll(null);
+                    }
+                }
+            });
+        }
+
+        private void start(final boolean dispatchOnExecutor) {
+            final Attempt first = attempts.get(0);
+            if (hedgeTemplate != null) {
+                synchronized (this) {
+                    try {
+                        hedgeTimer = scheduler().schedule(new Runnable() {
+                            @Override
+                            public void run() {
+                                hedge();
+                            }
+                        }, hedgingDelay, TimeUnit.NANOSECONDS);
+                    } catch (final ProcessingException e) {
+                        hedged = true;
+                    }
+                }
+            }
+            if (dispatchOnExecutor) {
+                executorFactory.getExecutor().submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        first.dispatch();
+                    }
+                });
+            } else {
+                first.dispatch();
+            }
+        }
+
+        private void hedge() {
+            final Attempt attempt;
+            synchronized (this) {
+                if (done || hedged) {
+                    return;
+                }
+                hedged = true;
+                final Replica replica = select(attempts.get(0).replica);
+                attempt = new Attempt(this, replica, retarget(hedgeTemplate, origin, replica));
+                attempts.add(attempt);
+            }
+            try {
+                executorFactory.getExecutor().submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        attempt.dispatch();
+                    }
+                });
+            } catch (final Throwable failure) {
+                attempt.failure(failure);
+            }
+        }
+
+        private void completed(final Attempt attempt, final ClientResponse response) {
+            if (isUnavailable(response)) {
+                failed(attempt, null, response);
+                return;
+            }
+            attempt.completed();
+            synchronized (this) {
+                if (done) {
+                    // late response of a cancelled attempt
+                    response.close();
+                    return;
+                }
+                done = true;
+            }
+            cancelAll(attempt);
+            result.set(response);
+        }
+
+        private void failed(final Attempt attempt, final Throwable failure) {
+            failed(attempt, failure, null);
+        }
+
+        /**
+         * Record a failed attempt, either a failure or a response of an unavailable replica.
+         */
+        private void failed(final Attempt attempt, final Throwable failure, final ClientResponse response) {
+            attempt.failed();
+            final boolean hedgeNow;
+            final boolean failNow;
+            ClientResponse obsolete = null;
+            ClientResponse last = null;
+            synchronized (this) {
+                if (done) {
+                    close(response);
+                    return;
+                }
+                failures++;
+                if (response != null) {
+                    obsolete = fallback;
+                    fallback = response;
+                }
+                hedgeNow = !hedged && hedgeTemplate != null;
+                if (hedgeNow && hedgeTimer != null) {
+                    hedgeTimer.cancel(false);
+                }
+                failNow = !hedgeNow && failures == attempts.size();
+                if (failNow) {
+                    done = true;
+                    last = fallback;
+                    fallback = null;
+                }
+            }
+            close(obsolete);
+            if (hedgeNow) {
+                hedge();
+            } else if (failNow) {
+                if (last != null) {
+                    result.set(last);
+                } else {
+                    result.setException(failure);
+                }
+            }
+        }
+
+        private void cancelAll(final Attempt winner) {
+            final List<Attempt> losers;
+            final ClientResponse unused;
+            synchronized (this) {
+                done = true;
+                if (hedgeTimer != null) {
+                    hedgeTimer.cancel(false);
+                }
+                losers = new ArrayList<Attempt>(attempts);
+                unused = fallback;
+                fallback = null;
+            }
+            close(unused);
+            for (final Attempt attempt : losers) {
+                if (attempt != winner) {
+                    attempt.cancel();
+                }
+            }
+        }
+    }
+}
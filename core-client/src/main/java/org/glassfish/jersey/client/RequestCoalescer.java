@@ -0,0 +1,504 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.internal.util.collection.MultivaluedStringMap;
+import org.glassfish.jersey.message.internal.ReaderWriter;
+
+/**
+ * Coalesces identical concurrent {@code GET} and {@code HEAD} requests into a single connector invocation.
+ * <p>
+ * Requests are identical if they have the same method, URI, headers and properties. The first of the identical requests
+ * (the leader) is passed to the connector, the requests that arrive while the leader is in flight wait for the
+ * leader's response. The response entity is buffered and every waiting request receives its own copy of the
+ * response with an independently readable entity stream. A failure of the leader is reported to all the waiting
+ * requests.
+ * </p>
+ * <p>
+ * Request properties as well as the configuration properties take part in the comparison as they affect the way the
+ * request is sent by the connector (e.g. {@link ClientProperties#READ_TIMEOUT read timeout},
+ * {@link ClientProperties#FOLLOW_REDIRECTS redirect policy} or {@link ClientProperties#PROXY_URI proxy}).
+ * </p>
+ * <p>
+ * Only responses of a known length not exceeding the {@link ClientProperties#REQUEST_COALESCING_MAX_ENTITY_SIZE maximum
+ * entity size} are buffered and shared. Event streams, chunked responses and responses of an unknown length are passed
+ * to the leader as they are and the waiting requests are sent to the connector on their own. Requests accepting
+ * only an event stream are never coalesced.
+ * </p>
+ *
+ * @see RequestCoalescingFeature
+ */
+final class RequestCoalescer {
+
+    private final Connector connector;
+    private final ClientAsyncExecutorFactory executorFactory;
+    private final int maxEntitySize;
+    private final ConcurrentMap<Key, Flight> inFlight = new ConcurrentHashMap<Key, Flight>();
+
+    /**
+     * Create new request coalescer.
+     *
+     * @param connector       connector used to send the requests.
+     * @param executorFactory factory of the executor used to buffer the responses received by the connector asynchronously.
+     * @param maxEntitySize   maximum size [bytes] of a response entity that is buffered and shared by the coalesced requests.
+     */
+    RequestCoalescer(final Connector connector, final ClientAsyncExecutorFactory executorFactory, final int maxEntitySize) {
+        this.connector = connector;
+        this.executorFactory = executorFactory;
+        this.maxEntitySize = maxEntitySize;
+    }
+
+    /**
+     * Check whether the request may be coalesced with other identical requests.
+     *
+     * @param request client request.
+     * @return {@code true} for {@code GET} and {@code HEAD} requests without an entity that do not opt out of
+     * coalescing and do not accept only an event stream.
+     */
+    static boolean isCoalescible(final ClientRequest request) {
+        final String method = request.getMethod();
+        if (!(HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)) || request.hasEntity()) {
+            return false;
+        }
+        if (!request.resolveProperty(ClientProperties.REQUEST_COALESCING, Boolean.TRUE)) {
+            return false;
+        }
+        // event streams never complete - do not make other requests wait for them
+        final List<MediaType> acceptable = request.getAcceptableMediaTypes();
+        for (final MediaType type : acceptable) {
+            if (!isEventStream(type)) {
+                return true;
+            }
+        }
+        return acceptable.isEmpty();
+    }
+
+    private static boolean isEventStream(final MediaType type) {
+        return "text".equalsIgnoreCase(type.getType()) && "event-stream".equalsIgnoreCase(type.getSubtype());
+    }
+
+    /**
+     * Check whether the response to the leading request can be buffered and shared with the waiting requests.
+     *
+     * @param request  leading request.
+     * @param response response to the leading request.
+     * @return {@code true} if the response entity is known to be empty or small enough to be buffered.
+     */
+    private boolean isBufferable(final ClientRequest request, final ClientResponse response) {
+        if (HttpMethod.HEAD.equals(request.getMethod())) {
+            return true;
+        }
+        final int status = response.getStatus();
+        if (status == Response.Status.NO_CONTENT.getStatusCode() || status == Response.Status.NOT_MODIFIED.getStatusCode()) {
+            return true;
+        }
+        final MediaType type = response.getMediaType();
+        if (type != null && isEventStream(type)) {
+            return false;
+        }
+        // chunked responses and responses of an unknown length may never complete or may be arbitrarily large
+        final int length = response.getLength();
+        return length >= 0 && length <= maxEntitySize;
+    }
+
+    private static ProcessingException toProcessingException(final Throwable failure) {
+        return failure instanceof ProcessingException ? (ProcessingException) failure : new ProcessingException(failure);
+    }
+
+    /**
+     * Synchronously invoke the request, possibly sharing the connector invocation with identical in-flight requests.
+     *
+     * @param request client request.
+     * @return response to the request.
+     */
+    ClientResponse apply(final ClientRequest request) {
+        if (!isCoalescible(request)) {
+            return connector.apply(request);
+        }
+
+        final Key key = new Key(request);
+        final Flight flight = new Flight();
+        final Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return existing.await(request);
+        }
+
+        final ClientResponse response;
+        try {
+            response = connector.apply(request);
+        } catch (final Throwable failure) {
+            inFlight.remove(key, flight);
+            flight.complete(null, failure);
+            throw toProcessingException(failure);
+        }
+
+        if (!isBufferable(request, response)) {
+            inFlight.remove(key, flight);
+            flight.complete(null, null);
+            return response;
+        }
+
+        final BufferedResponse buffered;
+        try {
+            buffered = BufferedResponse.from(response);
+        } catch (final Throwable failure) {
+            inFlight.remove(key, flight);
+            flight.complete(null, failure);
+            throw toProcessingException(failure);
+        }
+        inFlight.remove(key, flight);
+        flight.complete(buffered, null);
+        return buffered.toResponse(request);
+    }
+
+    /**
+     * Asynchronously invoke the request, possibly sharing the connector invocation with identical in-flight requests.
+     *
+     * @param request  client request.
+     * @param callback connector callback to be notified about the response.
+     */
+    void apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+        if (!isCoalescible(request)) {
+            connector.apply(request, callback);
+            return;
+        }
+
+        final Key key = new Key(request);
+        final Flight flight = new Flight();
+        final Flight existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            existing.listen(request, callback);
+            return;
+        }
+
+        final LeaderCallback leaderCallback = new LeaderCallback(key, flight, request, callback);
+        try {
+            connector.apply(request, leaderCallback);
+        } catch (final Throwable failure) {
+            leaderCallback.failure(failure);
+        } finally {
+            leaderCallback.applyingThread = null;
+        }
+    }
+
+    /**
+     * Callback of the leading asynchronous request that buffers the response and completes the flight.
+     */
+    private final class LeaderCallback implements AsyncConnectorCallback {
+
+        private final Key key;
+        private final Flight flight;
+        private final ClientRequest request;
+        private final AsyncConnectorCallback callback;
+        private volatile Thread applyingThread = Thread.currentThread();
+
+        private LeaderCallback(final Key key, final Flight flight, final ClientRequest request,
+                               final AsyncConnectorCallback callback) {
+            this.key = key;
+            this.flight = flight;
+            this.request = request;
+            this.callback = callback;
+        }
+
+        @Override
+        public void response(final ClientResponse response) {
+            if (!isBufferable(request, response)) {
+                inFlight.remove(key, flight);
+                flight.complete(null, null);
+                callback.response(response);
+                return;
+            }
+            if (Thread.currentThread() == applyingThread) {
+                complete(response);
+                return;
+            }
+            // do not block the connector thread while the response entity is being buffered
+            try {
+                executorFactory.getExecutor().submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        complete(response);
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                complete(response);
+            }
+        }
+
+        private void complete(final ClientResponse response) {
+            final BufferedResponse buffered;
+            try {
+                buffered = BufferedResponse.from(response);
+            } catch (final Throwable failure) {
+                failure(failure);
+                return;
+            }
+            inFlight.remove(key, flight);
+            flight.complete(buffered, null);
+            callback.response(buffered.toResponse(request));
+        }
+
+        @Override
+        public void failure(final Throwable failure) {
+            inFlight.remove(key, flight);
+            flight.complete(null, failure);
+            callback.failure(failure);
+        }
+    }
+
+    /**
+     * Identity of a coalescible request.
+     * <p>
+     * Property values are compared using their {@code equals} method and never converted to strings.
+     * </p>
+     */
+    private static final class Key {
+
+        private final String method;
+        private final URI uri;
+        private final Map<String, List<String>> headers;
+        private final Map<String, Object> properties;
+        private final int hash;
+
+        private Key(final ClientRequest request) {
+            this.method = request.getMethod();
+            this.uri = request.getUri();
+
+            this.headers = new HashMap<String, List<String>>();
+            for (final Map.Entry<String, List<String>> header : request.getStringHeaders().entrySet()) {
+                final String name = header.getKey().toLowerCase(Locale.ROOT);
+                List<String> values = headers.get(name);
+                if (values == null) {
+                    values = new ArrayList<String>();
+                    headers.put(name, values);
+                }
+                values.addAll(header.getValue());
+            }
+
+            // request properties override the configuration properties in the same way as when the request is processed
+            this.properties = new HashMap<String, Object>(request.getConfiguration().getProperties());
+            for (final String name : request.getPropertyNames()) {
+                properties.put(name, request.getProperty(name));
+            }
+
+            int h = method.hashCode();
+            h = 31 * h + uri.hashCode();
+            h = 31 * h + headers.hashCode();
+            h = 31 * h + properties.hashCode();
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) o;
+            return hash == other.hash
+                    && method.equals(other.method)
+                    && uri.equals(other.uri)
+                    && headers.equals(other.headers)
+                    && properties.equals(other.properties);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * In-flight leading request and the requests waiting for its response.
+     * <p>
+     * A flight completed with neither a response nor a failure was not shared, the waiting requests are sent
+     * to the connector on their own.
+     * </p>
+     */
+    private final class Flight {
+
+        private final CountDownLatch done = new CountDownLatch(1);
+        // guarded by this
+        private List<Listener> listeners = new ArrayList<Listener>();
+        private volatile BufferedResponse response;
+        private volatile Throwable failure;
+
+        private void listen(final ClientRequest request, final AsyncConnectorCallback callback) {
+            final Listener listener = new Listener(request, callback);
+            synchronized (this) {
+                if (listeners != null) {
+                    listeners.add(listener);
+                    return;
+                }
+            }
+            listener.deliver(response, failure);
+        }
+
+        private ClientResponse await(final ClientRequest request) {
+            try {
+                done.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ProcessingException(e);
+            }
+            if (failure != null) {
+                throw toProcessingException(failure);
+            }
+            return response != null ? response.toResponse(request) : connector.apply(request);
+        }
+
+        private void complete(final BufferedResponse response, final Throwable failure) {
+            final List<Listener> notified;
+            synchronized (this) {
+                if (listeners == null) {
+                    return;
+                }
+                this.response = response;
+                this.failure = failure;
+                notified = listeners;
+                listeners = null;
+            }
+            done.countDown();
+            for (final Listener listener : notified) {
+                listener.deliver(response, failure);
+            }
+        }
+    }
+
+    /**
+     * Asynchronous request waiting for the response of the leading request.
+     */
+    private final class Listener {
+
+        private final ClientRequest request;
+        private final AsyncConnectorCallback callback;
+
+        private Listener(final ClientRequest request, final AsyncConnectorCallback callback) {
+            this.request = request;
+            this.callback = callback;
+        }
+
+        private void deliver(final BufferedResponse response, final Throwable failure) {
+            if (failure != null) {
+                callback.failure(failure);
+            } else if (response != null) {
+                callback.response(response.toResponse(request));
+            } else {
+                try {
+                    connector.apply(request, callback);
+                } catch (final Throwable t) {
+                    callback.failure(t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Response with a buffered entity that can be copied for each of the coalesced requests.
+     */
+    private static final class BufferedResponse {
+
+        private final Response.StatusType status;
+        private final URI resolvedUri;
+        private final MultivaluedMap<String, String> headers;
+        private final byte[] entity;
+
+        private BufferedResponse(final Response.StatusType status,
+                                 final URI resolvedUri,
+                                 final MultivaluedMap<String, String> headers,
+                                 final byte[] entity) {
+            this.status = status;
+            this.resolvedUri = resolvedUri;
+            this.headers = headers;
+            this.entity = entity;
+        }
+
+        private static BufferedResponse from(final ClientResponse response) throws IOException {
+            final MultivaluedMap<String, String> headers = new MultivaluedStringMap();
+            for (final Map.Entry<String, List<String>> header : response.getHeaders().entrySet()) {
+                headers.put(header.getKey(), new ArrayList<String>(header.getValue()));
+            }
+
+            final ByteArrayOutputStream entity = new ByteArrayOutputStream();
+            final InputStream entityStream = response.getEntityStream();
+            try {
+                if (entityStream != null) {
+                    ReaderWriter.writeTo(entityStream, entity);
+                }
+            } finally {
+                response.close();
+            }
+            return new BufferedResponse(response.getStatusInfo(), response.getResolvedRequestUri(), headers,
+                    entity.toByteArray());
+        }
+
+        private ClientResponse toResponse(final ClientRequest request) {
+            final ClientResponse response = new ClientResponse(status, request, resolvedUri);
+            response.headers(headers);
+            response.setEntityStream(new ByteArrayInputStream(entity));
+            return response;
+        }
+    }
+}
@@ -0,0 +1,395 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client.filter;
+
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.internal.util.collection.StringKeyIgnoreCaseMultivaluedMap;
+import org.glassfish.jersey.message.internal.HttpDateFormat;
+
+/**
+ * Immutable cached HTTP response.
+ * <p>
+ * Besides the response status, headers and entity, the entry stores the values of the request headers listed in
+ * the {@code Vary} response header, so that the entry is used only for requests that would get the same response,
+ * and the data needed to compute the response freshness as defined by RFC 7234.
+ * </p>
+ */
+final class HttpCacheEntry {
+
+    private static final String CACHE_CONTROL = "Cache-Control";
+    private static final String PRAGMA = "Pragma";
+    private static final String AGE = "Age";
+    private static final String EXPIRES = "Expires";
+
+    private final String uri;
+    private final Map<String, String> varyValues;
+    private final int status;
+    private final String reasonPhrase;
+    private final MultivaluedMap<String, String> headers;
+    private final byte[] entity;
+    private final long responseTime;
+    private final long initialAge;
+    private final long freshnessLifetime;
+    private final boolean noCache;
+
+    private HttpCacheEntry(final String uri,
+                           final Map<String, String> varyValues,
+                           final int status,
+                           final String reasonPhrase,
+                           final MultivaluedMap<String, String> headers,
+                           final byte[] entity,
+                           final long responseTime) {
+        this.uri = uri;
+        this.varyValues = varyValues;
+        this.status = status;
+        this.reasonPhrase = reasonPhrase;
+        this.headers = headers;
+        this.entity = entity;
+        this.responseTime = responseTime;
+
+        final Map<String, String> cacheControl = cacheControl(headers);
+        this.noCache = cacheControl.containsKey("no-cache")
+                || (!headers.containsKey(CACHE_CONTROL) && containsToken(headers.get(PRAGMA), "no-cache"));
+
+        final long date = date(headers.getFirst(HttpHeaders.DATE), responseTime);
+        final long apparentAge = Math.max(0, responseTime - date);
+        this.initialAge = Math.max(apparentAge, seconds(headers.getFirst(AGE), 0) * 1000);
+
+        final long maxAge = seconds(cacheControl.get("max-age"), -1);
+        if (maxAge >= 0) {
+            this.freshnessLifetime = maxAge * 1000;
+        } else if (headers.containsKey(EXPIRES)) {
+            // an invalid Expires value means the response is already expired
+            this.freshnessLifetime = Math.max(0, date(headers.getFirst(EXPIRES), date) - date);
+        } else {
+            this.freshnessLifetime = 0;
+        }
+    }
+
+    /**
+     * Create new cache entry.
+     *
+     * @param uri            request URI.
+     * @param requestHeaders request headers.
+     * @param status         response status code.
+     * @param reasonPhrase   response reason phrase.
+     * @param headers        response headers.
+     * @param entity         response entity.
+     * @param responseTime   time the response has been received [ms].
+     * @return new cache entry or {@code null} if the response must not be cached.
+     */
+    static HttpCacheEntry create(final String uri,
+                                 final MultivaluedMap<String, String> requestHeaders,
+                                 final int status,
+                                 final String reasonPhrase,
+                                 final MultivaluedMap<String, String> headers,
+                                 final byte[] entity,
+                                 final long responseTime) {
+        if (cacheControl(requestHeaders).containsKey("no-store") || cacheControl(headers).containsKey("no-store")) {
+            return null;
+        }
+        final List<String> vary = varyHeaders(headers);
+        if (vary.contains("*")) {
+            return null;
+        }
+
+        final Map<String, String> varyValues = new TreeMap<String, String>();
+        for (final String name : vary) {
+            varyValues.put(name, headerValue(requestHeaders, name));
+        }
+
+        final HttpCacheEntry entry = new HttpCacheEntry(uri, Collections.unmodifiableMap(varyValues), status, reasonPhrase,
+                copy(headers), entity, responseTime);
+        if (entry.freshnessLifetime == 0 && entry.getEntityTag() == null && entry.getLastModified() == null) {
+            // neither fresh nor revalidatable
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Create a copy of the entry updated with the headers of a {@code 304 Not Modified} response.
+     *
+     * @param notModifiedHeaders headers of the {@code 304} response.
+     * @param responseTime       time the {@code 304} response has been received [ms].
+     * @return updated entry.
+     */
+    HttpCacheEntry revalidated(final MultivaluedMap<String, String> notModifiedHeaders, final long responseTime) {
+        final MultivaluedMap<String, String> updated = copy(headers);
+        for (final Map.Entry<String, List<String>> header : notModifiedHeaders.entrySet()) {
+            final String name = header.getKey();
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                updated.remove(name);
+                updated.put(name, new ArrayList<String>(header.getValue()));
+            }
+        }
+        return new HttpCacheEntry(uri, varyValues, status, reasonPhrase, updated, entity, responseTime);
+    }
+
+    /**
+     * Create a copy of the entry with a different entity.
+     *
+     * @param entity new entity, may be {@code null} for entries whose entity is stored elsewhere.
+     * @return copy of the entry.
+     */
+    HttpCacheEntry withEntity(final byte[] entity) {
+        return new HttpCacheEntry(uri, varyValues, status, reasonPhrase, headers, entity, responseTime);
+    }
+
+    /**
+     * Check whether the entry is a response to a request with the given headers, i.e. whether the request headers
+     * listed in the {@code Vary} response header match.
+     *
+     * @param requestHeaders request headers.
+     * @return {@code true} if the entry may be used for the request.
+     */
+    boolean matches(final MultivaluedMap<String, String> requestHeaders) {
+        for (final Map.Entry<String, String> vary : varyValues.entrySet()) {
+            if (!vary.getValue().equals(headerValue(requestHeaders, vary.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check whether the entry may be used for the request without revalidation.
+     *
+     * @param requestHeaders request headers.
+     * @param now            current time [ms].
+     * @return {@code true} if the entry is fresh.
+     */
+    boolean isFresh(final MultivaluedMap<String, String> requestHeaders, final long now) {
+        if (noCache) {
+            return false;
+        }
+        final long age = initialAge + Math.max(0, now - responseTime);
+        final long requestMaxAge = seconds(cacheControl(requestHeaders).get("max-age"), -1);
+        if (requestMaxAge >= 0 && age >= requestMaxAge * 1000) {
+            return false;
+        }
+        return age < freshnessLifetime;
+    }
+
+    String getUri() {
+        return uri;
+    }
+
+    Map<String, String> getVaryValues() {
+        return varyValues;
+    }
+
+    int getStatus() {
+        return status;
+    }
+
+    String getReasonPhrase() {
+        return reasonPhrase;
+    }
+
+    MultivaluedMap<String, String> getHeaders() {
+        return headers;
+    }
+
+    byte[] getEntity() {
+        return entity;
+    }
+
+    String getEntityTag() {
+        return headers.getFirst(HttpHeaders.ETAG);
+    }
+
+    String getLastModified() {
+        return headers.getFirst(HttpHeaders.LAST_MODIFIED);
+    }
+
+    /**
+     * Get the approximate memory footprint of the entry.
+     *
+     * @return entry size in bytes.
+     */
+    int size() {
+        int size = (entity != null ? entity.length : 0) + uri.length() * 2;
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            size += header.getKey().length() * 2;
+            for (final String value : header.getValue()) {
+                size += value.length() * 2;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Parse the {@code Cache-Control} (and {@code Pragma}) directives of the message.
+     *
+     * @param headers message headers.
+     * @return map of lower-case directive names to directive values ({@code null} if the directive has no value).
+     */
+    static Map<String, String> cacheControl(final MultivaluedMap<String, String> headers) {
+        final List<String> values = getIgnoreCase(headers, CACHE_CONTROL);
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        final Map<String, String> directives = new HashMap<String, String>();
+        for (final String value : values) {
+            for (final String directive : value.split(",")) {
+                final int eq = directive.indexOf('=');
+                if (eq < 0) {
+                    directives.put(directive.trim().toLowerCase(Locale.ROOT), null);
+                } else {
+                    String argument = directive.substring(eq + 1).trim();
+                    if (argument.length() > 1 && argument.startsWith("\"") && argument.endsWith("\"")) {
+                        argument = argument.substring(1, argument.length() - 1);
+                    }
+                    directives.put(directive.substring(0, eq).trim().toLowerCase(Locale.ROOT), argument);
+                }
+            }
+        }
+        return directives;
+    }
+
+    /**
+     * Check whether the request requires the cached response to be revalidated with the origin server.
+     *
+     * @param requestHeaders request headers.
+     * @return {@code true} if the request contains the {@code no-cache} directive.
+     */
+    static boolean isNoCacheRequest(final MultivaluedMap<String, String> requestHeaders) {
+        return cacheControl(requestHeaders).containsKey("no-cache")
+                || containsToken(getIgnoreCase(requestHeaders, PRAGMA), "no-cache");
+    }
+
+    private static List<String> varyHeaders(final MultivaluedMap<String, String> headers) {
+        final List<String> values = getIgnoreCase(headers, HttpHeaders.VARY);
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        final List<String> names = new ArrayList<String>();
+        for (final String value : values) {
+            for (final String name : value.split(",")) {
+                final String trimmed = name.trim();
+                if (!trimmed.isEmpty()) {
+                    names.add(trimmed.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return names;
+    }
+
+    private static String headerValue(final MultivaluedMap<String, String> headers, final String name) {
+        final List<String> values = getIgnoreCase(headers, name);
+        if (values == null) {
+            return "";
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (final String value : values) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(value.trim());
+        }
+        return sb.toString();
+    }
+
+    private static boolean containsToken(final List<String> values, final String token) {
+        if (values != null) {
+            for (final String value : values) {
+                if (value.toLowerCase(Locale.ROOT).contains(token)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static List<String> getIgnoreCase(final MultivaluedMap<String, String> headers, final String name) {
+        final List<String> values = headers.get(name);
+        if (values != null) {
+            return values;
+        }
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static MultivaluedMap<String, String> copy(final MultivaluedMap<String, String> headers) {
+        final MultivaluedMap<String, String> copy = new StringKeyIgnoreCaseMultivaluedMap<String>();
+        for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+            copy.put(header.getKey(), new ArrayList<String>(header.getValue()));
+        }
+        return copy;
+    }
+
+    private static long seconds(final String value, final long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (final NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private static long date(final String value, final long defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return HttpDateFormat.readDate(value).getTime();
+        } catch (final ParseException e) {
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client.filter;
+
+/**
+ * Runtime statistics of the client-side HTTP response cache configured by {@link HttpCachingFeature}.
+ * <p>
+ * All the counters are cumulative since the feature instance has been created. Values are updated concurrently
+ * by the client requests, so consecutive calls of the getters do not represent an atomic snapshot.
+ * </p>
+ *
+ * @since 2.18
+ */
+public interface HttpCacheStatistics {
+
+    /**
+     * Get the number of requests served from the cache without contacting the origin server.
+     *
+     * @return number of cache hits.
+     */
+    long getHitCount();
+
+    /**
+     * Get the number of cacheable requests for which no usable cache entry has been found.
+     *
+     * @return number of cache misses.
+     */
+    long getMissCount();
+
+    /**
+     * Get the number of conditional requests sent to the origin server to revalidate a stale cache entry.
+     *
+     * @return number of revalidations.
+     */
+    long getRevalidationCount();
+
+    /**
+     * Get the number of revalidations answered with {@code 304 Not Modified}, i.e. revalidations
+     * for which the cached entity has been reused.
+     *
+     * @return number of successful revalidations.
+     */
+    long getNotModifiedCount();
+
+    /**
+     * Get the number of responses stored in the cache.
+     *
+     * @return number of stored responses.
+     */
+    long getStoreCount();
+
+    /**
+     * Get the number of entries evicted from the cache because of the capacity limits.
+     *
+     * @return number of evicted entries.
+     */
+    long getEvictionCount();
+
+    /**
+     * Get the number of entries currently held in memory.
+     *
+     * @return number of in-memory entries.
+     */
+    int getMemoryEntryCount();
+
+    /**
+     * Get the approximate size of the entries currently held in memory.
+     *
+     * @return size of the in-memory entries in bytes.
+     */
+    long getMemorySize();
+
+    /**
+     * Get the number of entries currently held in the disk store.
+     *
+     * @return number of on-disk entries, {@code 0} if the disk store is not configured.
+     */
+    int getDiskEntryCount();
+
+    /**
+     * Get the size of the entities currently held in the disk store.
+     *
+     * @return size of the on-disk entities in bytes, {@code 0} if the disk store is not configured.
+     */
+    long getDiskSize();
+}
@@ -0,0 +1,456 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client.filter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.glassfish.jersey.client.internal.LocalizationMessages;
+
+/**
+ * Bounded store of {@link HttpCacheEntry cached responses}.
+ * <p>
+ * Entries are kept in an in-memory LRU map keyed by the request URI; each URI may hold several variants that differ
+ * in the values of the request headers listed in the {@code Vary} response header. When the memory limits are
+ * exceeded, the least recently used entries are either discarded or, if the disk store is configured, moved to
+ * the disk store. The disk store is a fixed-size memory-mapped file written as a ring buffer: when the ring wraps
+ * around, the oldest entries are overwritten. The disk store index is held in memory, so the disk store content
+ * does not survive the store instance.
+ * </p>
+ */
+final class HttpCacheStore implements HttpCacheStatistics {
+
+    private static final Logger LOGGER = Logger.getLogger(HttpCacheStore.class.getName());
+
+    private final int maxEntries;
+    private final long maxMemorySize;
+
+    private final File diskDirectory;
+    private final int diskCapacity;
+
+    private final LinkedHashMap<String, List<HttpCacheEntry>> memory =
+            new LinkedHashMap<String, List<HttpCacheEntry>>(16, 0.75f, true);
+    private int memoryEntries;
+    private long memorySize;
+
+    private DiskStore disk;
+    private boolean diskInitialized;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong revalidations = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Create new cache store.
+     *
+     * @param maxEntries    maximum number of entries held in memory.
+     * @param maxMemorySize maximum size of entries held in memory [bytes].
+     * @param diskDirectory directory of the disk store file, {@code null} if the disk store should not be used.
+     * @param diskCapacity  capacity of the disk store [bytes].
+     */
+    HttpCacheStore(final int maxEntries, final long maxMemorySize, final File diskDirectory, final int diskCapacity) {
+        this.maxEntries = maxEntries;
+        this.maxMemorySize = maxMemorySize;
+        this.diskDirectory = diskDirectory;
+        this.diskCapacity = diskCapacity;
+    }
+
+    /**
+     * Find an entry matching the request.
+     *
+     * @param uri            request URI.
+     * @param requestHeaders request headers.
+     * @return matching entry or {@code null} if not found.
+     */
+    synchronized HttpCacheEntry get(final String uri, final MultivaluedMap<String, String> requestHeaders) {
+        final List<HttpCacheEntry> variants = memory.get(uri);
+        if (variants != null) {
+            for (final HttpCacheEntry entry : variants) {
+                if (entry.matches(requestHeaders)) {
+                    return entry;
+                }
+            }
+        }
+        if (disk != null) {
+            final HttpCacheEntry entry = disk.remove(uri, requestHeaders);
+            if (entry != null) {
+                // promote the entry back to memory
+                putInMemory(entry);
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Store the entry, replacing an existing entry of the same variant.
+     *
+     * @param entry entry to be stored.
+     */
+    synchronized void put(final HttpCacheEntry entry) {
+        if (disk != null) {
+            disk.remove(entry.getUri(), entry.getVaryValues());
+        }
+        putInMemory(entry);
+        stores.incrementAndGet();
+    }
+
+    /**
+     * Remove all the entries of the URI.
+     *
+     * @param uri request URI.
+     */
+    synchronized void invalidate(final String uri) {
+        final List<HttpCacheEntry> variants = memory.remove(uri);
+        if (variants != null) {
+            for (final HttpCacheEntry entry : variants) {
+                memoryEntries--;
+                memorySize -= entry.size();
+            }
+        }
+        if (disk != null) {
+            disk.invalidate(uri);
+        }
+    }
+
+    private void putInMemory(final HttpCacheEntry entry) {
+        List<HttpCacheEntry> variants = memory.get(entry.getUri());
+        if (variants == null) {
+            variants = new ArrayList<HttpCacheEntry>(1);
+            memory.put(entry.getUri(), variants);
+        } else {
+            final Iterator<HttpCacheEntry> iterator = variants.iterator();
+            while (iterator.hasNext()) {
+                final HttpCacheEntry variant = iterator.next();
+                if (variant.getVaryValues().equals(entry.getVaryValues())) {
+                    iterator.remove();
+                    memoryEntries--;
+                    memorySize -= variant.size();
+                }
+            }
+        }
+        variants.add(entry);
+        memoryEntries++;
+        memorySize += entry.size();
+
+        final Iterator<Map.Entry<String, List<HttpCacheEntry>>> lru = memory.entrySet().iterator();
+        while ((memoryEntries > maxEntries || memorySize > maxMemorySize) && lru.hasNext()) {
+            final Map.Entry<String, List<HttpCacheEntry>> eldest = lru.next();
+            if (eldest.getKey().equals(entry.getUri())) {
+                // never evict the entry being stored
+                continue;
+            }
+            lru.remove();
+            for (final HttpCacheEntry evicted : eldest.getValue()) {
+                memoryEntries--;
+                memorySize -= evicted.size();
+                spill(evicted);
+            }
+        }
+    }
+
+    private void spill(final HttpCacheEntry entry) {
+        if (!diskInitialized) {
+            diskInitialized = true;
+            if (diskDirectory != null) {
+                try {
+                    disk = new DiskStore(diskDirectory, diskCapacity);
+                } catch (final IOException e) {
+                    LOGGER.log(Level.WARNING, LocalizationMessages.HTTP_CACHE_DISK_STORE_INIT_FAILED(diskDirectory), e);
+                }
+            }
+        }
+        if (disk == null || !disk.put(entry)) {
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Close the store and release the disk store file.
+     */
+    synchronized void close() {
+        memory.clear();
+        memoryEntries = 0;
+        memorySize = 0;
+        if (disk != null) {
+            disk.close();
+            disk = null;
+        }
+        diskInitialized = false;
+    }
+
+    void hit() {
+        hits.incrementAndGet();
+    }
+
+    void miss() {
+        misses.incrementAndGet();
+    }
+
+    void revalidation() {
+        revalidations.incrementAndGet();
+    }
+
+    void notModified() {
+        notModified.incrementAndGet();
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public long getRevalidationCount() {
+        return revalidations.get();
+    }
+
+    @Override
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+
+    @Override
+    public long getStoreCount() {
+        return stores.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    @Override
+    public synchronized int getMemoryEntryCount() {
+        return memoryEntries;
+    }
+
+    @Override
+    public synchronized long getMemorySize() {
+        return memorySize;
+    }
+
+    @Override
+    public synchronized int getDiskEntryCount() {
+        return disk == null ? 0 : disk.slots.size();
+    }
+
+    @Override
+    public synchronized long getDiskSize() {
+        return disk == null ? 0 : disk.size;
+    }
+
+    /**
+     * Entity location in the disk store.
+     */
+    private static final class Slot {
+
+        private final HttpCacheEntry entry;
+        private final int offset;
+        private final int length;
+
+        private Slot(final HttpCacheEntry entry, final int offset, final int length) {
+            this.entry = entry;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Ring buffer of entities backed by a memory-mapped file. Entry metadata are kept in memory.
+     * Not thread-safe, guarded by the enclosing store.
+     */
+    private final class DiskStore {
+
+        private final File file;
+        private final RandomAccessFile raf;
+        private final MappedByteBuffer buffer;
+
+        private final Map<String, List<Slot>> index = new HashMap<String, List<Slot>>();
+        private final ArrayDeque<Slot> slots = new ArrayDeque<Slot>();
+        private int writePosition;
+        private long size;
+
+        private DiskStore(final File directory, final int capacity) throws IOException {
+            this.file = File.createTempFile("jersey-http-cache", ".bin", directory);
+            file.deleteOnExit();
+            this.raf = new RandomAccessFile(file, "rw");
+            try {
+                raf.setLength(capacity);
+                this.buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            } catch (final IOException e) {
+                raf.close();
+                file.delete();
+                throw e;
+            }
+        }
+
+        private boolean put(final HttpCacheEntry entry) {
+            final byte[] entity = entry.getEntity();
+            final int length = entity == null ? 0 : entity.length;
+            if (length > buffer.capacity()) {
+                return false;
+            }
+
+            if (writePosition + length > buffer.capacity()) {
+                // wrap around: the slots past the write position are the oldest ones
+                while (!slots.isEmpty() && slots.peekFirst().offset >= writePosition) {
+                    evict(slots.pollFirst());
+                }
+                writePosition = 0;
+            }
+            while (!slots.isEmpty() && slots.peekFirst().offset >= writePosition
+                    && slots.peekFirst().offset < writePosition + length) {
+                evict(slots.pollFirst());
+            }
+
+            final ByteBuffer target = buffer.duplicate();
+            target.position(writePosition);
+            if (entity != null) {
+                target.put(entity);
+            }
+
+            final Slot slot = new Slot(entry.withEntity(null), writePosition, length);
+            writePosition += length;
+            slots.addLast(slot);
+            size += length;
+
+            List<Slot> variants = index.get(entry.getUri());
+            if (variants == null) {
+                variants = new ArrayList<Slot>(1);
+                index.put(entry.getUri(), variants);
+            }
+            variants.add(slot);
+            return true;
+        }
+
+        private HttpCacheEntry remove(final String uri, final MultivaluedMap<String, String> requestHeaders) {
+            final List<Slot> variants = index.get(uri);
+            if (variants != null) {
+                for (final Slot slot : variants) {
+                    if (slot.entry.matches(requestHeaders)) {
+                        final byte[] entity = new byte[slot.length];
+                        final ByteBuffer source = buffer.duplicate();
+                        source.position(slot.offset);
+                        source.get(entity);
+                        discard(slot);
+                        return slot.entry.withEntity(entity);
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void remove(final String uri, final Map<String, String> varyValues) {
+            final List<Slot> variants = index.get(uri);
+            if (variants != null) {
+                for (final Slot slot : new ArrayList<Slot>(variants)) {
+                    if (slot.entry.getVaryValues().equals(varyValues)) {
+                        discard(slot);
+                    }
+                }
+            }
+        }
+
+        private void invalidate(final String uri) {
+            final List<Slot> variants = index.get(uri);
+            if (variants != null) {
+                for (final Slot slot : new ArrayList<Slot>(variants)) {
+                    discard(slot);
+                }
+            }
+        }
+
+        private void evict(final Slot slot) {
+            unindex(slot);
+            evictions.incrementAndGet();
+        }
+
+        private void discard(final Slot slot) {
+            slots.remove(slot);
+            unindex(slot);
+        }
+
+        private void unindex(final Slot slot) {
+            size -= slot.length;
+            final List<Slot> variants = index.get(slot.entry.getUri());
+            variants.remove(slot);
+            if (variants.isEmpty()) {
+                index.remove(slot.entry.getUri());
+            }
+        }
+
+        private void close() {
+            index.clear();
+            slots.clear();
+            size = 0;
+            try {
+                raf.close();
+            } catch (final IOException e) {
+                LOGGER.log(Level.FINE, e.getMessage(), e);
+            }
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client.filter;
+
+import java.io.File;
+
+import javax.ws.rs.core.Feature;
+import javax.ws.rs.core.FeatureContext;
+
+/**
+ * Feature that enables a private client-side HTTP response cache.
+ * <p>
+ * Responses to {@code GET} requests are cached according to the HTTP caching rules: the {@code Cache-Control}
+ * ({@code max-age}, {@code no-cache} and {@code no-store} directives), {@code Expires}, {@code Age} and {@code Vary}
+ * headers are honored. Fresh responses are served from the cache without contacting the origin server, stale
+ * responses with an {@code ETag} or {@code Last-Modified} validator are revalidated with a conditional request
+ * ({@code If-None-Match}, {@code If-Modified-Since}) and reused when the server answers {@code 304 Not Modified}.
+ * Successful responses to unsafe methods invalidate the cached responses of the request URI.
+ * </p>
+ * <p>
+ * Cached responses are held in a bounded in-memory LRU store. Optionally, a disk store may be configured to hold
+ * the entries evicted from memory. The disk store is a fixed-size memory-mapped file that serves as an overflow
+ * area of the memory store; its content does not survive the client.
+ * </p>
+ * <p>
+ * Each feature instance holds its own cache, shared by all the clients the instance is registered with.
+ * Example of usage:
+ * <pre>
+ * HttpCachingFeature cache = HttpCachingFeature.builder()
+ *         .maxEntries(500)
+ *         .diskStore(new File("/tmp"), 64 * 1024 * 1024)
+ *         .build();
+ * Client client = ClientBuilder.newClient().register(cache);
+ * ...
+ * long hits = cache.getStatistics().getHitCount();
+ * </pre>
+ * </p>
+ *
+ * @since 2.18
+ */
+public class HttpCachingFeature implements Feature {
+
+    /**
+     * Default maximum number of responses held in memory.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    /**
+     * Default maximum size of responses held in memory [bytes].
+     */
+    public static final long DEFAULT_MAX_MEMORY_SIZE = 10 * 1024 * 1024;
+    /**
+     * Default maximum size of a cacheable response entity [bytes].
+     */
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+
+    private final HttpCacheStore store;
+    private final int maxEntrySize;
+
+    /**
+     * Create new caching feature with the default settings and no disk store.
+     */
+    public HttpCachingFeature() {
+        this(builder());
+    }
+
+    private HttpCachingFeature(final Builder builder) {
+        this.store = new HttpCacheStore(builder.maxEntries, builder.maxMemorySize, builder.diskDirectory,
+                builder.diskCapacity);
+        this.maxEntrySize = builder.maxEntrySize;
+    }
+
+    /**
+     * Create a builder of the caching feature.
+     *
+     * @return new builder.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean configure(final FeatureContext context) {
+        context.register(new HttpCachingFilter(store, maxEntrySize));
+        return true;
+    }
+
+    /**
+     * Get the statistics of the cache held by this feature.
+     *
+     * @return cache statistics.
+     */
+    public HttpCacheStatistics getStatistics() {
+        return store;
+    }
+
+    /**
+     * Discard all the cached responses and release the disk store file.
+     * The cache remains usable after the call.
+     */
+    public void clear() {
+        store.close();
+    }
+
+    /**
+     * Builder of the {@link HttpCachingFeature}.
+     */
+    public static class Builder {
+
+        private int maxEntries = DEFAULT_MAX_ENTRIES;
+        private long maxMemorySize = DEFAULT_MAX_MEMORY_SIZE;
+        private int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+        private File diskDirectory;
+        private int diskCapacity;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the maximum number of responses held in memory.
+         *
+         * @param maxEntries maximum number of in-memory entries, must be positive.
+         * @return updated builder.
+         */
+        public Builder maxEntries(final int maxEntries) {
+            if (maxEntries <= 0) {
+                throw new IllegalArgumentException("maxEntries");
+            }
+            this.maxEntries = maxEntries;
+            return this;
+        }
+
+        /**
+         * Set the maximum approximate size of the responses held in memory.
+         *
+         * @param maxMemorySize maximum size of in-memory entries in bytes, must be positive.
+         * @return updated builder.
+         */
+        public Builder maxMemorySize(final long maxMemorySize) {
+            if (maxMemorySize <= 0) {
+                throw new IllegalArgumentException("maxMemorySize");
+            }
+            this.maxMemorySize = maxMemorySize;
+            return this;
+        }
+
+        /**
+         * Set the maximum size of a cacheable response entity. Responses with larger entities are not cached.
+         *
+         * @param maxEntrySize maximum entity size in bytes, must not be negative.
+         * @return updated builder.
+         */
+        public Builder maxEntrySize(final int maxEntrySize) {
+            if (maxEntrySize < 0) {
+                throw new IllegalArgumentException("maxEntrySize");
+            }
+            this.maxEntrySize = maxEntrySize;
+            return this;
+        }
+
+        /**
+         * Enable the disk store for the entries evicted from memory.
+         * <p>
+         * The disk store file is created in the given directory when the first entry is evicted from memory
+         * and deleted when the cache is {@link HttpCachingFeature#clear() cleared} or the JVM exits.
+         * </p>
+         *
+         * @param directory directory of the disk store file.
+         * @param capacity  disk store capacity in bytes, must be positive.
+         * @return updated builder.
+         */
+        public Builder diskStore(final File directory, final int capacity) {
+            if (directory == null) {
+                throw new NullPointerException("directory");
+            }
+            if (capacity <= 0) {
+                throw new IllegalArgumentException("capacity");
+            }
+            this.diskDirectory = directory;
+            this.diskCapacity = capacity;
+            return this;
+        }
+
+        /**
+         * Build the caching feature.
+         *
+         * @return new caching feature.
+         */
+        public HttpCachingFeature build() {
+            return new HttpCachingFeature(this);
+        }
+    }
+}
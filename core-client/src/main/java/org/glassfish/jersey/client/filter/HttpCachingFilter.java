@@ -0,0 +1,228 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client.filter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import javax.annotation.Priority;
+
+import org.glassfish.jersey.message.internal.Statuses;
+
+/**
+ * Client filter implementing a private HTTP response cache for {@code GET} requests.
+ * <p>
+ * The request part of the filter serves fresh cached responses without contacting the origin server and turns
+ * requests for stale entries into conditional requests. The response part stores cacheable responses and
+ * replaces {@code 304 Not Modified} responses to the revalidation requests with the cached response. Successful
+ * responses to unsafe methods invalidate the cached entries of the request URI.
+ * </p>
+ * <p>
+ * The filter has the highest priority, so that its request part is executed after all the other request filters
+ * (which might modify the request headers used to select the cached variant) and its response part is executed
+ * before all the other response filters.
+ * </p>
+ */
+@Priority(Integer.MAX_VALUE)
+class HttpCachingFilter implements ClientRequestFilter, ClientResponseFilter {
+
+    private static final String REQUEST_PROPERTY_CACHED = "org.glassfish.jersey.client.filter.HttpCachingFilter.cached";
+    private static final String REQUEST_PROPERTY_REVALIDATED =
+            "org.glassfish.jersey.client.filter.HttpCachingFilter.revalidated";
+
+    private static final Set<Integer> CACHEABLE_STATUSES =
+            Collections.unmodifiableSet(new HashSet<Integer>(Arrays.asList(200, 203, 204, 300, 301, 404, 410)));
+
+    private static final Set<String> SAFE_METHODS =
+            Collections.unmodifiableSet(new HashSet<String>(Arrays.asList(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS)));
+
+    private static final List<String> CONDITIONAL_HEADERS = Arrays.asList(HttpHeaders.IF_NONE_MATCH,
+            HttpHeaders.IF_MODIFIED_SINCE, HttpHeaders.IF_MATCH, HttpHeaders.IF_UNMODIFIED_SINCE, "If-Range", "Range");
+
+    private final HttpCacheStore store;
+    private final int maxEntrySize;
+
+    /**
+     * Create new caching filter.
+     *
+     * @param store        cache store.
+     * @param maxEntrySize maximum size of a cacheable entity [bytes].
+     */
+    HttpCachingFilter(final HttpCacheStore store, final int maxEntrySize) {
+        this.store = store;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    @Override
+    public void filter(final ClientRequestContext request) throws IOException {
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            return;
+        }
+        final MultivaluedMap<String, String> headers = request.getStringHeaders();
+        if (HttpCacheEntry.cacheControl(headers).containsKey("no-store")) {
+            return;
+        }
+        for (final String conditional : CONDITIONAL_HEADERS) {
+            if (request.getHeaderString(conditional) != null) {
+                // conditional and range requests issued by the application are not served from the cache
+                return;
+            }
+        }
+
+        final HttpCacheEntry entry = store.get(request.getUri().toString(), headers);
+        if (entry == null) {
+            store.miss();
+            return;
+        }
+
+        if (!HttpCacheEntry.isNoCacheRequest(headers) && entry.isFresh(headers, System.currentTimeMillis())) {
+            store.hit();
+            request.setProperty(REQUEST_PROPERTY_CACHED, entry);
+            // the response is completed from the cached entry in the response part of the filter
+            request.abortWith(Response.status(Statuses.from(entry.getStatus(), entry.getReasonPhrase())).build());
+            return;
+        }
+
+        if (entry.getEntityTag() == null && entry.getLastModified() == null) {
+            store.miss();
+            return;
+        }
+        if (entry.getEntityTag() != null) {
+            request.getHeaders().putSingle(HttpHeaders.IF_NONE_MATCH, entry.getEntityTag());
+        }
+        if (entry.getLastModified() != null) {
+            request.getHeaders().putSingle(HttpHeaders.IF_MODIFIED_SINCE, entry.getLastModified());
+        }
+        store.revalidation();
+        request.setProperty(REQUEST_PROPERTY_REVALIDATED, entry);
+    }
+
+    @Override
+    public void filter(final ClientRequestContext request, final ClientResponseContext response) throws IOException {
+        final HttpCacheEntry cached = (HttpCacheEntry) request.getProperty(REQUEST_PROPERTY_CACHED);
+        if (cached != null) {
+            request.removeProperty(REQUEST_PROPERTY_CACHED);
+            setCachedResponse(response, cached);
+            return;
+        }
+
+        final String uri = request.getUri().toString();
+        final int status = response.getStatus();
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            if (status >= 200 && status < 400) {
+                store.invalidate(uri);
+            }
+            return;
+        }
+        if (!HttpMethod.GET.equals(request.getMethod())) {
+            return;
+        }
+
+        final HttpCacheEntry revalidated = (HttpCacheEntry) request.getProperty(REQUEST_PROPERTY_REVALIDATED);
+        if (revalidated != null) {
+            request.removeProperty(REQUEST_PROPERTY_REVALIDATED);
+            if (status == 304) {
+                final HttpCacheEntry updated = revalidated.revalidated(response.getHeaders(), System.currentTimeMillis());
+                store.notModified();
+                store.put(updated);
+                setCachedResponse(response, updated);
+                return;
+            }
+        }
+
+        if (!CACHEABLE_STATUSES.contains(status) || response.getLength() > maxEntrySize) {
+            return;
+        }
+        final HttpCacheEntry entry = HttpCacheEntry.create(uri, request.getStringHeaders(), status,
+                response.getStatusInfo().getReasonPhrase(), response.getHeaders(), null, System.currentTimeMillis());
+        if (entry == null) {
+            return;
+        }
+
+        byte[] entity = new byte[0];
+        if (response.hasEntity()) {
+            final InputStream entityStream = response.getEntityStream();
+            final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            final byte[] chunk = new byte[8192];
+            int read;
+            while (buffer.size() <= maxEntrySize && (read = entityStream.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            entity = buffer.toByteArray();
+            if (entity.length > maxEntrySize) {
+                // too large to be cached: hand the buffered part and the rest of the stream over to the application
+                response.setEntityStream(new SequenceInputStream(new ByteArrayInputStream(entity), entityStream));
+                return;
+            }
+            entityStream.close();
+            response.setEntityStream(new ByteArrayInputStream(entity));
+        }
+        store.put(entry.withEntity(entity));
+    }
+
+    private static void setCachedResponse(final ClientResponseContext response, final HttpCacheEntry entry) {
+        response.setStatusInfo(Statuses.from(entry.getStatus(), entry.getReasonPhrase()));
+        final MultivaluedMap<String, String> headers = response.getHeaders();
+        headers.clear();
+        for (final Map.Entry<String, List<String>> header : entry.getHeaders().entrySet()) {
+            headers.put(header.getKey(), new ArrayList<String>(header.getValue()));
+        }
+        response.setEntityStream(new ByteArrayInputStream(entry.getEntity()));
+    }
+}
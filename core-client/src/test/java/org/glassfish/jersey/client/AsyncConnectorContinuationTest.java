@@ -0,0 +1,185 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Tests that asynchronous requests do not hold client async executor threads while waiting for the response
+ * from a non-blocking connector.
+ */
+public class AsyncConnectorContinuationTest {
+
+    private static final int REQUESTS = 10;
+    private static final String CONNECTOR_THREAD = "test-connector-thread";
+    private static final String FILTER_THREAD_HEADER = "X-Filter-Thread";
+
+    /**
+     * Non-blocking connector that completes the requests from its own thread only once all the requests
+     * have been applied.
+     */
+    private static class DeferringConnector implements Connector, ConnectorProvider {
+
+        private final CountDownLatch applied = new CountDownLatch(REQUESTS);
+        private final ExecutorService executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(final Runnable r) {
+                return new Thread(r, CONNECTOR_THREAD);
+            }
+        });
+
+        @Override
+        public ClientResponse apply(final ClientRequest request) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+            applied.countDown();
+            return executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        applied.await();
+                        final ClientResponse response = new ClientResponse(Response.Status.OK, request);
+                        response.setEntityStream(new ByteArrayInputStream(request.getUri().toString().getBytes()));
+                        callback.response(response);
+                    } catch (final Throwable t) {
+                        callback.failure(t);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public String getName() {
+            return "deferring";
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+
+        @Override
+        public Connector getConnector(final Client client, final Configuration runtimeConfig) {
+            return this;
+        }
+    }
+
+    /**
+     * Records the thread processing the response.
+     */
+    public static class ThreadRecordingFilter implements ClientResponseFilter {
+
+        @Override
+        public void filter(final ClientRequestContext requestContext, final ClientResponseContext responseContext)
+                throws IOException {
+            responseContext.getHeaders().putSingle(FILTER_THREAD_HEADER, Thread.currentThread().getName());
+        }
+    }
+
+    @Test
+    public void testInFlightRequestsNotLimitedByThreads() throws Exception {
+        final Client client = ClientBuilder.newClient(new ClientConfig()
+                .connectorProvider(new DeferringConnector())
+                .property(ClientProperties.ASYNC_THREADPOOL_SIZE, 1)
+                .register(ThreadRecordingFilter.class));
+        try {
+            final List<Future<Response>> responses = new ArrayList<Future<Response>>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(client.target("http://localhost/" + i).request().async().get());
+            }
+
+            for (int i = 0; i < REQUESTS; i++) {
+                final Response response = responses.get(i).get(10, TimeUnit.SECONDS);
+                assertEquals(200, response.getStatus());
+                assertEquals("http://localhost/" + i, response.readEntity(String.class));
+                assertNotEquals(CONNECTOR_THREAD, response.getHeaderString(FILTER_THREAD_HEADER));
+            }
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testBlockingConnectorFailure() throws Exception {
+        final Client client = ClientBuilder.newClient(new ClientConfig()
+                .connectorProvider(new CustomConnectorTest.NullConnector()));
+        try {
+            client.target("http://localhost/").request().async().get().get(10, TimeUnit.SECONDS);
+            fail("Connector failure not propagated.");
+        } catch (final ExecutionException ex) {
+            assertTrue(ex.getCause() instanceof ProcessingException);
+            assertEquals("test-async", ex.getCause().getMessage());
+        } finally {
+            client.close();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link ChunkedInput#createParser(String) Fixed boundary chunk parser} test.
+ */
+public class ChunkParserTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    /**
+     * Input stream returning at most one byte per bulk read.
+     */
+    private static class TricklingInputStream extends FilterInputStream {
+
+        TricklingInputStream(final InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) throws IOException {
+            return super.read(b, off, Math.min(len, 1));
+        }
+    }
+
+    @Test
+    public void testChunks() throws IOException {
+        final String data = "first\r\nsecond\r\n\r\nthird";
+
+        assertEquals(Arrays.asList("first", "second", "third"), readAll("\r\n", buffered(data)));
+        assertEquals(Arrays.asList("first", "second", "third"), readAll("\r\n", trickling(data)));
+        assertEquals(Arrays.asList("first", "second", "third"), readAll("\r\n", plain(data)));
+    }
+
+    @Test
+    public void testRepeatedDelimiterPrefix() throws IOException {
+        final String data = "a\n\n\nb\n\n\n\nc";
+
+        assertEquals(Arrays.asList("a", "\nb", "c"), readAll("\n\n", buffered(data)));
+        assertEquals(Arrays.asList("a", "\nb", "c"), readAll("\n\n", trickling(data)));
+    }
+
+    @Test
+    public void testLargeChunks() throws IOException {
+        final StringBuilder sb = new StringBuilder();
+        final List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 5; i++) {
+            final StringBuilder chunk = new StringBuilder();
+            for (int j = 0; j < 10000 * (i + 1); j++) {
+                chunk.append((char) ('a' + (i + j) % 26));
+            }
+            expected.add(chunk.toString());
+            sb.append(chunk).append("--boundary--");
+        }
+
+        assertEquals(expected, readAll("--boundary--", buffered(sb.toString())));
+        assertEquals(expected, readAll("--boundary--", trickling(sb.toString())));
+    }
+
+    @Test
+    public void testDataAfterChunkKeptInStream() throws IOException {
+        final InputStream in = buffered("chunk\r\nrest");
+        final ChunkParser parser = ChunkedInput.createParser("\r\n");
+
+        assertEquals("chunk", new String(parser.readChunk(in), UTF8));
+        final byte[] rest = new byte[4];
+        assertEquals(4, in.read(rest));
+        assertEquals("rest", new String(rest, UTF8));
+        assertNull(parser.readChunk(in));
+    }
+
+    @Test
+    public void testSharedParser() throws IOException {
+        final ChunkParser parser = ChunkedInput.createParser("\n\n");
+        final InputStream in1 = buffered("a1\n\na2\n\n");
+        final InputStream in2 = buffered("b1\n\nb2\n\n");
+
+        assertEquals("a1", new String(parser.readChunk(in1), UTF8));
+        assertEquals("b1", new String(parser.readChunk(in2), UTF8));
+        assertEquals("a2", new String(parser.readChunk(in1), UTF8));
+        assertEquals("b2", new String(parser.readChunk(in2), UTF8));
+        assertNull(parser.readChunk(in1));
+        assertNull(parser.readChunk(in2));
+    }
+
+    private static List<String> readAll(final String boundary, final InputStream in) throws IOException {
+        final ChunkParser parser = ChunkedInput.createParser(boundary);
+        final List<String> chunks = new ArrayList<String>();
+        byte[] chunk;
+        while ((chunk = parser.readChunk(in)) != null) {
+            chunks.add(new String(chunk, UTF8));
+        }
+        return chunks;
+    }
+
+    private static InputStream plain(final String data) {
+        return new ByteArrayInputStream(data.getBytes(UTF8));
+    }
+
+    private static InputStream buffered(final String data) {
+        return new ChunkedInput.ReadAheadInputStream(plain(data));
+    }
+
+    private static InputStream trickling(final String data) {
+        return new ChunkedInput.ReadAheadInputStream(new TricklingInputStream(plain(data)));
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link HedgedRequestsFeature} tests.
+ */
+public class HedgedRequestsTest {
+
+    private static final String REPLICA_A = "http://replica-a:8080/api";
+    private static final String REPLICA_B = "http://replica-b:8080/api";
+
+    /**
+     * Asynchronous connector returning the request URI as the response entity after a per-host delay.
+     * It can be instructed to stall or fail the next request or to respond with {@code 503} status.
+     */
+    private static class ReplicaConnector implements Connector, ConnectorProvider {
+
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+        private final ConcurrentMap<String, Long> delays = new ConcurrentHashMap<String, Long>();
+        private final ConcurrentMap<String, AtomicInteger> invocations = new ConcurrentHashMap<String, AtomicInteger>();
+        private final AtomicBoolean stallNext = new AtomicBoolean();
+        private final AtomicBoolean failNext = new AtomicBoolean();
+        private final AtomicBoolean unavailableNext = new AtomicBoolean();
+        private final ConcurrentMap<String, Boolean> unavailable = new ConcurrentHashMap<String, Boolean>();
+        private final CountDownLatch unavailableClosed = new CountDownLatch(1);
+        private final CountDownLatch stalledCancelled = new CountDownLatch(1);
+
+        private ReplicaConnector() {
+            delays.put("replica-a", 0L);
+            delays.put("replica-b", 0L);
+        }
+
+        private int invocations(final String host) {
+            final AtomicInteger count = invocations.get(host);
+            return count == null ? 0 : count.get();
+        }
+
+        @Override
+        public ClientResponse apply(final ClientRequest request) {
+            final String host = request.getUri().getHost();
+            invocations.putIfAbsent(host, new AtomicInteger());
+            invocations.get(host).incrementAndGet();
+
+            if (failNext.compareAndSet(true, false)) {
+                throw new ProcessingException("test-failure");
+            }
+            try {
+                if (stallNext.compareAndSet(true, false)) {
+                    try {
+                        Thread.sleep(10000);
+                    } catch (final InterruptedException e) {
+                        stalledCancelled.countDown();
+                        throw new ProcessingException(e);
+                    }
+                }
+                final Long delay = delays.get(host);
+                Thread.sleep(delay == null ? 0 : delay);
+            } catch (final InterruptedException e) {
+                throw new ProcessingException(e);
+            }
+            if (unavailableNext.compareAndSet(true, false) || unavailable.containsKey(host)) {
+                final ClientResponse response = new ClientResponse(Response.Status.SERVICE_UNAVAILABLE, request);
+                response.setEntityStream(new ByteArrayInputStream(new byte[0]) {
+                    @Override
+                    public void close() {
+                        unavailableClosed.countDown();
+                    }
+                });
+                return response;
+            }
+            final ClientResponse response = new ClientResponse(Response.Status.OK, request);
+            response.setEntityStream(new ByteArrayInputStream(request.getUri().toString().getBytes()));
+            return response;
+        }
+
+        @Override
+        public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+            return executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        callback.response(apply(request));
+                    } catch (final Throwable t) {
+                        callback.failure(t);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public String getName() {
+            return "replicas";
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+
+        @Override
+        public Connector getConnector(final Client client, final Configuration runtimeConfig) {
+            return this;
+        }
+    }
+
+    private final ReplicaConnector connector = new ReplicaConnector();
+    private Client client;
+
+    @After
+    public void tearDown() {
+        if (client != null) {
+            client.close();
+        }
+    }
+
+    private Client createClient(final int percentile) {
+        client = ClientBuilder.newClient(new ClientConfig()
+                .connectorProvider(connector)
+                .register(new HedgedRequestsFeature(percentile, REPLICA_A, REPLICA_B)));
+        return client;
+    }
+
+    private void warmUp(final int requests) {
+        for (int i = 0; i < requests; i++) {
+            client.target(REPLICA_A).path("warm-up").request().get().close();
+        }
+    }
+
+    @Test
+    public void testRequestsRetargetedToReplica() {
+        createClient(0);
+        final String entity = client.target(REPLICA_A).path("items").queryParam("q", "1").request().get(String.class);
+        assertTrue(entity, entity.equals(REPLICA_A + "/items?q=1") || entity.equals(REPLICA_B + "/items?q=1"));
+    }
+
+    @Test
+    public void testOtherRequestsNotAffected() {
+        createClient(0);
+        assertEquals("http://replica-a:8080/other",
+                client.target("http://replica-a:8080/other").request().get(String.class));
+        assertEquals("http://other/api", client.target("http://other/api").request().get(String.class));
+    }
+
+    @Test
+    public void testFasterReplicaPreferred() {
+        connector.delays.put("replica-a", 50L);
+        createClient(0);
+        warmUp(30);
+        assertTrue("Slow replica invocations: " + connector.invocations("replica-a"), connector.invocations("replica-a") <= 2);
+    }
+
+    @Test
+    public void testSlowRequestHedged() throws Exception {
+        createClient(50);
+        warmUp(40);
+
+        connector.stallNext.set(true);
+        final long start = System.nanoTime();
+        final Response response = client.target(REPLICA_A).path("hedged").request().get();
+        assertEquals(200, response.getStatus());
+        response.close();
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000);
+        assertTrue("Stalled request not cancelled", connector.stalledCancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testAsyncSlowRequestHedged() throws Exception {
+        createClient(50);
+        warmUp(40);
+
+        connector.stallNext.set(true);
+        final Response response = client.target(REPLICA_A).path("hedged").request().async().get().get(5, TimeUnit.SECONDS);
+        assertEquals(200, response.getStatus());
+        response.close();
+        assertTrue("Stalled request not cancelled", connector.stalledCancelled.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedRequestHedged() {
+        createClient(50);
+        warmUp(40);
+
+        connector.failNext.set(true);
+        final String entity = client.target(REPLICA_A).path("failover").request().get(String.class);
+        assertTrue(entity, entity.endsWith("/api/failover"));
+    }
+
+    @Test
+    public void testUnavailableReplicaAvoided() {
+        connector.unavailable.put("replica-a", true);
+        createClient(0);
+        warmUp(30);
+        assertTrue("Unavailable replica invocations: " + connector.invocations("replica-a"),
+                connector.invocations("replica-a") <= 2);
+    }
+
+    @Test
+    public void testUnavailableResponseHedged() throws Exception {
+        createClient(50);
+        warmUp(40);
+
+        connector.unavailableNext.set(true);
+        final String entity = client.target(REPLICA_A).path("failover").request().get(String.class);
+        assertTrue(entity, entity.endsWith("/api/failover"));
+        assertTrue("Response of unavailable replica not closed", connector.unavailableClosed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testUnavailableResponseReturnedIfAllAttemptsFail() {
+        createClient(50);
+        warmUp(40);
+
+        connector.unavailable.put("replica-a", true);
+        connector.unavailable.put("replica-b", true);
+
+        final Response response = client.target(REPLICA_A).path("unavailable").request().get();
+        assertEquals(503, response.getStatus());
+        response.close();
+    }
+}
@@ -0,0 +1,475 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link RequestCoalescingFeature} tests.
+ */
+public class RequestCoalescingTest {
+
+    private static final int REQUESTS = 10;
+
+    /**
+     * Connector that holds all the requests until the gate is opened and counts the invocations.
+     */
+    private static class GatedConnector implements Connector, ConnectorProvider {
+
+        private final CountDownLatch gate = new CountDownLatch(1);
+        private final AtomicInteger invocations = new AtomicInteger();
+        private final boolean fail;
+        private volatile boolean knownLength = true;
+
+        private GatedConnector(final boolean fail) {
+            this.fail = fail;
+        }
+
+        @Override
+        public ClientResponse apply(final ClientRequest request) {
+            final int invocation = invocations.incrementAndGet();
+            try {
+                gate.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+                throw new ProcessingException(e);
+            }
+            if (fail) {
+                throw new ProcessingException("test-failure");
+            }
+            final ClientResponse response = new ClientResponse(Response.Status.OK, request);
+            final byte[] entity = request.getUri().toString().getBytes();
+            response.getHeaders().add("X-Invocation", Integer.toString(invocation));
+            if (knownLength) {
+                response.getHeaders().add(HttpHeaders.CONTENT_LENGTH, Integer.toString(entity.length));
+            }
+            response.setEntityStream(new ByteArrayInputStream(entity));
+            return response;
+        }
+
+        @Override
+        public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+            return Executors.newSingleThreadExecutor().submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        callback.response(apply(request));
+                    } catch (final Throwable t) {
+                        callback.failure(t);
+                    }
+                }
+            });
+        }
+
+        @Override
+        public String getName() {
+            return "gated";
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public Connector getConnector(final Client client, final Configuration runtimeConfig) {
+            return this;
+        }
+    }
+
+    /**
+     * Counts requests that passed the request filtering.
+     */
+    private static class CountingFilter implements ClientRequestFilter {
+
+        private final CountDownLatch filtered;
+
+        private CountingFilter(final int requests) {
+            this.filtered = new CountDownLatch(requests);
+        }
+
+        @Override
+        public void filter(final ClientRequestContext requestContext) throws IOException {
+            filtered.countDown();
+        }
+
+        private void await() throws InterruptedException {
+            assertTrue(filtered.await(10, TimeUnit.SECONDS));
+            // give the filtered requests some time to reach the connector
+            Thread.sleep(200);
+        }
+    }
+
+    /**
+     * Property value without a value-based {@code toString()}.
+     */
+    private static class Setting {
+
+        private final String value;
+
+        private Setting(final String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            return o instanceof Setting && value.equals(((Setting) o).value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+    }
+
+    private static Client createClient(final GatedConnector connector, final CountingFilter filter, final boolean coalesce) {
+        final ClientConfig config = new ClientConfig().connectorProvider(connector).register(filter);
+        if (coalesce) {
+            config.register(RequestCoalescingFeature.class);
+        }
+        return ClientBuilder.newClient(config);
+    }
+
+    /**
+     * Send {@link #REQUESTS} asynchronous requests built by the given builder, release them and check the number
+     * of connector invocations.
+     */
+    private static void assertInvocations(final GatedConnector connector, final CountingFilter filter,
+                                          final Callable<Future<Response>> request, final int expected) throws Exception {
+        final List<Future<Response>> responses = new ArrayList<Future<Response>>();
+        for (int i = 0; i < REQUESTS; i++) {
+            responses.add(request.call());
+        }
+        filter.await();
+        connector.gate.countDown();
+
+        for (final Future<Response> future : responses) {
+            final Response response = future.get(10, TimeUnit.SECONDS);
+            assertEquals(200, response.getStatus());
+            assertEquals("http://localhost/resource", response.readEntity(String.class));
+        }
+        assertEquals(expected, connector.invocations.get());
+    }
+
+    @Test
+    public void testAsyncRequestsCoalesced() throws Exception {
+        final GatedConnector connector = new GatedConnector(false);
+        final CountingFilter filter = new CountingFilter(REQUESTS);
+        final Client client = createClient(connector, filter, true);
+        try {
+            final List<Future<Response>> responses = new ArrayList<Future<Response>>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(client.target("http://localhost/resource").request().async().get());
+            }
+            filter.await();
+            connector.gate.countDown();
+
+            for (final Future<Response> future : responses) {
+                final Response response = future.get(10, TimeUnit.SECONDS);
+                assertEquals(200, response.getStatus());
+                assertEquals("1", response.getHeaderString("X-Invocation"));
+                assertEquals("http://localhost/resource", response.readEntity(String.class));
+            }
+            assertEquals(1, connector.invocations.get());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testSyncRequestsCoalesced() throws Exception {
+        final GatedConnector connector = new GatedConnector(false);
+        final CountingFilter filter = new CountingFilter(REQUESTS);
+        final Client client = createClient(connector, filter, true);
+        final ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            final List<Future<String>> responses = new ArrayList<Future<String>>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return client.target("http://localhost/resource").request().get(String.class);
+                    }
+                }));
+            }
+            filter.await();
+            connector.gate.countDown();
+
+            for (final Future<String> response : responses) {
+                assertEquals("http://localhost/resource", response.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(1, connector.invocations.get());
+        } finally {
+            executor.shutdownNow();
+            client.close();
+        }
+    }
+
+    @Test
+    public void testDifferentRequestsNotCoalesced() throws Exception {
+        final GatedConnector connector = new GatedConnector(false);
+        final CountingFilter filter = new CountingFilter(4);
+        final Client client = createClient(connector, filter, true);
+        try {
+            final List<Future<Response>> responses = new ArrayList<Future<Response>>();
+            responses.add(client.target("http://localhost/a").request().async().get());
+            responses.add(client.target("http://localhost/b").request().async().get());
+            responses.add(client.target("http://localhost/a").request().header("X-Variant", "1").async().get());
+            responses.add(client.target("http://localhost/a").request().async().post(Entity.text("entity")));
+            filter.await();
+            connector.gate.countDown();
+
+            for (final Future<Response> future : responses) {
+                assertEquals(200, future.get(10, TimeUnit.SECONDS).getStatus());
+            }
+            assertEquals(4, connector.invocations.get());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testRequestsWithDifferentPropertiesNotCoalesced() throws Exception {
+        final GatedConnector connector = new GatedConnector(false);
+        final CountingFilter filter = new CountingFilter(5);
+        final Client client = createClient(connector, filter, true);
+        try {
+            final List<Future<Response>> responses = new ArrayList<Future<Response>>();
+            responses.add(client.target("http://localhost/a").request().async().get());
+            responses.add(client.target("http://localhost/a").request()
+                    .property(ClientProperties.READ_TIMEOUT, 1000).async().get());
+            responses.add(client.target("http://localhost/a").request()
+                    .property(ClientProperties.FOLLOW_REDIRECTS, false).async().get());
+            responses.add(client.target("http://localhost/a").property(ClientProperties.PROXY_URI, "http://proxy:8080")
+                    .request().async().get());
+            // same properties as the previous request
+            responses.add(client.target("http://localhost/a").request()
+                    .property(ClientProperties.READ_TIMEOUT, 1000).async().get());
+            filter.await();
+            connector.gate.countDown();
+
+            for (final Future<Response> future : responses) {
+                assertEquals(200, future.get(10, TimeUnit.SECONDS).getStatus());
+            }
+            assertEquals(4, connector.invocations.get());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testEqualPropertiesCoalesced() throws Exception {
+        final GatedConnector connector = new GatedConnector(false);
+        final CountingFilter filter = new CountingFilter(REQUESTS);
+        final Client client = createClient(connector, filter, true);
+        try {
+            assertInvocations(connector, filter, new Callable<Future<Response>>() {
+                @Override
+                public Future<Response> call() throws Exception {
+                    return client.target("http://localhost/resource").request()
+                            .property("test.setting", new Setting("value")).async().get();
+                }
+            }, 1);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testRequestOptOut() throws Exception {
+        final GatedConnector connector = new GatedConnector(false);
+        final CountingFilter filter = new CountingFilter(REQUESTS);
+        final Client client = createClient(connector, filter, true);
+        try {
+            assertInvocations(connector, filter, new Callable<Future<Response>>() {
+                @Override
+                public Future<Response> call() throws Exception {
+                    return client.target("http://localhost/resource").request()
+                            .property(ClientProperties.REQUEST_COALESCING, false).async().get();
+                }
+            }, REQUESTS);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testEventStreamRequestsNotCoalesced() throws Exception {
+        final GatedConnector connector = new GatedConnector(false);
+        final CountingFilter filter = new CountingFilter(REQUESTS);
+        final Client client = createClient(connector, filter, true);
+        try {
+            assertInvocations(connector, filter, new Callable<Future<Response>>() {
+                @Override
+                public Future<Response> call() throws Exception {
+                    return client.target("http://localhost/resource").request("text/event-stream").async().get();
+                }
+            }, REQUESTS);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testUnknownLengthResponseNotShared() throws Exception {
+        final GatedConnector connector = new GatedConnector(false);
+        connector.knownLength = false;
+        final CountingFilter filter = new CountingFilter(REQUESTS);
+        final Client client = createClient(connector, filter, true);
+        try {
+            assertInvocations(connector, filter, new Callable<Future<Response>>() {
+                @Override
+                public Future<Response> call() throws Exception {
+                    return client.target("http://localhost/resource").request().async().get();
+                }
+            }, REQUESTS);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testLargeResponseNotShared() throws Exception {
+        final GatedConnector connector = new GatedConnector(false);
+        final CountingFilter filter = new CountingFilter(REQUESTS);
+        final Client client = ClientBuilder.newClient(new ClientConfig().connectorProvider(connector).register(filter)
+                .register(RequestCoalescingFeature.class)
+                .property(ClientProperties.REQUEST_COALESCING_MAX_ENTITY_SIZE, 10));
+        final ExecutorService executor = Executors.newFixedThreadPool(REQUESTS);
+        try {
+            final List<Future<String>> responses = new ArrayList<Future<String>>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(executor.submit(new Callable<String>() {
+                    @Override
+                    public String call() throws Exception {
+                        return client.target("http://localhost/resource").request().get(String.class);
+                    }
+                }));
+            }
+            filter.await();
+            connector.gate.countDown();
+
+            for (final Future<String> response : responses) {
+                assertEquals("http://localhost/resource", response.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(REQUESTS, connector.invocations.get());
+        } finally {
+            executor.shutdownNow();
+            client.close();
+        }
+    }
+
+    @Test
+    public void testFailureReportedToAllRequests() throws Exception {
+        final GatedConnector connector = new GatedConnector(true);
+        final CountingFilter filter = new CountingFilter(REQUESTS);
+        final Client client = createClient(connector, filter, true);
+        try {
+            final List<Future<Response>> responses = new ArrayList<Future<Response>>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(client.target("http://localhost/resource").request().async().get());
+            }
+            filter.await();
+            connector.gate.countDown();
+
+            for (final Future<Response> future : responses) {
+                try {
+                    future.get(10, TimeUnit.SECONDS);
+                    fail("Connector failure not propagated.");
+                } catch (final ExecutionException e) {
+                    assertTrue(e.getCause() instanceof ProcessingException);
+                }
+            }
+            assertEquals(1, connector.invocations.get());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        final GatedConnector connector = new GatedConnector(false);
+        final CountingFilter filter = new CountingFilter(REQUESTS);
+        final Client client = createClient(connector, filter, false);
+        try {
+            final List<Future<Response>> responses = new ArrayList<Future<Response>>();
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(client.target("http://localhost/resource").request().async().get());
+            }
+            filter.await();
+            connector.gate.countDown();
+
+            for (final Future<Response> future : responses) {
+                assertEquals(200, future.get(10, TimeUnit.SECONDS).getStatus());
+            }
+            assertEquals(REQUESTS, connector.invocations.get());
+        } finally {
+            client.close();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.client.filter;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.Arrays;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.ClientBuilder;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.client.ClientRequest;
+import org.glassfish.jersey.client.ClientResponse;
+import org.glassfish.jersey.client.spi.AsyncConnectorCallback;
+import org.glassfish.jersey.client.spi.Connector;
+import org.glassfish.jersey.client.spi.ConnectorProvider;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/**
+ * {@link HttpCachingFeature} unit tests.
+ */
+public class HttpCachingFeatureTest {
+
+    /**
+     * Connector returning a response with the configured headers and an entity containing the invocation number.
+     * Conditional requests matching the configured entity tag are answered with {@code 304 Not Modified}.
+     */
+    private static class TestConnector implements Connector, ConnectorProvider {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+        private final String[] headers;
+        private volatile String ifNoneMatch;
+
+        private TestConnector(final String... headers) {
+            this.headers = headers;
+        }
+
+        @Override
+        public ClientResponse apply(final ClientRequest request) {
+            final int invocation = invocations.incrementAndGet();
+            ifNoneMatch = request.getHeaderString(HttpHeaders.IF_NONE_MATCH);
+
+            final ClientResponse response;
+            if (ifNoneMatch != null && Arrays.asList(headers).contains(ifNoneMatch)) {
+                response = new ClientResponse(Response.Status.NOT_MODIFIED, request);
+            } else {
+                response = new ClientResponse(Response.Status.OK, request);
+                final String accept = request.getHeaderString(HttpHeaders.ACCEPT_LANGUAGE);
+                final String entity = "response-" + invocation + (accept == null ? "" : "-" + accept);
+                response.setEntityStream(new ByteArrayInputStream(entity.getBytes()));
+            }
+            for (int i = 0; i < headers.length; i += 2) {
+                response.getHeaders().add(headers[i], headers[i + 1]);
+            }
+            return response;
+        }
+
+        @Override
+        public Future<?> apply(final ClientRequest request, final AsyncConnectorCallback callback) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public Connector getConnector(final Client client, final Configuration runtimeConfig) {
+            return this;
+        }
+    }
+
+    private static Client createClient(final TestConnector connector, final HttpCachingFeature feature) {
+        return ClientBuilder.newClient(new ClientConfig().connectorProvider(connector).register(feature));
+    }
+
+    private static String get(final Client client, final String uri) {
+        return client.target(uri).request().get(String.class);
+    }
+
+    @Test
+    public void testFreshResponseServedFromCache() {
+        final TestConnector connector = new TestConnector("Cache-Control", "max-age=60", "X-Test", "value");
+        final HttpCachingFeature feature = new HttpCachingFeature();
+        final Client client = createClient(connector, feature);
+
+        assertEquals("response-1", get(client, "http://localhost/a"));
+        final Response response = client.target("http://localhost/a").request().get();
+        assertEquals(200, response.getStatus());
+        assertEquals("value", response.getHeaderString("X-Test"));
+        assertEquals("response-1", response.readEntity(String.class));
+        assertEquals("response-2", get(client, "http://localhost/b"));
+
+        assertEquals(2, connector.invocations.get());
+        assertEquals(1, feature.getStatistics().getHitCount());
+        assertEquals(2, feature.getStatistics().getMissCount());
+        assertEquals(2, feature.getStatistics().getStoreCount());
+    }
+
+    @Test
+    public void testNoStore() {
+        final TestConnector connector = new TestConnector("Cache-Control", "no-store, max-age=60");
+        final HttpCachingFeature feature = new HttpCachingFeature();
+        final Client client = createClient(connector, feature);
+
+        assertEquals("response-1", get(client, "http://localhost/a"));
+        assertEquals("response-2", get(client, "http://localhost/a"));
+        assertEquals(0, feature.getStatistics().getStoreCount());
+        assertEquals(0, feature.getStatistics().getHitCount());
+    }
+
+    @Test
+    public void testRequestNoCacheForcesRevalidation() {
+        final TestConnector connector = new TestConnector("Cache-Control", "max-age=60", "ETag", "\"1\"");
+        final HttpCachingFeature feature = new HttpCachingFeature();
+        final Client client = createClient(connector, feature);
+
+        assertEquals("response-1", get(client, "http://localhost/a"));
+        assertEquals("response-1", client.target("http://localhost/a").request()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache").get(String.class));
+        assertEquals("\"1\"", connector.ifNoneMatch);
+        assertEquals(1, feature.getStatistics().getRevalidationCount());
+        assertEquals(1, feature.getStatistics().getNotModifiedCount());
+    }
+
+    @Test
+    public void testEntityTagRevalidation() {
+        final TestConnector connector = new TestConnector("Cache-Control", "max-age=0", "ETag", "\"1\"");
+        final HttpCachingFeature feature = new HttpCachingFeature();
+        final Client client = createClient(connector, feature);
+
+        assertEquals("response-1", get(client, "http://localhost/a"));
+        assertNull(connector.ifNoneMatch);
+
+        final Response response = client.target("http://localhost/a").request().get();
+        assertEquals(200, response.getStatus());
+        assertEquals("response-1", response.readEntity(String.class));
+        assertEquals("\"1\"", connector.ifNoneMatch);
+
+        assertEquals(2, connector.invocations.get());
+        assertEquals(1, feature.getStatistics().getRevalidationCount());
+        assertEquals(1, feature.getStatistics().getNotModifiedCount());
+        assertEquals(0, feature.getStatistics().getHitCount());
+    }
+
+    @Test
+    public void testVary() {
+        final TestConnector connector = new TestConnector("Cache-Control", "max-age=60", "Vary", "Accept-Language");
+        final HttpCachingFeature feature = new HttpCachingFeature();
+        final Client client = createClient(connector, feature);
+
+        assertEquals("response-1-en", client.target("http://localhost/a").request().acceptLanguage("en").get(String.class));
+        assertEquals("response-2-de", client.target("http://localhost/a").request().acceptLanguage("de").get(String.class));
+        assertEquals("response-1-en", client.target("http://localhost/a").request().acceptLanguage("en").get(String.class));
+        assertEquals("response-2-de", client.target("http://localhost/a").request().acceptLanguage("de").get(String.class));
+
+        assertEquals(2, connector.invocations.get());
+        assertEquals(2, feature.getStatistics().getHitCount());
+        assertEquals(2, feature.getStatistics().getMemoryEntryCount());
+    }
+
+    @Test
+    public void testUnsafeMethodInvalidates() {
+        final TestConnector connector = new TestConnector("Cache-Control", "max-age=60");
+        final HttpCachingFeature feature = new HttpCachingFeature();
+        final Client client = createClient(connector, feature);
+
+        assertEquals("response-1", get(client, "http://localhost/a"));
+        client.target("http://localhost/a").request().post(Entity.text("data")).close();
+        assertEquals("response-3", get(client, "http://localhost/a"));
+        assertEquals(0, feature.getStatistics().getHitCount());
+    }
+
+    @Test
+    public void testMaxEntrySize() {
+        final TestConnector connector = new TestConnector("Cache-Control", "max-age=60");
+        final HttpCachingFeature feature = HttpCachingFeature.builder().maxEntrySize(5).build();
+        final Client client = createClient(connector, feature);
+
+        assertEquals("response-1", get(client, "http://localhost/a"));
+        assertEquals("response-2", get(client, "http://localhost/a"));
+        assertEquals(0, feature.getStatistics().getStoreCount());
+    }
+
+    @Test
+    public void testDiskStore() {
+        final TestConnector connector = new TestConnector("Cache-Control", "max-age=60");
+        final HttpCachingFeature feature = HttpCachingFeature.builder()
+                .maxEntries(1)
+                .diskStore(new File(System.getProperty("java.io.tmpdir")), 1024)
+                .build();
+        final Client client = createClient(connector, feature);
+        try {
+            assertEquals("response-1", get(client, "http://localhost/a"));
+            assertEquals("response-2", get(client, "http://localhost/b"));
+            assertEquals(1, feature.getStatistics().getMemoryEntryCount());
+            assertEquals(1, feature.getStatistics().getDiskEntryCount());
+
+            // served from the disk store and promoted back to memory
+            assertEquals("response-1", get(client, "http://localhost/a"));
+            assertEquals("response-2", get(client, "http://localhost/b"));
+            assertEquals(2, connector.invocations.get());
+            assertEquals(2, feature.getStatistics().getHitCount());
+            assertEquals(0, feature.getStatistics().getEvictionCount());
+        } finally {
+            feature.clear();
+        }
+    }
+}
@@ -57,6 +57,7 @@ public abstract class AbstractEntityProviderModel<T> {
     private final List<MediaType> declaredTypes;
     private final boolean custom;
     private final Class<?> providedType;
+    private final boolean selectionCacheable;
 
     /**
      * Create new entity provider model.
@@ -77,6 +78,7 @@ public abstract class AbstractEntityProviderModel<T> {
         this.declaredTypes = declaredTypes;
         this.custom = custom;
         this.providedType = getProviderClassParam(provider, providerType);
+        this.selectionCacheable = !custom || provider.getClass().isAnnotationPresent(CacheableSelection.class);
     }
 
     /**
@@ -116,6 +118,17 @@ public abstract class AbstractEntityProviderModel<T> {
         return providedType;
     }
 
+    /**
+     * Get the {@code selectionCacheable} flag value.
+     *
+     * @return {@code true} if the selection of the provider may be cached and reused for subsequent requests, i.e. if
+     * the provider is one of the default providers supplied with Jersey or if it is annotated with
+     * {@link CacheableSelection &#64;CacheableSelection}, {@code false} otherwise.
+     */
+    public boolean isSelectionCacheable() {
+        return selectionCacheable;
+    }
+
     private static Class<?> getProviderClassParam(Object provider, Class<?> providerType) {
         final ReflectionHelper.DeclaringClassInterfacePair pair =
                 ReflectionHelper.getClass(provider.getClass(), providerType);
@@ -0,0 +1,83 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a custom {@link javax.ws.rs.ext.MessageBodyReader message body reader} or
+ * {@link javax.ws.rs.ext.MessageBodyWriter message body writer} whose {@code isReadable} or {@code isWriteable} answer
+ * depends only on the entity type, annotations and media type passed in and never on the state of the request being
+ * processed (e.g. on injected request headers or properties).
+ * <p>
+ * On the server side, Jersey may remember the entity providers selected for a resource method and reuse the selection
+ * for subsequent requests matched to the same method without querying the providers again. Only the selections
+ * made among Jersey's own providers and the custom providers annotated with {@code &#64;CacheableSelection} are
+ * remembered. Whenever any other custom provider is among the candidates for a selection, the providers are queried
+ * again for every request.
+ * </p>
+ * <p>
+ * Example usage:
+ * <pre>
+ * &#64;Provider
+ * &#64;Produces("application/json")
+ * &#64;CacheableSelection
+ * public class BeanWriter implements MessageBodyWriter&lt;Bean&gt; {
+ *
+ *     &#64;Override
+ *     public boolean isWriteable(Class&lt;?&gt; type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+ *         return Bean.class.isAssignableFrom(type);
+ *     }
+ *     ...
+ * }
+ * </pre>
+ * </p>
+ *
+ * @since 2.18
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CacheableSelection {
+}
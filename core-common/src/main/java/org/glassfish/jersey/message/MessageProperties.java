@@ -102,6 +102,41 @@ public final class MessageProperties {
      */
     public static final int IO_DEFAULT_BUFFER_SIZE = 8192;
 
+    /**
+     * Fully qualified class name of a custom {@link org.glassfish.jersey.spi.BufferPool buffer pool} implementation
+     * to be used for I/O operations on byte and character streams. The class must provide a public no-argument
+     * constructor.
+     * <p />
+     * If not set, a default bounded buffer pool providing buffers of
+     * the {@link #IO_BUFFER_SIZE configured size} is used.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     *
+     * @since 2.18
+     */
+    public static final String IO_BUFFER_POOL = "jersey.config.io.bufferPool";
+
+    /**
+     * Value of the property indicates the maximum number of buffers of each kind (byte arrays, character arrays
+     * and byte buffers) kept by the default {@link #IO_BUFFER_POOL buffer pool}. The property value is expected
+     * to be a non-negative integer otherwise it will be ignored. The value is rounded up to the nearest power of two.
+     * If set to {@code 0}, no buffers are pooled.
+     * <p />
+     * The default value is <code>{@value #IO_DEFAULT_BUFFER_POOL_CAPACITY}</code>.
+     * <p />
+     * The name of the configuration property is <code>{@value}</code>.
+     *
+     * @since 2.18
+     */
+    public static final String IO_BUFFER_POOL_CAPACITY = "jersey.config.io.bufferPool.capacity";
+
+    /**
+     * The default maximum number ({@value}) of buffers of each kind kept by the default buffer pool.
+     *
+     * @since 2.18
+     */
+    public static final int IO_DEFAULT_BUFFER_POOL_CAPACITY = 32;
+
     /**
      * If set to {@code true}, {@code DeflateEncoder deflate encoding interceptor} will use non-standard version
      * of the deflate content encoding, skipping the zlib wrapper. Unfortunately, deflate encoding
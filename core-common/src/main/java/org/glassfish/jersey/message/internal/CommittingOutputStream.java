@@ -40,13 +40,16 @@
 
 package org.glassfish.jersey.message.internal;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.glassfish.jersey.internal.LocalizationMessages;
+import org.glassfish.jersey.spi.BufferPool;
+import org.glassfish.jersey.spi.ZeroCopyOutput;
 
 import jersey.repackaged.com.google.common.base.Preconditions;
 
@@ -74,12 +77,22 @@ import jersey.repackaged.com.google.common.base.Preconditions;
  * method enables buffering with the default size
  * <tt>{@value CommittingOutputStream#DEFAULT_BUFFER_SIZE}</tt> bytes specified in {@link #DEFAULT_BUFFER_SIZE}.
  * </p>
+ * <p>
+ * The internal buffer is allocated when the first byte is buffered. Unless it is larger than the buffers provided by
+ * the {@link ReaderWriter#getBufferPool() buffer pool}, the buffer is acquired from the pool and released back
+ * to the pool once its content is written into the committed stream.
+ * </p>
+ * <p>
+ * Byte buffers and file regions written via the {@link ZeroCopyOutput} contract are passed to the committed stream
+ * directly if the committed stream supports the contract as well, otherwise their content is copied into the committed
+ * stream.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
  * @author Miroslav Fuksa
  */
-final class CommittingOutputStream extends OutputStream {
+final class CommittingOutputStream extends OutputStream implements ZeroCopyOutput {
 
     private static final Logger LOGGER = Logger.getLogger(CommittingOutputStream.class.getName());
     /**
@@ -111,7 +124,15 @@ final class CommittingOutputStream extends OutputStream {
     /**
      * Entity buffer.
      */
-    private ByteArrayOutputStream buffer;
+    private byte[] buffer;
+    /**
+     * Number of bytes in the entity buffer.
+     */
+    private int bufferCount;
+    /**
+     * When {@code true}, the entity buffer has been acquired from the buffer pool.
+     */
+    private boolean pooledBuffer;
     /**
      * When {@code true}, the data are written directly to output stream and not to the buffer.
      */
@@ -162,16 +183,10 @@ final class CommittingOutputStream extends OutputStream {
      *                   {@link org.glassfish.jersey.message.internal.OutboundMessageContext.StreamProvider#getOutputStream(int) callback}.
      */
     public void enableBuffering(int bufferSize) {
-        Preconditions.checkState(!isCommitted && (this.buffer == null || this.buffer.size() == 0),
-                COMMITTING_STREAM_BUFFERING_ILLEGAL_STATE);
+        Preconditions.checkState(!isCommitted && bufferCount == 0, COMMITTING_STREAM_BUFFERING_ILLEGAL_STATE);
+        releaseBuffer();
         this.bufferSize = bufferSize;
-        if (bufferSize <= 0) {
-            this.directWrite = true;
-            this.buffer = null;
-        } else {
-            directWrite = false;
-            buffer = new ByteArrayOutputStream(bufferSize);
-        }
+        this.directWrite = bufferSize <= 0;
     }
 
     /**
@@ -213,11 +228,13 @@ final class CommittingOutputStream extends OutputStream {
             commitStream();
             adaptedOutput.write(b);
         } else {
-            if (b.length + buffer.size() > bufferSize) {
+            if (b.length + bufferCount > bufferSize) {
                 flushBuffer(false);
                 adaptedOutput.write(b);
             } else {
-                buffer.write(b);
+                ensureBuffer();
+                System.arraycopy(b, 0, buffer, bufferCount, b.length);
+                bufferCount += b.length;
             }
         }
     }
@@ -228,11 +245,13 @@ final class CommittingOutputStream extends OutputStream {
             commitStream();
             adaptedOutput.write(b, off, len);
         } else {
-            if (len + buffer.size() > bufferSize) {
+            if (len + bufferCount > bufferSize) {
                 flushBuffer(false);
                 adaptedOutput.write(b, off, len);
             } else {
-                buffer.write(b, off, len);
+                ensureBuffer();
+                System.arraycopy(b, off, buffer, bufferCount, len);
+                bufferCount += len;
             }
         }
     }
@@ -243,15 +262,37 @@ final class CommittingOutputStream extends OutputStream {
             commitStream();
             adaptedOutput.write(b);
         } else {
-            if (buffer.size() + 1 > bufferSize) {
+            if (bufferCount + 1 > bufferSize) {
                 flushBuffer(false);
                 adaptedOutput.write(b);
             } else {
-                buffer.write(b);
+                ensureBuffer();
+                buffer[bufferCount++] = (byte) b;
             }
         }
     }
 
+    @Override
+    public void write(final ByteBuffer src) throws IOException {
+        if (!directWrite && src.remaining() + bufferCount <= bufferSize) {
+            ensureBuffer();
+            final int length = src.remaining();
+            src.get(buffer, bufferCount, length);
+            bufferCount += length;
+        } else {
+            flushBuffer(false);
+            commitStream();
+            ReaderWriter.writeTo(src, adaptedOutput);
+        }
+    }
+
+    @Override
+    public long transferFrom(final FileChannel channel, final long position, final long count) throws IOException {
+        flushBuffer(false);
+        commitStream();
+        return ReaderWriter.writeTo(channel, position, count, adaptedOutput);
+    }
+
     /**
      * Commit the output stream.
      *
@@ -293,18 +334,40 @@ final class CommittingOutputStream extends OutputStream {
         }
     }
 
+    private void ensureBuffer() {
+        if (buffer == null) {
+            final BufferPool pool = ReaderWriter.getBufferPool();
+            pooledBuffer = bufferSize <= pool.getBufferSize();
+            buffer = pooledBuffer ? pool.acquireBytes() : new byte[bufferSize];
+        }
+    }
+
+    private void releaseBuffer() {
+        if (buffer != null) {
+            if (pooledBuffer) {
+                ReaderWriter.getBufferPool().releaseBytes(buffer);
+            }
+            buffer = null;
+            bufferCount = 0;
+        }
+    }
+
     private void flushBuffer(boolean endOfStream) throws IOException {
         if (!directWrite) {
             int currentSize;
             if (endOfStream) {
-                currentSize = buffer == null ? 0 : buffer.size();
+                currentSize = bufferCount;
             } else {
                 currentSize = -1;
             }
 
             commitStream(currentSize);
-            if (buffer != null) {
-                buffer.writeTo(adaptedOutput);
+            try {
+                if (bufferCount > 0) {
+                    adaptedOutput.write(buffer, 0, bufferCount);
+                }
+            } finally {
+                releaseBuffer();
             }
         }
     }
@@ -39,7 +39,6 @@
  */
 package org.glassfish.jersey.message.internal;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -49,6 +48,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.channels.FileChannel;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.Produces;
@@ -60,6 +60,10 @@ import javax.inject.Singleton;
 /**
  * Provider for marshalling/un-marshalling of {@code application/octet-stream}
  * entity type to/from a {@link File} instance.
+ * <p>
+ * The file content is written using {@link ReaderWriter#writeTo(FileChannel, long, long, OutputStream)}, so that
+ * the file can be transferred without copying if the entity stream supports it.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -112,10 +116,11 @@ public final class FileProvider extends AbstractMessageReaderWriterProvider<File
                         final MediaType mediaType,
                         final MultivaluedMap<String, Object> httpHeaders,
                         final OutputStream entityStream) throws IOException {
-        final InputStream stream = new BufferedInputStream(new FileInputStream(t), ReaderWriter.BUFFER_SIZE);
+        final FileInputStream stream = new FileInputStream(t);
 
         try {
-            writeTo(stream, entityStream);
+            final FileChannel channel = stream.getChannel();
+            ReaderWriter.writeTo(channel, 0, channel.size(), entityStream);
         } finally {
             stream.close();
         }
@@ -0,0 +1,143 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded concurrent cache of parsed HTTP header values keyed by the raw header value.
+ * <p>
+ * The cached values are shared among all the callers and must therefore be immutable. Once the number
+ * of cached values reaches the capacity of the cache, the cache is cleared so that a burst of distinct
+ * header values cannot make the cache grow without limits or keep it occupied by values that are not
+ * seen any more.
+ * </p>
+ *
+ * @param <T> parsed header value type.
+ */
+public final class HttpHeaderCache<T> {
+
+    private final ConcurrentMap<String, T> values;
+    private final int capacity;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Create new header cache.
+     *
+     * @param capacity maximum number of cached header values.
+     */
+    HttpHeaderCache(final int capacity) {
+        this.capacity = capacity;
+        this.values = new ConcurrentHashMap<String, T>(Math.min(capacity, 16));
+    }
+
+    /**
+     * Get the parsed value cached for the raw header value.
+     *
+     * @param header raw header value.
+     * @return cached parsed value or {@code null} if the header value is not cached.
+     */
+    T get(final String header) {
+        final T value = header == null ? null : values.get(header);
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    /**
+     * Cache the parsed value of the raw header value.
+     *
+     * @param header raw header value.
+     * @param value  parsed immutable header value.
+     * @return parsed header value.
+     */
+    T put(final String header, final T value) {
+        if (header != null && capacity > 0) {
+            if (values.size() >= capacity) {
+                values.clear();
+            }
+            values.put(header, value);
+        }
+        return value;
+    }
+
+    /**
+     * Get the number of header values found in the cache.
+     *
+     * @return number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of header values not found in the cache.
+     *
+     * @return number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Get the number of currently cached header values.
+     *
+     * @return number of cached header values.
+     */
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Get the maximum number of cached header values.
+     *
+     * @return cache capacity.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+}
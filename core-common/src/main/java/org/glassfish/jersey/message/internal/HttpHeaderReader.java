@@ -543,6 +543,97 @@ public abstract class HttpHeaderReader {
         return HttpHeaderReader.readQualifiedList(LANGUAGE_CREATOR, header);
     }
 
+    /**
+     * Maximum number of cached parsed values of a single header kind.
+     */
+    private static final int HEADER_CACHE_CAPACITY = 256;
+
+    private static final HttpHeaderCache<MediaType> MEDIA_TYPE_CACHE =
+            new HttpHeaderCache<MediaType>(HEADER_CACHE_CAPACITY);
+    private static final HttpHeaderCache<List<AcceptableMediaType>> ACCEPT_MEDIA_TYPE_CACHE =
+            new HttpHeaderCache<List<AcceptableMediaType>>(HEADER_CACHE_CAPACITY);
+    private static final HttpHeaderCache<List<AcceptableLanguageTag>> ACCEPT_LANGUAGE_CACHE =
+            new HttpHeaderCache<List<AcceptableLanguageTag>>(HEADER_CACHE_CAPACITY);
+
+    /**
+     * Read a media type from a {@code Content-Type} header value.
+     * <p>
+     * Parsed media types are cached and shared, the same media type instance is returned for the same
+     * header value.
+     * </p>
+     *
+     * @param header {@code Content-Type} header value.
+     * @return parsed media type.
+     * @throws IllegalArgumentException if the header value cannot be parsed.
+     */
+    public static MediaType readCachedMediaType(final String header) {
+        final MediaType mediaType = MEDIA_TYPE_CACHE.get(header);
+        return mediaType != null ? mediaType : MEDIA_TYPE_CACHE.put(header, MediaType.valueOf(header));
+    }
+
+    /**
+     * Read a list of acceptable media types from an {@code Accept} header value.
+     * <p>
+     * Parsed lists are cached and shared, the returned list is therefore unmodifiable.
+     * </p>
+     *
+     * @param header {@code Accept} header value.
+     * @return unmodifiable list of acceptable media types sorted according to their q-value,
+     *         with highest preference first.
+     * @throws ParseException if the header value cannot be parsed.
+     * @see #readAcceptMediaType(String)
+     */
+    public static List<AcceptableMediaType> readCachedAcceptMediaType(final String header) throws ParseException {
+        final List<AcceptableMediaType> mediaTypes = ACCEPT_MEDIA_TYPE_CACHE.get(header);
+        return mediaTypes != null ? mediaTypes
+                : ACCEPT_MEDIA_TYPE_CACHE.put(header, Collections.unmodifiableList(readAcceptMediaType(header)));
+    }
+
+    /**
+     * Read a list of acceptable languages from an {@code Accept-Language} header value.
+     * <p>
+     * Parsed lists are cached and shared, the returned list is therefore unmodifiable.
+     * </p>
+     *
+     * @param header {@code Accept-Language} header value.
+     * @return unmodifiable list of acceptable languages sorted according to their q-value,
+     *         with highest preference first.
+     * @throws ParseException if the header value cannot be parsed.
+     * @see #readAcceptLanguage(String)
+     */
+    public static List<AcceptableLanguageTag> readCachedAcceptLanguage(final String header) throws ParseException {
+        final List<AcceptableLanguageTag> languageTags = ACCEPT_LANGUAGE_CACHE.get(header);
+        return languageTags != null ? languageTags
+                : ACCEPT_LANGUAGE_CACHE.put(header, Collections.unmodifiableList(readAcceptLanguage(header)));
+    }
+
+    /**
+     * Get the cache of parsed {@code Content-Type} header values.
+     *
+     * @return {@code Content-Type} header cache.
+     */
+    public static HttpHeaderCache<MediaType> getMediaTypeCache() {
+        return MEDIA_TYPE_CACHE;
+    }
+
+    /**
+     * Get the cache of parsed {@code Accept} header values.
+     *
+     * @return {@code Accept} header cache.
+     */
+    public static HttpHeaderCache<List<AcceptableMediaType>> getAcceptMediaTypeCache() {
+        return ACCEPT_MEDIA_TYPE_CACHE;
+    }
+
+    /**
+     * Get the cache of parsed {@code Accept-Language} header values.
+     *
+     * @return {@code Accept-Language} header cache.
+     */
+    public static HttpHeaderCache<List<AcceptableLanguageTag>> getAcceptLanguageCache() {
+        return ACCEPT_LANGUAGE_CACHE;
+    }
+
     private static <T extends Qualified> List<T> readQualifiedList(ListElementCreator<T> c, String header)
             throws ParseException {
 
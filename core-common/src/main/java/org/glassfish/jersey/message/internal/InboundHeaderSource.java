@@ -0,0 +1,78 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.util.List;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * Read-only view of inbound message headers kept in a native (e.g. container-specific) header storage.
+ * <p>
+ * An {@link InboundMessageContext inbound message context} initialized with a header source looks up individual
+ * headers directly in the source and only {@link #copyTo(MultivaluedMap) copies} all the headers into its own
+ * header map once the whole map is requested or modified. This spares the cost of transferring headers that are
+ * never accessed during the message processing.
+ * </p>
+ * <p>
+ * The header source must remain valid (i.e. the underlying native message must not be recycled) for as long as the
+ * inbound message context is in use.
+ * </p>
+ *
+ * @since 2.18
+ */
+public interface InboundHeaderSource {
+
+    /**
+     * Get the values of a header.
+     *
+     * @param name header name, case insensitive.
+     * @return list of header values or {@code null} if the header is not present. The returned list must not be
+     * modified by the caller.
+     */
+    public List<String> get(String name);
+
+    /**
+     * Copy all the headers from the source into the given header map.
+     *
+     * @param headers target header map.
+     */
+    public void copyTo(MultivaluedMap<String, String> headers);
+}
@@ -112,6 +112,8 @@ public abstract class InboundMessageContext {
             Collections.singletonList(MediaTypes.WILDCARD_ACCEPTABLE_TYPE);
 
     private final MultivaluedMap<String, String> headers;
+    // headers not yet transferred into the headers map, the map is empty while the source is set
+    private InboundHeaderSource headerSource;
     private final EntityContent entityContent;
     private final boolean translateNce;
     private MessageBodyWorkers workers;
@@ -223,6 +225,7 @@ public abstract class InboundMessageContext {
      * @return updated context.
      */
     public InboundMessageContext headers(MultivaluedMap<String, String> newHeaders) {
+        final MultivaluedMap<String, String> headers = getHeaders();
         for (Map.Entry<String, List<String>> header : newHeaders.entrySet()) {
             headers.addAll(header.getKey(), header.getValue());
         }
@@ -236,12 +239,34 @@ public abstract class InboundMessageContext {
      * @return updated context.
      */
     public InboundMessageContext headers(Map<String, List<String>> newHeaders) {
+        final MultivaluedMap<String, String> headers = getHeaders();
         for (Map.Entry<String, List<String>> header : newHeaders.entrySet()) {
             headers.addAll(header.getKey(), header.getValue());
         }
         return this;
     }
 
+    /**
+     * Set the source of the message headers.
+     * <p>
+     * Headers are looked up directly in the source and transferred into the {@link #getHeaders() header map}
+     * only once the map is requested. Any headers already present in the context are retained.
+     * </p>
+     *
+     * @param source native header storage view.
+     * @return updated context.
+     * @since 2.18
+     */
+    public InboundMessageContext headers(InboundHeaderSource source) {
+        if (headerSource != null || !headers.isEmpty()) {
+            // merge eagerly, the lazy lookup supports a single source only
+            source.copyTo(getHeaders());
+        } else {
+            headerSource = source;
+        }
+        return this;
+    }
+
     /**
      * Remove a header.
      *
@@ -281,7 +306,7 @@ public abstract class InboundMessageContext {
      *         character.
      */
     public String getHeaderString(String name) {
-        List<String> values = this.headers.get(name);
+        List<String> values = getHeaderValues(name);
         if (values == null) {
             return null;
         }
@@ -309,7 +334,7 @@ public abstract class InboundMessageContext {
      * @return value of the header, or (possibly converted) {@code null} if not present.
      */
     private <T> T singleHeader(String name, Function<String, T> converter, boolean convertNull) {
-        final List<String> values = this.headers.get(name);
+        final List<String> values = getHeaderValues(name);
 
         if (values == null || values.isEmpty()) {
             return convertNull ? converter.apply(null) : null;
@@ -342,9 +367,30 @@ public abstract class InboundMessageContext {
      * @return mutable multivalued map of message headers.
      */
     public MultivaluedMap<String, String> getHeaders() {
+        if (headerSource != null) {
+            final InboundHeaderSource source = headerSource;
+            headerSource = null;
+            source.copyTo(headers);
+        }
         return this.headers;
     }
 
+    /**
+     * Get the values of a single message header.
+     * <p>
+     * Unlike {@code getHeaders().get(name)}, the method does not require all the headers to be transferred
+     * from the {@link #headers(InboundHeaderSource) header source}.
+     * </p>
+     *
+     * @param name header name, case insensitive.
+     * @return read-only list of header values or {@code null} if the header is not present.
+     * @since 2.18
+     */
+    public List<String> getHeaderValues(String name) {
+        final InboundHeaderSource source = headerSource;
+        return source != null ? source.get(name) : headers.get(name);
+    }
+
     /**
      * Get message date.
      *
@@ -445,7 +491,7 @@ public abstract class InboundMessageContext {
             @Override
             public MediaType apply(String input) {
                 try {
-                    return MediaType.valueOf(input);
+                    return HttpHeaderReader.readCachedMediaType(input);
                 } catch (IllegalArgumentException iae) {
                     throw new ProcessingException(iae);
                 }
@@ -467,7 +513,7 @@ public abstract class InboundMessageContext {
         }
 
         try {
-            return Collections.unmodifiableList(HttpHeaderReader.readAcceptMediaType(value));
+            return HttpHeaderReader.readCachedAcceptMediaType(value);
         } catch (ParseException e) {
             throw exception(HttpHeaders.ACCEPT, value, e);
         }
@@ -487,7 +533,7 @@ public abstract class InboundMessageContext {
         }
 
         try {
-            return Collections.unmodifiableList(HttpHeaderReader.readAcceptLanguage(value));
+            return HttpHeaderReader.readCachedAcceptLanguage(value);
         } catch (ParseException e) {
             throw exception(HttpHeaders.ACCEPT_LANGUAGE, value, e);
         }
@@ -535,7 +581,7 @@ public abstract class InboundMessageContext {
      * @return a read-only map of cookie name (String) to {@link javax.ws.rs.core.Cookie}.
      */
     public Map<String, Cookie> getRequestCookies() {
-        List<String> cookies = this.headers.get(HttpHeaders.COOKIE);
+        List<String> cookies = getHeaderValues(HttpHeaders.COOKIE);
         if (cookies == null || cookies.isEmpty()) {
             return Collections.emptyMap();
         }
@@ -573,7 +619,7 @@ public abstract class InboundMessageContext {
      * @return a read-only map of cookie name (String) to a {@link javax.ws.rs.core.NewCookie new cookie}.
      */
     public Map<String, NewCookie> getResponseCookies() {
-        List<String> cookies = this.headers.get(HttpHeaders.SET_COOKIE);
+        List<String> cookies = getHeaderValues(HttpHeaders.SET_COOKIE);
         if (cookies == null || cookies.isEmpty()) {
             return Collections.emptyMap();
         }
@@ -645,7 +691,7 @@ public abstract class InboundMessageContext {
      *         returns {@code null}.
      */
     public Set<Link> getLinks() {
-        List<String> links = this.headers.get(HttpHeaders.LINK);
+        List<String> links = getHeaderValues(HttpHeaders.LINK);
         if (links == null || links.isEmpty()) {
             return Collections.emptySet();
         }
@@ -855,7 +901,7 @@ public abstract class InboundMessageContext {
                     type,
                     annotations,
                     mediaType,
-                    headers,
+                    getHeaders(),
                     propertiesDelegate,
                     entityContent.getWrappedStream(),
                     entityContent.hasContent() ? getReaderInterceptors() : Collections.<ReaderInterceptor>emptyList(),
@@ -117,6 +117,15 @@ abstract class InterceptorExecutor<T> implements InterceptorContext, PropertiesD
         return propertiesDelegate.getProperty(name);
     }
 
+    /**
+     * Get the wrapped request-scoped properties delegate.
+     *
+     * @return wrapped properties delegate.
+     */
+    PropertiesDelegate getPropertiesDelegate() {
+        return propertiesDelegate;
+    }
+
     @Override
     public Collection<String> getPropertyNames() {
         return propertiesDelegate.getPropertyNames();
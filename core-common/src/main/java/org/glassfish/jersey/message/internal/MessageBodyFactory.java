@@ -572,6 +572,17 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                                                          final MediaType mediaType,
                                                          final PropertiesDelegate propertiesDelegate) {
 
+        // cached selections are not used when tracing, so that the selection process is traced
+        final MessageBodyWorkerSelectionCache cache = MessageBodyWorkerSelectionCache.getInstance(propertiesDelegate);
+        final boolean useCache = cache != null
+                && !TracingLogger.getInstance(propertiesDelegate).isLogEnabled(MsgTraceEvent.MBR_SELECTED);
+        if (useCache) {
+            final MessageBodyReader<T> cached = cache.getReader(c, t, as, mediaType);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         MessageBodyReader<T> p = null;
         if (legacyProviderOrdering) {
             if (mediaType != null) {
@@ -587,6 +598,10 @@ public class MessageBodyFactory implements MessageBodyWorkers {
             p = _getMessageBodyReader(c, t, as, mediaType, readers, propertiesDelegate);
         }
 
+        if (useCache && isReaderSelectionCacheable(c, mediaType)) {
+            cache.putReader(c, t, as, mediaType, p);
+        }
+
         return p;
     }
 
@@ -639,6 +654,50 @@ public class MessageBodyFactory implements MessageBodyWorkers {
         return false;
     }
 
+    /**
+     * Get a parameter-less media type used as a lookup key.
+     *
+     * @param mediaType media type.
+     * @return media type without parameters.
+     */
+    private static MediaType getLookupType(final MediaType mediaType) {
+        return mediaType == null || mediaType.getParameters().isEmpty()
+                ? mediaType
+                : new MediaType(mediaType.getType(), mediaType.getSubtype());
+    }
+
+    /**
+     * Check whether the message body reader selected for the given type and media type may be cached, i.e. that all
+     * the candidate readers are {@link AbstractEntityProviderModel#isSelectionCacheable() cacheable}. Selections made
+     * using the legacy ordering are never cached. Must be invoked after the reader has been looked up.
+     */
+    private boolean isReaderSelectionCacheable(final Class<?> c, final MediaType mediaType) {
+        return !legacyProviderOrdering
+                && areModelSelectionsCacheable(mbrLookupCache.get(new ModelLookupKey(c, getLookupType(mediaType))));
+    }
+
+    /**
+     * Check whether the message body writer selected for the given type and media type may be cached, i.e. that all
+     * the candidate writers are {@link AbstractEntityProviderModel#isSelectionCacheable() cacheable}. Selections made
+     * using the legacy ordering are never cached. Must be invoked after the writer has been looked up.
+     */
+    private boolean isWriterSelectionCacheable(final Class<?> c, final MediaType mediaType) {
+        return !legacyProviderOrdering
+                && areModelSelectionsCacheable(mbwLookupCache.get(new ModelLookupKey(c, getLookupType(mediaType))));
+    }
+
+    private static boolean areModelSelectionsCacheable(final List<? extends AbstractEntityProviderModel<?>> models) {
+        if (models == null) {
+            return false;
+        }
+        for (final AbstractEntityProviderModel<?> model : models) {
+            if (!model.isSelectionCacheable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @SuppressWarnings("unchecked")
     private <T> MessageBodyReader<T> _getMessageBodyReader(final Class<T> c, final Type t,
                                                            final Annotation[] as,
@@ -648,11 +707,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
 
         // Ensure a parameter-less lookup type to prevent excessive memory consumption
         // reported in JERSEY-2297
-        final MediaType lookupType = mediaType == null || mediaType.getParameters().isEmpty()
-                ? mediaType
-                : new MediaType(mediaType.getType(), mediaType.getSubtype());
-
-        final ModelLookupKey lookupKey = new ModelLookupKey(c, lookupType);
+        final ModelLookupKey lookupKey = new ModelLookupKey(c, getLookupType(mediaType));
         List<ReaderModel> readers = mbrLookupCache.get(lookupKey);
         if (readers == null) {
             readers = new ArrayList<ReaderModel>();
@@ -740,6 +795,17 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                                                          final Annotation[] as,
                                                          final MediaType mediaType,
                                                          final PropertiesDelegate propertiesDelegate) {
+        // cached selections are not used when tracing, so that the selection process is traced
+        final MessageBodyWorkerSelectionCache cache = MessageBodyWorkerSelectionCache.getInstance(propertiesDelegate);
+        final boolean useCache = cache != null
+                && !TracingLogger.getInstance(propertiesDelegate).isLogEnabled(MsgTraceEvent.MBW_SELECTED);
+        if (useCache) {
+            final MessageBodyWriter<T> cached = cache.getWriter(c, t, as, mediaType);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
         MessageBodyWriter<T> p = null;
 
         if (legacyProviderOrdering) {
@@ -756,6 +822,10 @@ public class MessageBodyFactory implements MessageBodyWorkers {
             p = _getMessageBodyWriter(c, t, as, mediaType, writers, propertiesDelegate);
         }
 
+        if (useCache && isWriterSelectionCacheable(c, mediaType)) {
+            cache.putWriter(c, t, as, mediaType, p);
+        }
+
         return p;
     }
 
@@ -767,11 +837,7 @@ public class MessageBodyFactory implements MessageBodyWorkers {
                                                            final PropertiesDelegate propertiesDelegate) {
         // Ensure  a parameter-less lookup type to prevent excessive memory consumption
         // reported in JERSEY-2297
-        final MediaType lookupType = mediaType == null || mediaType.getParameters().isEmpty()
-                ? mediaType
-                : new MediaType(mediaType.getType(), mediaType.getSubtype());
-
-        final ModelLookupKey lookupKey = new ModelLookupKey(c, lookupType);
+        final ModelLookupKey lookupKey = new ModelLookupKey(c, getLookupType(mediaType));
         List<WriterModel> writers = mbwLookupCache.get(lookupKey);
         if (writers == null) {
 
@@ -0,0 +1,243 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.jersey.message.internal;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.glassfish.jersey.internal.PropertiesDelegate;
+
+/**
+ * Cache of {@link MessageBodyReader message body reader} and {@link MessageBodyWriter message body writer} selections
+ * made for a single processing target (e.g. a resource method).
+ * <p>
+ * For a processing target with fixed entity types, annotations and media types the selection of an entity provider
+ * almost never changes. The cache remembers the selected providers keyed by the entity raw type, generic type,
+ * annotations and media type so that the {@link MessageBodyFactory} does not have to look up and query all the
+ * compatible providers again. The cache is {@link #bind(PropertiesDelegate, MessageBodyWorkerSelectionCache) bound}
+ * to the request processing internally and is not visible among the request properties.
+ * </p>
+ * <p>
+ * The {@code MessageBodyFactory} caches only the selections made among Jersey's own providers and the custom
+ * providers annotated with {@link org.glassfish.jersey.message.CacheableSelection}, as the answer of any other
+ * custom provider may depend on the request being processed.
+ * </p>
+ * <p>
+ * Only a small number of selections is cached for each of the readers and writers. Once the cache is full, any
+ * other selection is looked up in the {@code MessageBodyFactory} as if there was no cache. Failed lookups are
+ * never cached.
+ * </p>
+ * <p>
+ * The cache is thread-safe.
+ * </p>
+ *
+ * @since 2.18
+ */
+public final class MessageBodyWorkerSelectionCache {
+
+    private static final int MAX_SELECTIONS = 4;
+
+    private static final Selection[] EMPTY = new Selection[0];
+
+    private volatile Selection[] readers = EMPTY;
+    private volatile Selection[] writers = EMPTY;
+
+    /**
+     * Cached entity provider selection.
+     */
+    private static final class Selection {
+
+        private final Class<?> rawType;
+        private final Type genericType;
+        private final Annotation[] annotations;
+        private final MediaType mediaType;
+        private final Object provider;
+
+        private Selection(final Class<?> rawType, final Type genericType, final Annotation[] annotations,
+                          final MediaType mediaType, final Object provider) {
+            this.rawType = rawType;
+            this.genericType = genericType;
+            this.annotations = annotations;
+            this.mediaType = mediaType;
+            this.provider = provider;
+        }
+
+        private boolean matches(final Class<?> rawType, final Type genericType, final Annotation[] annotations,
+                                final MediaType mediaType) {
+            return this.rawType == rawType
+                    && (this.genericType == genericType || (genericType != null && genericType.equals(this.genericType)))
+                    && (this.annotations == annotations || Arrays.equals(this.annotations, annotations))
+                    && (this.mediaType == mediaType || (mediaType != null && mediaType.equals(this.mediaType)));
+        }
+    }
+
+    /**
+     * Get the selection cache associated with the request processing.
+     *
+     * @param propertiesDelegate request associated runtime properties. Can be {@code null} if not running on server side.
+     * @return selection cache associated with the request processing or {@code null} if there is none.
+     */
+    public static MessageBodyWorkerSelectionCache getInstance(final PropertiesDelegate propertiesDelegate) {
+        // interceptor executors pass themselves as the properties delegate of the entity provider lookup
+        final PropertiesDelegate delegate = propertiesDelegate instanceof InterceptorExecutor
+                ? ((InterceptorExecutor<?>) propertiesDelegate).getPropertiesDelegate() : propertiesDelegate;
+
+        return delegate instanceof TracingAwarePropertiesDelegate
+                ? ((TracingAwarePropertiesDelegate) delegate).getSelectionCache() : null;
+    }
+
+    /**
+     * Bind the selection cache to the request processing.
+     * <p>
+     * The cache is bound only if the properties delegate is a {@link TracingAwarePropertiesDelegate}, otherwise the
+     * method does nothing and entity providers are looked up as if there was no cache.
+     * </p>
+     *
+     * @param propertiesDelegate request associated runtime properties.
+     * @param cache              selection cache to be used for the request processing.
+     */
+    public static void bind(final PropertiesDelegate propertiesDelegate, final MessageBodyWorkerSelectionCache cache) {
+        if (propertiesDelegate instanceof TracingAwarePropertiesDelegate) {
+            ((TracingAwarePropertiesDelegate) propertiesDelegate).setSelectionCache(cache);
+        }
+    }
+
+    /**
+     * Get the cached message body reader selected for the given entity type, annotations and media type.
+     *
+     * @param rawType     the class of instance to be produced.
+     * @param genericType the type of instance to be produced.
+     * @param annotations an array of the annotations on the declaration of the artifact that will be initialized
+     *                    with the produced instance.
+     * @param mediaType   the media type of the HTTP entity.
+     * @param <T>         type of the instance to be produced.
+     * @return cached message body reader or {@code null} if there is no cached selection.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> MessageBodyReader<T> getReader(final Class<T> rawType, final Type genericType, final Annotation[] annotations,
+                                              final MediaType mediaType) {
+        return (MessageBodyReader<T>) get(readers, rawType, genericType, annotations, mediaType);
+    }
+
+    /**
+     * Cache the message body reader selected for the given entity type, annotations and media type.
+     *
+     * @param rawType     the class of instance to be produced.
+     * @param genericType the type of instance to be produced.
+     * @param annotations an array of the annotations on the declaration of the artifact that will be initialized
+     *                    with the produced instance.
+     * @param mediaType   the media type of the HTTP entity.
+     * @param reader      selected message body reader.
+     */
+    public void putReader(final Class<?> rawType, final Type genericType, final Annotation[] annotations,
+                          final MediaType mediaType, final MessageBodyReader<?> reader) {
+        final Selection[] updated = put(readers, rawType, genericType, annotations, mediaType, reader);
+        if (updated != null) {
+            readers = updated;
+        }
+    }
+
+    /**
+     * Get the cached message body writer selected for the given entity type, annotations and media type.
+     *
+     * @param rawType     the class of instance that is to be written.
+     * @param genericType the type of instance to be written.
+     * @param annotations an array of the annotations attached to the message entity instance.
+     * @param mediaType   the media type of the HTTP entity.
+     * @param <T>         type of the instance to be written.
+     * @return cached message body writer or {@code null} if there is no cached selection.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> MessageBodyWriter<T> getWriter(final Class<T> rawType, final Type genericType, final Annotation[] annotations,
+                                              final MediaType mediaType) {
+        return (MessageBodyWriter<T>) get(writers, rawType, genericType, annotations, mediaType);
+    }
+
+    /**
+     * Cache the message body writer selected for the given entity type, annotations and media type.
+     *
+     * @param rawType     the class of instance that is to be written.
+     * @param genericType the type of instance to be written.
+     * @param annotations an array of the annotations attached to the message entity instance.
+     * @param mediaType   the media type of the HTTP entity.
+     * @param writer      selected message body writer.
+     */
+    public void putWriter(final Class<?> rawType, final Type genericType, final Annotation[] annotations,
+                          final MediaType mediaType, final MessageBodyWriter<?> writer) {
+        final Selection[] updated = put(writers, rawType, genericType, annotations, mediaType, writer);
+        if (updated != null) {
+            writers = updated;
+        }
+    }
+
+    private static Object get(final Selection[] selections, final Class<?> rawType, final Type genericType,
+                              final Annotation[] annotations, final MediaType mediaType) {
+        for (final Selection selection : selections) {
+            if (selection.matches(rawType, genericType, annotations, mediaType)) {
+                return selection.provider;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create a copy of the selections with the new selection added.
+     *
+     * @return updated selections or {@code null} if the selection should not be cached.
+     */
+    private static Selection[] put(final Selection[] selections, final Class<?> rawType, final Type genericType,
+                                   final Annotation[] annotations, final MediaType mediaType, final Object provider) {
+        if (provider == null || selections.length >= MAX_SELECTIONS
+                || get(selections, rawType, genericType, annotations, mediaType) != null) {
+            return null;
+        }
+
+        // Concurrent updates may lose a selection. It will be cached again next time it is looked up.
+        final Selection[] updated = Arrays.copyOf(selections, selections.length + 1);
+        updated[selections.length] = new Selection(rawType, genericType, annotations, mediaType, provider);
+        return updated;
+    }
+}
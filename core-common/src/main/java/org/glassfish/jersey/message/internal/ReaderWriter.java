@@ -46,6 +46,9 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.security.AccessController;
 import java.util.logging.Level;
@@ -54,7 +57,10 @@ import java.util.logging.Logger;
 import javax.ws.rs.core.MediaType;
 
 import org.glassfish.jersey.internal.util.PropertiesHelper;
+import org.glassfish.jersey.internal.util.ReflectionHelper;
 import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.spi.BufferPool;
+import org.glassfish.jersey.spi.ZeroCopyOutput;
 
 /**
  * A utility class for reading and writing using byte and character streams.
@@ -63,6 +69,10 @@ import org.glassfish.jersey.message.MessageProperties;
  * is by default the value of {@value org.glassfish.jersey.message.MessageProperties#IO_DEFAULT_BUFFER_SIZE}.
  * This value can be set using the system property
  * {@value org.glassfish.jersey.message.MessageProperties#IO_BUFFER_SIZE}.
+ * <p>
+ * The byte and character arrays are acquired from the {@link #getBufferPool() buffer pool}
+ * configured using the {@value org.glassfish.jersey.message.MessageProperties#IO_BUFFER_POOL} and
+ * {@value org.glassfish.jersey.message.MessageProperties#IO_BUFFER_POOL_CAPACITY} system properties.
  *
  * @author Paul Sandoz
  */
@@ -78,6 +88,13 @@ public final class ReaderWriter {
      */
     public static final int BUFFER_SIZE = getBufferSize();
 
+    /**
+     * Maximum size of a file region mapped into memory at once by {@link #writeMapped(FileChannel, long, long, ZeroCopyOutput)}.
+     */
+    private static final long MAPPED_REGION_SIZE = 16 * 1024 * 1024;
+
+    private static final BufferPool BUFFER_POOL = createBufferPool();
+
     private static int getBufferSize() {
         // TODO should we unify this buffer size and CommittingOutputStream buffer size (controlled by CommonProperties.OUTBOUND_CONTENT_LENGTH_BUFFER)?
         final String value = AccessController.doPrivileged(PropertiesHelper.getSystemProperty(MessageProperties.IO_BUFFER_SIZE));
@@ -99,6 +116,58 @@ public final class ReaderWriter {
         return MessageProperties.IO_DEFAULT_BUFFER_SIZE;
     }
 
+    private static BufferPool createBufferPool() {
+        final String className = AccessController.doPrivileged(
+                PropertiesHelper.getSystemProperty(MessageProperties.IO_BUFFER_POOL));
+        if (className != null) {
+            final Class<BufferPool> poolClass =
+                    AccessController.doPrivileged(ReflectionHelper.<BufferPool>classForNamePA(className));
+            try {
+                if (poolClass == null) {
+                    throw new ClassNotFoundException(className);
+                }
+                return poolClass.newInstance();
+            } catch (Exception e) {
+                LOGGER.log(Level.CONFIG,
+                        "Value of " + MessageProperties.IO_BUFFER_POOL
+                                + " property is not a valid buffer pool class name [" + className + "]."
+                                + " Reverting to the default buffer pool.",
+                        e);
+            }
+        }
+
+        int capacity = MessageProperties.IO_DEFAULT_BUFFER_POOL_CAPACITY;
+        final String value = AccessController.doPrivileged(
+                PropertiesHelper.getSystemProperty(MessageProperties.IO_BUFFER_POOL_CAPACITY));
+        if (value != null) {
+            try {
+                capacity = Integer.parseInt(value);
+                if (capacity < 0) {
+                    throw new NumberFormatException("Value negative.");
+                }
+            } catch (NumberFormatException e) {
+                capacity = MessageProperties.IO_DEFAULT_BUFFER_POOL_CAPACITY;
+                LOGGER.log(Level.CONFIG,
+                        "Value of " + MessageProperties.IO_BUFFER_POOL_CAPACITY
+                                + " property is not a valid non-negative integer [" + value + "]."
+                                + " Reverting to default [" + MessageProperties.IO_DEFAULT_BUFFER_POOL_CAPACITY + "].",
+                        e);
+            }
+        }
+
+        return new StripedBufferPool(BUFFER_SIZE, capacity);
+    }
+
+    /**
+     * Get the buffer pool used for I/O operations on byte and character streams.
+     *
+     * @return buffer pool.
+     * @since 2.18
+     */
+    public static BufferPool getBufferPool() {
+        return BUFFER_POOL;
+    }
+
     /**
      * Read bytes from an input stream and write them to an output stream.
      *
@@ -108,12 +177,120 @@ public final class ReaderWriter {
      */
     public static void writeTo(InputStream in, OutputStream out) throws IOException {
         int read;
-        final byte[] data = new byte[BUFFER_SIZE];
-        while ((read = in.read(data)) != -1) {
-            out.write(data, 0, read);
+        final byte[] data = BUFFER_POOL.acquireBytes();
+        try {
+            while ((read = in.read(data)) != -1) {
+                out.write(data, 0, read);
+            }
+        } finally {
+            BUFFER_POOL.releaseBytes(data);
         }
     }
 
+    /**
+     * Write the remaining bytes of a byte buffer to an output stream.
+     * <p>
+     * If the output stream is a {@link ZeroCopyOutput}, the buffer is passed to the stream directly,
+     * otherwise the buffer content is copied into the stream. As the stream may write the buffer content after
+     * the method returns, the content of the buffer must not be modified afterwards.
+     * </p>
+     *
+     * @param buffer the byte buffer to write. When the method returns, the buffer position is equal to its limit.
+     * @param out    the output stream to write to.
+     * @throws IOException if there is an error writing bytes.
+     * @since 2.18
+     */
+    public static void writeTo(final ByteBuffer buffer, final OutputStream out) throws IOException {
+        if (out instanceof ZeroCopyOutput) {
+            ((ZeroCopyOutput) out).write(buffer);
+        } else if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            buffer.position(buffer.limit());
+        } else {
+            final byte[] data = BUFFER_POOL.acquireBytes();
+            try {
+                while (buffer.hasRemaining()) {
+                    final int length = Math.min(buffer.remaining(), data.length);
+                    buffer.get(data, 0, length);
+                    out.write(data, 0, length);
+                }
+            } finally {
+                BUFFER_POOL.releaseBytes(data);
+            }
+        }
+    }
+
+    /**
+     * Write a region of a file channel to an output stream. The position of the file channel is not changed.
+     * <p>
+     * If the output stream is a {@link ZeroCopyOutput}, the file channel is passed to the stream directly,
+     * otherwise the file content is copied into the stream.
+     * </p>
+     *
+     * @param channel  the file channel to write.
+     * @param position position in the file to start writing from.
+     * @param count    maximum number of bytes to write.
+     * @param out      the output stream to write to.
+     * @return number of bytes written, possibly less than {@code count} if the end of the file was reached.
+     * @throws IOException if there is an error reading or writing bytes.
+     * @since 2.18
+     */
+    public static long writeTo(final FileChannel channel, final long position, final long count, final OutputStream out)
+            throws IOException {
+        if (out instanceof ZeroCopyOutput) {
+            return ((ZeroCopyOutput) out).transferFrom(channel, position, count);
+        }
+
+        long written = 0;
+        final byte[] data = BUFFER_POOL.acquireBytes();
+        try {
+            final ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (written < count) {
+                buffer.clear();
+                buffer.limit((int) Math.min(data.length, count - written));
+                final int read = channel.read(buffer, position + written);
+                if (read == -1) {
+                    break;
+                }
+                out.write(data, 0, read);
+                written += read;
+            }
+        } finally {
+            BUFFER_POOL.releaseBytes(data);
+        }
+        return written;
+    }
+
+    /**
+     * Write a region of a file channel to a zero-copy output by memory mapping the file region
+     * and writing the mapped byte buffers. The position of the file channel is not changed.
+     * <p>
+     * The method is intended for {@link ZeroCopyOutput} implementations that are able to write byte buffers
+     * without copying, but do not have any better way of writing file regions.
+     * </p>
+     *
+     * @param channel  the file channel to write.
+     * @param position position in the file to start writing from.
+     * @param count    maximum number of bytes to write.
+     * @param out      the zero-copy output to write to.
+     * @return number of bytes written, possibly less than {@code count} if the end of the file was reached.
+     * @throws IOException if there is an error mapping the file or writing bytes.
+     * @since 2.18
+     */
+    public static long writeMapped(final FileChannel channel, final long position, final long count, final ZeroCopyOutput out)
+            throws IOException {
+        final long end = Math.min(channel.size(), position + count);
+
+        long current = position;
+        while (current < end) {
+            final long length = Math.min(end - current, MAPPED_REGION_SIZE);
+            final MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, current, length);
+            out.write(region);
+            current += length;
+        }
+        return Math.max(current - position, 0);
+    }
+
     /**
      * Read characters from an input stream and write them to an output stream.
      *
@@ -123,9 +300,13 @@ public final class ReaderWriter {
      */
     public static void writeTo(Reader in, Writer out) throws IOException {
         int read;
-        final char[] data = new char[BUFFER_SIZE];
-        while ((read = in.read(data)) != -1) {
-            out.write(data, 0, read);
+        final char[] data = BUFFER_POOL.acquireChars();
+        try {
+            while ((read = in.read(data)) != -1) {
+                out.write(data, 0, read);
+            }
+        } finally {
+            BUFFER_POOL.releaseChars(data);
         }
     }
 
@@ -167,10 +348,14 @@ public final class ReaderWriter {
      */
     public static String readFromAsString(Reader reader) throws IOException {
         StringBuilder sb = new StringBuilder();
-        char[] c = new char[BUFFER_SIZE];
-        int l;
-        while ((l = reader.read(c)) != -1) {
-            sb.append(c, 0, l);
+        char[] c = BUFFER_POOL.acquireChars();
+        try {
+            int l;
+            while ((l = reader.read(c)) != -1) {
+                sb.append(c, 0, l);
+            }
+        } finally {
+            BUFFER_POOL.releaseChars(c);
         }
         return sb.toString();
     }
@@ -0,0 +1,148 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.glassfish.jersey.spi.BufferPool;
+
+/**
+ * Default bounded, lock-free {@link BufferPool buffer pool} implementation.
+ * <p>
+ * Pooled buffers of each kind are kept in a fixed number of slots. A thread starts probing the slots
+ * at a position derived from its id, so that threads that acquire and release buffers concurrently
+ * rarely compete for the same slot. If no pooled buffer is found within a few probes, a new buffer
+ * is allocated. If there is no free slot to release a buffer to, the buffer is left to the garbage collector.
+ * </p>
+ */
+final class StripedBufferPool implements BufferPool {
+
+    private static final int MAX_PROBES = 4;
+
+    private final int bufferSize;
+    private final int mask;
+
+    private final AtomicReferenceArray<byte[]> bytes;
+    private final AtomicReferenceArray<char[]> chars;
+
+    /**
+     * Create new buffer pool.
+     *
+     * @param bufferSize size of the pooled buffers.
+     * @param capacity   maximum number of pooled buffers of each kind. The capacity is rounded up to the
+     *                   nearest power of two. If zero, no buffers are pooled.
+     */
+    StripedBufferPool(final int bufferSize, final int capacity) {
+        this.bufferSize = bufferSize;
+
+        final int slots = capacity <= 0 ? 0
+                : Integer.bitCount(capacity) == 1 ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = Math.max(slots, 1) - 1;
+        this.bytes = new AtomicReferenceArray<byte[]>(slots);
+        this.chars = new AtomicReferenceArray<char[]>(slots);
+    }
+
+    @Override
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    @Override
+    public byte[] acquireBytes() {
+        final byte[] buffer = acquire(bytes);
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    @Override
+    public void releaseBytes(final byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            release(bytes, buffer);
+        }
+    }
+
+    @Override
+    public char[] acquireChars() {
+        final char[] buffer = acquire(chars);
+        return buffer != null ? buffer : new char[bufferSize];
+    }
+
+    @Override
+    public void releaseChars(final char[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            release(chars, buffer);
+        }
+    }
+
+    private <T> T acquire(final AtomicReferenceArray<T> slots) {
+        final int length = slots.length();
+        if (length == 0) {
+            return null;
+        }
+
+        final int start = start();
+        for (int i = 0; i < MAX_PROBES && i < length; i++) {
+            final int index = (start + i) & mask;
+            if (slots.get(index) != null) {
+                final T buffer = slots.getAndSet(index, null);
+                if (buffer != null) {
+                    return buffer;
+                }
+            }
+        }
+        return null;
+    }
+
+    private <T> void release(final AtomicReferenceArray<T> slots, final T buffer) {
+        final int length = slots.length();
+        final int start = start();
+        for (int i = 0; i < MAX_PROBES && i < length; i++) {
+            final int index = (start + i) & mask;
+            if (slots.get(index) == null && slots.compareAndSet(index, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    private int start() {
+        final long id = Thread.currentThread().getId();
+        // spread the thread ids over the slots
+        return (int) (id * 0x9E3779B97F4A7C15L >>> 32) & mask;
+    }
+}
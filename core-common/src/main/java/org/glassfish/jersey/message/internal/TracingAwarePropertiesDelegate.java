@@ -46,6 +46,8 @@ import org.glassfish.jersey.internal.PropertiesDelegate;
 /**
  * Delegating properties delegate backed by another {@code PropertiesDelegate} with implemented "cache" or direct reference to
  * tracing support related classes (e.g. {@code TracingLogger}) to improve performance of lookup tracing context instance.
+ * The {@link MessageBodyWorkerSelectionCache message body worker selection cache}, which is looked up by every entity
+ * provider selection, is referenced directly as well. It is not exposed as a property.
  *
  * @author Libor Kramolis (libor.kramolis at oracle.com)
  * @since 2.3
@@ -56,6 +58,8 @@ public final class TracingAwarePropertiesDelegate implements PropertiesDelegate
 
     private TracingLogger tracingLogger;
 
+    private MessageBodyWorkerSelectionCache selectionCache;
+
     /**
      * Create new tracing aware properties delegate wrapper.
      *
@@ -93,4 +97,22 @@ public final class TracingAwarePropertiesDelegate implements PropertiesDelegate
     public Collection<String> getPropertyNames() {
         return propertiesDelegate.getPropertyNames();
     }
+
+    /**
+     * Get the entity provider selection cache bound to the request processing.
+     *
+     * @return selection cache or {@code null} if none is bound.
+     */
+    MessageBodyWorkerSelectionCache getSelectionCache() {
+        return selectionCache;
+    }
+
+    /**
+     * Bind the entity provider selection cache to the request processing.
+     *
+     * @param selectionCache selection cache, may be {@code null}.
+     */
+    void setSelectionCache(final MessageBodyWorkerSelectionCache selectionCache) {
+        this.selectionCache = selectionCache;
+    }
 }
@@ -44,6 +44,8 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Level;
@@ -61,6 +63,7 @@ import org.glassfish.jersey.internal.LocalizationMessages;
 import org.glassfish.jersey.internal.PropertiesDelegate;
 import org.glassfish.jersey.internal.inject.ServiceLocatorSupplier;
 import org.glassfish.jersey.message.MessageBodyWorkers;
+import org.glassfish.jersey.spi.ZeroCopyOutput;
 
 import org.glassfish.hk2.api.ServiceLocator;
 
@@ -274,7 +277,7 @@ public final class WriterInterceptorExecutor extends InterceptorExecutor<WriterI
      * {@link javax.ws.rs.ext.MessageBodyWriter}s should not close the given {@link java.io.OutputStream stream}. This output
      * stream makes sure that the stream is not closed even if MBW tries to do it.
      */
-    private static class UnCloseableOutputStream extends OutputStream {
+    private static class UnCloseableOutputStream extends OutputStream implements ZeroCopyOutput {
 
         private final OutputStream original;
         private final MessageBodyWriter writer;
@@ -299,6 +302,16 @@ public final class WriterInterceptorExecutor extends InterceptorExecutor<WriterI
             original.write(b, off, len);
         }
 
+        @Override
+        public void write(final ByteBuffer buffer) throws IOException {
+            ReaderWriter.writeTo(buffer, original);
+        }
+
+        @Override
+        public long transferFrom(final FileChannel channel, final long position, final long count) throws IOException {
+            return ReaderWriter.writeTo(channel, position, count, original);
+        }
+
         @Override
         public void flush() throws IOException {
             original.flush();
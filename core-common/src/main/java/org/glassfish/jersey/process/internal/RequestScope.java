@@ -41,7 +41,8 @@
 package org.glassfish.jersey.process.internal;
 
 import java.lang.annotation.Annotation;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -61,7 +62,6 @@ import org.glassfish.hk2.api.ServiceHandle;
 import org.glassfish.hk2.utilities.binding.AbstractBinder;
 
 import jersey.repackaged.com.google.common.base.Objects;
-import jersey.repackaged.com.google.common.collect.Sets;
 
 import static jersey.repackaged.com.google.common.base.Preconditions.checkState;
 
@@ -132,6 +132,11 @@ import static jersey.repackaged.com.google.common.base.Preconditions.checkState;
  * which may change it's state during each request-scoped task execution for
  * which this scope instance is used.
  * </p>
+ * <p>
+ * Each request-scoped service descriptor is assigned a dense slot number the first time it is seen by the
+ * request scope. Request scope instances store the request-scoped services in a small array indexed by the slot
+ * numbers, so that no map is created per request.
+ * </p>
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  * @author Miroslav Fuksa
@@ -147,6 +152,17 @@ public class RequestScope implements Context<RequestScoped> {
     private final ThreadLocal<Instance> currentScopeInstance = new ThreadLocal<Instance>();
     private volatile boolean isActive = true;
 
+    /**
+     * Slot numbers assigned to the request-scoped descriptors. The map is never modified once published,
+     * a new copy is published whenever a new slot is assigned.
+     */
+    private volatile Map<ActiveDescriptor<?>, Integer> slots = new IdentityHashMap<ActiveDescriptor<?>, Integer>();
+    /**
+     * Descriptors indexed by their slot numbers.
+     */
+    private volatile ActiveDescriptor<?>[] slotDescriptors = new ActiveDescriptor<?>[0];
+    private final Object slotLock = new Object();
+
     @Override
     public Class<? extends Annotation> getScope() {
         return RequestScoped.class;
@@ -294,7 +310,7 @@ public class RequestScope implements Context<RequestScoped> {
      * @return New suspended request scope instance.
      */
     public Instance createInstance() {
-        return new Instance();
+        return new Instance(this);
     }
 
     /**
@@ -312,6 +328,11 @@ public class RequestScope implements Context<RequestScoped> {
      */
     public void runInScope(Instance scopeInstance, Runnable task) {
         final Instance oldInstance = retrieveCurrent();
+        if (oldInstance == scopeInstance) {
+            // already running in the scope instance, there is no need to switch the scope
+            Errors.process(task);
+            return;
+        }
         try {
             setCurrent(scopeInstance.getReference());
             Errors.process(task);
@@ -362,6 +383,10 @@ public class RequestScope implements Context<RequestScoped> {
      */
     public <T> T runInScope(Instance scopeInstance, Callable<T> task) throws Exception {
         final Instance oldInstance = retrieveCurrent();
+        if (oldInstance == scopeInstance) {
+            // already running in the scope instance, there is no need to switch the scope
+            return Errors.process(task);
+        }
         try {
             setCurrent(scopeInstance.getReference());
             return Errors.process(task);
@@ -414,6 +439,10 @@ public class RequestScope implements Context<RequestScoped> {
      */
     public <T> T runInScope(Instance scopeInstance, Producer<T> task) {
         final Instance oldInstance = retrieveCurrent();
+        if (oldInstance == scopeInstance) {
+            // already running in the scope instance, there is no need to switch the scope
+            return Errors.process(task);
+        }
         try {
             setCurrent(scopeInstance.getReference());
             return Errors.process(task);
@@ -448,10 +477,58 @@ public class RequestScope implements Context<RequestScoped> {
         }
     }
 
+    /**
+     * Get the slot number of the descriptor, assign a new slot number if the descriptor does not have one yet.
+     *
+     * @param descriptor request-scoped descriptor.
+     * @return slot number of the descriptor.
+     */
+    private int slot(final ActiveDescriptor<?> descriptor) {
+        final Integer slot = slots.get(descriptor);
+        return slot != null ? slot : assignSlot(descriptor);
+    }
+
+    private int assignSlot(final ActiveDescriptor<?> descriptor) {
+        synchronized (slotLock) {
+            Integer slot = slots.get(descriptor);
+            if (slot != null) {
+                return slot;
+            }
+
+            final ActiveDescriptor<?>[] descriptors = slotDescriptors;
+            // a descriptor equal to an already known one shares its slot
+            for (int i = 0; i < descriptors.length; i++) {
+                if (descriptors[i].equals(descriptor)) {
+                    slot = i;
+                    break;
+                }
+            }
+            if (slot == null) {
+                slot = descriptors.length;
+                final ActiveDescriptor<?>[] updated = Arrays.copyOf(descriptors, descriptors.length + 1);
+                updated[slot] = descriptor;
+                slotDescriptors = updated;
+            }
+
+            final Map<ActiveDescriptor<?>, Integer> updatedSlots = new IdentityHashMap<ActiveDescriptor<?>, Integer>(slots);
+            updatedSlots.put(descriptor, slot);
+            slots = updatedSlots;
+
+            return slot;
+        }
+    }
+
     /**
      * Implementation of the request scope instance.
      */
     public static final class Instance {
+
+        /**
+         * Marker of a {@code null} inhabitant stored in the scope instance.
+         */
+        private static final Object NULL = new Object();
+        private static final Object[] EMPTY = new Object[0];
+
         /*
          * Scope instance UUID.
          *
@@ -461,16 +538,22 @@ public class RequestScope implements Context<RequestScoped> {
 
         private final LazyUid id = new LazyUid();
         /**
-         * A map of injectable instances in this scope.
+         * Request scope the instance belongs to.
          */
-        private final Map<ActiveDescriptor<?>, Object> store;
+        private final RequestScope scope;
+        /**
+         * Injectable instances in this scope indexed by the {@link RequestScope#slot(ActiveDescriptor) descriptor slots}.
+         */
+        private Object[] store;
         /**
          * Holds the number of snapshots of this scope.
          */
         private final AtomicInteger referenceCounter;
 
-        private Instance() {
-            this.store = new HashMap<ActiveDescriptor<?>, Object>();
+        private Instance(final RequestScope scope) {
+            this.scope = scope;
+            final int slots = scope.slotDescriptors.length;
+            this.store = slots == 0 ? EMPTY : new Object[slots];
             this.referenceCounter = new AtomicInteger(1);
         }
 
@@ -497,7 +580,8 @@ public class RequestScope implements Context<RequestScoped> {
          */
         @SuppressWarnings("unchecked")
         <T> T get(ActiveDescriptor<T> descriptor) {
-            return (T) store.get(descriptor);
+            final Object value = lookup(scope.slot(descriptor));
+            return value == NULL ? null : (T) value;
         }
 
         /**
@@ -509,15 +593,19 @@ public class RequestScope implements Context<RequestScoped> {
          * @return old inhabitant previously stored for the given descriptor or
          *         {@code null} if none stored.
          */
-        @SuppressWarnings("unchecked")
         <T> T put(ActiveDescriptor<T> descriptor, T value) {
-            checkState(!store.containsKey(descriptor),
+            final int slot = scope.slot(descriptor);
+            checkState(lookup(slot) == null,
                     "An instance for the descriptor %s was already seeded in this scope. Old instance: %s New instance: %s",
                     descriptor,
-                    store.get(descriptor),
+                    get(descriptor),
                     value);
 
-            return (T) store.put(descriptor, value);
+            if (slot >= store.length) {
+                store = Arrays.copyOf(store, Math.max(slot + 1, scope.slotDescriptors.length));
+            }
+            store[slot] = value == null ? NULL : value;
+            return null;
         }
 
         /**
@@ -525,16 +613,27 @@ public class RequestScope implements Context<RequestScoped> {
          *
          * @param descriptor key for the value to be removed.
          */
-        @SuppressWarnings("unchecked")
         <T> void remove(ActiveDescriptor<T> descriptor) {
-            final T removed = (T) store.remove(descriptor);
+            remove(scope.slot(descriptor), descriptor);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> void remove(final int slot, final ActiveDescriptor<T> descriptor) {
+            final Object removed = lookup(slot);
             if (removed != null) {
-                descriptor.dispose(removed);
+                store[slot] = null;
+                if (removed != NULL) {
+                    descriptor.dispose((T) removed);
+                }
             }
         }
 
         private <T> boolean contains(ActiveDescriptor<T> provider) {
-            return store.containsKey(provider);
+            return lookup(scope.slot(provider)) != null;
+        }
+
+        private Object lookup(final int slot) {
+            return slot < store.length ? store[slot] : null;
         }
 
         /**
@@ -545,8 +644,11 @@ public class RequestScope implements Context<RequestScoped> {
         public void release() {
             if (referenceCounter.decrementAndGet() < 1) {
                 try {
-                    for (final ActiveDescriptor<?> descriptor : Sets.newHashSet(store.keySet())) {
-                        remove(descriptor);
+                    final ActiveDescriptor<?>[] descriptors = scope.slotDescriptors;
+                    for (int slot = 0; slot < store.length; slot++) {
+                        if (store[slot] != null) {
+                            remove(slot, descriptors[slot]);
+                        }
                     }
                 } finally {
                     logger.debugLog("Released scope instance {0}", this);
@@ -556,8 +658,14 @@ public class RequestScope implements Context<RequestScoped> {
 
         @Override
         public String toString() {
+            int size = 0;
+            for (final Object value : store) {
+                if (value != null) {
+                    size++;
+                }
+            }
             return Objects.toStringHelper(this).add("id", id.value()).add("referenceCounter", referenceCounter.get())
-                    .add("store size", store.size()).toString();
+                    .add("store size", size).toString();
         }
     }
 }
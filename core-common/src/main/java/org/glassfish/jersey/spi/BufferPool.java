@@ -0,0 +1,95 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.spi;
+
+/**
+ * An extension contract for providing pluggable pools of I/O buffers that are used by Jersey runtime
+ * to read and write entity streams.
+ * <p>
+ * Jersey runtime copies and buffers entity data in short-lived byte and character arrays. Instead of allocating
+ * these arrays for each I/O operation, the runtime acquires them from the buffer pool and releases them back
+ * to the pool once the operation is finished. A buffer released to the pool is never used by the releasing code
+ * again and may be handed out to another caller immediately.
+ * </p>
+ * <p>
+ * A custom buffer pool implementation may be configured using the
+ * {@value org.glassfish.jersey.message.MessageProperties#IO_BUFFER_POOL} system property. The implementation
+ * must be thread-safe and must provide a public no-argument constructor.
+ * </p>
+ *
+ * @since 2.18
+ */
+public interface BufferPool {
+
+    /**
+     * Get the size of the buffers provided by the pool.
+     *
+     * @return size (length or capacity) of the provided buffers.
+     */
+    public int getBufferSize();
+
+    /**
+     * Acquire a byte array of the {@link #getBufferSize() buffer size} length.
+     *
+     * @return byte array, either pooled or newly allocated.
+     */
+    public byte[] acquireBytes();
+
+    /**
+     * Release a byte array previously acquired from the pool.
+     *
+     * @param buffer byte array to be released.
+     */
+    public void releaseBytes(byte[] buffer);
+
+    /**
+     * Acquire a character array of the {@link #getBufferSize() buffer size} length.
+     *
+     * @return character array, either pooled or newly allocated.
+     */
+    public char[] acquireChars();
+
+    /**
+     * Release a character array previously acquired from the pool.
+     *
+     * @param buffer character array to be released.
+     */
+    public void releaseChars(char[] buffer);
+}
@@ -0,0 +1,86 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.spi;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An extension contract for entity output streams that are able to write NIO buffers and file regions
+ * without copying the data through intermediate heap byte arrays.
+ * <p>
+ * A container may return an output stream implementing this contract from
+ * {@code ContainerResponseWriter.writeResponseStatusAndHeaders(...)} to let entity providers hand {@link ByteBuffer byte buffers}
+ * and {@link FileChannel file channels} directly to the container I/O layer, which may then use gathering writes,
+ * memory mapped files or {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel) sendfile}.
+ * Jersey entity streams propagate the contract to the underlying container stream and fall back to copying
+ * the data into the stream if the underlying stream does not support it
+ * (see {@link org.glassfish.jersey.message.internal.ReaderWriter#writeTo(ByteBuffer, java.io.OutputStream)}).
+ * </p>
+ *
+ * @since 2.18
+ */
+public interface ZeroCopyOutput {
+
+    /**
+     * Write all the remaining bytes of the byte buffer. When the method returns, the buffer position is equal to its limit.
+     * <p>
+     * The implementation may keep a reference to the buffer and write its content after the method returns
+     * (e.g. asynchronously), the buffer position and limit are not used after the method returns. The caller must not
+     * modify the content of the buffer after it has been passed to this method.
+     * </p>
+     *
+     * @param buffer byte buffer to be written.
+     * @throws IOException in case of an I/O error.
+     */
+    public void write(ByteBuffer buffer) throws IOException;
+
+    /**
+     * Write a region of the file channel. The position of the file channel is not changed.
+     *
+     * @param channel  file channel to be written.
+     * @param position position in the file to start writing from.
+     * @param count    maximum number of bytes to be written.
+     * @return number of bytes written, possibly less than {@code count} if the end of the file was reached.
+     * @throws IOException in case of an I/O error.
+     */
+    public long transferFrom(FileChannel channel, long position, long count) throws IOException;
+}
@@ -0,0 +1,131 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.text.ParseException;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+/**
+ * Test the {@link HttpHeaderCache} and the cached header parsing in {@link HttpHeaderReader}.
+ */
+public class HttpHeaderCacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        final HttpHeaderCache<String> cache = new HttpHeaderCache<String>(4);
+
+        assertNull(cache.get("a"));
+        assertEquals("A", cache.put("a", "A"));
+        assertEquals("A", cache.get("a"));
+        assertNull(cache.get(null));
+
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void testCapacity() {
+        final HttpHeaderCache<String> cache = new HttpHeaderCache<String>(2);
+
+        cache.put("a", "A");
+        cache.put("b", "B");
+        assertEquals(2, cache.size());
+
+        cache.put("c", "C");
+        assertEquals(1, cache.size());
+        assertEquals("C", cache.get("c"));
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    public void testZeroCapacity() {
+        final HttpHeaderCache<String> cache = new HttpHeaderCache<String>(0);
+
+        assertEquals("A", cache.put("a", "A"));
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testCachedAcceptMediaType() throws ParseException {
+        final String header = "text/plain;q=0.5, application/json, application/x-header-cache-test;q=0.7";
+        final List<AcceptableMediaType> mediaTypes = HttpHeaderReader.readCachedAcceptMediaType(header);
+
+        assertEquals(HttpHeaderReader.readAcceptMediaType(header), mediaTypes);
+        assertSame(mediaTypes, HttpHeaderReader.readCachedAcceptMediaType(header));
+
+        try {
+            mediaTypes.clear();
+            fail("Cached list must not be modifiable.");
+        } catch (final UnsupportedOperationException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void testCachedMediaType() {
+        final String header = "application/x-header-cache-test;charset=UTF-8";
+        final MediaType mediaType = HttpHeaderReader.readCachedMediaType(header);
+
+        assertEquals(MediaType.valueOf(header), mediaType);
+        assertSame(mediaType, HttpHeaderReader.readCachedMediaType(header));
+    }
+
+    @Test
+    public void testInvalidValueNotCached() {
+        final int size = HttpHeaderReader.getAcceptMediaTypeCache().size();
+        try {
+            HttpHeaderReader.readCachedAcceptMediaType("text/plain;q=2");
+            fail("Invalid header value parsed.");
+        } catch (final ParseException expected) {
+            // ok
+        }
+        assertEquals(size, HttpHeaderReader.getAcceptMediaTypeCache().size());
+    }
+}
@@ -45,12 +45,18 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Link;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedHashMap;
+import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.ext.ReaderInterceptor;
 import javax.ws.rs.ext.RuntimeDelegate;
 
@@ -223,4 +229,47 @@ public class InboundMessageContextTest {
         assertTrue(allowedMethods.contains("CCC"));
         assertTrue(allowedMethods.contains("DDD"));
     }
+
+    @Test
+    public void testHeaderSource() {
+        final InboundMessageContext r = createInboundMessageContext();
+        final MultivaluedMap<String, String> nativeHeaders = new MultivaluedHashMap<String, String>();
+        nativeHeaders.add(HttpHeaders.CONTENT_TYPE, "text/plain");
+        nativeHeaders.add("X-Test", "a");
+        nativeHeaders.add("X-Test", "b");
+        final AtomicInteger copies = new AtomicInteger();
+
+        r.headers(new InboundHeaderSource() {
+            @Override
+            public List<String> get(final String name) {
+                for (final String key : nativeHeaders.keySet()) {
+                    if (key.equalsIgnoreCase(name)) {
+                        return nativeHeaders.get(key);
+                    }
+                }
+                return null;
+            }
+
+            @Override
+            public void copyTo(final MultivaluedMap<String, String> headers) {
+                copies.incrementAndGet();
+                for (final Map.Entry<String, List<String>> header : nativeHeaders.entrySet()) {
+                    headers.addAll(header.getKey(), header.getValue());
+                }
+            }
+        });
+
+        // single header lookups do not transfer the headers
+        assertEquals(MediaType.TEXT_PLAIN_TYPE, r.getMediaType());
+        assertEquals("a,b", r.getHeaderString("x-test"));
+        assertNull(r.getHeaderString("X-Missing"));
+        assertEquals(0, copies.get());
+
+        r.header("X-Added", "c");
+        assertEquals(1, copies.get());
+        assertEquals(3, r.getHeaders().size());
+        assertEquals(2, r.getHeaderValues("X-TEST").size());
+        assertEquals("c", r.getHeaderString("X-Added"));
+        assertEquals(1, copies.get());
+    }
 }
@@ -0,0 +1,115 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the {@link StripedBufferPool}.
+ */
+public class StripedBufferPoolTest {
+
+    @Test
+    public void testReleasedBuffersAreReused() {
+        final StripedBufferPool pool = new StripedBufferPool(128, 4);
+
+        final byte[] bytes = pool.acquireBytes();
+        assertEquals(128, bytes.length);
+        pool.releaseBytes(bytes);
+        assertSame(bytes, pool.acquireBytes());
+        assertNotSame(bytes, pool.acquireBytes());
+
+        final char[] chars = pool.acquireChars();
+        assertEquals(128, chars.length);
+        pool.releaseChars(chars);
+        assertSame(chars, pool.acquireChars());
+    }
+
+    @Test
+    public void testForeignBuffersAreNotPooled() {
+        final StripedBufferPool pool = new StripedBufferPool(128, 4);
+
+        final byte[] bytes = new byte[64];
+        pool.releaseBytes(bytes);
+        assertNotSame(bytes, pool.acquireBytes());
+
+        final char[] chars = new char[256];
+        pool.releaseChars(chars);
+        assertNotSame(chars, pool.acquireChars());
+    }
+
+    @Test
+    public void testCapacityIsBounded() {
+        final StripedBufferPool pool = new StripedBufferPool(16, 4);
+
+        final Map<byte[], Boolean> released = new IdentityHashMap<byte[], Boolean>();
+        for (int i = 0; i < 10; i++) {
+            final byte[] buffer = new byte[16];
+            released.put(buffer, Boolean.TRUE);
+            pool.releaseBytes(buffer);
+        }
+
+        int reused = 0;
+        for (int i = 0; i < 10; i++) {
+            if (released.containsKey(pool.acquireBytes())) {
+                reused++;
+            }
+        }
+        assertTrue("Pool kept more buffers than its capacity: " + reused, reused <= 4);
+        assertTrue("Pool kept no buffers.", reused > 0);
+    }
+
+    @Test
+    public void testZeroCapacity() {
+        final StripedBufferPool pool = new StripedBufferPool(16, 0);
+
+        final byte[] bytes = pool.acquireBytes();
+        pool.releaseBytes(bytes);
+        assertNotSame(bytes, pool.acquireBytes());
+        assertEquals(16, pool.acquireChars().length);
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.message.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.glassfish.jersey.spi.ZeroCopyOutput;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Test writing of byte buffers and file channels via {@link ReaderWriter} and the {@link ZeroCopyOutput} contract.
+ */
+public class ZeroCopyOutputTest {
+
+    /**
+     * Zero-copy output recording the zero-copy writes separately from the stream writes.
+     */
+    private static class RecordingOutput extends ByteArrayOutputStream implements ZeroCopyOutput {
+
+        private int buffers;
+        private int transfers;
+
+        @Override
+        public void write(final ByteBuffer buffer) throws IOException {
+            buffers++;
+            while (buffer.hasRemaining()) {
+                write(buffer.get());
+            }
+        }
+
+        @Override
+        public long transferFrom(final FileChannel channel, final long position, final long count) throws IOException {
+            transfers++;
+            return ReaderWriter.writeMapped(channel, position, count, this);
+        }
+    }
+
+    private static byte[] bytes(final int length) {
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) i;
+        }
+        return bytes;
+    }
+
+    private static File file(final byte[] content) throws IOException {
+        final File file = File.createTempFile("zero-copy", ".bin");
+        file.deleteOnExit();
+        final OutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+        return file;
+    }
+
+    @Test
+    public void testByteBufferCopied() throws IOException {
+        final byte[] content = bytes(3 * ReaderWriter.BUFFER_SIZE + 7);
+
+        final ByteBuffer heap = ByteBuffer.wrap(content);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ReaderWriter.writeTo(heap, out);
+        assertArrayEquals(content, out.toByteArray());
+        assertFalse(heap.hasRemaining());
+
+        final ByteBuffer direct = ByteBuffer.allocateDirect(content.length);
+        direct.put(content).flip();
+        out.reset();
+        ReaderWriter.writeTo(direct, out);
+        assertArrayEquals(content, out.toByteArray());
+        assertFalse(direct.hasRemaining());
+    }
+
+    @Test
+    public void testByteBufferPassedToZeroCopyOutput() throws IOException {
+        final byte[] content = bytes(100);
+        final RecordingOutput out = new RecordingOutput();
+
+        ReaderWriter.writeTo(ByteBuffer.wrap(content), out);
+        assertArrayEquals(content, out.toByteArray());
+        assertEquals(1, out.buffers);
+    }
+
+    @Test
+    public void testFileChannelCopied() throws IOException {
+        final byte[] content = bytes(2 * ReaderWriter.BUFFER_SIZE + 11);
+        final RandomAccessFile file = new RandomAccessFile(file(content), "r");
+        try {
+            final FileChannel channel = file.getChannel();
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            assertEquals(content.length - 5, ReaderWriter.writeTo(channel, 5, Long.MAX_VALUE, out));
+            final byte[] expected = new byte[content.length - 5];
+            System.arraycopy(content, 5, expected, 0, expected.length);
+            assertArrayEquals(expected, out.toByteArray());
+            assertEquals(0, channel.position());
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void testFileChannelPassedToZeroCopyOutput() throws IOException {
+        final byte[] content = bytes(1000);
+        final RandomAccessFile file = new RandomAccessFile(file(content), "r");
+        try {
+            final RecordingOutput out = new RecordingOutput();
+
+            assertEquals(10, ReaderWriter.writeTo(file.getChannel(), 0, 10, out));
+            final byte[] expected = new byte[10];
+            System.arraycopy(content, 0, expected, 0, expected.length);
+            assertArrayEquals(expected, out.toByteArray());
+            assertEquals(1, out.transfers);
+        } finally {
+            file.close();
+        }
+    }
+
+    @Test
+    public void testCommittingOutputStream() throws IOException {
+        final RecordingOutput out = new RecordingOutput();
+        final CommittingOutputStream cos = new CommittingOutputStream();
+        cos.enableBuffering(4);
+        cos.setStreamProvider(new OutboundMessageContext.StreamProvider() {
+            @Override
+            public OutputStream getOutputStream(final int contentLength) throws IOException {
+                return out;
+            }
+        });
+
+        // buffered
+        cos.write(ByteBuffer.wrap(new byte[]{1, 2}));
+        assertEquals(0, out.size());
+        assertEquals(0, out.buffers);
+
+        // exceeds the buffer - buffered bytes are written first, then the byte buffer is passed through
+        cos.write(ByteBuffer.wrap(new byte[]{3, 4, 5}));
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, out.toByteArray());
+        assertEquals(1, out.buffers);
+
+        cos.write(6);
+        cos.close();
+        assertArrayEquals(new byte[]{1, 2, 3, 4, 5, 6}, out.toByteArray());
+    }
+}
@@ -186,6 +186,53 @@ public class RequestScopeTest {
         assertNull(instance.get(inhab));
     }
 
+    @Test
+    public void testNestedRunInSameInstance() {
+        final RequestScope requestScope = new RequestScope();
+        final Instance instance = requestScope.createInstance();
+        final TestProvider inhab = new TestProvider("a");
+        instance.put(inhab, "1");
+        requestScope.runInScope(instance, new Runnable() {
+
+            @Override
+            public void run() {
+                requestScope.runInScope(instance, new Runnable() {
+
+                    @Override
+                    public void run() {
+                        assertEquals("1", instance.get(inhab));
+                    }
+                });
+                final Instance current = requestScope.suspendCurrent();
+                assertEquals(instance, current);
+                current.release();
+            }
+        });
+        assertNull(requestScope.suspendCurrent());
+        assertEquals("1", instance.get(inhab));
+        instance.release();
+        assertNull(instance.get(inhab));
+    }
+
+    @Test
+    public void testInstanceCreatedBeforeDescriptorSlot() {
+        final RequestScope requestScope = new RequestScope();
+        final Instance first = requestScope.createInstance();
+        final Instance second = requestScope.createInstance();
+        final TestProvider inhab = new TestProvider("a");
+
+        assertNull(first.get(inhab));
+        second.put(inhab, null);
+        assertNull(second.get(inhab));
+        first.put(inhab, "1");
+        assertEquals("1", first.get(inhab));
+
+        first.release();
+        second.release();
+        assertNull(first.get(inhab));
+        assertNull(second.get(inhab));
+    }
+
     /**
      * Test request scope inhabitant.
      */
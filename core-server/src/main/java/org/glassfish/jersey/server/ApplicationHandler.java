@@ -52,7 +52,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -100,6 +99,7 @@ import org.glassfish.jersey.process.internal.ChainableStage;
 import org.glassfish.jersey.process.internal.Stage;
 import org.glassfish.jersey.process.internal.Stages;
 import org.glassfish.jersey.server.internal.ConfigHelper;
+import org.glassfish.jersey.server.internal.HashedWheelTimer;
 import org.glassfish.jersey.server.internal.JerseyRequestTimeoutHandler;
 import org.glassfish.jersey.server.internal.JerseyResourceContext;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
@@ -1006,7 +1006,7 @@ public final class ApplicationHandler {
     public Future<ContainerResponse> apply(final ContainerRequest request,
                                            final OutputStream outputStream) {
         final FutureResponseWriter responseFuture =
-                new FutureResponseWriter(request.getMethod(), outputStream, runtime.getBackgroundScheduler());
+                new FutureResponseWriter(request.getMethod(), outputStream, runtime.getBackgroundTimer());
 
         if (request.getSecurityContext() == null) {
             request.setSecurityContext(DEFAULT_SECURITY_CONTEXT);
@@ -1029,10 +1029,10 @@ public final class ApplicationHandler {
 
         private FutureResponseWriter(final String requestMethodName,
                                      final OutputStream outputStream,
-                                     final ScheduledExecutorService backgroundScheduler) {
+                                     final HashedWheelTimer backgroundTimer) {
             this.requestMethodName = requestMethodName;
             this.outputStream = outputStream;
-            this.requestTimeoutHandler = new JerseyRequestTimeoutHandler(this, backgroundScheduler);
+            this.requestTimeoutHandler = new JerseyRequestTimeoutHandler(this, backgroundTimer);
         }
 
         @Override
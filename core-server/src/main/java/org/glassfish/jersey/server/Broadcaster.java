@@ -41,9 +41,12 @@
 package org.glassfish.jersey.server;
 
 import java.io.IOException;
-import java.util.Iterator;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -156,6 +159,93 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
         });
     }
 
+    /**
+     * Broadcast a chunk to all registered {@link ChunkedOutput} instances, serializing the chunk only once
+     * per distinct response media type (including charset) and chunk type.
+     * <p>
+     * The chunk is serialized into bytes by the first registered output of each distinct media type and the resulting
+     * immutable buffer is queued to all the other outputs of the same media type. Writing the queued buffers
+     * to the individual connections is then fanned out to the supplied executor, so that a slow subscriber does not hold up
+     * the broadcast. Chunks queued to a single output are always written in the order in which they were broadcast.
+     * A bounded executor is recommended; if the executor rejects a write task, the write is performed in the calling thread.
+     * </p>
+     * <p>
+     * The broadcast never waits for space in the queues of the outputs. If the queue of an output has reached its
+     * {@link ChunkedOutput#setQueueLimits(int, long, ChunkedOutput.OverflowPolicy) limits}, the overflow policy of the output
+     * is applied, except that the {@link ChunkedOutput.OverflowPolicy#BLOCK BLOCK} policy discards the chunk for that
+     * output (see {@link ChunkedOutput#getDroppedChunkCount()}) instead of holding up the broadcast.
+     * </p>
+     * <p>
+     * This broadcast mode assumes that the serialized form of the chunk does not depend on any per-connection state other
+     * than the response media type. {@link BroadcasterListener Listeners} may be notified from the executor threads.
+     * </p>
+     *
+     * @param chunk    chunk to be sent.
+     * @param executor executor used to write the serialized chunk to the individual outputs.
+     * @since 2.18
+     */
+    public void broadcast(final T chunk, final Executor executor) {
+        final Map<Object, byte[]> encodedChunks = new HashMap<Object, byte[]>();
+
+        for (final ChunkedOutput<T> chunkedOutput : chunkedOutputs) {
+            if (!chunkedOutput.isClosed()) {
+                try {
+                    enqueue(chunkedOutput, chunk, encodedChunks);
+                    flush(chunkedOutput, executor);
+                } catch (final Exception e) {
+                    fireOnException(chunkedOutput, e);
+                }
+            }
+            if (chunkedOutput.isClosed()) {
+                removeClosed(chunkedOutput);
+            }
+        }
+    }
+
+    private void enqueue(final ChunkedOutput<T> chunkedOutput,
+                         final T chunk,
+                         final Map<Object, byte[]> encodedChunks) throws IOException {
+        final Object encodingKey = (chunk == null) ? null : chunkedOutput.getEncodingKey();
+        if (encodingKey == null) {
+            // response not ready yet - the chunk will be serialized by the output itself once it is
+            chunkedOutput.enqueue(chunk);
+            return;
+        }
+
+        byte[] encodedChunk = encodedChunks.get(encodingKey);
+        if (encodedChunk == null) {
+            encodedChunk = chunkedOutput.encode(chunk);
+            if (encodedChunk == null) {
+                chunkedOutput.enqueue(chunk);
+                return;
+            }
+            encodedChunks.put(encodingKey, encodedChunk);
+        }
+        chunkedOutput.enqueueEncoded(encodedChunk);
+    }
+
+    private void flush(final ChunkedOutput<T> chunkedOutput, final Executor executor) {
+        final Runnable flushTask = new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    chunkedOutput.flush();
+                } catch (final Exception e) {
+                    fireOnException(chunkedOutput, e);
+                }
+                if (chunkedOutput.isClosed()) {
+                    removeClosed(chunkedOutput);
+                }
+            }
+        };
+
+        try {
+            executor.execute(flushTask);
+        } catch (final RejectedExecutionException e) {
+            flushTask.run();
+        }
+    }
+
     /**
      * Close all registered {@link ChunkedOutput} instances.
      */
@@ -197,8 +287,7 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
     }
 
     private void forEachOutput(final Task<ChunkedOutput<T>> t) {
-        for (Iterator<ChunkedOutput<T>> iterator = chunkedOutputs.iterator(); iterator.hasNext(); ) {
-            ChunkedOutput<T> chunkedOutput = iterator.next();
+        for (final ChunkedOutput<T> chunkedOutput : chunkedOutputs) {
             if (!chunkedOutput.isClosed()) {
                 try {
                     t.run(chunkedOutput);
@@ -207,12 +296,18 @@ public class Broadcaster<T> implements BroadcasterListener<T> {
                 }
             }
             if (chunkedOutput.isClosed()) {
-                iterator.remove();
-                fireOnClose(chunkedOutput);
+                removeClosed(chunkedOutput);
             }
         }
     }
 
+    private void removeClosed(final ChunkedOutput<T> chunkedOutput) {
+        // the output may be removed concurrently by a flush task of a broadcast fanned out to an executor
+        if (chunkedOutputs.remove(chunkedOutput)) {
+            fireOnClose(chunkedOutput);
+        }
+    }
+
     private void forEachListener(final Task<BroadcasterListener<T>> t) {
         for (BroadcasterListener<T> listener : listeners) {
             try {
@@ -39,14 +39,18 @@
  */
 package org.glassfish.jersey.server;
 
+import java.io.ByteArrayOutputStream;
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.lang.reflect.Type;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.Callable;
 import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
 
 import javax.ws.rs.container.ConnectionCallback;
 import javax.ws.rs.core.GenericType;
@@ -70,12 +74,28 @@ import org.glassfish.jersey.server.internal.process.MappableException;
 // TODO:  something like prequel/sequel - usable for EventChannelWriter and XML related writers
 public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
     private static final byte[] ZERO_LENGTH_DELIMITER = new byte[0];
+    private static final long DEFAULT_BLOCK_TIMEOUT = TimeUnit.SECONDS.toNanos(60);
 
-    private final BlockingDeque<T> queue = new LinkedBlockingDeque<>();
+    // contains either chunk instances or pre-serialized EncodedChunk instances
+    private final BlockingDeque<Object> queue = new LinkedBlockingDeque<>();
     private final byte[] chunkDelimiter;
 
     private volatile boolean closed = false;
     private boolean flushing = false;
+
+    // queue bounds - guarded by this
+    private int maxQueuedChunks = Integer.MAX_VALUE;
+    private long maxQueuedBytes = Long.MAX_VALUE;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+    private long blockTimeout = DEFAULT_BLOCK_TIMEOUT;
+    private long queuedBytes = 0;
+    private int blockedWriters = 0;
+
+    // statistics - updated under lock or by the single flushing thread
+    private volatile long droppedChunks = 0;
+    private volatile long writtenChunks = 0;
+    private volatile long totalWriteTime = 0;
+    private volatile long maxWriteTime = 0;
     private volatile RequestScope requestScope;
     private volatile RequestScope.Instance requestScopeInstance;
     private volatile ContainerRequest requestContext;
@@ -162,24 +182,379 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         }
     }
 
+    /**
+     * Policy applied when a chunk is written to a {@code ChunkedOutput} whose queue of chunks pending
+     * to be written has reached its {@link #setQueueLimits(int, long, OverflowPolicy) limits}.
+     *
+     * @since 2.18
+     */
+    public static enum OverflowPolicy {
+        /**
+         * Block the writing thread until there is space in the queue, at most for the
+         * {@link #setBlockTimeout(long, TimeUnit) block timeout}.
+         * <p>
+         * Chunks written before the chunked output has been returned from the resource method cannot be written
+         * to the response yet. Such chunks are queued regardless of the limits, as the writing thread may be the very
+         * thread that is going to return the chunked output.
+         * </p>
+         */
+        BLOCK,
+        /**
+         * Discard the oldest queued chunks to make space for the new chunk.
+         */
+        DROP_OLDEST,
+        /**
+         * Discard the new chunk.
+         */
+        DROP_NEWEST,
+        /**
+         * Discard all queued chunks, close the chunked output and fail the write with an {@link IOException}.
+         */
+        CLOSE
+    }
+
+    /**
+     * Set limits of the queue of chunks pending to be written and the policy applied when a limit is reached.
+     * <p>
+     * By default, the queue is unbounded. If a byte limit is set, chunks written once the chunked output has been
+     * returned from the resource method are serialized before they are queued and counted by their serialized size.
+     * Chunks written before that cannot be serialized yet, their size is estimated: {@code byte[]} and
+     * {@link CharSequence} chunks are counted by their length, other chunks do not count toward the byte limit.
+     * A single chunk is always accepted into an empty queue, regardless of its size.
+     * </p>
+     *
+     * @param maxChunks maximum number of queued chunks. Must be positive.
+     * @param maxBytes  maximum number of queued bytes. Must be positive, {@link Long#MAX_VALUE} sets no byte limit.
+     * @param policy    policy applied when a limit is reached. Must not be {@code null}.
+     * @throws IllegalArgumentException in case any of the limits is not positive.
+     * @since 2.18
+     */
+    public void setQueueLimits(final int maxChunks, final long maxBytes, final OverflowPolicy policy) {
+        if (maxChunks <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException(String.format("Queue limits must be positive: %d chunks, %d bytes.",
+                    maxChunks, maxBytes));
+        }
+        if (policy == null) {
+            throw new NullPointerException("Overflow policy is 'null'.");
+        }
+
+        synchronized (this) {
+            this.maxQueuedChunks = maxChunks;
+            this.maxQueuedBytes = maxBytes;
+            this.overflowPolicy = policy;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Set the maximum time a writer waits for space in a full queue with the {@link OverflowPolicy#BLOCK} policy.
+     * When the time elapses, the write fails with an {@link InterruptedIOException} and the chunk is not queued.
+     * <p>
+     * The default timeout is 60 seconds.
+     * </p>
+     *
+     * @param timeout maximum time to wait. Must be positive.
+     * @param unit    time unit of the {@code timeout}. Must not be {@code null}.
+     * @throws IllegalArgumentException in case the timeout is not positive.
+     * @since 2.18
+     */
+    public void setBlockTimeout(final long timeout, final TimeUnit unit) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException(String.format("Block timeout must be positive: %d.", timeout));
+        }
+
+        synchronized (this) {
+            this.blockTimeout = unit.toNanos(timeout);
+            notifyAll();
+        }
+    }
+
     /**
      * Write a chunk.
+     * <p>
+     * In case the queue of chunks pending to be written has reached its {@link #setQueueLimits(int, long, OverflowPolicy)
+     * limits}, the configured {@link OverflowPolicy overflow policy} is applied.
+     * </p>
      *
      * @param chunk a chunk instance to be written.
      * @throws IOException if this response is closed or when encountered any problem during serializing or writing a chunk.
      */
     public void write(final T chunk) throws IOException {
-        if (closed) {
-            throw new IOException(LocalizationMessages.CHUNKED_OUTPUT_CLOSED());
+        if (chunk == null) {
+            if (closed) {
+                throw new IOException(LocalizationMessages.CHUNKED_OUTPUT_CLOSED());
+            }
+        } else {
+            queueChunk(toQueueEntry(chunk), true, true);
+        }
+        flushQueue();
+    }
+
+    /**
+     * Write a chunk unless the queue of chunks pending to be written has reached its
+     * {@link #setQueueLimits(int, long, OverflowPolicy) limits}.
+     * <p>
+     * Unlike {@link #write(Object)}, this method never waits for space in the queue and does not apply
+     * the configured {@link OverflowPolicy overflow policy}. When it returns {@code false}, the consumer is not
+     * keeping up and the caller should slow down or retry the chunk later.
+     * </p>
+     *
+     * @param chunk a chunk instance to be written.
+     * @return {@code true} if the chunk has been accepted, {@code false} if the queue is full.
+     * @throws IOException if this response is closed or when encountered any problem during serializing or writing a chunk.
+     * @since 2.18
+     */
+    public boolean offer(final T chunk) throws IOException {
+        if (chunk != null && !queueChunk(toQueueEntry(chunk), false, false)) {
+            return false;
         }
+        flushQueue();
+        return true;
+    }
 
+    /**
+     * Add a chunk to the queue of chunks to be written without writing it and without waiting for space in the queue.
+     * <p>
+     * The configured {@link OverflowPolicy overflow policy} is applied if the queue is full, except that
+     * the {@link OverflowPolicy#BLOCK} policy discards the chunk instead of waiting.
+     * </p>
+     *
+     * @param chunk a chunk instance to be queued.
+     * @throws IOException if this response is closed or has been closed by the {@link OverflowPolicy#CLOSE} policy.
+     */
+    void enqueue(final T chunk) throws IOException {
+        if (chunk == null) {
+            if (closed) {
+                throw new IOException(LocalizationMessages.CHUNKED_OUTPUT_CLOSED());
+            }
+            return;
+        }
+        queueChunk(toQueueEntry(chunk), true, false);
+    }
+
+    /**
+     * Add a chunk already serialized by {@link #encode(Object)} to the queue of chunks to be written
+     * without writing it and without waiting for space in the queue (see {@link #enqueue(Object)}).
+     * <p>
+     * The encoded bytes are shared and must not be modified; the chunk delimiter of this output is written after them.
+     * </p>
+     *
+     * @param encodedChunk serialized chunk bytes.
+     * @throws IOException if this response is closed or has been closed by the {@link OverflowPolicy#CLOSE} policy.
+     */
+    void enqueueEncoded(final byte[] encodedChunk) throws IOException {
+        queueChunk(new EncodedChunk(encodedChunk), true, false);
+    }
+
+    /**
+     * Get the queue entry of a chunk. If a byte limit is set, the chunk is serialized so that its size can be counted.
+     *
+     * @param chunk chunk to be queued.
+     * @return chunk or the serialized chunk.
+     * @throws IOException if this response is closed or when encountered any problem during serializing the chunk.
+     */
+    private Object toQueueEntry(final T chunk) throws IOException {
+        synchronized (this) {
+            if (maxQueuedBytes == Long.MAX_VALUE) {
+                return chunk;
+            }
+        }
+        final byte[] bytes = encode(chunk);
+        return bytes == null ? chunk : new EncodedChunk(bytes);
+    }
+
+    /**
+     * Add a chunk to the queue, respecting the queue limits.
+     *
+     * @param chunk       chunk or pre-serialized chunk to be queued.
+     * @param applyPolicy if {@code false}, the overflow policy is not applied and the chunk is rejected if the queue is full.
+     * @param mayWait     if {@code false}, the {@link OverflowPolicy#BLOCK} policy neither waits for space in the queue nor
+     *                    flushes the queue in the current thread, the chunk is discarded instead.
+     * @return {@code true} if the chunk has been queued, {@code false} if it has been rejected or dropped.
+     * @throws IOException if this response is closed or has been closed by the {@link OverflowPolicy#CLOSE} policy.
+     */
+    private boolean queueChunk(final Object chunk, final boolean applyPolicy, final boolean mayWait) throws IOException {
+        final long size = sizeOf(chunk);
+        boolean overflowClosed = false;
+        long waitStart = 0;
+        while (true) {
+            synchronized (this) {
+                if (closed) {
+                    throw new IOException(LocalizationMessages.CHUNKED_OUTPUT_CLOSED());
+                }
+                if (!isFull(size)) {
+                    queue.add(chunk);
+                    queuedBytes += size;
+                    return true;
+                }
+                if (!applyPolicy) {
+                    return false;
+                }
+
+                switch (overflowPolicy) {
+                    case DROP_NEWEST:
+                        droppedChunks++;
+                        return false;
+                    case DROP_OLDEST:
+                        // the queue is never empty when full
+                        pollChunk();
+                        droppedChunks++;
+                        continue;
+                    case CLOSE:
+                        droppedChunks += queue.size();
+                        queue.clear();
+                        queuedBytes = 0;
+                        closed = true;
+                        overflowClosed = true;
+                        notifyAll();
+                        break;
+                    default:
+                        // BLOCK
+                        if (responseContext == null) {
+                            // the queue cannot be flushed before the output is returned from the resource method,
+                            // which may be done by this very thread - it must not wait
+                            queue.add(chunk);
+                            queuedBytes += size;
+                            return true;
+                        }
+                        if (!mayWait) {
+                            droppedChunks++;
+                            return false;
+                        }
+                        if (flushing) {
+                            // wait for the flushing thread
+                            final long now = System.nanoTime();
+                            if (waitStart == 0) {
+                                waitStart = now;
+                            }
+                            final long remaining = blockTimeout - (now - waitStart);
+                            if (remaining <= 0) {
+                                throw new InterruptedIOException(LocalizationMessages.CHUNKED_OUTPUT_QUEUE_TIMEOUT(
+                                        TimeUnit.NANOSECONDS.toMillis(blockTimeout)));
+                            }
+                            blockedWriters++;
+                            try {
+                                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                            } catch (final InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                throw new InterruptedIOException(e.getMessage());
+                            } finally {
+                                blockedWriters--;
+                            }
+                            continue;
+                        }
+                        // nobody is flushing the queue - flush it in the current thread
+                }
+            }
+
+            if (overflowClosed) {
+                // closed by the CLOSE policy - let flushQueue() finalize the response
+                flushQueue();
+                throw new IOException(LocalizationMessages.CHUNKED_OUTPUT_QUEUE_OVERFLOW(maxQueuedChunks, maxQueuedBytes));
+            }
+            flushQueue();
+        }
+    }
+
+    private boolean isFull(final long size) {
+        return !queue.isEmpty() && (queue.size() >= maxQueuedChunks || queuedBytes + size > maxQueuedBytes);
+    }
+
+    /**
+     * Remove the head of the queue, updating the queue statistics.
+     *
+     * @return the head of the queue or {@code null} if the queue is empty.
+     */
+    private synchronized Object pollChunk() {
+        final Object chunk = queue.poll();
         if (chunk != null) {
-            queue.add(chunk);
+            queuedBytes -= sizeOf(chunk);
+            if (blockedWriters > 0) {
+                notifyAll();
+            }
+        }
+        return chunk;
+    }
+
+    private static long sizeOf(final Object chunk) {
+        if (chunk instanceof EncodedChunk) {
+            return ((EncodedChunk) chunk).bytes.length;
+        } else if (chunk instanceof byte[]) {
+            return ((byte[]) chunk).length;
+        } else if (chunk instanceof CharSequence) {
+            return ((CharSequence) chunk).length();
         }
+        return 0;
+    }
 
+    /**
+     * Write all queued chunks.
+     *
+     * @throws IOException if this response is closed or when encountered any problem during serializing or writing a chunk.
+     */
+    void flush() throws IOException {
         flushQueue();
     }
 
+    /**
+     * Get the key identifying how chunks are serialized by this output.
+     * <p>
+     * Outputs with equal encoding keys produce the same bytes for the same chunk (excluding the chunk delimiter),
+     * so a chunk {@link #encode(Object) encoded} by one of them can be {@link #enqueueEncoded(byte[]) written}
+     * to all of them.
+     * </p>
+     *
+     * @return encoding key or {@code null} if the response context has not been set yet.
+     */
+    Object getEncodingKey() {
+        final ContainerResponse response = responseContext;
+        if (requestContext == null || response == null) {
+            return null;
+        }
+        return Arrays.asList(response.getMediaType(), getType());
+    }
+
+    /**
+     * Serialize a chunk into bytes the same way it would be written to the entity stream of this output,
+     * excluding the chunk delimiter.
+     *
+     * @param chunk chunk to be serialized.
+     * @return serialized chunk or {@code null} if the response context has not been set yet.
+     * @throws IOException if this response is closed or when encountered any problem during serializing the chunk.
+     */
+    byte[] encode(final T chunk) throws IOException {
+        if (closed) {
+            throw new IOException(LocalizationMessages.CHUNKED_OUTPUT_CLOSED());
+        }
+        if (requestScopeInstance == null || requestContext == null || responseContext == null) {
+            return null;
+        }
+
+        try {
+            return requestScope.runInScope(requestScopeInstance, new Callable<byte[]>() {
+                @Override
+                public byte[] call() throws IOException {
+                    final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+                    requestContext.getWorkers().writeTo(
+                            chunk,
+                            chunk.getClass(),
+                            getType(),
+                            responseContext.getEntityAnnotations(),
+                            responseContext.getMediaType(),
+                            responseContext.getHeaders(),
+                            requestContext.getPropertiesDelegate(),
+                            buffer,
+                            Collections.<WriterInterceptor>emptyList());
+                    return buffer.toByteArray();
+                }
+            });
+        } catch (final IOException | RuntimeException e) {
+            throw e;
+        } catch (final Exception e) {
+            throw new IOException(e);
+        }
+    }
+
     private void flushQueue() throws IOException {
         if (requestScopeInstance == null || requestContext == null || responseContext == null) {
             return;
@@ -191,9 +566,9 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
                 @Override
                 public Void call() throws IOException {
                     boolean shouldClose;
-                    T t;
+                    Object t;
 
-                    synchronized (this) {
+                    synchronized (ChunkedOutput.this) {
                         if (flushing) {
                             // if another thread is already flushing the queue, we don't have to do anything
                             return null;
@@ -204,7 +579,7 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
                         // but before we check if we should close - so we would close the stream leaving the last chunk
                         // undelivered)
                         shouldClose = closed;
-                        t = queue.poll();
+                        t = pollChunk();
                         if (t != null || shouldClose) {
                             // no other thread is flushing this queue at the moment and it is not empty and/or we should close ->
                             // set the flushing flag so that other threads know it is already being taken care of
@@ -214,34 +589,19 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
                     }
 
                     while (t != null) {
+                        final long writeStart = System.nanoTime();
                         try {
-                            final OutputStream origStream = responseContext.getEntityStream();
-                            final OutputStream writtenStream = requestContext.getWorkers().writeTo(
-                                    t,
-                                    t.getClass(),
-                                    getType(),
-                                    responseContext.getEntityAnnotations(),
-                                    responseContext.getMediaType(),
-                                    responseContext.getHeaders(),
-                                    requestContext.getPropertiesDelegate(),
-                                    origStream,
-                                    // The output stream stored in the response context for this chunked output
-                                    // is already intercepted as a whole (if there are any interceptors);
-                                    // no need to intercept the individual chunks.
-                                    Collections.<WriterInterceptor>emptyList());
-
-                            //noinspection ArrayEquality
-                            if (chunkDelimiter != ZERO_LENGTH_DELIMITER) {
-                                // if the chunked output is configured with a custom delimiter, use it
-                                writtenStream.write(chunkDelimiter);
-                            }
-
-                            // flush the chunk (some writers do it, but some don't)
-                            writtenStream.flush();
-
-                            if (origStream != writtenStream) {
-                                // if MBW replaced the stream, let's make sure to set it in the response context.
-                                responseContext.setEntityStream(writtenStream);
+                            if (t instanceof EncodedChunk) {
+                                // chunk already serialized by a broadcaster - the bytes are shared, just write them
+                                final OutputStream entityStream = responseContext.getEntityStream();
+                                entityStream.write(((EncodedChunk) t).bytes);
+                                //noinspection ArrayEquality
+                                if (chunkDelimiter != ZERO_LENGTH_DELIMITER) {
+                                    entityStream.write(chunkDelimiter);
+                                }
+                                entityStream.flush();
+                            } else {
+                                writeChunk(t);
                             }
                         } catch (final IOException ioe) {
                             connectionCallback.onDisconnect(asyncContext.get());
@@ -252,15 +612,17 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
                             }
                             throw mpe;
                         }
-                        t = queue.poll();
+                        recordWrite(System.nanoTime() - writeStart);
+
+                        t = pollChunk();
                         if (t == null) {
-                            synchronized (this) {
+                            synchronized (ChunkedOutput.this) {
                                 // queue seems empty
                                 // check again in the synchronized block before clearing the flushing flag
                                 // first remember the closed flag (this has to be before polling the queue,
                                 // otherwise we could miss the last chunk)
                                 shouldClose = closed;
-                                t = queue.poll();
+                                t = pollChunk();
                                 if (t == null) {
                                     // ok, it is really empty - if anyone adds a chunk while we are here,
                                     // other thread will take care of it -> flush the stream and unset
@@ -284,6 +646,10 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
             ex = e;
         } finally {
             if (closed) {
+                synchronized (this) {
+                    // wake up writers blocked on a full queue
+                    notifyAll();
+                }
                 try {
                     responseContext.close();
                 } catch (final Exception e) {
@@ -306,13 +672,55 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         }
     }
 
+    private void recordWrite(final long writeTime) {
+        writtenChunks++;
+        totalWriteTime += writeTime;
+        if (writeTime > maxWriteTime) {
+            maxWriteTime = writeTime;
+        }
+    }
+
+    private void writeChunk(final Object chunk) throws IOException {
+        final OutputStream origStream = responseContext.getEntityStream();
+        final OutputStream writtenStream = requestContext.getWorkers().writeTo(
+                chunk,
+                chunk.getClass(),
+                getType(),
+                responseContext.getEntityAnnotations(),
+                responseContext.getMediaType(),
+                responseContext.getHeaders(),
+                requestContext.getPropertiesDelegate(),
+                origStream,
+                // The output stream stored in the response context for this chunked output
+                // is already intercepted as a whole (if there are any interceptors);
+                // no need to intercept the individual chunks.
+                Collections.<WriterInterceptor>emptyList());
+
+        //noinspection ArrayEquality
+        if (chunkDelimiter != ZERO_LENGTH_DELIMITER) {
+            // if the chunked output is configured with a custom delimiter, use it
+            writtenStream.write(chunkDelimiter);
+        }
+
+        // flush the chunk (some writers do it, but some don't)
+        writtenStream.flush();
+
+        if (origStream != writtenStream) {
+            // if MBW replaced the stream, let's make sure to set it in the response context.
+            responseContext.setEntityStream(writtenStream);
+        }
+    }
+
     /**
      * Close this response - it will be finalized and underlying connections will be closed
      * or made available for another response.
      */
     @Override
     public void close() throws IOException {
-        closed = true;
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
         flushQueue();
     }
 
@@ -328,6 +736,70 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         return closed;
     }
 
+    /**
+     * Get the number of chunks queued and not yet written to the underlying connection.
+     *
+     * @return number of queued chunks.
+     * @since 2.18
+     */
+    public int getQueuedChunkCount() {
+        return queue.size();
+    }
+
+    /**
+     * Get the estimated number of bytes queued and not yet written to the underlying connection.
+     *
+     * @return estimated number of queued bytes.
+     * @see #setQueueLimits(int, long, OverflowPolicy)
+     * @since 2.18
+     */
+    public synchronized long getQueuedByteCount() {
+        return queuedBytes;
+    }
+
+    /**
+     * Get the number of chunks discarded by the {@link OverflowPolicy overflow policy}.
+     *
+     * @return number of discarded chunks.
+     * @since 2.18
+     */
+    public long getDroppedChunkCount() {
+        return droppedChunks;
+    }
+
+    /**
+     * Get the number of chunks written to the underlying connection.
+     *
+     * @return number of written chunks.
+     * @since 2.18
+     */
+    public long getWrittenChunkCount() {
+        return writtenChunks;
+    }
+
+    /**
+     * Get the average time spent serializing a chunk and writing it to the underlying connection.
+     *
+     * @param unit time unit of the returned value.
+     * @return average chunk write time or {@code 0} if no chunk has been written yet.
+     * @since 2.18
+     */
+    public long getAverageWriteTime(final TimeUnit unit) {
+        final long written = writtenChunks;
+        return written == 0 ? 0 : unit.convert(totalWriteTime / written, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Get the longest time spent serializing a chunk and writing it to the underlying connection.
+     *
+     * @param unit time unit of the returned value.
+     * @return maximum chunk write time.
+     * @since 2.18
+     */
+    public long getMaxWriteTime(final TimeUnit unit) {
+        return unit.convert(maxWriteTime, TimeUnit.NANOSECONDS);
+    }
+
     @SuppressWarnings("EqualsWhichDoesntCheckParameterClass")
     @Override
     public boolean equals(final Object obj) {
@@ -346,6 +818,18 @@ public class ChunkedOutput<T> extends GenericType<T> implements Closeable {
         return "ChunkedOutput<" + getType() + ">";
     }
 
+    /**
+     * Queue entry wrapping a chunk that has already been serialized.
+     */
+    private static final class EncodedChunk {
+
+        private final byte[] bytes;
+
+        private EncodedChunk(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+    }
+
     /**
      * Set context used for writing chunks.
      *
@@ -809,7 +809,7 @@ public class ContainerRequest extends InboundMessageContext
      */
     @Override
     public List<String> getRequestHeader(String name) {
-        return getHeaders().get(name);
+        return getHeaderValues(name);
     }
 
     /**
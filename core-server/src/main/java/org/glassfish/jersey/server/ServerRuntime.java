@@ -92,6 +92,7 @@ import org.glassfish.jersey.process.internal.RequestScope;
 import org.glassfish.jersey.process.internal.Stage;
 import org.glassfish.jersey.process.internal.Stages;
 import org.glassfish.jersey.server.internal.BackgroundScheduler;
+import org.glassfish.jersey.server.internal.HashedWheelTimer;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.internal.ProcessingProviders;
 import org.glassfish.jersey.server.internal.ServerTraceEvent;
@@ -134,6 +135,7 @@ public class ServerRuntime {
     private final ServiceLocator locator;
 
     private final ScheduledExecutorService backgroundScheduler;
+    private final HashedWheelTimer backgroundTimer;
 
     private final RequestScope requestScope;
     private final ExceptionMappers exceptionMappers;
@@ -179,6 +181,9 @@ public class ServerRuntime {
         @BackgroundScheduler
         private ScheduledExecutorService backgroundScheduler;
         @Inject
+        @BackgroundScheduler
+        private HashedWheelTimer backgroundTimer;
+        @Inject
         private RequestScope requestScope;
         @Inject
         private ExceptionMappers exceptionMappers;
@@ -210,6 +215,7 @@ public class ServerRuntime {
                     processingProviders,
                     locator,
                     backgroundScheduler,
+                    backgroundTimer,
                     requestScope,
                     exceptionMappers,
                     asyncExecutorFactory,
@@ -223,6 +229,7 @@ public class ServerRuntime {
                           final ProcessingProviders processingProviders,
                           final ServiceLocator locator,
                           final ScheduledExecutorService backgroundScheduler,
+                          final HashedWheelTimer backgroundTimer,
                           final RequestScope requestScope,
                           final ExceptionMappers exceptionMappers,
                           final RequestExecutorFactory asyncExecutorFactory,
@@ -233,6 +240,7 @@ public class ServerRuntime {
         this.processingProviders = processingProviders;
         this.locator = locator;
         this.backgroundScheduler = backgroundScheduler;
+        this.backgroundTimer = backgroundTimer;
         this.requestScope = requestScope;
         this.exceptionMappers = exceptionMappers;
         this.asyncExecutorFactory = asyncExecutorFactory;
@@ -331,6 +339,17 @@ public class ServerRuntime {
         return backgroundScheduler;
     }
 
+    /**
+     * Get the Jersey server runtime background timer used to track request suspend time-outs.
+     *
+     * @return server runtime background timer.
+     *
+     * @see BackgroundScheduler
+     */
+    HashedWheelTimer getBackgroundTimer() {
+        return backgroundTimer;
+    }
+
     /**
      * Ensure that the value a {@value HttpHeaders#LOCATION} header is an absolute URI, if present among headers.
      *
@@ -58,6 +58,7 @@ import javax.annotation.Priority;
 import javax.inject.Inject;
 
 import org.glassfish.jersey.message.internal.HttpHeaderReader;
+import org.glassfish.jersey.server.ContainerRequest;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.glassfish.jersey.spi.ContentEncoder;
 
@@ -119,7 +120,7 @@ public final class EncodingFilter implements ContainerResponseFilter {
         }
 
         // retrieve the list of accepted encodings
-        List<String> acceptEncoding = request.getHeaders().get(HttpHeaders.ACCEPT_ENCODING);
+        List<String> acceptEncoding = ((ContainerRequest) request).getHeaderValues(HttpHeaders.ACCEPT_ENCODING);
 
         // if empty, don't do anything
         if (acceptEncoding == null || acceptEncoding.isEmpty()) {
@@ -54,7 +54,6 @@ import javax.ws.rs.core.Configuration;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.Form;
 import javax.ws.rs.core.MediaType;
-import javax.ws.rs.core.MultivaluedMap;
 import javax.ws.rs.core.UriBuilder;
 
 import javax.annotation.Priority;
@@ -242,12 +241,11 @@ public class HttpMethodOverrideFilter implements ContainerRequestFilter {
      *
      * @param source    Config flag to look for (if set in the config, this method returns the param value,
      *                  if not set, this method returns {@code null}).
-     * @param paramsMap Map to retrieve the parameter from.
-     * @param paramName Name of the parameter to retrieve.
+     * @param values    Values of the parameter, may be {@code null}.
      * @return Normalized parameter value. Never returns an empty string - converts it to {@code null}.
      */
-    private String getParamValue(Source source, MultivaluedMap<String, String> paramsMap, String paramName) {
-        String value = source.isPresentIn(config) ? paramsMap.getFirst(paramName) : null;
+    private String getParamValue(Source source, List<String> values) {
+        String value = source.isPresentIn(config) && values != null && !values.isEmpty() ? values.get(0) : null;
         if (value == null) {
             return null;
         }
@@ -261,8 +259,9 @@ public class HttpMethodOverrideFilter implements ContainerRequestFilter {
             return;
         }
 
-        String header = getParamValue(Source.HEADER, request.getHeaders(), "X-HTTP-Method-Override");
-        String query = getParamValue(Source.QUERY, request.getUriInfo().getQueryParameters(), "_method");
+        String header = getParamValue(Source.HEADER,
+                ((ContainerRequest) request).getHeaderValues("X-HTTP-Method-Override"));
+        String query = getParamValue(Source.QUERY, request.getUriInfo().getQueryParameters().get("_method"));
 
         String override;
         if (header == null) {
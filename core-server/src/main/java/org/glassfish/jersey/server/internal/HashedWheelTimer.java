@@ -0,0 +1,369 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hashed timing-wheel timer used by the Jersey server runtime to track request suspend time-outs.
+ * <p>
+ * Unlike {@link ScheduledExecutorService#schedule(Runnable, long, TimeUnit)}, scheduling and cancelling a time-out
+ * are constant-time operations that do not contend on a shared priority queue: new and cancelled time-outs are only
+ * queued and the wheel itself is updated by a single tick task that periodically runs on the driving
+ * {@link BackgroundScheduler background scheduler}. Expired time-out tasks are executed on the tick thread as well,
+ * so they should be short and must not block.
+ * </p>
+ * <p>
+ * The timer trades precision for throughput: a time-out expires within one tick duration after its deadline.
+ * </p>
+ *
+ * @since 2.18
+ */
+public final class HashedWheelTimer {
+
+    private static final Logger LOGGER = Logger.getLogger(HashedWheelTimer.class.getName());
+
+    /**
+     * Default tick duration in milliseconds.
+     */
+    public static final long DEFAULT_TICK_DURATION = 50;
+    /**
+     * Default number of buckets in the wheel.
+     */
+    public static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final int TIMER_INIT = 0;
+    private static final int TIMER_STARTED = 1;
+    private static final int TIMER_STOPPED = 2;
+
+    private final ScheduledExecutorService driver;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startTime;
+
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger state = new AtomicInteger(TIMER_INIT);
+    private volatile ScheduledFuture<?> tickTask;
+
+    private long nextTick = -1; // confined to the tick thread
+
+    /**
+     * Create new timer driven by the given scheduler with the {@link #DEFAULT_TICK_DURATION default tick duration}
+     * and {@link #DEFAULT_WHEEL_SIZE wheel size}.
+     *
+     * @param driver scheduler used to run the periodic tick task.
+     */
+    public HashedWheelTimer(final ScheduledExecutorService driver) {
+        this(driver, DEFAULT_TICK_DURATION, TimeUnit.MILLISECONDS, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Create new timer driven by the given scheduler.
+     *
+     * @param driver       scheduler used to run the periodic tick task.
+     * @param tickDuration duration of a single tick.
+     * @param unit         tick duration time unit.
+     * @param wheelSize    number of buckets in the wheel, rounded up to the nearest power of two.
+     */
+    public HashedWheelTimer(final ScheduledExecutorService driver,
+                            final long tickDuration,
+                            final TimeUnit unit,
+                            final int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration <= 0: " + tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize out of range: " + wheelSize);
+        }
+
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+
+        this.driver = driver;
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Schedule a one-shot task to be executed once the given delay elapses.
+     *
+     * @param task  task to be executed on time-out.
+     * @param delay time-out delay.
+     * @param unit  time-out delay time unit.
+     * @return handle of the scheduled time-out that can be used to cancel it.
+     * @throws IllegalStateException in case the timer has been {@link #stop() stopped}.
+     */
+    public Timeout schedule(final Runnable task, final long delay, final TimeUnit unit) throws IllegalStateException {
+        start();
+
+        final Timeout timeout = new Timeout(this, task, elapsed() + unit.toNanos(delay));
+        pending.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stop the timer. All pending time-outs are discarded without being executed and no new time-outs may be
+     * scheduled afterwards.
+     */
+    public void stop() {
+        if (state.getAndSet(TIMER_STOPPED) == TIMER_STOPPED) {
+            return;
+        }
+
+        final ScheduledFuture<?> task = tickTask;
+        if (task != null) {
+            task.cancel(false);
+        }
+        pending.clear();
+        cancelled.clear();
+    }
+
+    private void start() {
+        switch (state.get()) {
+            case TIMER_STARTED:
+                return;
+            case TIMER_INIT:
+                if (state.compareAndSet(TIMER_INIT, TIMER_STARTED)) {
+                    tickTask = driver.scheduleAtFixedRate(new Runnable() {
+                        @Override
+                        public void run() {
+                            tick();
+                        }
+                    }, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+                } else if (state.get() == TIMER_STOPPED) {
+                    throw new IllegalStateException(LocalizationMessages.TIMER_STOPPED());
+                }
+                return;
+            default:
+                throw new IllegalStateException(LocalizationMessages.TIMER_STOPPED());
+        }
+    }
+
+    private long elapsed() {
+        return System.nanoTime() - startTime;
+    }
+
+    /**
+     * Advance the wheel. Only a bucket whose tick has fully elapsed is processed, so every deadline that falls
+     * into such a bucket in the current rotation has been reached.
+     */
+    private void tick() {
+        if (state.get() == TIMER_STOPPED) {
+            return;
+        }
+
+        final long now = elapsed();
+        final long lastElapsedTick = now / tickNanos - 1;
+        if (nextTick < 0) {
+            nextTick = Math.max(lastElapsedTick, 0);
+        }
+
+        transferPending();
+        unlinkCancelled();
+
+        // Visiting each bucket at most once per run is sufficient; all entries are checked against "now".
+        long tick = Math.max(nextTick, lastElapsedTick - mask);
+        for (; tick <= lastElapsedTick; tick++) {
+            expire(wheel[(int) (tick & mask)], now);
+        }
+        nextTick = Math.max(nextTick, tick);
+    }
+
+    private void transferPending() {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.state.get() != Timeout.ST_INIT) {
+                continue;
+            }
+            final long deadlineTick = Math.max(timeout.deadline / tickNanos, nextTick);
+            wheel[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void unlinkCancelled() {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    private void expire(final Bucket bucket, final long now) {
+        Timeout timeout = bucket.head;
+        while (timeout != null) {
+            final Timeout next = timeout.next;
+            if (timeout.state.get() != Timeout.ST_INIT) {
+                bucket.remove(timeout);
+            } else if (timeout.deadline <= now) {
+                bucket.remove(timeout);
+                timeout.expire();
+            }
+            timeout = next;
+        }
+    }
+
+    /**
+     * Handle of a time-out scheduled by the {@link HashedWheelTimer timer}.
+     */
+    public static final class Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        // bucket linkage, confined to the tick thread
+        private Bucket bucket;
+        private Timeout next;
+        private Timeout prev;
+
+        private Timeout(final HashedWheelTimer timer, final Runnable task, final long deadline) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancel the time-out. The time-out task will not be executed unless it has already expired.
+         *
+         * @return {@code true} if the time-out has been cancelled by this call, {@code false} if it has already
+         * expired or been cancelled before.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            timer.cancelled.add(this);
+            return true;
+        }
+
+        /**
+         * Check whether the time-out has been cancelled.
+         *
+         * @return {@code true} if the time-out has been cancelled.
+         */
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        /**
+         * Check whether the time-out has expired.
+         *
+         * @return {@code true} if the time-out has expired.
+         */
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            try {
+                task.run();
+            } catch (final Throwable throwable) {
+                LOGGER.log(Level.WARNING, LocalizationMessages.TIMER_TASK_EXECUTION_FAILED(), throwable);
+            }
+        }
+    }
+
+    /**
+     * Doubly-linked list of time-outs hashed into the same wheel slot; accessed only from the tick thread.
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        private void add(final Timeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(final Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            final Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.next = null;
+            timeout.prev = null;
+            timeout.bucket = null;
+        }
+    }
+}
@@ -39,9 +39,8 @@
  */
 package org.glassfish.jersey.server.internal;
 
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -54,6 +53,10 @@ import org.glassfish.jersey.server.spi.ContainerResponseWriter.TimeoutHandler;
  * Common {@link ContainerResponseWriter#suspend(long, TimeUnit, ContainerResponseWriter.TimeoutHandler)}
  * and {@link ContainerResponseWriter#setSuspendTimeout(long, TimeUnit)} handler that can be used in
  * {@link ContainerResponseWriter} implementations instead of the underlying infrastructure.
+ * <p>
+ * Time-outs are tracked by a {@link HashedWheelTimer hashed wheel timer}; all state transitions of the handler
+ * are lock-free.
+ * </p>
  *
  * @author Michal Gajdos (michal.gajdos at oracle.com)
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -62,25 +65,24 @@ public class JerseyRequestTimeoutHandler {
 
     private static final Logger LOGGER = Logger.getLogger(JerseyRequestTimeoutHandler.class.getName());
 
-    private ScheduledFuture<?> timeoutTask = null; // guarded by runtimeLock
-    private ContainerResponseWriter.TimeoutHandler timeoutHandler = null; // guarded by runtimeLock
-    private boolean suspended = false; // guarded by runtimeLock
-    private final Object runtimeLock = new Object();
+    // non-null once suspended
+    private final AtomicReference<TimeoutHandler> timeoutHandler = new AtomicReference<>();
+    private final AtomicReference<HashedWheelTimer.Timeout> timeoutTask = new AtomicReference<>();
 
     private final ContainerResponseWriter containerResponseWriter;
-    private final ScheduledExecutorService executor;
+    private final HashedWheelTimer timer;
 
     /**
      * Create request timeout handler for the giver {@link ContainerResponseWriter response writer}.
      *
      * @param containerResponseWriter response writer to create request timeout handler for.
-     * @param timeoutTaskExecutor     Jersey runtime executor used for background execution of timeout
-     *                                handling tasks.
+     * @param timer                   Jersey runtime {@link BackgroundScheduler background} timer used to track
+     *                                and execute timeout handling tasks.
      */
     public JerseyRequestTimeoutHandler(final ContainerResponseWriter containerResponseWriter,
-                                       final ScheduledExecutorService timeoutTaskExecutor) {
+                                       final HashedWheelTimer timer) {
         this.containerResponseWriter = containerResponseWriter;
-        this.executor = timeoutTaskExecutor;
+        this.timer = timer;
     }
 
     /**
@@ -94,17 +96,12 @@ public class JerseyRequestTimeoutHandler {
      * @see ContainerResponseWriter#suspend(long, TimeUnit, ContainerResponseWriter.TimeoutHandler)
      */
     public boolean suspend(final long timeOut, final TimeUnit unit, final TimeoutHandler handler) {
-        synchronized (runtimeLock) {
-            if (suspended) {
-                return false;
-            }
-
-            suspended = true;
-            timeoutHandler = handler;
-
-            containerResponseWriter.setSuspendTimeout(timeOut, unit);
-            return true;
+        if (!timeoutHandler.compareAndSet(null, handler)) {
+            return false;
         }
+
+        containerResponseWriter.setSuspendTimeout(timeOut, unit);
+        return true;
     }
 
     /**
@@ -117,26 +114,20 @@ public class JerseyRequestTimeoutHandler {
      * @see ContainerResponseWriter#setSuspendTimeout(long, TimeUnit)
      */
     public void setSuspendTimeout(final long timeOut, final TimeUnit unit) throws IllegalStateException {
-        synchronized (runtimeLock) {
-            if (!suspended) {
-                throw new IllegalStateException(LocalizationMessages.SUSPEND_NOT_SUSPENDED());
-            }
-
-            close(true);
-
-            if (timeOut <= AsyncResponse.NO_TIMEOUT) {
-                return;
-            }
+        final TimeoutHandler handler = timeoutHandler.get();
+        if (handler == null) {
+            throw new IllegalStateException(LocalizationMessages.SUSPEND_NOT_SUSPENDED());
+        }
 
+        HashedWheelTimer.Timeout task = null;
+        if (timeOut > AsyncResponse.NO_TIMEOUT) {
             try {
-                timeoutTask = executor.schedule(new Runnable() {
+                task = timer.schedule(new Runnable() {
 
                     @Override
                     public void run() {
                         try {
-                            synchronized (runtimeLock) {
-                                timeoutHandler.onTimeout(containerResponseWriter);
-                            }
+                            handler.onTimeout(containerResponseWriter);
                         } catch (final Throwable throwable) {
                             LOGGER.log(Level.WARNING, LocalizationMessages.SUSPEND_HANDLER_EXECUTION_FAILED(), throwable);
                         }
@@ -146,19 +137,20 @@ public class JerseyRequestTimeoutHandler {
                 LOGGER.log(Level.WARNING, LocalizationMessages.SUSPEND_SCHEDULING_ERROR(), ex);
             }
         }
+
+        cancel(timeoutTask.getAndSet(task));
     }
 
     /**
      * Cancel the suspended task.
      */
     public void close() {
-        close(false);
+        cancel(timeoutTask.getAndSet(null));
     }
 
-    private synchronized void close(final boolean interruptIfRunning) {
-        if (timeoutTask != null) {
-            timeoutTask.cancel(interruptIfRunning);
-            timeoutTask = null;
+    private static void cancel(final HashedWheelTimer.Timeout task) {
+        if (task != null) {
+            task.cancel();
         }
     }
 }
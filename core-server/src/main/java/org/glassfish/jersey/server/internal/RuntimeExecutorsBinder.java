@@ -66,7 +66,7 @@ import jersey.repackaged.com.google.common.util.concurrent.ThreadFactoryBuilder;
  * Binder for injectable Jersey runtime executor services.
  *
  * Presently it implements a binding  for a {@link BackgroundScheduler background scheduler} singleton
- * executor service.
+ * executor service and for a {@link HashedWheelTimer timer} driven by the background scheduler.
  *
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
@@ -127,6 +127,25 @@ public class RuntimeExecutorsBinder extends AbstractBinder {
         }
     }
 
+    private static class BackgroundTimerFactory implements Factory<HashedWheelTimer> {
+        private final ScheduledExecutorService backgroundScheduler;
+
+        @Inject
+        public BackgroundTimerFactory(@BackgroundScheduler final ScheduledExecutorService backgroundScheduler) {
+            this.backgroundScheduler = backgroundScheduler;
+        }
+
+        @Override
+        public HashedWheelTimer provide() {
+            return new HashedWheelTimer(backgroundScheduler);
+        }
+
+        @Override
+        public void dispose(final HashedWheelTimer instance) {
+            instance.stop();
+        }
+    }
+
     /**
      * {@link AnnotationLiteral Annotation literal} helper class for the
      * {@link BackgroundScheduler &#64;BackgroundScheduler} qualifier annotation.
@@ -142,5 +161,10 @@ public class RuntimeExecutorsBinder extends AbstractBinder {
                 .to(ScheduledExecutorService.class)
                 .qualifiedBy(new BackgroundSchedulerLiteral())
                 .in(Singleton.class);
+
+        bindFactory(BackgroundTimerFactory.class)
+                .to(HashedWheelTimer.class)
+                .qualifiedBy(new BackgroundSchedulerLiteral())
+                .in(Singleton.class);
     }
 }
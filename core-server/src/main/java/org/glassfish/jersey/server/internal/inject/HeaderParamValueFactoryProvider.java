@@ -39,12 +39,16 @@
  */
 package org.glassfish.jersey.server.internal.inject;
 
+import java.util.List;
+
 import javax.ws.rs.HeaderParam;
+import javax.ws.rs.core.MultivaluedMap;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import org.glassfish.jersey.internal.inject.ExtractorException;
+import org.glassfish.jersey.internal.util.collection.MultivaluedStringMap;
 import org.glassfish.jersey.server.ParamException;
 import org.glassfish.jersey.server.model.Parameter;
 
@@ -84,7 +88,14 @@ final class HeaderParamValueFactoryProvider extends AbstractValueFactoryProvider
         @Override
         public Object provide() {
             try {
-                return extractor.extract(getContainerRequest().getHeaders());
+                // extract from the single header rather than forcing all the request headers into a map
+                final String name = extractor.getName();
+                final MultivaluedMap<String, String> header = new MultivaluedStringMap();
+                final List<String> values = getContainerRequest().getHeaderValues(name);
+                if (values != null) {
+                    header.put(name, values);
+                }
+                return extractor.extract(header);
             } catch (ExtractorException e) {
                 throw new ParamException.HeaderParamException(e.getCause(),
                         extractor.getName(), extractor.getDefaultValueString());
@@ -0,0 +1,246 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.util.Arrays;
+
+/**
+ * Log-linear histogram of durations used to compute duration percentiles.
+ * <p>
+ * Durations lower than {@code 32} are counted exactly. Each higher power-of-two range of durations is divided
+ * into {@code 16} linear sub-buckets, which bounds the relative error of the computed percentiles to {@code 1/16}
+ * of the value. Durations that do not fit into the highest bucket are counted in the highest bucket. Buckets are stored
+ * sparsely as only the buckets with non-zero counts are kept, so the memory used by the histogram is bounded by the
+ * number of buckets whatever the number of recorded durations.
+ * </p>
+ * <p>
+ * The histogram is not thread-safe.
+ * </p>
+ */
+final class DurationHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BUCKETS = 2 * SUB_BUCKETS;
+    private static final int MAX_VALUE_BITS = 40;
+
+    /**
+     * Total number of buckets of the histogram.
+     */
+    static final int BUCKETS = LINEAR_BUCKETS + (MAX_VALUE_BITS - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] buckets;
+    private long[] counts;
+    private int size;
+
+    private long totalCount;
+    private long minimum = -1;
+    private long maximum = -1;
+
+    /**
+     * Create a new empty histogram.
+     */
+    DurationHistogram() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private DurationHistogram(final int capacity) {
+        this.buckets = new int[capacity];
+        this.counts = new long[capacity];
+    }
+
+    /**
+     * Get the index of the bucket that counts the duration.
+     *
+     * @param duration duration.
+     * @return bucket index.
+     */
+    static int bucketIndex(final long duration) {
+        if (duration < LINEAR_BUCKETS) {
+            return duration < 0 ? 0 : (int) duration;
+        }
+
+        final int magnitude = 63 - Long.numberOfLeadingZeros(duration);
+        if (magnitude >= MAX_VALUE_BITS) {
+            return BUCKETS - 1;
+        }
+
+        final int shift = magnitude - SUB_BUCKET_BITS;
+        return LINEAR_BUCKETS + (magnitude - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + (int) (duration >>> shift) - SUB_BUCKETS;
+    }
+
+    /**
+     * Get the highest duration counted in the bucket.
+     *
+     * @param index bucket index.
+     * @return highest duration counted in the bucket.
+     */
+    static long highestValue(final int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+
+        final int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+        final long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Record a duration.
+     *
+     * @param duration duration to be recorded.
+     */
+    void add(final long duration) {
+        add(bucketIndex(duration), 1);
+
+        totalCount++;
+        if (minimum == -1 || duration < minimum) {
+            minimum = duration;
+        }
+        if (duration > maximum) {
+            maximum = duration;
+        }
+    }
+
+    /**
+     * Add all the durations recorded in another histogram to this histogram.
+     *
+     * @param other histogram to be added.
+     */
+    void add(final DurationHistogram other) {
+        if (other.totalCount == 0) {
+            return;
+        }
+
+        for (int i = 0; i < other.size; i++) {
+            add(other.buckets[i], other.counts[i]);
+        }
+
+        totalCount += other.totalCount;
+        if (minimum == -1 || other.minimum < minimum) {
+            minimum = other.minimum;
+        }
+        if (other.maximum > maximum) {
+            maximum = other.maximum;
+        }
+    }
+
+    private void add(final int bucket, final long count) {
+        int position = Arrays.binarySearch(buckets, 0, size, bucket);
+        if (position >= 0) {
+            counts[position] += count;
+            return;
+        }
+
+        position = -position - 1;
+        if (size == buckets.length) {
+            final int capacity = Math.min(BUCKETS, buckets.length * 2);
+            buckets = Arrays.copyOf(buckets, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        System.arraycopy(buckets, position, buckets, position + 1, size - position);
+        System.arraycopy(counts, position, counts, position + 1, size - position);
+        buckets[position] = bucket;
+        counts[position] = count;
+        size++;
+    }
+
+    /**
+     * Remove all recorded durations. Allocated bucket storage is retained for further use.
+     */
+    void reset() {
+        size = 0;
+        totalCount = 0;
+        minimum = -1;
+        maximum = -1;
+    }
+
+    /**
+     * Get the number of recorded durations.
+     *
+     * @return number of recorded durations.
+     */
+    long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Get the duration at the given percentile. The returned value is the highest duration of the bucket
+     * the percentile falls into, limited by the minimum and maximum recorded durations.
+     *
+     * @param percentile percentile in the range {@code [0, 100]}.
+     * @return duration at the percentile or {@code -1} if no duration has been recorded.
+     */
+    long getValueAtPercentile(final double percentile) {
+        if (totalCount == 0) {
+            return -1;
+        }
+
+        final double boundedPercentile = Math.max(0, Math.min(100, percentile));
+        final long countAtPercentile = Math.max(1, (long) Math.ceil(boundedPercentile / 100 * totalCount));
+
+        long count = 0;
+        for (int i = 0; i < size; i++) {
+            count += counts[i];
+            if (count >= countAtPercentile) {
+                return Math.max(minimum, Math.min(maximum, highestValue(buckets[i])));
+            }
+        }
+        return maximum;
+    }
+
+    /**
+     * Create a copy of this histogram.
+     *
+     * @return new histogram with the same recorded durations.
+     */
+    DurationHistogram copy() {
+        final DurationHistogram copy = new DurationHistogram(Math.max(1, size));
+        System.arraycopy(buckets, 0, copy.buckets, 0, size);
+        System.arraycopy(counts, 0, copy.counts, 0, size);
+        copy.size = size;
+        copy.totalCount = totalCount;
+        copy.minimum = minimum;
+        copy.maximum = maximum;
+        return copy;
+    }
+}
@@ -40,6 +40,7 @@
 
 package org.glassfish.jersey.server.internal.monitoring;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 
@@ -104,7 +105,8 @@ final class ExceptionMapperStatisticsImpl implements ExceptionMapperStatistics {
          */
         public ExceptionMapperStatisticsImpl build() {
             if (cached == null) {
-                cached = new ExceptionMapperStatisticsImpl(Collections.unmodifiableMap(exceptionMapperExecutionCount),
+                cached = new ExceptionMapperStatisticsImpl(
+                        Collections.unmodifiableMap(Maps.newHashMap(exceptionMapperExecutionCount)),
                         successfulMappings, unsuccessfulMappings, totalMappings);
             }
 
@@ -117,6 +119,32 @@ final class ExceptionMapperStatisticsImpl implements ExceptionMapperStatistics {
     private final long unsuccessfulMappings;
     private final long totalMappings;
 
+    /**
+     * Merge exception mapper statistics that were collected independently (e.g. by different monitoring stripes)
+     * into a single exception mapper statistics.
+     *
+     * @param stats exception mapper statistics to be merged.
+     * @return merged exception mapper statistics.
+     */
+    static ExceptionMapperStatistics merge(final Collection<ExceptionMapperStatistics> stats) {
+        final Map<Class<?>, Long> executions = Maps.newHashMap();
+        long successful = 0;
+        long unsuccessful = 0;
+        long total = 0;
+
+        for (final ExceptionMapperStatistics stat : stats) {
+            for (final Map.Entry<Class<?>, Long> entry : stat.getExceptionMapperExecutions().entrySet()) {
+                final Long current = executions.get(entry.getKey());
+                executions.put(entry.getKey(), current == null ? entry.getValue() : current + entry.getValue());
+            }
+            successful += stat.getSuccessfulMappings();
+            unsuccessful += stat.getUnsuccessfulMappings();
+            total += stat.getTotalMappings();
+        }
+
+        return new ExceptionMapperStatisticsImpl(Collections.unmodifiableMap(executions), successful, unsuccessful, total);
+    }
+
     private ExceptionMapperStatisticsImpl(final Map<Class<?>, Long> exceptionMapperExecutionCount, final long successfulMappings,
                                           final long unsuccessfulMappings, final long totalMappings) {
         this.exceptionMapperExecutionCount = exceptionMapperExecutionCount;
@@ -40,9 +40,12 @@
 
 package org.glassfish.jersey.server.internal.monitoring;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -118,6 +121,51 @@ final class ExecutionStatisticsImpl implements ExecutionStatistics {
 
     static final ExecutionStatistics EMPTY = new Builder().build();
 
+    /**
+     * Merge execution statistics that were collected independently (e.g. by different monitoring stripes)
+     * into a single execution statistics.
+     *
+     * @param stats execution statistics to be merged.
+     * @return merged execution statistics.
+     * @see TimeWindowStatisticsImpl#merge(long, java.util.Collection)
+     */
+    static ExecutionStatistics merge(final Collection<ExecutionStatistics> stats) {
+        final List<ExecutionStatistics> nonEmpty = new ArrayList<>(stats.size());
+        for (final ExecutionStatistics stat : stats) {
+            if (stat != EMPTY) {
+                nonEmpty.add(stat);
+            }
+        }
+
+        if (nonEmpty.isEmpty()) {
+            return EMPTY;
+        } else if (nonEmpty.size() == 1) {
+            return nonEmpty.get(0);
+        }
+
+        long lastStartTime = 0;
+        final Map<Long, List<TimeWindowStatistics>> windows = new HashMap<>(6);
+        for (final ExecutionStatistics stat : nonEmpty) {
+            lastStartTime = Math.max(lastStartTime, stat.getLastStartTime().getTime());
+
+            for (final Map.Entry<Long, TimeWindowStatistics> window : stat.getTimeWindowStatistics().entrySet()) {
+                List<TimeWindowStatistics> windowStats = windows.get(window.getKey());
+                if (windowStats == null) {
+                    windowStats = new ArrayList<>(nonEmpty.size());
+                    windows.put(window.getKey(), windowStats);
+                }
+                windowStats.add(window.getValue());
+            }
+        }
+
+        final Map<Long, TimeWindowStatistics> mergedWindows = Maps.newHashMap();
+        for (final Map.Entry<Long, List<TimeWindowStatistics>> window : windows.entrySet()) {
+            mergedWindows.put(window.getKey(), TimeWindowStatisticsImpl.merge(window.getKey(), window.getValue()));
+        }
+
+        return new ExecutionStatisticsImpl(lastStartTime, Collections.unmodifiableMap(mergedWindows));
+    }
+
     private final Date lastStartTime;
     private final Map<Long, TimeWindowStatistics> timeWindowStatistics;
 
@@ -41,7 +41,6 @@
 package org.glassfish.jersey.server.internal.monitoring;
 
 import java.util.List;
-import java.util.Queue;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -50,6 +49,7 @@ import javax.ws.rs.ProcessingException;
 import javax.annotation.Priority;
 import javax.inject.Inject;
 
+import org.glassfish.jersey.server.ExtendedResourceContext;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.model.ResourceMethod;
 import org.glassfish.jersey.server.monitoring.ApplicationEvent;
@@ -61,13 +61,11 @@ import org.glassfish.jersey.uri.UriTemplate;
 
 import org.glassfish.hk2.api.ServiceLocator;
 
-import jersey.repackaged.com.google.common.collect.Lists;
-import jersey.repackaged.com.google.common.collect.Queues;
-
 /**
  * {@link ApplicationEventListener application event listener} that listens to {@link ApplicationEvent application}
- * and {@link RequestEvent request} events and supplies data to {@link MonitoringStatisticsProcessor} which
- * produces {@link org.glassfish.jersey.server.monitoring.MonitoringStatistics monitoring statistics}.
+ * and {@link RequestEvent request} events and records request processing data into {@link MonitoringStatisticsRecorder}
+ * from which the {@link MonitoringStatisticsProcessor} produces
+ * {@link org.glassfish.jersey.server.monitoring.MonitoringStatistics monitoring statistics}.
  * <p>
  * The {@link MonitoringStatisticsProcessor} is started by this class after the first application event
  * comes.
@@ -84,113 +82,13 @@ import jersey.repackaged.com.google.common.collect.Queues;
 public final class MonitoringEventListener implements ApplicationEventListener {
 
     private static final Logger LOGGER = Logger.getLogger(MonitoringEventListener.class.getName());
-    private static final int EVENT_QUEUE_SIZE = 50000;
 
     @Inject
     private ServiceLocator serviceLocator;
 
-    private final Queue<RequestStats> requestQueuedItems = Queues.newArrayBlockingQueue(EVENT_QUEUE_SIZE);
-    private final Queue<Integer> responseStatuses = Queues.newArrayBlockingQueue(EVENT_QUEUE_SIZE);
-    private final Queue<RequestEvent> exceptionMapperEvents = Queues.newArrayBlockingQueue(EVENT_QUEUE_SIZE);
+    private volatile MonitoringStatisticsRecorder statisticsRecorder;
     private volatile MonitoringStatisticsProcessor monitoringStatisticsProcessor;
 
-    /**
-     * Time statistics.
-     */
-    static class TimeStats {
-
-        private final long duration;
-        private final long startTime;
-
-        private TimeStats(final long startTime, final long requestDuration) {
-            this.duration = requestDuration;
-            this.startTime = startTime;
-        }
-
-        /**
-         * Get duration.
-         *
-         * @return Duration in milliseconds.
-         */
-        long getDuration() {
-            return duration;
-        }
-
-        /**
-         * Get start time.
-         *
-         * @return Start time (Unix timestamp format).
-         */
-        long getStartTime() {
-            return startTime;
-        }
-    }
-
-    /**
-     * Method statistics.
-     */
-    static class MethodStats extends TimeStats {
-
-        private final ResourceMethod method;
-
-        private MethodStats(final ResourceMethod method, final long startTime, final long requestDuration) {
-            super(startTime, requestDuration);
-            this.method = method;
-        }
-
-        /**
-         * Get the resource method executed.
-         *
-         * @return resource method.
-         */
-        ResourceMethod getMethod() {
-            return method;
-        }
-    }
-
-    /**
-     * Request statistics.
-     */
-    static class RequestStats {
-
-        private final TimeStats requestStats;
-        private final MethodStats methodStats; // might be null if a method was not executed during a request
-        private final String requestUri;
-
-        private RequestStats(final TimeStats requestStats, final MethodStats methodStats, final String requestUri) {
-            this.requestStats = requestStats;
-            this.methodStats = methodStats;
-            this.requestUri = requestUri;
-        }
-
-        /**
-         * Get request statistics.
-         *
-         * @return request statistics.
-         */
-        TimeStats getRequestStats() {
-            return requestStats;
-        }
-
-        /**
-         * Get method statistics.
-         *
-         * @return method statistics.
-         */
-        MethodStats getMethodStats() {
-            return methodStats;
-        }
-
-        /**
-         * Get the request uri.
-         *
-         * @return request uri.
-         */
-        String getRequestUri() {
-            return requestUri;
-        }
-    }
-
     @Override
     public ReqEventListener onRequest(final RequestEvent requestEvent) {
         switch (requestEvent.getType()) {
@@ -209,7 +107,9 @@ public final class MonitoringEventListener implements ApplicationEventListener {
                 break;
             case RELOAD_FINISHED:
             case INITIALIZATION_FINISHED:
-                this.monitoringStatisticsProcessor = new MonitoringStatisticsProcessor(serviceLocator, this);
+                this.statisticsRecorder = new MonitoringStatisticsRecorder(
+                        serviceLocator.getService(ExtendedResourceContext.class).getResourceModel());
+                this.monitoringStatisticsProcessor = new MonitoringStatisticsProcessor(serviceLocator, statisticsRecorder);
                 this.monitoringStatisticsProcessor.startMonitoringWorker();
                 break;
             case DESTROY_FINISHED:
@@ -244,7 +144,8 @@ public final class MonitoringEventListener implements ApplicationEventListener {
 
         private final long requestTimeStart;
         private volatile long methodTimeStart;
-        private volatile MethodStats methodStats;
+        private volatile long methodDuration;
+        private volatile ResourceMethod method;
 
         public ReqEventListener() {
             this.requestTimeStart = System.currentTimeMillis();
@@ -253,70 +154,48 @@ public final class MonitoringEventListener implements ApplicationEventListener {
         @Override
         public void onEvent(final RequestEvent event) {
             final long now = System.currentTimeMillis();
+            final MonitoringStatisticsRecorder recorder = statisticsRecorder;
 
             switch (event.getType()) {
                 case RESOURCE_METHOD_START:
                     this.methodTimeStart = now;
                     break;
                 case RESOURCE_METHOD_FINISHED:
-                    final ResourceMethod method = event.getUriInfo().getMatchedResourceMethod();
-                    methodStats = new MethodStats(method, methodTimeStart, now - methodTimeStart);
+                    this.methodDuration = now - methodTimeStart;
+                    this.method = event.getUriInfo().getMatchedResourceMethod();
                     break;
                 case EXCEPTION_MAPPING_FINISHED:
-                    if (!exceptionMapperEvents.offer(event)) {
-                        LOGGER.warning(LocalizationMessages.ERROR_MONITORING_QUEUE_MAPPER());
+                    if (recorder != null) {
+                        recorder.addExceptionMapping(
+                                event.getExceptionMapper() == null ? null : event.getExceptionMapper().getClass(),
+                                event.isResponseSuccessfullyMapped());
                     }
                     break;
                 case FINISHED:
-                    if (event.isResponseWritten()) {
-                        if (!responseStatuses.offer(event.getContainerResponse().getStatus())) {
-                            LOGGER.warning(LocalizationMessages.ERROR_MONITORING_QUEUE_RESPONSE());
-                        }
-                    }
-                    final StringBuilder sb = new StringBuilder();
-                    final List<UriTemplate> orderedTemplates = Lists.reverse(event.getUriInfo().getMatchedTemplates());
-
-                    for (final UriTemplate uriTemplate : orderedTemplates) {
-                        sb.append(uriTemplate.getTemplate());
-                        if (!uriTemplate.endsWithSlash()) {
-                            sb.append("/");
-                        }
-                        sb.setLength(sb.length() - 1);
-                    }
-
-                    if (!requestQueuedItems.offer(new RequestStats(new TimeStats(requestTimeStart, now - requestTimeStart),
-                            methodStats, sb.toString()))) {
-                        LOGGER.warning(LocalizationMessages.ERROR_MONITORING_QUEUE_REQUEST());
+                    if (recorder == null) {
+                        break;
                     }
 
+                    final ResourceMethod matchedMethod = this.method;
+                    recorder.addRequest(requestTimeStart, now - requestTimeStart,
+                            matchedMethod == null ? null : getMatchedUri(event.getUriInfo().getMatchedTemplates()),
+                            matchedMethod, methodTimeStart, methodDuration,
+                            event.isResponseWritten() ? event.getContainerResponse().getStatus() : -1);
             }
         }
-    }
-
-    /**
-     * Get the exception mapper event queue.
-     *
-     * @return Exception mapper event queue.
-     */
-    Queue<RequestEvent> getExceptionMapperEvents() {
-        return exceptionMapperEvents;
-    }
 
-    /**
-     * Get the request event queue.
-     *
-     * @return Request event queue.
-     */
-    Queue<RequestStats> getRequestQueuedItems() {
-        return requestQueuedItems;
-    }
-
-    /**
-     * Get the queue with response status codes.
-     *
-     * @return response status queue.
-     */
-    Queue<Integer> getResponseStatuses() {
-        return responseStatuses;
+        private String getMatchedUri(final List<UriTemplate> matchedTemplates) {
+            final StringBuilder sb = new StringBuilder();
+            // matched templates are ordered from the last matched one
+            for (int i = matchedTemplates.size() - 1; i >= 0; i--) {
+                final UriTemplate uriTemplate = matchedTemplates.get(i);
+                sb.append(uriTemplate.getTemplate());
+                if (!uriTemplate.endsWithSlash()) {
+                    sb.append("/");
+                }
+                sb.setLength(sb.length() - 1);
+            }
+            return sb.toString();
+        }
     }
 }
@@ -40,10 +40,14 @@
 
 package org.glassfish.jersey.server.internal.monitoring;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
+import java.util.TreeMap;
 
 import org.glassfish.jersey.server.model.Resource;
 import org.glassfish.jersey.server.model.ResourceMethod;
@@ -64,6 +68,16 @@ import jersey.repackaged.com.google.common.collect.Maps;
  */
 final class MonitoringStatisticsImpl implements MonitoringStatistics {
 
+    /**
+     * Comparator of resource classes used to order resource class statistics.
+     */
+    private static final Comparator<Class<?>> CLASS_COMPARATOR = new Comparator<Class<?>>() {
+        @Override
+        public int compare(final Class<?> o1, final Class<?> o2) {
+            return o1.getName().compareTo(o2.getName());
+        }
+    };
+
     /**
      * Builder of monitoring statistics.
      */
@@ -83,12 +97,7 @@ final class MonitoringStatisticsImpl implements MonitoringStatistics {
         private final ResourceMethodStatisticsImpl.Factory methodFactory = new ResourceMethodStatisticsImpl.Factory();
         private final SortedMap<String, ResourceStatisticsImpl.Builder> uriStatistics = Maps.newTreeMap();
         private final SortedMap<Class<?>, ResourceStatisticsImpl.Builder> resourceClassStatistics
-                = Maps.newTreeMap(new Comparator<Class<?>>() {
-            @Override
-            public int compare(final Class<?> o1, final Class<?> o2) {
-                return o1.getName().compareTo(o2.getName());
-            }
-        });
+                = Maps.newTreeMap(CLASS_COMPARATOR);
 
         private ExecutionStatisticsImpl.Builder requestStatisticsBuilder;
 
@@ -224,6 +233,59 @@ final class MonitoringStatisticsImpl implements MonitoringStatistics {
         }
     }
 
+    /**
+     * Merge monitoring statistics that were collected independently (e.g. by different monitoring stripes)
+     * into a single monitoring statistics.
+     *
+     * @param stats            monitoring statistics to be merged. Must not be empty.
+     * @param lastResponseCode last response code of the merged statistics.
+     * @return merged monitoring statistics.
+     */
+    static MonitoringStatisticsImpl merge(final Collection<MonitoringStatisticsImpl> stats, final Integer lastResponseCode) {
+        final SortedMap<String, List<ResourceStatistics>> uriStats = Maps.newTreeMap();
+        final SortedMap<Class<?>, List<ResourceStatistics>> classStats = new TreeMap<>(CLASS_COMPARATOR);
+        final List<ExecutionStatistics> requestStats = new ArrayList<>(stats.size());
+        final List<ResponseStatistics> responseStats = new ArrayList<>(stats.size());
+        final List<ExceptionMapperStatistics> mapperStats = new ArrayList<>(stats.size());
+
+        for (final MonitoringStatisticsImpl stat : stats) {
+            group(uriStats, stat.getUriStatistics(), stats.size());
+            group(classStats, stat.getResourceClassStatistics(), stats.size());
+            requestStats.add(stat.getRequestStatistics());
+            responseStats.add(stat.getResponseStatistics());
+            mapperStats.add(stat.getExceptionMapperStatistics());
+        }
+
+        return new MonitoringStatisticsImpl(
+                Collections.unmodifiableMap(mergeGroups(uriStats, new TreeMap<String, ResourceStatistics>())),
+                Collections.unmodifiableMap(mergeGroups(classStats,
+                        new TreeMap<Class<?>, ResourceStatistics>(CLASS_COMPARATOR))),
+                ExecutionStatisticsImpl.merge(requestStats),
+                ResponseStatisticsImpl.merge(responseStats, lastResponseCode),
+                ExceptionMapperStatisticsImpl.merge(mapperStats));
+    }
+
+    private static <K> Map<K, ResourceStatistics> mergeGroups(final Map<K, List<ResourceStatistics>> groups,
+                                                              final Map<K, ResourceStatistics> merged) {
+        for (final Map.Entry<K, List<ResourceStatistics>> entry : groups.entrySet()) {
+            merged.put(entry.getKey(), ResourceStatisticsImpl.merge(entry.getValue()));
+        }
+        return merged;
+    }
+
+    private static <K> void group(final Map<K, List<ResourceStatistics>> groups,
+                                  final Map<K, ResourceStatistics> stats,
+                                  final int expectedSize) {
+        for (final Map.Entry<K, ResourceStatistics> entry : stats.entrySet()) {
+            List<ResourceStatistics> group = groups.get(entry.getKey());
+            if (group == null) {
+                group = new ArrayList<>(expectedSize);
+                groups.put(entry.getKey(), group);
+            }
+            group.add(entry.getValue());
+        }
+    }
+
     private final ExecutionStatistics requestStatistics;
     private final ResponseStatistics responseStatistics;
     private final ExceptionMapperStatistics exceptionMapperStatistics;
@@ -43,7 +43,6 @@ package org.glassfish.jersey.server.internal.monitoring;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Queue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
@@ -53,21 +52,17 @@ import javax.ws.rs.ProcessingException;
 import javax.ws.rs.core.Configuration;
 
 import org.glassfish.jersey.internal.util.PropertiesHelper;
-import org.glassfish.jersey.server.ExtendedResourceContext;
 import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.internal.RuntimeExecutorsBinder;
-import org.glassfish.jersey.server.model.ResourceMethod;
-import org.glassfish.jersey.server.model.ResourceModel;
 import org.glassfish.jersey.server.monitoring.MonitoringStatisticsListener;
-import org.glassfish.jersey.server.monitoring.RequestEvent;
 
 import org.glassfish.hk2.api.ServiceLocator;
 
 /**
- * Process events of application and request processing into
- * {@link org.glassfish.jersey.server.monitoring.MonitoringStatistics monitoring statistics}.
- * The {@code MonitoringStatisticsProcessor} starts a new thread which process events in regular intervals
+ * Periodically builds {@link org.glassfish.jersey.server.monitoring.MonitoringStatistics monitoring statistics}
+ * from the data recorded in {@link MonitoringStatisticsRecorder}.
+ * The {@code MonitoringStatisticsProcessor} schedules a task which builds the statistics in regular intervals
  * and for each new monitoring statistics it calls registered
  * {@link MonitoringStatisticsListener monitoring statistics event listeners}.
  *
@@ -80,8 +75,7 @@ final class MonitoringStatisticsProcessor {
     private static final int DEFAULT_INTERVAL = 500;
     private static final int SHUTDOWN_TIMEOUT = 10;
 
-    private final MonitoringEventListener monitoringEventListener;
-    private final MonitoringStatisticsImpl.Builder statisticsBuilder;
+    private final MonitoringStatisticsRecorder statisticsRecorder;
     private final List<MonitoringStatisticsListener> statisticsCallbackList;
     private final ScheduledExecutorService scheduler;
 
@@ -90,12 +84,10 @@ final class MonitoringStatisticsProcessor {
     /**
      * Creates a new instance of processor.
      * @param serviceLocator Service locator.
-     * @param monitoringEventListener Monitoring event listener.
+     * @param statisticsRecorder Recorder of request processing data.
      */
-    MonitoringStatisticsProcessor(final ServiceLocator serviceLocator, final MonitoringEventListener monitoringEventListener) {
-        this.monitoringEventListener = monitoringEventListener;
-        final ResourceModel resourceModel = serviceLocator.getService(ExtendedResourceContext.class).getResourceModel();
-        this.statisticsBuilder = new MonitoringStatisticsImpl.Builder(resourceModel);
+    MonitoringStatisticsProcessor(final ServiceLocator serviceLocator, final MonitoringStatisticsRecorder statisticsRecorder) {
+        this.statisticsRecorder = statisticsRecorder;
         this.statisticsCallbackList = serviceLocator.getAllServices(MonitoringStatisticsListener.class);
         this.scheduler = serviceLocator.getService(ScheduledExecutorService.class,
                 new RuntimeExecutorsBinder.BackgroundSchedulerLiteral());
@@ -105,25 +97,22 @@ final class MonitoringStatisticsProcessor {
     }
 
     /**
-     * Start the thread that will process the events
+     * Start the task that will periodically build the recorded data
      * into {@link org.glassfish.jersey.server.monitoring.MonitoringStatistics}.
      */
     public void startMonitoringWorker() {
         scheduler.scheduleWithFixedDelay(new Runnable() {
             @Override
             public void run() {
+                final MonitoringStatisticsImpl immutableStats;
                 try {
-                    processRequestItems();
-                    processResponseCodeEvents();
-                    processExceptionMapperEvents();
+                    immutableStats = statisticsRecorder.build();
                 } catch (final Throwable t) {
                     LOGGER.log(Level.SEVERE, LocalizationMessages.ERROR_MONITORING_STATISTICS_GENERATION(), t);
                     // rethrowing exception stops further task execution
                     throw new ProcessingException(LocalizationMessages.ERROR_MONITORING_STATISTICS_GENERATION(), t);
                 }
 
-                final MonitoringStatisticsImpl immutableStats = statisticsBuilder.build();
-
                 final Iterator<MonitoringStatisticsListener> iterator = statisticsCallbackList.iterator();
                 while (iterator.hasNext() && !Thread.currentThread().isInterrupted()) {
                     final MonitoringStatisticsListener listener = iterator.next();
@@ -140,52 +129,9 @@ final class MonitoringStatisticsProcessor {
         }, 0, interval, TimeUnit.MILLISECONDS);
     }
 
-    private void processExceptionMapperEvents() {
-        final Queue<RequestEvent> eventQueue = monitoringEventListener.getExceptionMapperEvents();
-        while (!eventQueue.isEmpty()) {
-            final RequestEvent event = eventQueue.remove();
-            final ExceptionMapperStatisticsImpl.Builder mapperStats = statisticsBuilder.getExceptionMapperStatisticsBuilder();
-
-            if (event.getExceptionMapper() != null) {
-                mapperStats.addExceptionMapperExecution(event.getExceptionMapper().getClass(), 1);
-            }
-
-            mapperStats.addMapping(event.isResponseSuccessfullyMapped(), 1);
-        }
-    }
-
-    private void processRequestItems() {
-        final Queue<MonitoringEventListener.RequestStats> requestQueuedItems = monitoringEventListener.getRequestQueuedItems();
-
-        while (!requestQueuedItems.isEmpty()) {
-            final MonitoringEventListener.RequestStats event = requestQueuedItems.remove();
-
-            final MonitoringEventListener.TimeStats requestStats = event.getRequestStats();
-            statisticsBuilder.addRequestExecution(requestStats.getStartTime(), requestStats.getDuration());
-
-            final MonitoringEventListener.MethodStats methodStat = event.getMethodStats();
-            if (methodStat != null) {
-                final ResourceMethod method = methodStat.getMethod();
-                statisticsBuilder.addExecution(event.getRequestUri(), method,
-                        methodStat.getStartTime(), methodStat.getDuration(),
-                        requestStats.getStartTime(), requestStats.getDuration());
-            }
-        }
-    }
-
-    private void processResponseCodeEvents() {
-        final Queue<Integer> responseEvents = monitoringEventListener.getResponseStatuses();
-        Integer code;
-        while (!responseEvents.isEmpty()) {
-            code = responseEvents.remove();
-            statisticsBuilder.addResponseCode(code);
-        }
-
-    }
-
     /**
      * Stops processing of any further execution of this processor. The internal thread will finish
-     * processing of actual events and will be not executed again. The method finishes after the
+     * building of actual statistics and will be not executed again. The method finishes after the
      * internal thread finish its processing loop.
      *
      * @throws InterruptedException thrown when waiting for the thread to finish the work is interrupted. In this
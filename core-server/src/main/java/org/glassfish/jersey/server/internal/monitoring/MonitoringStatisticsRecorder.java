@@ -0,0 +1,227 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.model.ResourceModel;
+
+/**
+ * Striped recorder of request processing data used to produce
+ * {@link org.glassfish.jersey.server.monitoring.MonitoringStatistics monitoring statistics}.
+ * <p>
+ * Request processing threads record request executions directly into one of the stripes of the recorder. Each stripe
+ * holds its own {@link MonitoringStatisticsImpl.Builder statistics builder}. A thread is mapped to its home stripe
+ * and if the stripe is currently used by another thread, the thread tries the following stripes, so that a recording
+ * thread is blocked only when all the stripes are in use. No per-request event objects are created and no events are
+ * queued for later processing.
+ * </p>
+ * <p>
+ * {@link #build() Building the statistics} builds statistics of each used stripe and merges them together.
+ * </p>
+ * <p>
+ * Each stripe keeps a complete copy of the statistics including the statistics of every resource method, so the memory
+ * used by the recorder (as well as the time needed to build the statistics) grows linearly with the number of stripes.
+ * The number of stripes is therefore capped at {@value #MAX_STRIPES}, trading some lock contention on machines with many
+ * processors for a bounded memory footprint.
+ * </p>
+ */
+final class MonitoringStatisticsRecorder {
+
+    private static final int MAX_STRIPES = 8;
+
+    /**
+     * Statistics stripe. The lock guards the stripe statistics builder.
+     */
+    private static final class Stripe extends ReentrantLock {
+
+        private final MonitoringStatisticsImpl.Builder builder;
+
+        private boolean used;
+        private long lastResponseTime = -1;
+        private int lastResponseCode;
+
+        private Stripe(final ResourceModel resourceModel) {
+            this.builder = new MonitoringStatisticsImpl.Builder(resourceModel);
+        }
+    }
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    /**
+     * Create a new recorder with the number of stripes derived from the number of available processors.
+     *
+     * @param resourceModel resource model used to initialize the statistics.
+     */
+    MonitoringStatisticsRecorder(final ResourceModel resourceModel) {
+        this(resourceModel, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new recorder.
+     *
+     * @param resourceModel resource model used to initialize the statistics.
+     * @param concurrency   expected number of concurrently recording threads.
+     */
+    MonitoringStatisticsRecorder(final ResourceModel resourceModel, final int concurrency) {
+        int size = 1;
+        while (size < concurrency && size < MAX_STRIPES) {
+            size <<= 1;
+        }
+
+        this.stripes = new Stripe[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(resourceModel);
+        }
+    }
+
+    /**
+     * Record a processed request.
+     *
+     * @param requestStartTime request processing start time (Unix timestamp format).
+     * @param requestDuration  duration of the whole request processing in milliseconds.
+     * @param uri              matched request URI template, {@code null} if no resource method has been executed.
+     * @param method           executed resource method, {@code null} if no resource method has been executed.
+     * @param methodStartTime  start time of the resource method execution (Unix timestamp format).
+     * @param methodDuration   duration of the resource method execution in milliseconds.
+     * @param responseCode     response status code or {@code -1} if no response has been written.
+     */
+    void addRequest(final long requestStartTime, final long requestDuration,
+                    final String uri, final ResourceMethod method, final long methodStartTime, final long methodDuration,
+                    final int responseCode) {
+        final Stripe stripe = acquire();
+        try {
+            stripe.used = true;
+            if (responseCode != -1) {
+                stripe.builder.addResponseCode(responseCode);
+                stripe.lastResponseTime = requestStartTime + requestDuration;
+                stripe.lastResponseCode = responseCode;
+            }
+
+            stripe.builder.addRequestExecution(requestStartTime, requestDuration);
+            if (method != null) {
+                stripe.builder.addExecution(uri, method, methodStartTime, methodDuration, requestStartTime, requestDuration);
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Record a finished exception mapping.
+     *
+     * @param exceptionMapper class of the exception mapper used, {@code null} if no mapper has been found.
+     * @param successful      {@code true} if the exception has been successfully mapped to a response.
+     */
+    void addExceptionMapping(final Class<?> exceptionMapper, final boolean successful) {
+        final Stripe stripe = acquire();
+        try {
+            stripe.used = true;
+            final ExceptionMapperStatisticsImpl.Builder mapperStats = stripe.builder.getExceptionMapperStatisticsBuilder();
+            if (exceptionMapper != null) {
+                mapperStats.addExceptionMapperExecution(exceptionMapper, 1);
+            }
+            mapperStats.addMapping(successful, 1);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Build a new instance of monitoring statistics by merging the statistics of all the used stripes.
+     *
+     * @return new monitoring statistics.
+     */
+    MonitoringStatisticsImpl build() {
+        final List<MonitoringStatisticsImpl> stats = new ArrayList<>(stripes.length);
+        long lastResponseTime = -1;
+        Integer lastResponseCode = null;
+
+        for (int i = 0; i < stripes.length; i++) {
+            final Stripe stripe = stripes[i];
+            stripe.lock();
+            try {
+                // always build the first stripe to initialize the statistics from the resource model
+                if (stripe.used || i == 0) {
+                    stats.add(stripe.builder.build());
+                }
+                if (stripe.lastResponseTime > lastResponseTime) {
+                    lastResponseTime = stripe.lastResponseTime;
+                    lastResponseCode = stripe.lastResponseCode;
+                }
+            } finally {
+                stripe.unlock();
+            }
+        }
+
+        return stats.size() == 1 ? stats.get(0) : MonitoringStatisticsImpl.merge(stats, lastResponseCode);
+    }
+
+    /**
+     * Acquire the stripe for the current thread. Starting with the thread home stripe, the first stripe that is
+     * not used by another thread is returned. If all the stripes are in use, the thread waits for its home stripe.
+     *
+     * @return locked stripe.
+     */
+    private Stripe acquire() {
+        final int home = hash(Thread.currentThread().getId());
+        for (int i = 0; i < stripes.length; i++) {
+            final Stripe stripe = stripes[(home + i) & mask];
+            if (stripe.tryLock()) {
+                return stripe;
+            }
+        }
+
+        final Stripe stripe = stripes[home & mask];
+        stripe.lock();
+        return stripe;
+    }
+
+    private static int hash(final long threadId) {
+        int h = (int) (threadId ^ (threadId >>> 32));
+        h ^= (h >>> 20) ^ (h >>> 12);
+        return h ^ (h >>> 7) ^ (h >>> 4);
+    }
+}
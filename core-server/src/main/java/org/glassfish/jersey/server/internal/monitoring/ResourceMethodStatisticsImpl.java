@@ -40,6 +40,10 @@
 
 package org.glassfish.jersey.server.internal.monitoring;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.glassfish.jersey.server.model.ResourceMethod;
@@ -61,14 +65,24 @@ final class ResourceMethodStatisticsImpl implements ResourceMethodStatistics {
     static class Factory {
 
         private final Map<String, Builder> stringToMethodsBuilders = Maps.newHashMap();
+        // avoids computing the unique method id for already known resource method instances
+        private final Map<ResourceMethod, Builder> methodsBuilders = new IdentityHashMap<>();
 
         ResourceMethodStatisticsImpl.Builder getOrCreate(final ResourceMethod resourceMethod) {
+            Builder builder = methodsBuilders.get(resourceMethod);
+            if (builder != null) {
+                return builder;
+            }
+
             final String methodUniqueId = MonitoringUtils.getMethodUniqueId(resourceMethod);
 
-            if (!stringToMethodsBuilders.containsKey(methodUniqueId)) {
-                stringToMethodsBuilders.put(methodUniqueId, new ResourceMethodStatisticsImpl.Builder(resourceMethod));
+            builder = stringToMethodsBuilders.get(methodUniqueId);
+            if (builder == null) {
+                builder = new ResourceMethodStatisticsImpl.Builder(resourceMethod);
+                stringToMethodsBuilders.put(methodUniqueId, builder);
             }
-            return stringToMethodsBuilders.get(methodUniqueId);
+            methodsBuilders.put(resourceMethod, builder);
+            return builder;
         }
     }
 
@@ -144,6 +158,29 @@ final class ResourceMethodStatisticsImpl implements ResourceMethodStatistics {
         }
     }
 
+    /**
+     * Merge statistics of the same resource method that were collected independently (e.g. by different
+     * monitoring stripes) into a single resource method statistics.
+     *
+     * @param stats resource method statistics to be merged. Must not be empty.
+     * @return merged resource method statistics.
+     */
+    static ResourceMethodStatistics merge(final Collection<ResourceMethodStatistics> stats) {
+        if (stats.size() == 1) {
+            return stats.iterator().next();
+        }
+
+        final List<ExecutionStatistics> methodStats = new ArrayList<>(stats.size());
+        final List<ExecutionStatistics> requestStats = new ArrayList<>(stats.size());
+        for (final ResourceMethodStatistics stat : stats) {
+            methodStats.add(stat.getMethodStatistics());
+            requestStats.add(stat.getRequestStatistics());
+        }
+
+        return new ResourceMethodStatisticsImpl(stats.iterator().next().getResourceMethod(),
+                ExecutionStatisticsImpl.merge(methodStats), ExecutionStatisticsImpl.merge(requestStats));
+    }
+
     private final ExecutionStatistics resourceMethodExecutionStatistics;
     private final ExecutionStatistics requestExecutionStatistics;
     private final ResourceMethod resourceMethod;
@@ -40,8 +40,11 @@
 
 package org.glassfish.jersey.server.internal.monitoring;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -171,6 +174,46 @@ final class ResourceStatisticsImpl implements ResourceStatistics {
 
     }
 
+    /**
+     * Merge statistics of the same resource that were collected independently (e.g. by different
+     * monitoring stripes) into a single resource statistics.
+     *
+     * @param stats resource statistics to be merged. Must not be empty.
+     * @return merged resource statistics.
+     */
+    static ResourceStatistics merge(final Collection<ResourceStatistics> stats) {
+        if (stats.size() == 1) {
+            return stats.iterator().next();
+        }
+
+        final Map<String, List<ResourceMethodStatistics>> methodStats = Maps.newLinkedHashMap();
+        final List<ExecutionStatistics> resourceStats = new ArrayList<>(stats.size());
+        final List<ExecutionStatistics> requestStats = new ArrayList<>(stats.size());
+        for (final ResourceStatistics stat : stats) {
+            resourceStats.add(stat.getResourceMethodExecutionStatistics());
+            requestStats.add(stat.getRequestExecutionStatistics());
+
+            for (final ResourceMethodStatistics methodStat : stat.getResourceMethodStatistics().values()) {
+                final String methodId = MonitoringUtils.getMethodUniqueId(methodStat.getResourceMethod());
+                List<ResourceMethodStatistics> list = methodStats.get(methodId);
+                if (list == null) {
+                    list = new ArrayList<>(stats.size());
+                    methodStats.put(methodId, list);
+                }
+                list.add(methodStat);
+            }
+        }
+
+        final Map<ResourceMethod, ResourceMethodStatistics> resourceMethods = Maps.newHashMap();
+        for (final List<ResourceMethodStatistics> list : methodStats.values()) {
+            final ResourceMethodStatistics merged = ResourceMethodStatisticsImpl.merge(list);
+            resourceMethods.put(merged.getResourceMethod(), merged);
+        }
+
+        return new ResourceStatisticsImpl(Collections.unmodifiableMap(resourceMethods),
+                ExecutionStatisticsImpl.merge(resourceStats), ExecutionStatisticsImpl.merge(requestStats));
+    }
+
     private final Map<ResourceMethod, ResourceMethodStatistics> resourceMethods;
     private final ExecutionStatistics resourceExecutionStatistics;
     private final ExecutionStatistics requestExecutionStatistics;
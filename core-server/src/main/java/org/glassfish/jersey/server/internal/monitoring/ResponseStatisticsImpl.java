@@ -40,6 +40,8 @@
 
 package org.glassfish.jersey.server.internal.monitoring;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 
 import org.glassfish.jersey.server.monitoring.ResponseStatistics;
@@ -74,13 +76,34 @@ final class ResponseStatisticsImpl implements ResponseStatistics {
 
         ResponseStatisticsImpl build() {
             if (cached == null) {
-                cached = new ResponseStatisticsImpl(lastResponseCode, responseCodes);
+                cached = new ResponseStatisticsImpl(lastResponseCode,
+                        Collections.unmodifiableMap(Maps.newHashMap(responseCodes)));
             }
             return cached;
         }
 
     }
 
+    /**
+     * Merge response statistics that were collected independently (e.g. by different monitoring stripes)
+     * into a single response statistics.
+     *
+     * @param stats            response statistics to be merged.
+     * @param lastResponseCode last response code of the merged statistics.
+     * @return merged response statistics.
+     */
+    static ResponseStatistics merge(final Collection<ResponseStatistics> stats, final Integer lastResponseCode) {
+        final Map<Integer, Long> responseCodes = Maps.newHashMap();
+        for (final ResponseStatistics stat : stats) {
+            for (final Map.Entry<Integer, Long> entry : stat.getResponseCodes().entrySet()) {
+                final Long current = responseCodes.get(entry.getKey());
+                responseCodes.put(entry.getKey(), current == null ? entry.getValue() : current + entry.getValue());
+            }
+        }
+
+        return new ResponseStatisticsImpl(lastResponseCode, Collections.unmodifiableMap(responseCodes));
+    }
+
     private ResponseStatisticsImpl(final Integer lastResponseCode, final Map<Integer, Long> responseCodes) {
         this.lastResponseCode = lastResponseCode;
         this.responseCodes = responseCodes;
@@ -40,11 +40,12 @@
 
 package org.glassfish.jersey.server.internal.monitoring;
 
-import java.util.LinkedList;
-import java.util.Queue;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
+import org.glassfish.jersey.server.monitoring.TimeWindowPercentileStatistics;
 import org.glassfish.jersey.server.monitoring.TimeWindowStatistics;
 
 /**
@@ -52,15 +53,24 @@ import org.glassfish.jersey.server.monitoring.TimeWindowStatistics;
  *
  * @author Miroslav Fuksa
  */
-final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
+final class TimeWindowStatisticsImpl implements TimeWindowPercentileStatistics {
 
     /**
      * Builder of time window statistics.
+     * <p>
+     * The time window is divided into units. Statistics of the units are kept in a fixed-size circular buffer,
+     * so that no objects are allocated when a unit is closed. Duration percentiles are computed from
+     * {@link DurationHistogram duration histograms} kept in another fixed-size circular buffer of (coarser)
+     * histogram slots. The oldest slot only partially overlaps the time window and is dropped, so the percentiles
+     * are computed from the current slot and the preceding complete slots, i.e. from at least {@code (slots - 1) / slots}
+     * and at most the whole time window.
+     * </p>
      */
     static class Builder {
 
         private static final int DEFAULT_UNITS_PER_INTERVAL = 100;
         private static final int MINIMUM_UNIT_SIZE = 1000;
+        private static final int HISTOGRAM_SLOTS_PER_INTERVAL = 8;
 
         /**
          * Total interval for which these statistics are calculated (eg. last 15 seconds, last one minute) converted to ms
@@ -82,11 +92,27 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
          */
         private final long startTime;
 
-        private final Queue<Unit> unitQueue;
+        /**
+         * Circular buffer of closed units. The statistics of a unit are stored at the same index in the arrays.
+         */
+        private final long[] unitCounts;
+        private final long[] unitMinimums;
+        private final long[] unitMaximums;
+        private final long[] unitDurations;
+
+        /**
+         * Index of the oldest unit in the circular buffer (first that will be removed).
+         */
+        private int oldestUnit;
+
+        /**
+         * Number of units in the circular buffer.
+         */
+        private int units;
 
         /**
          * Total request count measured in the interval window.
-         * Summary of {@code count} all units in {@code unitQueue}.
+         * Summary of {@code count} all units in the circular buffer.
          */
         private long totalCount;
 
@@ -101,7 +127,7 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
          */
         private final long intervalWithRoundError;
 
-        // last unit = newest unit. Following statistics are not in the queue yet (no Unit yest)
+        // last unit = newest unit. Following statistics are not in the circular buffer yet
         private long lastUnitEnd;
         private long lastUnitCount;
         private long lastUnitMin = -1;
@@ -109,26 +135,16 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
         private long lastUnitDuration = 0;
 
         /**
-         * Oldest unit that is in the queue (first that will be removed).
+         * Size of one histogram slot in ms.
          */
-        private Unit oldestUnit;
+        private final long histogramSlot;
 
-        private static class Unit {
-
-            private final long count;
-            private final long minimumDuration;
-            private final long maximumDuration;
-            private final long duration;
-
-            private Unit(final long count, final long minimumDuration, final long maximumDuration, final long duration) {
-                this.count = count;
-                this.minimumDuration = minimumDuration;
-                this.maximumDuration = maximumDuration;
-                this.duration = duration;
-            }
-
-            private static Unit EMPTY_UNIT = new Unit(0, -1, -1, 0);
-        }
+        /**
+         * Circular buffer of histogram slots. Each histogram is stored at the index given by its slot number
+         * (number of slots elapsed since {@code startTime}) modulo the buffer size.
+         */
+        private final DurationHistogram[] histograms;
+        private final long[] histogramSlotNumbers;
 
         /**
          * Create a new builder instance.
@@ -155,7 +171,11 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
                 unit = 0;
                 unitsPerInterval = 0;
                 intervalWithRoundError = 0;
-                unitQueue = null;
+                unitCounts = unitMinimums = unitMaximums = unitDurations = null;
+
+                histogramSlot = 0;
+                histograms = new DurationHistogram[] {new DurationHistogram()};
+                histogramSlotNumbers = new long[1];
             } else {
                 int n = DEFAULT_UNITS_PER_INTERVAL;
                 long u = interval / n;
@@ -166,10 +186,19 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
                 this.unit = u;
                 this.unitsPerInterval = n;
                 intervalWithRoundError = unit * unitsPerInterval;
-                // TODO change to array
-                this.unitQueue = new LinkedList<>();
+
+                this.unitCounts = new long[unitsPerInterval];
+                this.unitMinimums = new long[unitsPerInterval];
+                this.unitMaximums = new long[unitsPerInterval];
+                this.unitDurations = new long[unitsPerInterval];
 
                 lastUnitEnd = startTime + unit;
+
+                final int slots = Math.min(HISTOGRAM_SLOTS_PER_INTERVAL, unitsPerInterval);
+                this.histogramSlot = intervalWithRoundError / slots;
+                this.histograms = new DurationHistogram[slots];
+                this.histogramSlotNumbers = new long[slots];
+                Arrays.fill(histogramSlotNumbers, -1);
             }
         }
 
@@ -192,25 +221,47 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
             if (duration > lastUnitMax || lastUnitMax == -1) {
                 lastUnitMax = duration;
             }
+
+            addToHistogram(requestTime, duration);
+        }
+
+        private void addToHistogram(final long requestTime, final long duration) {
+            if (interval == 0) {
+                histograms[0].add(duration);
+                return;
+            }
+
+            final long slotNumber = Math.max(0, requestTime - startTime) / histogramSlot;
+            final int index = (int) (slotNumber % histograms.length);
+            if (histogramSlotNumbers[index] != slotNumber) {
+                if (histogramSlotNumbers[index] > slotNumber) {
+                    // the request is older than the time window
+                    return;
+                }
+
+                if (histograms[index] == null) {
+                    histograms[index] = new DurationHistogram();
+                } else {
+                    histograms[index].reset();
+                }
+                histogramSlotNumbers[index] = slotNumber;
+            }
+            histograms[index].add(duration);
         }
 
         private void closeLastUnitIfNeeded(final long requestTime) {
             if (interval != 0) {
                 if ((requestTime - lastUnitEnd) > interval + unit) {
-                    resetQueue(requestTime);
+                    resetUnits(requestTime);
                 }
                 if (lastUnitEnd < requestTime) {
                     // close the old unit
-                    if (lastUnitCount > 0) {
-                        add(new Unit(lastUnitCount, lastUnitMin, lastUnitMax, lastUnitDuration));
-                    } else {
-                        add(Unit.EMPTY_UNIT);
-                    }
+                    add(lastUnitCount, lastUnitMin, lastUnitMax, lastUnitDuration);
                     lastUnitEnd += unit;
                     resetLastUnit();
 
                     while (lastUnitEnd < requestTime) {
-                        add(Unit.EMPTY_UNIT);
+                        add(0, -1, -1, 0);
                         lastUnitEnd += unit;
                     }
                 }
@@ -224,29 +275,41 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
             lastUnitDuration = 0;
         }
 
-        private void add(final Unit unit) {
-            unitQueue.add(unit);
-
-            // fill with empty until units
-            if (unitQueue.size() > unitsPerInterval) {
-                final Unit removedUnit = unitQueue.remove();
-                totalCount -= removedUnit.count;
-                totalDuration -= removedUnit.duration;
+        private void add(final long count, final long minimum, final long maximum, final long duration) {
+            final int index;
+            if (units == unitsPerInterval) {
+                // remove the oldest unit and reuse its position
+                index = oldestUnit;
+                totalCount -= unitCounts[index];
+                totalDuration -= unitDurations[index];
+                oldestUnit = (oldestUnit + 1) % unitsPerInterval;
+            } else {
+                index = (oldestUnit + units) % unitsPerInterval;
+                units++;
             }
-            this.oldestUnit = unitQueue.element();
-            totalCount += lastUnitCount;
-            totalDuration += lastUnitDuration;
+
+            unitCounts[index] = count;
+            unitMinimums[index] = minimum;
+            unitMaximums[index] = maximum;
+            unitDurations[index] = duration;
+
+            totalCount += count;
+            totalDuration += duration;
         }
 
-        private void resetQueue(final long requestTime) {
-            this.unitQueue.clear();
+        private void resetUnits(final long requestTime) {
             lastUnitEnd = requestTime + unit;
             resetLastUnit();
 
             // fill with empty unit to keep result consistent
-            for (int i = 0; i < unitsPerInterval; i++) {
-                unitQueue.add(Unit.EMPTY_UNIT);
-            }
+            Arrays.fill(unitCounts, 0);
+            Arrays.fill(unitMinimums, -1);
+            Arrays.fill(unitMaximums, -1);
+            Arrays.fill(unitDurations, 0);
+            oldestUnit = 0;
+            units = unitsPerInterval;
+            totalCount = 0;
+            totalDuration = 0;
         }
 
         /**
@@ -275,7 +338,8 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
 
                     return lastUnitCount == 0
                             ? TimeWindowStatisticsImpl.EMPTY.get(0L)
-                            : new TimeWindowStatisticsImpl(0, requestsPerSecond, lastUnitMin, lastUnitMax, avg, lastUnitCount);
+                            : new TimeWindowStatisticsImpl(0, requestsPerSecond, lastUnitMin, lastUnitMax, avg, lastUnitCount,
+                            histograms[0].copy());
                 }
             }
 
@@ -284,9 +348,10 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
             long max = -1;
             final double requestsPerSecond;
 
-            for (final Unit u : this.unitQueue) {
-                min = getMin(min, u.minimumDuration);
-                max = getMax(max, u.maximumDuration);
+            for (int i = 0; i < units; i++) {
+                final int index = (oldestUnit + i) % unitsPerInterval;
+                min = getMin(min, unitMinimums[index]);
+                max = getMax(max, unitMaximums[index]);
             }
 
             min = getMin(min, lastUnitMin);
@@ -295,14 +360,11 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
             long adjustedTotalCount = totalCount + lastUnitCount;
             long adjustedTotalDuration = totalDuration + lastUnitDuration;
 
-            final int size = unitQueue.size();
-            if (size >= unitsPerInterval) {
+            if (units >= unitsPerInterval) {
                 final double ratio = (currentTime - (lastUnitEnd - unit)) / ((double) unit);
 
-                if (oldestUnit != null) {
-                    adjustedTotalCount -= (long) (oldestUnit.count * ratio);
-                    adjustedTotalDuration -= (long) (oldestUnit.duration * ratio);
-                }
+                adjustedTotalCount -= (long) (unitCounts[oldestUnit] * ratio);
+                adjustedTotalDuration -= (long) (unitDurations[oldestUnit] * ratio);
 
                 // intervalWithRoundError is used instead of size * unit for performance reasons
                 requestsPerSecond = (double) (1000 * adjustedTotalCount) / intervalWithRoundError;
@@ -314,13 +376,26 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
                 return getOrCreateEmptyStats(interval);
             } else {
                 final long avg = adjustedTotalDuration / adjustedTotalCount;
-                return new TimeWindowStatisticsImpl(interval, requestsPerSecond, min, max, avg, adjustedTotalCount);
+                return new TimeWindowStatisticsImpl(interval, requestsPerSecond, min, max, avg, adjustedTotalCount,
+                        buildHistogram(currentTime));
             }
         }
 
+        private DurationHistogram buildHistogram(final long currentTime) {
+            final long currentSlot = Math.max(0, currentTime - startTime) / histogramSlot;
+            final DurationHistogram histogram = new DurationHistogram();
+            for (int i = 0; i < histograms.length; i++) {
+                // the current slot and the preceding complete slots of the time window
+                if (histograms[i] != null && histogramSlotNumbers[i] > currentSlot - histograms.length) {
+                    histogram.add(histograms[i]);
+                }
+            }
+            return histogram;
+        }
+
         private TimeWindowStatisticsImpl getOrCreateEmptyStats(final long interval) {
             if (!EMPTY.containsKey(interval)) {
-                EMPTY.putIfAbsent(interval, new TimeWindowStatisticsImpl(interval, 0, -1, -1, -1, 0));
+                EMPTY.putIfAbsent(interval, new TimeWindowStatisticsImpl(interval, 0, -1, -1, -1, 0, null));
             }
             return EMPTY.get(interval);
         }
@@ -347,7 +422,63 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
     private static final ConcurrentHashMap<Long, TimeWindowStatisticsImpl> EMPTY = new ConcurrentHashMap<>(6);
 
     static {
-        EMPTY.putIfAbsent(0L, new TimeWindowStatisticsImpl(0, 0, 0, 0, 0, 0));
+        EMPTY.putIfAbsent(0L, new TimeWindowStatisticsImpl(0, 0, 0, 0, 0, 0, null));
+    }
+
+    /**
+     * Merge time window statistics of the same time window that were collected independently (e.g. by different
+     * monitoring stripes) into a single time window statistics.
+     * <p>
+     * Request counts and request rates are summed up, minimum and maximum durations are computed over all statistics,
+     * the average duration is weighted by the request counts and the duration histograms are added together.
+     * </p>
+     *
+     * @param interval time window size of the merged statistics.
+     * @param stats    statistics to be merged.
+     * @return merged time window statistics.
+     */
+    static TimeWindowStatistics merge(final long interval, final Collection<TimeWindowStatistics> stats) {
+        TimeWindowStatistics first = null;
+        TimeWindowStatistics nonEmpty = null;
+        long count = 0;
+        long duration = 0;
+        double requestsPerSecond = 0;
+        long min = -1;
+        long max = -1;
+        int merged = 0;
+        final DurationHistogram histogram = new DurationHistogram();
+
+        for (final TimeWindowStatistics stat : stats) {
+            if (first == null) {
+                first = stat;
+            }
+            if (stat.getRequestCount() == 0) {
+                continue;
+            }
+
+            merged++;
+            nonEmpty = stat;
+            count += stat.getRequestCount();
+            duration += stat.getAverageDuration() * stat.getRequestCount();
+            requestsPerSecond += stat.getRequestsPerSecond();
+            if (min == -1 || (stat.getMinimumDuration() != -1 && stat.getMinimumDuration() < min)) {
+                min = stat.getMinimumDuration();
+            }
+            if (max == -1 || stat.getMaximumDuration() > max) {
+                max = stat.getMaximumDuration();
+            }
+            if (stat instanceof TimeWindowStatisticsImpl && ((TimeWindowStatisticsImpl) stat).histogram != null) {
+                histogram.add(((TimeWindowStatisticsImpl) stat).histogram);
+            }
+        }
+
+        if (merged == 0) {
+            return first != null ? first : EMPTY.get(0L);
+        } else if (merged == 1) {
+            return nonEmpty;
+        }
+
+        return new TimeWindowStatisticsImpl(interval, requestsPerSecond, min, max, duration / count, count, histogram);
     }
 
     private final long interval;
@@ -359,14 +490,21 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
     private final long totalCount;
     private final double requestsPerSecond;
 
+    /**
+     * Histogram of durations measured in the time window, {@code null} if no request has been measured.
+     */
+    private final DurationHistogram histogram;
+
     private TimeWindowStatisticsImpl(final long interval, final double requestsPerSecond, final long minimumDuration,
-                                     final long maximumDuration, final long averageDuration, final long totalCount) {
+                                     final long maximumDuration, final long averageDuration, final long totalCount,
+                                     final DurationHistogram histogram) {
         this.interval = interval;
         this.requestsPerSecond = requestsPerSecond;
         this.minimumDuration = minimumDuration;
         this.maximumDuration = maximumDuration;
         this.averageDuration = averageDuration;
         this.totalCount = totalCount;
+        this.histogram = histogram;
     }
 
     @Override
@@ -389,13 +527,18 @@ final class TimeWindowStatisticsImpl implements TimeWindowStatistics {
         return maximumDuration;
     }
 
+    @Override
+    public long getDurationPercentile(final double percentile) {
+        return histogram == null ? -1 : histogram.getValueAtPercentile(percentile);
+    }
+
     @Override
     public long getRequestCount() {
         return totalCount;
     }
 
     @Override
-    public TimeWindowStatistics snapshot() {
+    public TimeWindowPercentileStatistics snapshot() {
         // snapshot functionality not yet implemented
         return this;
     }
@@ -54,6 +54,7 @@ import javax.management.ReflectionException;
 
 import org.glassfish.jersey.internal.util.collection.Value;
 import org.glassfish.jersey.server.monitoring.ExecutionStatistics;
+import org.glassfish.jersey.server.monitoring.TimeWindowPercentileStatistics;
 import org.glassfish.jersey.server.monitoring.TimeWindowStatistics;
 
 import jersey.repackaged.com.google.common.collect.Maps;
@@ -66,6 +67,8 @@ import jersey.repackaged.com.google.common.collect.Maps;
  */
 public class ExecutionStatisticsDynamicBean implements DynamicMBean {
 
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
     private volatile ExecutionStatistics executionStatistics;
     private final Map<String, Value<Object>> attributeValues = Maps.newHashMap();
 
@@ -73,7 +76,7 @@ public class ExecutionStatisticsDynamicBean implements DynamicMBean {
 
     private MBeanInfo initMBeanInfo(final ExecutionStatistics initialStatistics) {
         final Map<Long, TimeWindowStatistics> statsMap = initialStatistics.getTimeWindowStatistics();
-        MBeanAttributeInfo[] attrs = new MBeanAttributeInfo[statsMap.size() * 5];
+        MBeanAttributeInfo[] attrs = new MBeanAttributeInfo[statsMap.size() * (5 + PERCENTILES.length)];
         int i = 0;
         for (final TimeWindowStatistics stats : statsMap.values()) {
             final long interval = stats.getTimeWindow();
@@ -133,6 +136,24 @@ public class ExecutionStatisticsDynamicBean implements DynamicMBean {
                     return executionStatistics.getTimeWindowStatistics().get(interval).getRequestCount();
                 }
             });
+
+            for (final double percentile : PERCENTILES) {
+                final String percentileName = percentile == Math.rint(percentile)
+                        ? String.valueOf((long) percentile) : String.valueOf(percentile);
+                name = "Percentile" + percentileName + "Time[ms]_" + postfix;
+                attrs[i++] = new MBeanAttributeInfo(name, "long", percentileName
+                        + "th percentile of request processing time in milliseconds in last "
+                        + postfix + ".", true, false, false);
+
+                attributeValues.put(name, new Value<Object>() {
+                    @Override
+                    public Object get() {
+                        final TimeWindowStatistics stats = executionStatistics.getTimeWindowStatistics().get(interval);
+                        return stats instanceof TimeWindowPercentileStatistics
+                                ? ((TimeWindowPercentileStatistics) stats).getDurationPercentile(percentile) : -1L;
+                    }
+                });
+            }
         }
 
         return new MBeanInfo(this.getClass().getName(), "Execution statistics", attrs, null, null, null);
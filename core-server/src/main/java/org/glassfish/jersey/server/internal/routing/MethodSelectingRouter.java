@@ -58,6 +58,7 @@ import javax.ws.rs.NotAllowedException;
 import javax.ws.rs.NotSupportedException;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
@@ -76,6 +77,8 @@ import org.glassfish.jersey.server.model.Parameter;
 import org.glassfish.jersey.server.model.ResourceMethod;
 
 import jersey.repackaged.com.google.common.base.Function;
+import jersey.repackaged.com.google.common.cache.Cache;
+import jersey.repackaged.com.google.common.cache.CacheBuilder;
 import jersey.repackaged.com.google.common.collect.Lists;
 import jersey.repackaged.com.google.common.collect.Sets;
 import jersey.repackaged.com.google.common.primitives.Primitives;
@@ -87,6 +90,13 @@ import jersey.repackaged.com.google.common.primitives.Primitives;
  * The method selection algorithm selects the handling method based on the HTTP request
  * method name, requested media type as well as defined resource method media type
  * capabilities.
+ * <p>
+ * Results of the method selection are kept in a bounded dispatch table keyed by the HTTP method name and the raw
+ * {@code Content-Type} and {@code Accept} request header values. Requests with already seen header values (typically
+ * the few concrete media types used by the clients of the application) are dispatched without re-running the media type
+ * negotiation, the full selection algorithm is only run for header values not present in the table. The least recently
+ * used entries are evicted from a full table, so that rarely seen (or junk) header values cannot displace the common ones.
+ * </p>
  *
  * @author Jakub Podlesak (jakub.podlesak at oracle.com)
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -95,6 +105,11 @@ final class MethodSelectingRouter implements Router {
 
     private static final Logger LOGGER = Logger.getLogger(MethodSelectingRouter.class.getName());
 
+    /**
+     * Maximum number of entries in the dispatch table of a single router.
+     */
+    private static final int DISPATCH_TABLE_LIMIT = 128;
+
     private static final Comparator<ConsumesProducesAcceptor> CONSUMES_PRODUCES_ACCEPTOR_COMPARATOR =
             new Comparator<ConsumesProducesAcceptor>() {
 
@@ -136,6 +151,9 @@ final class MethodSelectingRouter implements Router {
     private final MessageBodyWorkers workers;
 
     private final Map<String, List<ConsumesProducesAcceptor>> consumesProducesAcceptors;
+    private final Cache<DispatchKey, Dispatch> dispatchTable = CacheBuilder.newBuilder()
+            .maximumSize(DISPATCH_TABLE_LIMIT)
+            .build();
     private final Router router;
 
     /**
@@ -356,6 +374,63 @@ final class MethodSelectingRouter implements Router {
         }
     }
 
+    /**
+     * Dispatch table key - HTTP method name and raw values of {@code Content-Type} and {@code Accept} request headers.
+     */
+    private static final class DispatchKey {
+
+        private final String httpMethod;
+        private final String contentType;
+        private final String accept;
+        private final int hash;
+
+        DispatchKey(final String httpMethod, final String contentType, final String accept) {
+            this.httpMethod = httpMethod;
+            this.contentType = contentType;
+            this.accept = accept;
+
+            int result = httpMethod != null ? httpMethod.hashCode() : 0;
+            result = 31 * result + (contentType != null ? contentType.hashCode() : 0);
+            result = 31 * result + (accept != null ? accept.hashCode() : 0);
+            this.hash = result;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DispatchKey)) {
+                return false;
+            }
+
+            final DispatchKey that = (DispatchKey) o;
+            return hash == that.hash
+                    && (httpMethod != null ? httpMethod.equals(that.httpMethod) : that.httpMethod == null)
+                    && (contentType != null ? contentType.equals(that.contentType) : that.contentType == null)
+                    && (accept != null ? accept.equals(that.accept) : that.accept == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Result of the method selection for a {@link DispatchKey dispatch key}.
+     */
+    private static final class Dispatch {
+
+        final MethodSelector methodSelector;
+        final List<AcceptableMediaType> acceptableMediaTypes;
+
+        Dispatch(final MethodSelector methodSelector, final List<AcceptableMediaType> acceptableMediaTypes) {
+            this.methodSelector = methodSelector;
+            this.acceptableMediaTypes = acceptableMediaTypes;
+        }
+    }
+
     private Router createInternalRouter() {
         return new Router() {
 
@@ -460,6 +535,66 @@ final class MethodSelectingRouter implements Router {
 
     private List<Router> getMethodRouter(final RequestProcessingContext context) {
         final ContainerRequest request = context.request();
+        final DispatchKey key = new DispatchKey(request.getMethod(),
+                request.getHeaderString(HttpHeaders.CONTENT_TYPE),
+                request.getHeaderString(HttpHeaders.ACCEPT));
+
+        Dispatch dispatch = dispatchTable.getIfPresent(key);
+        if (dispatch == null) {
+            dispatch = dispatch(request);
+            dispatchTable.put(key, dispatch);
+        }
+
+        final MethodSelector methodSelector = dispatch.methodSelector;
+        final List<AcceptableMediaType> acceptableMediaTypes = dispatch.acceptableMediaTypes;
+        final RequestSpecificConsumesProducesAcceptor selected = methodSelector.selected;
+
+        if (methodSelector.sameFitnessAcceptors != null) {
+            reportMethodSelectionAmbiguity(acceptableMediaTypes, selected, methodSelector.sameFitnessAcceptors);
+        }
+
+        context.push(new Function<ContainerResponse, ContainerResponse>() {
+            @Override
+            public ContainerResponse apply(final ContainerResponse responseContext) {
+                // we only need to compute and set the effective media type if:
+                // - it hasn't been set already, and
+                // - either there is an entity, or we are responding to a HEAD request
+                if (responseContext.getMediaType() == null
+                        && ((responseContext.hasEntity() || HttpMethod.HEAD.equals(request.getMethod())))) {
+
+                    MediaType effectiveResponseType = determineResponseMediaType(
+                            responseContext.getEntityClass(),
+                            responseContext.getEntityType(),
+                            selected,
+                            acceptableMediaTypes);
+
+                    if (MediaTypes.isWildcard(effectiveResponseType)) {
+                        if (effectiveResponseType.isWildcardType()
+                                || "application".equalsIgnoreCase(effectiveResponseType.getType())) {
+                            effectiveResponseType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
+                        } else {
+                            throw new NotAcceptableException();
+                        }
+                    }
+                    responseContext.setMediaType(effectiveResponseType);
+                }
+
+                return responseContext;
+            }
+        });
+        return selected.methodRouting.routers;
+    }
+
+    /**
+     * Run the full method selection algorithm for the request.
+     *
+     * @param request request to select the resource method for.
+     * @return selected method together with the acceptable media types of the request.
+     * @throws NotAllowedException    if there is no method for the HTTP method of the request.
+     * @throws NotSupportedException  if there is no method consuming the request content type.
+     * @throws NotAcceptableException if there is no method producing any of the acceptable media types.
+     */
+    private Dispatch dispatch(final ContainerRequest request) {
         final List<ConsumesProducesAcceptor> acceptors = consumesProducesAcceptors.get(request.getMethod());
         if (acceptors == null) {
             throw new NotAllowedException(
@@ -486,47 +621,10 @@ final class MethodSelectingRouter implements Router {
         final MethodSelector methodSelector = selectMethod(acceptableMediaTypes, satisfyingAcceptors, effectiveContentType,
                 differentInvokableMethods.size() == 1);
 
-        if (methodSelector.selected != null) {
-            final RequestSpecificConsumesProducesAcceptor selected = methodSelector.selected;
-
-            if (methodSelector.sameFitnessAcceptors != null) {
-                reportMethodSelectionAmbiguity(acceptableMediaTypes, methodSelector.selected,
-                        methodSelector.sameFitnessAcceptors);
-            }
-
-            context.push(new Function<ContainerResponse, ContainerResponse>() {
-                @Override
-                public ContainerResponse apply(final ContainerResponse responseContext) {
-                    // we only need to compute and set the effective media type if:
-                    // - it hasn't been set already, and
-                    // - either there is an entity, or we are responding to a HEAD request
-                    if (responseContext.getMediaType() == null
-                            && ((responseContext.hasEntity() || HttpMethod.HEAD.equals(request.getMethod())))) {
-
-                        MediaType effectiveResponseType = determineResponseMediaType(
-                                responseContext.getEntityClass(),
-                                responseContext.getEntityType(),
-                                methodSelector.selected,
-                                acceptableMediaTypes);
-
-                        if (MediaTypes.isWildcard(effectiveResponseType)) {
-                            if (effectiveResponseType.isWildcardType()
-                                    || "application".equalsIgnoreCase(effectiveResponseType.getType())) {
-                                effectiveResponseType = MediaType.APPLICATION_OCTET_STREAM_TYPE;
-                            } else {
-                                throw new NotAcceptableException();
-                            }
-                        }
-                        responseContext.setMediaType(effectiveResponseType);
-                    }
-
-                    return responseContext;
-                }
-            });
-            return selected.methodRouting.routers;
+        if (methodSelector.selected == null) {
+            throw new NotAcceptableException();
         }
-
-        throw new NotAcceptableException();
+        return new Dispatch(methodSelector, acceptableMediaTypes);
     }
 
     /**
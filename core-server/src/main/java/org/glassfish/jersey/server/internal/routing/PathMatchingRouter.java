@@ -39,7 +39,7 @@
  */
 package org.glassfish.jersey.server.internal.routing;
 
-import java.util.Iterator;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.MatchResult;
 
@@ -50,13 +50,19 @@ import org.glassfish.jersey.uri.PathPattern;
 
 /**
  * Matches the un-matched right-hand request path to the configured collection of path pattern matching routes.
+ * <p>
+ * Routes are indexed by their literal path prefix (see {@link PathPrefixTrie}). Only the routes which literal prefix
+ * matches the request path are matched using the full regular expression of the route pattern. Candidate routes
+ * are tried in the order in which the routes were registered.
+ * </p>
  *
  * @author Paul Sandoz
  * @author Marek Potociar (marek.potociar at oracle.com)
  */
 final class PathMatchingRouter implements Router {
 
-    private final List<Route> acceptedRoutes;
+    private final Route[] acceptedRoutes;
+    private final PathPrefixTrie prefixTrie;
 
     /**
      * Constructs route methodAcceptorPair that uses {@link PathPattern} instances for
@@ -66,7 +72,12 @@ final class PathMatchingRouter implements Router {
      *                 the built router is successful.
      */
     PathMatchingRouter(final List<Route> routes) {
-        this.acceptedRoutes = routes;
+        this.acceptedRoutes = routes.toArray(new Route[routes.size()]);
+        final List<PathPattern> patterns = new ArrayList<>(routes.size());
+        for (final Route route : routes) {
+            patterns.add(route.routingPattern());
+        }
+        this.prefixTrie = new PathPrefixTrie(patterns);
     }
 
     @Override
@@ -78,10 +89,16 @@ final class PathMatchingRouter implements Router {
         final TracingLogger tracingLogger = TracingLogger.getInstance(context.request());
         tracingLogger.log(ServerTraceEvent.MATCH_PATH_FIND, path);
 
+        final int[] candidates = prefixTrie.candidates(path);
+
         Router.Continuation result = null;
-        final Iterator<Route> iterator = acceptedRoutes.iterator();
-        while (iterator.hasNext()) {
-            final Route acceptedRoute = iterator.next();
+        int next = 0;
+        for (final int candidate : candidates) {
+            // routes skipped by the prefix index did not match
+            logNotMatched(tracingLogger, next, candidate);
+            next = candidate + 1;
+
+            final Route acceptedRoute = acceptedRoutes[candidate];
             final PathPattern routePattern = acceptedRoute.routingPattern();
             final MatchResult m = routePattern.match(path);
             if (m != null) {
@@ -97,17 +114,26 @@ final class PathMatchingRouter implements Router {
             }
         }
 
-        if (tracingLogger.isLogEnabled(ServerTraceEvent.MATCH_PATH_SKIPPED)) {
-            while (iterator.hasNext()) {
-                tracingLogger.log(ServerTraceEvent.MATCH_PATH_SKIPPED, iterator.next().routingPattern().getRegex());
-            }
-        }
-
         if (result == null) {
+            logNotMatched(tracingLogger, next, acceptedRoutes.length);
             // No match
             return Router.Continuation.of(context);
         }
 
+        if (tracingLogger.isLogEnabled(ServerTraceEvent.MATCH_PATH_SKIPPED)) {
+            for (int i = next; i < acceptedRoutes.length; i++) {
+                tracingLogger.log(ServerTraceEvent.MATCH_PATH_SKIPPED, acceptedRoutes[i].routingPattern().getRegex());
+            }
+        }
+
         return result;
     }
+
+    private void logNotMatched(final TracingLogger tracingLogger, final int from, final int to) {
+        if (from < to && tracingLogger.isLogEnabled(ServerTraceEvent.MATCH_PATH_NOT_MATCHED)) {
+            for (int i = from; i < to; i++) {
+                tracingLogger.log(ServerTraceEvent.MATCH_PATH_NOT_MATCHED, acceptedRoutes[i].routingPattern().getRegex());
+            }
+        }
+    }
 }
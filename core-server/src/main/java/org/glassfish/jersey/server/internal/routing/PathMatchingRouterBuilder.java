@@ -39,6 +39,7 @@
  */
 package org.glassfish.jersey.server.internal.routing;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -53,7 +54,7 @@ import org.glassfish.jersey.uri.PathPattern;
  */
 final class PathMatchingRouterBuilder implements PathToRouterBuilder {
 
-    private final List<Route> acceptedRoutes = new LinkedList<>();
+    private final List<Route> acceptedRoutes = new ArrayList<>();
     private List<Router> currentRouters;
 
 
@@ -108,6 +109,10 @@ final class PathMatchingRouterBuilder implements PathToRouterBuilder {
 
     /**
      * Build a {@link org.glassfish.jersey.server.internal.routing.Router hierarchical request path matching processor}.
+     * <p>
+     * The accepted routes are compiled into a {@link PathPrefixTrie literal path prefix index} of the built router.
+     * No more routes should be added to this builder once the router is built.
+     * </p>
      *
      * @return hierarchical request path matching processor (i.e. router).
      */
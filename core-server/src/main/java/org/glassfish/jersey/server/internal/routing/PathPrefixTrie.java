@@ -0,0 +1,236 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.glassfish.jersey.uri.PathPattern;
+
+/**
+ * Compiled literal-prefix index of path patterns, such as the patterns of the routes accepted by
+ * a {@link PathMatchingRouter}.
+ * <p>
+ * This is an internal Jersey API, it is also used by container integrations that need to resolve requests against
+ * the resource model outside of the request processing.
+ * </p>
+ * <p>
+ * Every route pattern starts with a (possibly empty) sequence of literal characters that precedes the first
+ * template variable or right-hand path capturing group. A request path can only match the route pattern if it
+ * starts with this literal prefix. The trie is keyed by these literal prefixes so that, for a given request path,
+ * the router only runs a full regular expression match for the routes whose literal prefix matches the path.
+ * </p>
+ * <p>
+ * Candidate routes are always returned as route indexes sorted in ascending order, i.e. in the same order in which
+ * the routes have been registered, which keeps the JAX-RS matching order intact.
+ * </p>
+ */
+public final class PathPrefixTrie {
+
+    private static final int[] NO_ROUTES = new int[0];
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root;
+
+    /**
+     * Compile a new literal prefix trie for the list of route path patterns.
+     *
+     * @param patterns path patterns of the routes to be indexed. Order of the patterns in the list determines
+     *                 the order of the route indexes returned from {@link #candidates(String)}.
+     */
+    public PathPrefixTrie(final List<PathPattern> patterns) {
+        final NodeBuilder rootBuilder = new NodeBuilder();
+        for (int i = 0; i < patterns.size(); i++) {
+            final String prefix = literalPrefix(patterns.get(i));
+
+            NodeBuilder current = rootBuilder;
+            for (int j = 0; j < prefix.length(); j++) {
+                current = current.child(prefix.charAt(j));
+            }
+            current.routes.add(i);
+        }
+        this.root = rootBuilder.build(NO_ROUTES);
+    }
+
+    /**
+     * Get indexes of all routes which literal prefix is a prefix of the supplied request path.
+     * <p>
+     * Returned array is shared and MUST NOT be modified.
+     * </p>
+     *
+     * @param path request path to be matched.
+     * @return ascending array of indexes of candidate routes.
+     */
+    public int[] candidates(final String path) {
+        Node node = root;
+        if (path != null) {
+            for (int i = 0; i < path.length(); i++) {
+                final Node child = node.child(path.charAt(i));
+                if (child == null) {
+                    break;
+                }
+                node = child;
+            }
+        }
+        return node.routes;
+    }
+
+    /**
+     * Extract the literal prefix of the path pattern, i.e. the characters that any string matched by the pattern
+     * regular expression has to start with.
+     * <p>
+     * Literal characters in the regular expressions generated from URI templates are either plain or escaped with
+     * a backslash. The extraction stops at the first regular expression construct (a capturing group, a character
+     * class, a quantifier etc.) as well as at the first percent-encoded character, as these are matched
+     * case-insensitively.
+     * </p>
+     *
+     * @param pattern path pattern.
+     * @return literal prefix of the pattern, possibly empty.
+     */
+    static String literalPrefix(final PathPattern pattern) {
+        final String regex = pattern.getRegex();
+        final StringBuilder prefix = new StringBuilder();
+
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && !Character.isLetterOrDigit(regex.charAt(i + 1))) {
+                    prefix.append(regex.charAt(++i));
+                    continue;
+                }
+                break;
+            } else if ("()[]{}.*+?|^$%".indexOf(c) >= 0) {
+                break;
+            }
+            prefix.append(c);
+        }
+
+        // a quantifier may apply to the last literal character
+        if (prefix.length() > 0 && prefix.length() < regex.length()
+                && "*+?{".indexOf(regex.charAt(rawLength(regex, prefix.length()))) >= 0) {
+            prefix.setLength(prefix.length() - 1);
+        }
+
+        return prefix.toString();
+    }
+
+    /**
+     * Get the number of regular expression characters that encode the first {@code literals} literal characters.
+     */
+    private static int rawLength(final String regex, final int literals) {
+        int i = 0;
+        for (int n = 0; n < literals; n++) {
+            i += regex.charAt(i) == '\\' ? 2 : 1;
+        }
+        return i;
+    }
+
+    private static final class Node {
+
+        private final char[] keys;
+        private final Node[] children;
+        private final int[] routes;
+
+        private Node(final char[] keys, final Node[] children, final int[] routes) {
+            this.keys = keys;
+            this.children = children;
+            this.routes = routes;
+        }
+
+        private Node child(final char c) {
+            final int i = Arrays.binarySearch(keys, c);
+            return i < 0 ? null : children[i];
+        }
+    }
+
+    private static final class NodeBuilder {
+
+        private final Map<Character, NodeBuilder> children = new TreeMap<>();
+        private final List<Integer> routes = new ArrayList<>();
+
+        private NodeBuilder child(final char c) {
+            NodeBuilder child = children.get(c);
+            if (child == null) {
+                child = new NodeBuilder();
+                children.put(c, child);
+            }
+            return child;
+        }
+
+        /**
+         * Build immutable trie node.
+         *
+         * @param inherited sorted indexes of routes registered on the ancestor nodes.
+         * @return trie node.
+         */
+        private Node build(final int[] inherited) {
+            final int[] nodeRoutes = merge(inherited, routes);
+
+            final char[] keys = children.isEmpty() ? NO_KEYS : new char[children.size()];
+            final Node[] nodes = children.isEmpty() ? NO_CHILDREN : new Node[children.size()];
+            int i = 0;
+            for (final Map.Entry<Character, NodeBuilder> entry : children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build(nodeRoutes);
+                i++;
+            }
+            return new Node(keys, nodes, nodeRoutes);
+        }
+
+        private static int[] merge(final int[] inherited, final List<Integer> own) {
+            if (own.isEmpty()) {
+                // share the array with the parent node
+                return inherited;
+            }
+
+            final int[] merged = Arrays.copyOf(inherited, inherited.length + own.size());
+            for (int i = 0; i < own.size(); i++) {
+                merged[inherited.length + i] = own.get(i);
+            }
+            Arrays.sort(merged);
+            return merged;
+        }
+    }
+}
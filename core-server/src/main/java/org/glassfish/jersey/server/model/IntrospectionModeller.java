@@ -69,6 +69,7 @@ import org.glassfish.jersey.internal.util.Producer;
 import org.glassfish.jersey.internal.util.ReflectionHelper;
 import org.glassfish.jersey.internal.util.Tokenizer;
 import org.glassfish.jersey.server.ManagedAsync;
+import org.glassfish.jersey.server.NonBlocking;
 import org.glassfish.jersey.server.internal.LocalizationMessages;
 import org.glassfish.jersey.server.model.internal.ModelHelper;
 
@@ -289,6 +290,10 @@ final class IntrospectionModeller {
             resourceMethodBuilder.managedAsync();
         }
 
+        if (am.isAnnotationPresent(NonBlocking.class)) {
+            resourceMethodBuilder.nonBlocking();
+        }
+
         for (Annotation[] annotations : am.getParameterAnnotations()) {
             for (Annotation annotation : annotations) {
                 if (annotation.annotationType() == Suspended.class) {
@@ -146,6 +146,7 @@ public final class ResourceMethod implements ResourceModelComponent, Producing,
         private final Set<MediaType> producedTypes;
         // Suspendable
         private boolean managedAsync;
+        private boolean nonBlocking;
         private boolean suspended;
         private long suspendTimeout;
         private TimeUnit suspendTimeoutUnit;
@@ -208,6 +209,7 @@ public final class ResourceMethod implements ResourceModelComponent, Producing,
             this.nameBindings = originalMethod.getNameBindings();
             this.httpMethod = originalMethod.getHttpMethod();
             this.managedAsync = originalMethod.isManagedAsyncDeclared();
+            this.nonBlocking = originalMethod.isNonBlocking();
 
             Invocable invocable = originalMethod.getInvocable();
             this.handlingMethod = invocable.getHandlingMethod();
@@ -372,6 +374,22 @@ public final class ResourceMethod implements ResourceModelComponent, Producing,
             return this;
         }
 
+        /**
+         * Set the non-blocking flag on the method model to {@code true}.
+         * <p>
+         * Containers that support it may then invoke the method directly on an I/O thread.
+         * </p>
+         *
+         * @return updated builder object.
+         * @see org.glassfish.jersey.server.NonBlocking
+         * @since 2.18
+         */
+        public Builder nonBlocking() {
+            nonBlocking = true;
+
+            return this;
+        }
+
         /**
          * If set to {@code true}, the parameter values will not be automatically
          * decoded.
@@ -509,6 +527,7 @@ public final class ResourceMethod implements ResourceModelComponent, Producing,
                     consumedTypes,
                     producedTypes,
                     managedAsync,
+                    nonBlocking,
                     suspended,
                     suspendTimeout,
                     suspendTimeoutUnit,
@@ -548,6 +567,7 @@ public final class ResourceMethod implements ResourceModelComponent, Producing,
         private final List<MediaType> producedTypes;
         // SuspendableComponent
         private final boolean managedAsync;
+        private final boolean nonBlocking;
         private final boolean suspended;
         private final long suspendTimeout;
         private final TimeUnit suspendTimeoutUnit;
@@ -561,13 +581,16 @@ public final class ResourceMethod implements ResourceModelComponent, Producing,
         private Data(final String httpMethod,
                      final Collection<MediaType> consumedTypes,
                      final Collection<MediaType> producedTypes,
-                     boolean managedAsync, final boolean suspended,
+                     boolean managedAsync,
+                     final boolean nonBlocking,
+                     final boolean suspended,
                      final long suspendTimeout,
                      final TimeUnit suspendTimeoutUnit,
                      final Invocable invocable,
                      final Collection<Class<? extends Annotation>> nameBindings,
                      final boolean extended) {
             this.managedAsync = managedAsync;
+            this.nonBlocking = nonBlocking;
             this.type = JaxrsType.classify(httpMethod);
 
             this.httpMethod = (httpMethod == null) ? httpMethod : httpMethod.toUpperCase();
@@ -633,6 +656,15 @@ public final class ResourceMethod implements ResourceModelComponent, Producing,
             return managedAsync;
         }
 
+        /**
+         * Flag indicating whether the method is declared as non-blocking.
+         *
+         * @return {@code true} if the method is declared as non-blocking, {@code false} otherwise.
+         */
+        /* package */ boolean isNonBlocking() {
+            return nonBlocking;
+        }
+
         /**
          * Flag indicating whether the method requires injection of suspended response context.
          *
@@ -843,6 +875,17 @@ public final class ResourceMethod implements ResourceModelComponent, Producing,
         return data.isManagedAsync();
     }
 
+    /**
+     * Check whether the method has been declared as {@link org.glassfish.jersey.server.NonBlocking non-blocking}
+     * and therefore may be invoked directly on a container I/O thread.
+     *
+     * @return {@code true} if the method is declared as non-blocking, {@code false} otherwise.
+     * @since 2.18
+     */
+    public boolean isNonBlocking() {
+        return data.isNonBlocking();
+    }
+
     // ResourceModelComponent
     @Override
     public List<? extends ResourceModelComponent> getComponents() {
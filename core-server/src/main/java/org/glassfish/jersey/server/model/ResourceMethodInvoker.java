@@ -67,6 +67,7 @@ import javax.inject.Inject;
 import org.glassfish.jersey.internal.inject.Injections;
 import org.glassfish.jersey.internal.inject.Providers;
 import org.glassfish.jersey.internal.util.Producer;
+import org.glassfish.jersey.message.internal.MessageBodyWorkerSelectionCache;
 import org.glassfish.jersey.model.ContractProvider;
 import org.glassfish.jersey.model.NameBound;
 import org.glassfish.jersey.model.internal.ComponentBag;
@@ -112,6 +113,7 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
     private final List<RankedProvider<ContainerResponseFilter>> responseFilters = Lists.newArrayList();
     private final Iterable<ReaderInterceptor> readerInterceptors;
     private final Iterable<WriterInterceptor> writerInterceptors;
+    private final MessageBodyWorkerSelectionCache selectionCache = new MessageBodyWorkerSelectionCache();
 
     /**
      * Resource method invoker "assisted" injection helper.
@@ -323,6 +325,9 @@ public class ResourceMethodInvoker implements Endpoint, ResourceInfo {
         final ContainerRequest request = processingContext.request();
         final Object resource = processingContext.routingContext().peekMatchedResource();
 
+        // entity providers selected for this resource method are remembered in the method-bound cache
+        MessageBodyWorkerSelectionCache.bind(request.getPropertiesDelegate(), selectionCache);
+
         if (method.isSuspendDeclared() || method.isManagedAsyncDeclared()) {
             if (!processingContext.asyncContext().suspend()) {
                 throw new ProcessingException(LocalizationMessages.ERROR_SUSPENDING_ASYNC_REQUEST());
@@ -0,0 +1,70 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.jersey.server.monitoring;
+
+/**
+ * {@link TimeWindowStatistics Time window statistics} that also provide percentiles of the request processing time.
+ * <p/>
+ * Time window statistics provided by Jersey runtime implement this interface. Statistics provided by other
+ * implementations might not, so check the instance type before using it.
+ *
+ * @since 2.18
+ */
+public interface TimeWindowPercentileStatistics extends TimeWindowStatistics {
+
+    /**
+     * Returns the duration (processing time) in milliseconds under which the given percentage of requests
+     * measured in the time window were processed (for example, {@code getDurationPercentile(99.0)} returns
+     * the 99th percentile of request processing time).
+     * <p/>
+     * The returned value is an approximation computed from histograms of the measured durations. The relative
+     * error of the approximation is lower than 7%; durations lower than 32 milliseconds are measured exactly.
+     * The histograms are kept for fixed parts of the time window, so the percentile is computed from the requests
+     * measured in between the last 7/8 and the whole of the time window.
+     *
+     * @param percentile percentile in the range {@code [0, 100]}.
+     * @return Request processing time percentile or -1 if no request has been processed.
+     */
+    public long getDurationPercentile(double percentile);
+
+    @Override
+    public TimeWindowPercentileStatistics snapshot();
+}
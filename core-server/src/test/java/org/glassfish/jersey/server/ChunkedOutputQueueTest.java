@@ -0,0 +1,395 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * {@link ChunkedOutput} queue limits and overflow policies test.
+ * <p>
+ * Unless stated otherwise, the chunked outputs in this test are not bound to any response, so all written chunks
+ * stay queued.
+ * </p>
+ */
+public class ChunkedOutputQueueTest {
+
+    @Test
+    public void testUnboundedByDefault() throws IOException {
+        final ChunkedOutput<String> output = new ChunkedOutput<String>(String.class);
+        for (int i = 0; i < 100; i++) {
+            output.write("chunk");
+        }
+
+        assertEquals(100, output.getQueuedChunkCount());
+        assertEquals(500, output.getQueuedByteCount());
+        assertEquals(0, output.getDroppedChunkCount());
+        assertEquals(0, output.getWrittenChunkCount());
+    }
+
+    @Test
+    public void testDropOldest() throws IOException {
+        final ChunkedOutput<String> output = new ChunkedOutput<String>(String.class);
+        output.setQueueLimits(2, Long.MAX_VALUE, ChunkedOutput.OverflowPolicy.DROP_OLDEST);
+
+        output.write("a");
+        output.write("b");
+        output.write("c");
+
+        assertEquals(2, output.getQueuedChunkCount());
+        assertEquals(1, output.getDroppedChunkCount());
+        assertFalse(output.isClosed());
+    }
+
+    @Test
+    public void testDropNewest() throws IOException {
+        final ChunkedOutput<String> output = new ChunkedOutput<String>(String.class);
+        output.setQueueLimits(Integer.MAX_VALUE, 4, ChunkedOutput.OverflowPolicy.DROP_NEWEST);
+
+        output.write("aa");
+        output.write("bb");
+        output.write("cc");
+
+        assertEquals(2, output.getQueuedChunkCount());
+        assertEquals(4, output.getQueuedByteCount());
+        assertEquals(1, output.getDroppedChunkCount());
+    }
+
+    @Test
+    public void testOversizedChunkAcceptedIntoEmptyQueue() throws IOException {
+        final ChunkedOutput<String> output = new ChunkedOutput<String>(String.class);
+        output.setQueueLimits(10, 4, ChunkedOutput.OverflowPolicy.DROP_NEWEST);
+
+        output.write("oversized");
+
+        assertEquals(1, output.getQueuedChunkCount());
+        assertEquals(0, output.getDroppedChunkCount());
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        final ChunkedOutput<String> output = new ChunkedOutput<String>(String.class);
+        output.setQueueLimits(2, Long.MAX_VALUE, ChunkedOutput.OverflowPolicy.CLOSE);
+
+        output.write("a");
+        output.write("b");
+        try {
+            output.write("c");
+            fail("IOException expected.");
+        } catch (final IOException expected) {
+            // expected
+        }
+
+        assertTrue(output.isClosed());
+        assertEquals(0, output.getQueuedChunkCount());
+        assertEquals(2, output.getDroppedChunkCount());
+    }
+
+    @Test
+    public void testOffer() throws IOException {
+        final ChunkedOutput<String> output = new ChunkedOutput<String>(String.class);
+        output.setQueueLimits(1, Long.MAX_VALUE, ChunkedOutput.OverflowPolicy.CLOSE);
+
+        assertTrue(output.offer("a"));
+        assertFalse(output.offer("b"));
+
+        assertFalse(output.isClosed());
+        assertEquals(1, output.getQueuedChunkCount());
+        assertEquals(0, output.getDroppedChunkCount());
+    }
+
+    @Test
+    public void testBlockDoesNotWaitBeforeResponseStarted() throws IOException {
+        final ChunkedOutput<String> output = new ChunkedOutput<String>(String.class);
+        output.setQueueLimits(1, Long.MAX_VALUE, ChunkedOutput.OverflowPolicy.BLOCK);
+
+        // written by the thread that has not returned the chunked output from the resource method yet
+        output.write("a");
+        output.write("b");
+        output.write("c");
+
+        assertEquals(3, output.getQueuedChunkCount());
+        assertEquals(0, output.getDroppedChunkCount());
+    }
+
+    @Test
+    public void testBlockedWriterTimesOut() throws Exception {
+        final BlockingOutputStream entityStream = new BlockingOutputStream();
+        final ChunkedOutput<String> output = startResponse(entityStream);
+        output.setBlockTimeout(200, TimeUnit.MILLISECONDS);
+        startFlushing(output, "a", entityStream);
+
+        output.write("b");
+        final long start = System.nanoTime();
+        try {
+            output.write("c");
+            fail("InterruptedIOException expected.");
+        } catch (final InterruptedIOException expected) {
+            // expected
+        }
+
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+        assertFalse(output.isClosed());
+        assertEquals(1, output.getQueuedChunkCount());
+
+        entityStream.release.countDown();
+        output.close();
+    }
+
+    @Test
+    public void testBlockedWriterReleasedOnClose() throws Exception {
+        final BlockingOutputStream entityStream = new BlockingOutputStream();
+        final ChunkedOutput<String> output = startResponse(entityStream);
+        startFlushing(output, "a", entityStream);
+        output.write("b");
+
+        final CountDownLatch finished = new CountDownLatch(1);
+        final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    output.write("c");
+                } catch (final Exception e) {
+                    failure.set(e);
+                } finally {
+                    finished.countDown();
+                }
+            }
+        }).start();
+
+        assertFalse("Writer should be blocked on a full queue.", finished.await(200, TimeUnit.MILLISECONDS));
+
+        output.close();
+
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertTrue(failure.get() instanceof IOException);
+        entityStream.release.countDown();
+    }
+
+    @Test
+    public void testBroadcastDoesNotWaitForStalledOutput() throws Exception {
+        final BlockingOutputStream entityStream = new BlockingOutputStream();
+        final ChunkedOutput<String> stalled = startResponse(entityStream);
+        stalled.setBlockTimeout(5, TimeUnit.SECONDS);
+        startFlushing(stalled, "a", entityStream);
+        stalled.write("b");
+
+        final ChunkedOutput<String> other = new ChunkedOutput<String>(String.class);
+        other.setQueueLimits(1, Long.MAX_VALUE, ChunkedOutput.OverflowPolicy.BLOCK);
+
+        final Broadcaster<String> broadcaster = new Broadcaster<String>();
+        broadcaster.add(stalled);
+        broadcaster.add(other);
+
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final long start = System.nanoTime();
+            broadcaster.broadcast("c", executor);
+
+            assertTrue("Broadcast has been held up by the stalled output.",
+                    System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+            assertEquals(1, stalled.getQueuedChunkCount());
+            assertEquals(1, stalled.getDroppedChunkCount());
+            assertFalse(stalled.isClosed());
+            assertEquals(1, other.getQueuedChunkCount());
+            assertEquals(0, other.getDroppedChunkCount());
+        } finally {
+            entityStream.release.countDown();
+            stalled.close();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testByteLimitAppliedToSerializedChunks() throws Exception {
+        final BlockingOutputStream entityStream = new BlockingOutputStream();
+        final ApplicationHandler handler = new ApplicationHandler(
+                new ResourceConfig(BeanChunkedResource.class, BeanWriter.class));
+        handler.apply(RequestContextBuilder.from("/bean-chunks", "GET").build(), entityStream);
+        final ChunkedOutput<Bean> output = BeanChunkedResource.output;
+        startFlushing(output, new Bean(), entityStream);
+
+        try {
+            output.write(new Bean());
+            output.write(new Bean());
+            output.write(new Bean());
+
+            assertEquals(2, output.getQueuedChunkCount());
+            assertEquals(2 * BeanWriter.SIZE, output.getQueuedByteCount());
+            assertEquals(1, output.getDroppedChunkCount());
+        } finally {
+            entityStream.release.countDown();
+            output.close();
+        }
+    }
+
+    @Path("chunks")
+    public static class ChunkedResource {
+
+        private static volatile ChunkedOutput<String> output;
+
+        @GET
+        public ChunkedOutput<String> get() {
+            output = new ChunkedOutput<String>(String.class);
+            output.setQueueLimits(1, Long.MAX_VALUE, ChunkedOutput.OverflowPolicy.BLOCK);
+            return output;
+        }
+    }
+
+    public static class Bean {
+    }
+
+    /**
+     * Writer serializing every {@link Bean} into {@link #SIZE} bytes.
+     */
+    @Produces(MediaType.APPLICATION_OCTET_STREAM)
+    public static class BeanWriter implements MessageBodyWriter<Bean> {
+
+        private static final int SIZE = 40;
+
+        @Override
+        public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+                                   final MediaType mediaType) {
+            return type == Bean.class;
+        }
+
+        @Override
+        public long getSize(final Bean bean, final Class<?> type, final Type genericType, final Annotation[] annotations,
+                            final MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(final Bean bean, final Class<?> type, final Type genericType, final Annotation[] annotations,
+                            final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders,
+                            final OutputStream entityStream) throws IOException {
+            entityStream.write(new byte[SIZE]);
+        }
+    }
+
+    @Path("bean-chunks")
+    public static class BeanChunkedResource {
+
+        private static volatile ChunkedOutput<Bean> output;
+
+        @GET
+        @Produces(MediaType.APPLICATION_OCTET_STREAM)
+        public ChunkedOutput<Bean> get() {
+            output = new ChunkedOutput<Bean>(Bean.class);
+            // the bean chunks are counted by their serialized size
+            output.setQueueLimits(Integer.MAX_VALUE, 2 * BeanWriter.SIZE, ChunkedOutput.OverflowPolicy.DROP_NEWEST);
+            return output;
+        }
+    }
+
+    /**
+     * Process a request returning a bounded chunked output and return the output once the response has been started.
+     */
+    private static ChunkedOutput<String> startResponse(final BlockingOutputStream entityStream) {
+        final ApplicationHandler handler = new ApplicationHandler(new ResourceConfig(ChunkedResource.class));
+        handler.apply(RequestContextBuilder.from("/chunks", "GET").build(), entityStream);
+
+        return ChunkedResource.output;
+    }
+
+    /**
+     * Write a chunk in a separate thread that remains blocked flushing the queue until the entity stream is released.
+     */
+    private static <T> void startFlushing(final ChunkedOutput<T> output, final T chunk,
+                                          final BlockingOutputStream entityStream) throws InterruptedException {
+        new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    output.write(chunk);
+                } catch (final IOException e) {
+                    // released by closing the output
+                }
+            }
+        }).start();
+        assertTrue(entityStream.writing.await(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Entity stream blocking all the writes until {@link #release released}.
+     */
+    private static class BlockingOutputStream extends OutputStream {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void write(final int b) throws IOException {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                throw new InterruptedIOException();
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidLimits() {
+        new ChunkedOutput<String>(String.class).setQueueLimits(0, 1, ChunkedOutput.OverflowPolicy.BLOCK);
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.jersey.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyReader;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.glassfish.jersey.message.CacheableSelection;
+import org.glassfish.jersey.message.internal.ReaderWriter;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/**
+ * Tests that message body readers and writers selected for a resource method are cached and reused.
+ */
+public class MessageBodyWorkerSelectionCacheTest {
+
+    private static final AtomicInteger IS_WRITEABLE_CALLS = new AtomicInteger();
+    private static final AtomicInteger IS_READABLE_CALLS = new AtomicInteger();
+    private static final AtomicInteger IS_VARIANT_WRITEABLE_CALLS = new AtomicInteger();
+
+    public static class Entity {
+
+        private final String value;
+
+        public Entity(final String value) {
+            this.value = value;
+        }
+    }
+
+    @Produces("foo/bar")
+    @CacheableSelection
+    public static class EntityWriter implements MessageBodyWriter<Entity> {
+
+        @Override
+        public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+                                   final MediaType mediaType) {
+            IS_WRITEABLE_CALLS.incrementAndGet();
+            return type == Entity.class;
+        }
+
+        @Override
+        public long getSize(final Entity entity, final Class<?> type, final Type genericType,
+                            final Annotation[] annotations, final MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(final Entity entity, final Class<?> type, final Type genericType, final Annotation[] annotations,
+                            final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders,
+                            final OutputStream entityStream) throws IOException, WebApplicationException {
+            entityStream.write(entity.value.getBytes("UTF-8"));
+        }
+    }
+
+    @Consumes("foo/bar")
+    @CacheableSelection
+    public static class EntityReader implements MessageBodyReader<Entity> {
+
+        @Override
+        public boolean isReadable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+                                  final MediaType mediaType) {
+            IS_READABLE_CALLS.incrementAndGet();
+            return type == Entity.class;
+        }
+
+        @Override
+        public Entity readFrom(final Class<Entity> type, final Type genericType, final Annotation[] annotations,
+                               final MediaType mediaType, final MultivaluedMap<String, String> httpHeaders,
+                               final InputStream entityStream) throws IOException, WebApplicationException {
+            return new Entity(ReaderWriter.readFromAsString(entityStream, mediaType));
+        }
+    }
+
+    public static class Variant {
+    }
+
+    @Produces("foo/bar")
+    public static class VariantWriter implements MessageBodyWriter<Variant> {
+
+        @Context
+        private HttpHeaders headers;
+
+        @Override
+        public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+                                   final MediaType mediaType) {
+            IS_VARIANT_WRITEABLE_CALLS.incrementAndGet();
+            return type == Variant.class && headers.getHeaderString("X-Variant") != null;
+        }
+
+        @Override
+        public long getSize(final Variant variant, final Class<?> type, final Type genericType,
+                            final Annotation[] annotations, final MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(final Variant variant, final Class<?> type, final Type genericType, final Annotation[] annotations,
+                            final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders,
+                            final OutputStream entityStream) throws IOException, WebApplicationException {
+            entityStream.write("variant".getBytes("UTF-8"));
+        }
+    }
+
+    @Produces("foo/bar")
+    @CacheableSelection
+    public static class PlainWriter implements MessageBodyWriter<Object> {
+
+        @Override
+        public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+                                   final MediaType mediaType) {
+            return type == Variant.class;
+        }
+
+        @Override
+        public long getSize(final Object o, final Class<?> type, final Type genericType,
+                            final Annotation[] annotations, final MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(final Object o, final Class<?> type, final Type genericType, final Annotation[] annotations,
+                            final MediaType mediaType, final MultivaluedMap<String, Object> httpHeaders,
+                            final OutputStream entityStream) throws IOException, WebApplicationException {
+            entityStream.write("plain".getBytes("UTF-8"));
+        }
+    }
+
+    @Path("/")
+    public static class Resource {
+
+        @GET
+        @Produces("foo/bar")
+        public Entity get() {
+            return new Entity("get");
+        }
+
+        @GET
+        @Path("other")
+        @Produces("foo/bar")
+        public Entity getOther() {
+            return new Entity("other");
+        }
+
+        @POST
+        @Consumes("foo/bar")
+        @Produces("foo/bar")
+        public Entity post(final Entity entity) {
+            return new Entity("post-" + entity.value);
+        }
+
+        @GET
+        @Path("variant")
+        @Produces("foo/bar")
+        public Variant getVariant() {
+            return new Variant();
+        }
+
+        @GET
+        @Path("properties")
+        @Produces("text/plain")
+        public String getProperties(@Context final ContainerRequest request) {
+            return request.getPropertyNames().toString();
+        }
+    }
+
+    private ApplicationHandler handler;
+
+    @Before
+    public void setUp() {
+        IS_WRITEABLE_CALLS.set(0);
+        IS_READABLE_CALLS.set(0);
+        IS_VARIANT_WRITEABLE_CALLS.set(0);
+        handler = new ApplicationHandler(new ResourceConfig(Resource.class, EntityWriter.class, EntityReader.class,
+                VariantWriter.class, PlainWriter.class));
+    }
+
+    private String apply(final ContainerRequest request) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final ContainerResponse response = handler.apply(request, out).get();
+        assertEquals(200, response.getStatus());
+        return out.toString("UTF-8");
+    }
+
+    @Test
+    public void testWriterSelectionIsCachedPerResourceMethod() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("get", apply(RequestContextBuilder.from("/", "GET").build()));
+        }
+        assertEquals(1, IS_WRITEABLE_CALLS.get());
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("other", apply(RequestContextBuilder.from("/other", "GET").build()));
+        }
+        assertEquals(2, IS_WRITEABLE_CALLS.get());
+    }
+
+    @Test
+    public void testReaderSelectionIsCachedPerResourceMethod() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("post-" + i, apply(RequestContextBuilder.from("/", "POST")
+                    .entity("" + i).type("foo/bar").build()));
+        }
+        assertEquals(1, IS_READABLE_CALLS.get());
+        assertEquals(1, IS_WRITEABLE_CALLS.get());
+    }
+
+    @Test
+    public void testCustomProviderSelectionIsNotCachedByDefault() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            assertEquals("plain", apply(RequestContextBuilder.from("/variant", "GET").build()));
+            assertEquals("variant", apply(RequestContextBuilder.from("/variant", "GET").header("X-Variant", "yes").build()));
+        }
+        assertEquals(4, IS_VARIANT_WRITEABLE_CALLS.get());
+    }
+
+    @Test
+    public void testCacheIsNotExposedAsRequestProperty() throws Exception {
+        apply(RequestContextBuilder.from("/", "GET").build());
+
+        final String properties = apply(RequestContextBuilder.from("/properties", "GET").build());
+        assertFalse(properties, properties.contains("SelectionCache"));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+
+package org.glassfish.jersey.server.internal.monitoring;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link DurationHistogram}.
+ */
+public class DurationHistogramTest {
+
+    @Test
+    public void testBuckets() {
+        for (int i = 0; i < 32; i++) {
+            Assert.assertEquals(i, DurationHistogram.bucketIndex(i));
+            Assert.assertEquals(i, DurationHistogram.highestValue(i));
+        }
+
+        int previous = DurationHistogram.bucketIndex(31);
+        for (long duration = 32; duration < 100000; duration++) {
+            final int bucket = DurationHistogram.bucketIndex(duration);
+            Assert.assertTrue("Buckets are not monotonic at " + duration, bucket == previous || bucket == previous + 1);
+            Assert.assertTrue(DurationHistogram.highestValue(bucket) >= duration);
+            Assert.assertTrue(DurationHistogram.highestValue(bucket - 1) < duration);
+            Assert.assertTrue("Relative error too high at " + duration,
+                    DurationHistogram.highestValue(bucket) - duration <= duration / 16);
+            previous = bucket;
+        }
+
+        Assert.assertEquals(DurationHistogram.BUCKETS - 1, DurationHistogram.bucketIndex(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testPercentiles() {
+        final DurationHistogram histogram = new DurationHistogram();
+        Assert.assertEquals(-1, histogram.getValueAtPercentile(50));
+
+        for (int i = 1000; i > 0; i--) {
+            histogram.add(i);
+        }
+
+        Assert.assertEquals(1000, histogram.getTotalCount());
+        Assert.assertEquals(1, histogram.getValueAtPercentile(0));
+        Assert.assertEquals(1000, histogram.getValueAtPercentile(100));
+        assertApproximately(500, histogram.getValueAtPercentile(50));
+        assertApproximately(990, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testMergeAndReset() {
+        final DurationHistogram first = new DurationHistogram();
+        final DurationHistogram second = new DurationHistogram();
+        for (int i = 1; i <= 500; i++) {
+            first.add(i);
+            second.add(i + 500);
+        }
+
+        final DurationHistogram merged = first.copy();
+        merged.add(second);
+        Assert.assertEquals(1000, merged.getTotalCount());
+        Assert.assertEquals(500, first.getTotalCount());
+        assertApproximately(500, merged.getValueAtPercentile(50));
+        Assert.assertEquals(1000, merged.getValueAtPercentile(100));
+
+        merged.reset();
+        Assert.assertEquals(0, merged.getTotalCount());
+        Assert.assertEquals(-1, merged.getValueAtPercentile(50));
+
+        merged.add(7);
+        Assert.assertEquals(7, merged.getValueAtPercentile(50));
+    }
+
+    private static void assertApproximately(final long expected, final long actual) {
+        Assert.assertTrue("Expected approximately " + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / 16);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.monitoring;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+
+import org.glassfish.jersey.server.model.Resource;
+import org.glassfish.jersey.server.model.ResourceMethod;
+import org.glassfish.jersey.server.model.ResourceModel;
+import org.glassfish.jersey.server.monitoring.ResourceMethodStatistics;
+import org.glassfish.jersey.server.monitoring.TimeWindowStatistics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * {@link MonitoringStatisticsRecorder} and statistics merging tests.
+ */
+public class MonitoringStatisticsRecorderTest {
+
+    private static final double DELTA = 0.0001;
+
+    @Path("resource")
+    public static class TestResource {
+
+        @GET
+        public String get() {
+            return "get";
+        }
+    }
+
+    @Test
+    public void testMergeTimeWindows() {
+        final TimeWindowStatisticsImpl.Builder first = new TimeWindowStatisticsImpl.Builder(1000, TimeUnit.MILLISECONDS, 0);
+        first.addRequest(0, 30);
+        first.addRequest(300, 100);
+
+        final TimeWindowStatisticsImpl.Builder second = new TimeWindowStatisticsImpl.Builder(1000, TimeUnit.MILLISECONDS, 0);
+        second.addRequest(500, 10);
+        second.addRequest(600, 20);
+        second.addRequest(700, 60);
+
+        final TimeWindowStatisticsImpl.Builder empty = new TimeWindowStatisticsImpl.Builder(1000, TimeUnit.MILLISECONDS, 0);
+
+        final TimeWindowStatistics merged = TimeWindowStatisticsImpl.merge(1000, Arrays.<TimeWindowStatistics>asList(
+                first.build(1000), second.build(1000), empty.build(1000)));
+
+        Assert.assertEquals(1000, merged.getTimeWindow());
+        Assert.assertEquals(5, merged.getRequestCount());
+        Assert.assertEquals(10, merged.getMinimumDuration());
+        Assert.assertEquals(100, merged.getMaximumDuration());
+        Assert.assertEquals(44, merged.getAverageDuration());
+        Assert.assertEquals(5, merged.getRequestsPerSecond(), DELTA);
+    }
+
+    @Test
+    public void testMergeEmptyTimeWindows() {
+        final TimeWindowStatisticsImpl.Builder empty = new TimeWindowStatisticsImpl.Builder(1000, TimeUnit.MILLISECONDS, 0);
+        final TimeWindowStatistics merged = TimeWindowStatisticsImpl.merge(1000, Arrays.<TimeWindowStatistics>asList(
+                empty.build(1000), empty.build(1000)));
+
+        Assert.assertEquals(0, merged.getRequestCount());
+        Assert.assertEquals(-1, merged.getMinimumDuration());
+        Assert.assertEquals(-1, merged.getMaximumDuration());
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final ResourceModel model = new ResourceModel.Builder(
+                Collections.singletonList(Resource.from(TestResource.class)), false).build();
+        final ResourceMethod method = model.getRootResources().get(0).getResourceMethods().get(0);
+
+        final MonitoringStatisticsRecorder recorder = new MonitoringStatisticsRecorder(model, 4);
+
+        final int threads = 8;
+        final int requests = 1000;
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                        for (int j = 0; j < requests; j++) {
+                            final long now = System.currentTimeMillis();
+                            recorder.addRequest(now, 2, "/resource", method, now, 1, j % 2 == 0 ? 200 : 404);
+                            if (j % 10 == 0) {
+                                recorder.addExceptionMapping(null, false);
+                            }
+                        }
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        finished.countDown();
+                    }
+                }
+            }).start();
+        }
+
+        start.countDown();
+        Assert.assertTrue(finished.await(10, TimeUnit.SECONDS));
+
+        final MonitoringStatisticsImpl stats = recorder.build();
+
+        Assert.assertEquals(threads * requests / 2, stats.getResponseStatistics().getResponseCodes().get(200).longValue());
+        Assert.assertEquals(threads * requests / 2, stats.getResponseStatistics().getResponseCodes().get(404).longValue());
+        Assert.assertEquals(threads * requests / 10, stats.getExceptionMapperStatistics().getUnsuccessfulMappings());
+
+        Assert.assertEquals(1, stats.getUriStatistics().size());
+        Assert.assertEquals(1, stats.getResourceClassStatistics().size());
+
+        final ResourceMethodStatistics methodStats = stats.getUriStatistics().get("/resource")
+                .getResourceMethodStatistics().values().iterator().next();
+        final TimeWindowStatistics window = methodStats.getMethodStatistics().getTimeWindowStatistics()
+                .get(TimeUnit.HOURS.toMillis(1));
+        Assert.assertEquals(threads * requests, window.getRequestCount());
+        Assert.assertEquals(1, window.getAverageDuration());
+    }
+}
@@ -172,7 +172,52 @@ public class TimeWindowStatisticsImplTest {
         check(builder, 10000, 6, 10, 60, 35, 0.6);
     }
 
-}
+    @Test
+    public void testPercentiles() {
+        final TimeWindowStatisticsImpl.Builder builder = new TimeWindowStatisticsImpl.Builder(10, TimeUnit.SECONDS, 0);
+        for (int i = 1; i <= 100; i++) {
+            builder.addRequest(i * 10, i);
+        }
 
+        TimeWindowStatisticsImpl stat = builder.build(2000);
+        Assert.assertEquals(1, stat.getDurationPercentile(0));
+        Assert.assertEquals(27, stat.getDurationPercentile(27));
+        Assert.assertEquals(100, stat.getDurationPercentile(100));
+        final long p90 = stat.getDurationPercentile(90);
+        Assert.assertTrue("90th percentile out of bounds: " + p90, p90 >= 90 && p90 <= 90 * 17 / 16);
+
+        // all requests are older than the time window
+        stat = builder.build(30000);
+        Assert.assertEquals(0, stat.getRequestCount());
+        Assert.assertEquals(-1, stat.getDurationPercentile(50));
+
+        builder.addRequest(31000, 500);
+        stat = builder.build(32000);
+        Assert.assertEquals(500, stat.getDurationPercentile(1));
+        Assert.assertEquals(500, stat.getDurationPercentile(99.9));
+    }
 
+    @Test
+    public void testPercentilesExcludeRequestsOlderThanTimeWindow() {
+        final TimeWindowStatisticsImpl.Builder builder = new TimeWindowStatisticsImpl.Builder(10, TimeUnit.SECONDS, 0);
+        builder.addRequest(0, 1000);
+        builder.addRequest(10400, 10);
+
+        // the first request is 10.5 seconds old
+        final TimeWindowStatisticsImpl stat = builder.build(10500);
+        Assert.assertEquals(10, stat.getDurationPercentile(100));
+    }
 
+    @Test
+    public void testPercentilesUnlimited() {
+        final TimeWindowStatisticsImpl.Builder builder = new TimeWindowStatisticsImpl.Builder(0, TimeUnit.MILLISECONDS, 0);
+        builder.addRequest(0, 10);
+        builder.addRequest(100000, 20);
+        builder.addRequest(200000, 30);
+
+        final TimeWindowStatisticsImpl stat = builder.build(300000);
+        Assert.assertEquals(10, stat.getDurationPercentile(10));
+        Assert.assertEquals(20, stat.getDurationPercentile(50));
+        Assert.assertEquals(30, stat.getDurationPercentile(99));
+    }
+}
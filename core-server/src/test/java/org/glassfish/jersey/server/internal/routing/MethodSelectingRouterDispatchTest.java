@@ -0,0 +1,154 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.server.RequestContextBuilder;
+import org.glassfish.jersey.server.ResourceConfig;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests that the method selection served from the {@link MethodSelectingRouter} dispatch table
+ * gives the same results as the full method selection.
+ */
+public class MethodSelectingRouterDispatchTest {
+
+    @Path("/")
+    public static class Resource {
+
+        @GET
+        @Produces("text/plain")
+        public String getText() {
+            return "text";
+        }
+
+        @GET
+        @Produces("application/json")
+        public String getJson() {
+            return "json";
+        }
+
+        @POST
+        @Consumes("text/plain")
+        @Produces("text/plain")
+        public String postText(final String entity) {
+            return "text:" + entity;
+        }
+
+        @POST
+        @Consumes("application/xml")
+        @Produces("text/plain")
+        public String postXml(final String entity) {
+            return "xml:" + entity;
+        }
+    }
+
+    private ContainerResponse get(final ApplicationHandler app, final String... accept) throws Exception {
+        return app.apply(RequestContextBuilder.from("/", "GET").accept(accept).build()).get();
+    }
+
+    private ContainerResponse post(final ApplicationHandler app, final String contentType) throws Exception {
+        return app.apply(RequestContextBuilder.from("/", "POST").entity("e").type(contentType).build()).get();
+    }
+
+    @Test
+    public void testRepeatedGet() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class));
+
+        for (int i = 0; i < 3; i++) {
+            ContainerResponse response = get(app, "text/plain");
+            assertEquals("text", response.getEntity());
+            assertEquals(MediaType.TEXT_PLAIN_TYPE, response.getMediaType());
+
+            response = get(app, "application/json");
+            assertEquals("json", response.getEntity());
+            assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getMediaType());
+
+            response = get(app, "application/json;q=0.5", "text/plain");
+            assertEquals("text", response.getEntity());
+            assertEquals(MediaType.TEXT_PLAIN_TYPE, response.getMediaType());
+
+            response = get(app, "application/xml");
+            assertEquals(406, response.getStatus());
+        }
+    }
+
+    @Test
+    public void testRepeatedPost() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("text:e", post(app, "text/plain").getEntity());
+            assertEquals("text:e", post(app, "text/plain;charset=UTF-8").getEntity());
+            assertEquals("xml:e", post(app, "application/xml").getEntity());
+            assertEquals(415, post(app, "application/json").getStatus());
+        }
+    }
+
+    @Test
+    public void testMethodNotAllowed() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class));
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(405, app.apply(RequestContextBuilder.from("/", "PUT").build()).get().getStatus());
+        }
+    }
+
+    @Test
+    public void testDispatchTableOverflow() throws Exception {
+        final ApplicationHandler app = new ApplicationHandler(new ResourceConfig(Resource.class));
+
+        // distinct Accept header values overflow the table and evict each other
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("json", get(app, "application/json;junk=" + i).getEntity());
+            assertEquals("text", get(app, "text/plain").getEntity());
+        }
+    }
+}
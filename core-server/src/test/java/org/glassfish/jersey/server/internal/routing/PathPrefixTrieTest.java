@@ -0,0 +1,139 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.internal.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.glassfish.jersey.uri.PathPattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * {@link PathPrefixTrie} unit tests.
+ */
+public class PathPrefixTrieTest {
+
+    @Test
+    public void testLiteralPrefix() {
+        assertEquals("/foo/bar", PathPrefixTrie.literalPrefix(
+                new PathPattern("foo/bar", PathPattern.RightHandPath.capturingZeroSegments)));
+        assertEquals("/foo", PathPrefixTrie.literalPrefix(new PathPattern("foo/")));
+        assertEquals("/foo/", PathPrefixTrie.literalPrefix(new PathPattern("foo/{id}")));
+        assertEquals("/foo/", PathPrefixTrie.literalPrefix(new PathPattern("foo/{id: [0-9]+}")));
+        assertEquals("/a.b-c", PathPrefixTrie.literalPrefix(new PathPattern("a.b-c")));
+        assertEquals("/a", PathPrefixTrie.literalPrefix(new PathPattern("a%2fb")));
+        assertEquals("", PathPrefixTrie.literalPrefix(PathPattern.OPEN_ROOT_PATH_PATTERN));
+        assertEquals("", PathPrefixTrie.literalPrefix(PathPattern.END_OF_PATH_PATTERN));
+        assertEquals("", PathPrefixTrie.literalPrefix(PathPattern.EMPTY_PATTERN));
+    }
+
+    @Test
+    public void testCandidatesKeepRouteOrder() {
+        final PathPrefixTrie trie = new PathPrefixTrie(patterns(routes(
+                "foo/bar",
+                "foo/{id}",
+                "foo",
+                "bar",
+                "{any}",
+                "")));
+
+        assertArrayEquals(new int[] {0, 1, 2, 4, 5}, trie.candidates("/foo/bar"));
+        assertArrayEquals(new int[] {1, 2, 4, 5}, trie.candidates("/foo/baz"));
+        assertArrayEquals(new int[] {2, 4, 5}, trie.candidates("/foo"));
+        assertArrayEquals(new int[] {3, 4, 5}, trie.candidates("/bar/baz"));
+        assertArrayEquals(new int[] {4, 5}, trie.candidates("/baz"));
+        assertArrayEquals(new int[] {5}, trie.candidates(""));
+        assertArrayEquals(new int[] {5}, trie.candidates(null));
+    }
+
+    @Test
+    public void testCandidatesContainAllMatchingRoutes() {
+        final List<Route> routes = routes(
+                "a/b/c",
+                "a/{x}/c",
+                "a/b",
+                "a",
+                "{x}/b",
+                "ab",
+                "a/b.c");
+        final PathPrefixTrie trie = new PathPrefixTrie(patterns(routes));
+
+        for (final String path : new String[] {"/a/b/c", "/a/x/c", "/a/b", "/a", "/ab", "/x/b", "/a/b.c", "/abc", "/"}) {
+            final List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < routes.size(); i++) {
+                if (routes.get(i).routingPattern().match(path) != null) {
+                    expected.add(i);
+                }
+            }
+
+            final List<Integer> actual = new ArrayList<>();
+            for (final int candidate : trie.candidates(path)) {
+                if (routes.get(candidate).routingPattern().match(path) != null) {
+                    actual.add(candidate);
+                }
+            }
+
+            assertEquals("Unexpected matching routes for path " + path, expected, actual);
+        }
+    }
+
+    private static List<Route> routes(final String... templates) {
+        final List<Route> routes = new ArrayList<>();
+        for (final String template : templates) {
+            final PathPattern pattern = template.isEmpty()
+                    ? PathPattern.OPEN_ROOT_PATH_PATTERN
+                    : new PathPattern(template, PathPattern.RightHandPath.capturingZeroSegments);
+            routes.add(Route.of(pattern, Collections.<Router>emptyList()));
+        }
+        return routes;
+    }
+
+    private static List<PathPattern> patterns(final List<Route> routes) {
+        final List<PathPattern> patterns = new ArrayList<>();
+        for (final Route route : routes) {
+            patterns.add(route.routingPattern());
+        }
+        return patterns;
+    }
+}
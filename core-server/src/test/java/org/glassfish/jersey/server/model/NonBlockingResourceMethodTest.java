@@ -0,0 +1,121 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.server.model;
+
+import java.lang.reflect.Method;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+
+import org.glassfish.jersey.server.NonBlocking;
+
+import org.junit.Test;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test the {@link NonBlocking non-blocking} flag on the {@link ResourceMethod resource method} model.
+ */
+public class NonBlockingResourceMethodTest {
+
+    @Path("lookup")
+    public static class LookupResource {
+
+        @GET
+        @NonBlocking
+        public String get() {
+            return "get";
+        }
+
+        @POST
+        public String post(final String entity) {
+            return entity;
+        }
+    }
+
+    @Test
+    public void testIntrospection() {
+        final Resource resource = Resource.from(LookupResource.class);
+
+        for (final ResourceMethod method : resource.getResourceMethods()) {
+            if ("GET".equals(method.getHttpMethod())) {
+                assertTrue(method.isNonBlocking());
+            } else {
+                assertFalse(method.isNonBlocking());
+            }
+        }
+    }
+
+    @Test
+    public void testBuilderCopy() {
+        final Resource resource = Resource.from(LookupResource.class);
+        final Resource copy = Resource.builder(resource).build();
+
+        boolean found = false;
+        for (final ResourceMethod method : copy.getResourceMethods()) {
+            if ("GET".equals(method.getHttpMethod())) {
+                assertTrue(method.isNonBlocking());
+                found = true;
+            }
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void testProgrammatic() {
+        final Resource.Builder builder = Resource.builder("programmatic");
+        builder.addMethod("GET").nonBlocking().handledBy(LookupResource.class, getMethod("get"));
+        builder.addMethod("POST").handledBy(LookupResource.class, getMethod("post"));
+
+        for (final ResourceMethod method : builder.build().getResourceMethods()) {
+            assertTrue("GET".equals(method.getHttpMethod()) == method.isNonBlocking());
+        }
+    }
+
+    private static Method getMethod(final String name) {
+        for (final Method method : LookupResource.class.getMethods()) {
+            if (method.getName().equals(name)) {
+                return method;
+            }
+        }
+        throw new AssertionError(name);
+    }
+}
@@ -47,9 +47,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
@@ -126,6 +124,19 @@ import org.glassfish.jersey.internal.util.ExtendedLogger;
  * HTTP connections, you may do so by invoking the {@link Builder#usePersistentConnections() usePersistentConnections()} method
  * on an event source builder prior to creating a new event source instance.
  * </p>
+ * <h3>Threading</h3>
+ * <p>
+ * Event sources do not own any threads. A connected event source reads its event stream in a reader thread borrowed
+ * from a pool shared by all the event sources in the JVM and keeps the thread for as long as the event stream is open.
+ * The pool grows with the number of connected event sources; a warning is logged once the number of busy reader threads
+ * reaches the {@value SseFeature#EVENT_SOURCE_READERS_WARNING_THRESHOLD} system property. Event sources waiting
+ * to reconnect do not hold any thread, their reconnect delays are tracked by a single shared timer thread.
+ * </p>
+ * <p>
+ * The shared threads are daemon threads. Unlike in Jersey versions prior to 2.18, an open event source does not prevent
+ * the JVM from exiting. Applications that only wait for events must keep one of their own threads alive, e.g. by waiting
+ * for the events to be received.
+ * </p>
  *
  * @author Pavel Bucek (pavel.bucek at oracle.com)
  * @author Marek Potociar (marek.potociar at oracle.com)
@@ -159,9 +170,25 @@ public class EventSource implements EventListener {
      */
     private final boolean disableKeepAlive;
     /**
-     * Incoming SSE event processing task executor.
+     * Event source name, used as the name of the reader thread while the event source is connected.
      */
-    private final ScheduledExecutorService executor;
+    private final String name;
+    /**
+     * Currently submitted incoming SSE event processing task.
+     */
+    private volatile Future<?> processingTask;
+    /**
+     * Currently scheduled (pending) reconnect task.
+     */
+    private volatile Future<?> reconnectTask;
+    /**
+     * Guards the number of currently running event processing tasks.
+     */
+    private final Object processingLock = new Object();
+    /**
+     * Number of currently running event processing tasks.
+     */
+    private int runningProcessors = 0;
     /**
      * Event source internal state.
      */
@@ -264,8 +291,8 @@ public class EventSource implements EventListener {
          * </p>
          * <p>
          * Once the event source is open, the incoming events are processed by the event source in an
-         * asynchronous task that runs in an internal single-threaded {@link ScheduledExecutorService
-         * scheduled executor service}.
+         * asynchronous task that runs in a reader thread borrowed from a pool shared by all event sources.
+         * While waiting to reconnect, the event source does not hold any thread.
          * </p>
          *
          * @return new event source instance, ready to be connected to the SSE endpoint.
@@ -284,8 +311,8 @@ public class EventSource implements EventListener {
          * builder {@link #build()} method instead.
          * </p>
          * <p>
-         * The incoming events are processed by the event source in an asynchronous task that runs in an
-         * internal single-threaded {@link ScheduledExecutorService scheduled executor service}.
+         * The incoming events are processed by the event source in an asynchronous task that runs in a
+         * reader thread borrowed from a pool shared by all event sources.
          * </p>
          *
          * @return new event source instance, already connected to the SSE endpoint.
@@ -322,8 +349,8 @@ public class EventSource implements EventListener {
      * web target and starts processing incoming {@link InboundEvent events}.
      * </p>
      * <p>
-     * The incoming events are processed by the event source in an asynchronous task that runs in an
-     * internal single-threaded {@link ScheduledExecutorService scheduled executor service}.
+     * The incoming events are processed by the event source in an asynchronous task that runs in a
+     * reader thread borrowed from a pool shared by all event sources.
      * </p>
      *
      * @param endpoint SSE streaming endpoint. Must not be {@code null}.
@@ -353,8 +380,8 @@ public class EventSource implements EventListener {
      * </p>
      * <p>
      * Once the event source is open, the incoming events are processed by the event source in an
-     * asynchronous task that runs in an internal single-threaded {@link ScheduledExecutorService
-     * scheduled executor service}.
+     * asynchronous task that runs in a reader thread borrowed from a pool shared by all event sources.
+     * While waiting to reconnect, the event source does not hold any thread.
      * </p>
      *
      * @param endpoint SSE streaming endpoint. Must not be {@code null}.
@@ -379,13 +406,7 @@ public class EventSource implements EventListener {
         this.reconnectDelay = reconnectDelay;
         this.disableKeepAlive = disableKeepAlive;
 
-        final String esName = (name == null) ? createDefaultName(target) : name;
-        this.executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
-            @Override
-            public Thread newThread(Runnable r) {
-                return new Thread(r, esName);
-            }
-        });
+        this.name = (name == null) ? createDefaultName(target) : name;
 
         if (open) {
             open();
@@ -413,7 +434,7 @@ public class EventSource implements EventListener {
         }
 
         EventProcessor processor = new EventProcessor(reconnectDelay, null);
-        executor.submit(processor);
+        submit(processor);
 
         // return only after the first request to the SSE endpoint has been made
         processor.awaitFirstContact();
@@ -519,13 +540,13 @@ public class EventSource implements EventListener {
      *
      * @param timeout the maximum time to wait.
      * @param unit    the time unit of the timeout argument.
-     * @return {@code true} if this executor terminated and {@code false} if the timeout elapsed
+     * @return {@code true} if the event processing task completed and {@code false} if the timeout elapsed
      * before termination or the termination was interrupted.
      */
     public boolean close(final long timeout, final TimeUnit unit) {
         shutdown();
         try {
-            if (!executor.awaitTermination(timeout, unit)) {
+            if (!awaitProcessingCompleted(unit.toNanos(timeout))) {
                 LOGGER.log(CONNECTION_ERROR_LEVEL,
                         LocalizationMessages.EVENT_SOURCE_SHUTDOWN_TIMEOUT(target.getUri().toString()));
                 return false;
@@ -543,10 +564,73 @@ public class EventSource implements EventListener {
         if (state.getAndSet(State.CLOSED) != State.CLOSED) {
             // shut down only if has not been shut down before
             LOGGER.debugLog("Shutting down event processing.");
-            executor.shutdownNow();
+            cancel(reconnectTask);
+            cancel(processingTask);
+        }
+    }
+
+    private static void cancel(final Future<?> task) {
+        if (task != null) {
+            task.cancel(true);
+        }
+    }
+
+    /**
+     * Submit the event processor task to the shared reader pool.
+     *
+     * @param processor event processor task to be submitted.
+     */
+    private void submit(final EventProcessor processor) {
+        final Future<?> task = EventSourceExecutors.read(processor);
+        processingTask = task;
+        if (state.get() != State.OPEN) {
+            // closed concurrently - shutdown() may have missed the new task
+            task.cancel(true);
         }
     }
 
+    /**
+     * Schedule the event processor task to be submitted to the shared reader pool after the specified delay.
+     *
+     * @param processor event processor task to be scheduled.
+     * @param delay     delay [milliseconds].
+     */
+    private void schedule(final EventProcessor processor, final long delay) {
+        final Future<?> task = EventSourceExecutors.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (state.get() == State.OPEN) {
+                    submit(processor);
+                }
+            }
+        }, delay);
+        reconnectTask = task;
+        if (state.get() != State.OPEN) {
+            task.cancel(false);
+        }
+    }
+
+    /**
+     * Wait until no event processing task of this event source is running.
+     *
+     * @param timeout maximum time to wait [nanoseconds].
+     * @return {@code true} if all event processing tasks completed, {@code false} if the timeout elapsed.
+     * @throws InterruptedException in case the waiting thread has been interrupted.
+     */
+    private boolean awaitProcessingCompleted(final long timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout;
+        synchronized (processingLock) {
+            while (runningProcessors > 0) {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(processingLock, remaining);
+            }
+        }
+        return true;
+    }
+
     /**
      * Private event processor task responsible for connecting to the SSE stream and processing
      * incoming SSE events as well as handling any connection issues.
@@ -586,6 +670,24 @@ public class EventSource implements EventListener {
 
         @Override
         public void run() {
+            synchronized (processingLock) {
+                runningProcessors++;
+            }
+            final Thread execThread = Thread.currentThread();
+            final String threadName = execThread.getName();
+            execThread.setName(name);
+            try {
+                process(execThread);
+            } finally {
+                execThread.setName(threadName);
+                synchronized (processingLock) {
+                    runningProcessors--;
+                    processingLock.notifyAll();
+                }
+            }
+        }
+
+        private void process(final Thread execThread) {
             LOGGER.debugLog("Listener task started.");
 
             EventInput eventInput = null;
@@ -604,8 +706,6 @@ public class EventSource implements EventListener {
                     }
                 }
 
-                final Thread execThread = Thread.currentThread();
-
                 while (state.get() == State.OPEN && !execThread.isInterrupted()) {
                     if (eventInput == null || eventInput.isClosed()) {
                         LOGGER.debugLog("Connection lost - scheduling reconnect in {0} ms", reconnectDelay);
@@ -717,9 +817,9 @@ public class EventSource implements EventListener {
             // propagate the current reconnectDelay, but schedule based on the delay parameter
             final EventProcessor processor = new EventProcessor(this);
             if (delay > 0) {
-                executor.schedule(processor, delay, TimeUnit.MILLISECONDS);
+                schedule(processor, delay);
             } else {
-                executor.submit(processor);
+                submit(processor);
             }
         }
 
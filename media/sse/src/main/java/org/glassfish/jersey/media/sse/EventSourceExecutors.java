@@ -0,0 +1,163 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.media.sse;
+
+import java.security.AccessController;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import org.glassfish.jersey.internal.util.PropertiesHelper;
+
+import jersey.repackaged.com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Executors shared by all {@link EventSource event source} instances in the JVM.
+ * <p>
+ * Connecting to the SSE endpoint and reading the incoming event stream is done in a shared pool of reader threads.
+ * The connectors expose the event stream as a blocking input stream, so a connected event source occupies one reader
+ * thread for as long as its stream is open. The thread is returned to the pool as soon as the connection is lost
+ * or the event source is closed. Since a reader task may never finish, the pool is not bounded and no event source
+ * ever waits for a reader thread. Instead, a warning is logged once the number of busy reader threads reaches the
+ * {@value SseFeature#EVENT_SOURCE_READERS_WARNING_THRESHOLD} system property.
+ * </p>
+ * <p>
+ * Reconnect delays are tracked by a single shared timer thread, so an event source waiting to reconnect does
+ * not hold any thread at all.
+ * </p>
+ * <p>
+ * All the threads are daemon threads and idle threads are discarded, so the shared executors never prevent
+ * the JVM from exiting.
+ * </p>
+ */
+final class EventSourceExecutors {
+
+    private static final Logger LOGGER = Logger.getLogger(EventSourceExecutors.class.getName());
+
+    /**
+     * Idle time [seconds] after which an unused thread is discarded.
+     */
+    private static final long KEEP_ALIVE = 60;
+
+    private static final int READERS_WARNING_THRESHOLD = getReadersWarningThreshold();
+    private static final ScheduledExecutorService TIMER;
+    private static final ThreadPoolExecutor READERS;
+    private static final AtomicBoolean EXHAUSTED_LOGGED = new AtomicBoolean(false);
+
+    static {
+        final ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, new ThreadFactoryBuilder()
+                .setNameFormat("jersey-sse-event-source-timer-%d")
+                .setDaemon(true)
+                .build());
+        timer.setRemoveOnCancelPolicy(true);
+        timer.setKeepAliveTime(KEEP_ALIVE, TimeUnit.SECONDS);
+        timer.allowCoreThreadTimeOut(true);
+        TIMER = timer;
+
+        // reader tasks run as long as the event streams are open - never queue a task behind them
+        READERS = new ThreadPoolExecutor(0, Integer.MAX_VALUE, KEEP_ALIVE, TimeUnit.SECONDS,
+                new SynchronousQueue<Runnable>(),
+                new ThreadFactoryBuilder()
+                        .setNameFormat("jersey-sse-event-source-reader-%d")
+                        .setDaemon(true)
+                        .build());
+    }
+
+    private static int getReadersWarningThreshold() {
+        final String value = AccessController.doPrivileged(
+                PropertiesHelper.getSystemProperty(SseFeature.EVENT_SOURCE_READERS_WARNING_THRESHOLD));
+        if (value != null) {
+            try {
+                final int threshold = Integer.parseInt(value);
+                if (threshold > 0) {
+                    return threshold;
+                }
+            } catch (final NumberFormatException e) {
+                // reported below
+            }
+            LOGGER.config(LocalizationMessages.EVENT_SOURCE_READERS_INVALID(
+                    SseFeature.EVENT_SOURCE_READERS_WARNING_THRESHOLD, value,
+                    SseFeature.EVENT_SOURCE_DEFAULT_READERS_WARNING_THRESHOLD));
+        }
+        return SseFeature.EVENT_SOURCE_DEFAULT_READERS_WARNING_THRESHOLD;
+    }
+
+    /**
+     * Prevents instantiation.
+     */
+    private EventSourceExecutors() {
+        throw new AssertionError("No instances allowed.");
+    }
+
+    /**
+     * Submit an event processing task to the shared reader pool. The task is executed immediately, in a new reader
+     * thread if all the pooled reader threads are busy.
+     *
+     * @param task event processing task.
+     * @return future representing the submitted task.
+     */
+    static Future<?> read(final Runnable task) {
+        if (READERS.getActiveCount() >= READERS_WARNING_THRESHOLD && EXHAUSTED_LOGGED.compareAndSet(false, true)) {
+            LOGGER.warning(LocalizationMessages.EVENT_SOURCE_READERS_EXHAUSTED(
+                    READERS_WARNING_THRESHOLD, SseFeature.EVENT_SOURCE_READERS_WARNING_THRESHOLD));
+        }
+        return READERS.submit(task);
+    }
+
+    /**
+     * Schedule an event processing task to be submitted to the shared reader pool after the specified delay.
+     * <p>
+     * No reader thread is occupied until the delay elapses.
+     * </p>
+     *
+     * @param task  event processing task.
+     * @param delay delay [milliseconds] after which the task should be submitted to the reader pool.
+     * @return future representing the pending delay; cancelling it prevents the task from being submitted.
+     */
+    static ScheduledFuture<?> schedule(final Runnable task, final long delay) {
+        return TIMER.schedule(task, delay, TimeUnit.MILLISECONDS);
+    }
+}
@@ -172,6 +172,22 @@ public class InboundEvent {
             return this;
         }
 
+        /**
+         * Add more inbound event data.
+         *
+         * @param data   byte array containing data stored in the incoming event.
+         * @param offset offset of the event data in the array.
+         * @param length length of the event data.
+         * @return updated builder instance.
+         * @since 2.18
+         */
+        public Builder write(final byte[] data, final int offset, final int length) {
+            if (length > 0) {
+                this.dataStream.write(data, offset, length);
+            }
+            return this;
+        }
+
         /**
          * Build a new inbound event instance using the supplied data.
          *
@@ -39,12 +39,12 @@
  */
 package org.glassfish.jersey.media.sse;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -70,16 +70,11 @@ import org.glassfish.jersey.message.MessageUtils;
 class InboundEventReader implements MessageBodyReader<InboundEvent> {
     private static final Logger LOGGER = Logger.getLogger(InboundEventReader.class.getName());
     private static final byte[] EOL_DATA = new byte[]{'\n'};
+    private static final int MIN_BUFFER_SIZE = 256;
 
     @Inject
     private Provider<MessageBodyWorkers> messageBodyWorkers;
 
-    private static enum State {
-        NEW_LINE,
-        COMMENT,
-        FIELD,
-    }
-
     @Override
     public boolean isReadable(final Class<?> type, final Type genericType, final Annotation[] annotations,
                               final MediaType mediaType) {
@@ -99,97 +94,102 @@ class InboundEventReader implements MessageBodyReader<InboundEvent> {
          * http://dev.w3.org/html5/eventsource/
          * last editors draft from 13 March 2012
          */
-        final ByteArrayOutputStream tokenData = new ByteArrayOutputStream();
+        final Charset charset = MessageUtils.getCharset(mediaType);
         final InboundEvent.Builder eventBuilder =
                 new InboundEvent.Builder(messageBodyWorkers.get(), annotations, mediaType, headers);
 
-        int b = -1;
-        State currentState = State.NEW_LINE;
-        loop:
-        do {
-            switch (currentState) {
-                case NEW_LINE:
-                    b = entityStream.read();
-                    if (b == '\n' || b == -1) {
-                        break loop;
-                    }
-
-                    if (b == ':') {
-                        currentState = State.COMMENT;
-                    } else {
-                        tokenData.write(b);
-                        currentState = State.FIELD;
-                    }
-                    break;
-                case COMMENT:
-                    // skipping comment data
-                    b = readLineUntil(entityStream, '\n', null);
-                    currentState = State.NEW_LINE;
-                    break;
-                case FIELD:
-                    // read field name
-                    b = readLineUntil(entityStream, ':', tokenData);
-                    final String fieldName = tokenData.toString(MessageUtils.getCharset(mediaType).name());
-                    tokenData.reset();
-
-                    if (b == ':') {
-                        // read field value
-                        b = entityStream.read();
-                        if (b == ' ') {
-                            // first space in value has to be skipped
-                            b = entityStream.read();
-                        }
-
-                        if (b != '\n' && b != -1) {
-                            tokenData.write(b);
-                            b = readLineUntil(entityStream, '\n', tokenData);
-                        }
-                    }
+        // read the event at once and split the lines in place
+        final byte[] event = readEvent(entityStream);
+        final int end = event.length;
+        int lineStart = 0;
+        while (lineStart < end) {
+            final int lineEnd = indexOf(event, '\n', lineStart, end);
+            if (lineEnd == lineStart) {
+                // empty line - end of event
+                break;
+            }
 
-                    processField(eventBuilder, fieldName, mediaType, tokenData.toByteArray());
-                    tokenData.reset();
+            if (event[lineStart] != ':') { // lines starting with ':' are comments
+                final int colon = indexOf(event, ':', lineStart, lineEnd);
+                final String fieldName = new String(event, lineStart, colon - lineStart, charset);
 
-                    currentState = State.NEW_LINE;
-                    break;
+                int valueStart = colon;
+                if (colon < lineEnd) {
+                    valueStart = colon + 1;
+                    if (valueStart < lineEnd && event[valueStart] == ' ') {
+                        // first space in value has to be skipped
+                        valueStart++;
+                    }
+                }
+                processField(eventBuilder, fieldName, charset, event, valueStart, lineEnd - valueStart);
             }
-        } while (b != -1);
+
+            lineStart = lineEnd + 1;
+        }
 
         return eventBuilder.build();
     }
 
     /**
-     * Read input stream until a delimiter or {@code EOL ('\n')} or {@code EOF} is reached
-     * and write the read data to the supplied output stream if not {@code null}, or discard
-     * the data if the output stream is {@code null}.
+     * Read the entity stream up to the empty line that ends the event, or up to the end of the stream.
+     * <p>
+     * The data are read in bulk, but the reading stops as soon as the empty line has been read, so that an event can
+     * be read from a live event stream that does not end after the event.
+     * </p>
      *
-     * @param in        input stream to be read.
-     * @param delimiter delimiter to break the read (apart from {@code EOL ('\n')} or {@code EOF}).
-     * @param out       output stream to write the read data to. May be {@code null}, in which case the
-     *                  read data are silently discarded.
-     * @return value of the last byte read.
-     * @throws IOException in case the reading or writing of the data failed.
+     * @param in entity stream.
+     * @return event data without the terminating empty line.
+     * @throws IOException in case the reading of the data failed.
      */
-    private int readLineUntil(final InputStream in, final int delimiter, final OutputStream out) throws IOException {
-        int b;
-        while ((b = in.read()) != -1) {
-            if (b == delimiter || b == '\n') {
-                break;
-            } else if (out != null) {
-                out.write(b);
+    private static byte[] readEvent(final InputStream in) throws IOException {
+        // the chunk entity stream is typically a byte array input stream that knows its exact size
+        byte[] buffer = new byte[Math.max(in.available(), MIN_BUFFER_SIZE)];
+        int length = 0;
+        int read;
+        while ((read = in.read(buffer, length, buffer.length - length)) != -1) {
+            for (int i = length; i < length + read; i++) {
+                if (buffer[i] == '\n' && (i == 0 || buffer[i - 1] == '\n')) {
+                    // empty line - end of event
+                    return Arrays.copyOf(buffer, i);
+                }
+            }
+            length += read;
+            if (length == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
             }
         }
+        return Arrays.copyOf(buffer, length);
+    }
 
-        return b;
+    /**
+     * Find the first occurrence of the {@code delimiter} or {@code EOL ('\n')} in the data range.
+     *
+     * @param data      data to be searched.
+     * @param delimiter delimiter to be found (apart from {@code EOL ('\n')}).
+     * @param from      start of the searched range (inclusive).
+     * @param to        end of the searched range (exclusive).
+     * @return index of the first delimiter or {@code EOL} occurrence, or {@code to} if none has been found.
+     */
+    private static int indexOf(final byte[] data, final char delimiter, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (data[i] == delimiter || data[i] == '\n') {
+                return i;
+            }
+        }
+        return to;
     }
 
-    private void processField(final InboundEvent.Builder inboundEventBuilder, final String name,
-                              final MediaType mediaType, final byte[] value) {
-        final String valueString = new String(value, MessageUtils.getCharset(mediaType));
+    private void processField(final InboundEvent.Builder inboundEventBuilder, final String name, final Charset charset,
+                              final byte[] data, final int valueOffset, final int valueLength) {
+        if ("data".equals(name)) {
+            inboundEventBuilder.write(data, valueOffset, valueLength);
+            inboundEventBuilder.write(EOL_DATA);
+            return;
+        }
+
+        final String valueString = new String(data, valueOffset, valueLength, charset);
         if ("event".equals(name)) {
             inboundEventBuilder.name(valueString);
-        } else if ("data".equals(name)) {
-            inboundEventBuilder.write(value);
-            inboundEventBuilder.write(EOL_DATA);
         } else if ("id".equals(name)) {
             inboundEventBuilder.id(valueString);
         } else if ("retry".equals(name)) {
@@ -109,6 +109,35 @@ public class SseFeature implements Feature {
     @Property
     public static final String DISABLE_SSE_SERVER = "jersey.config.server.media.sse.disable";
 
+    /**
+     * Number of busy threads reading the event streams of all the {@link EventSource event sources} in the JVM above which
+     * a warning is logged.
+     * <p>
+     * Every connected event source occupies one reader thread for as long as its event stream is open. The pool of reader
+     * threads is not bounded, so that every event source receives its events no matter how many event sources are
+     * connected. Event sources waiting to reconnect do not occupy any reader thread. Once the number of busy reader threads
+     * reaches the threshold, a single warning is logged to point out the thread consumption.
+     * </p>
+     * <p>
+     * The value is read once from the system properties and is expected to be a positive integer, otherwise it is ignored.
+     * The default value is <tt>{@value #EVENT_SOURCE_DEFAULT_READERS_WARNING_THRESHOLD}</tt>.
+     * </p>
+     * <p>
+     * The name of the system property is <tt>{@value}</tt>.
+     * </p>
+     *
+     * @since 2.18
+     */
+    public static final String EVENT_SOURCE_READERS_WARNING_THRESHOLD =
+            "jersey.config.client.media.sse.eventSource.readersWarningThreshold";
+
+    /**
+     * Default value of the {@link #EVENT_SOURCE_READERS_WARNING_THRESHOLD} system property.
+     *
+     * @since 2.18
+     */
+    public static final int EVENT_SOURCE_DEFAULT_READERS_WARNING_THRESHOLD = 1024;
+
     /**
      * A "reconnection not set" value for the SSE reconnect delay set via {@code retry} field.
      *
@@ -0,0 +1,189 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.e2e.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+
+import org.glassfish.jersey.server.Broadcaster;
+import org.glassfish.jersey.server.ChunkedOutput;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test that {@link Broadcaster#broadcast(Object, java.util.concurrent.Executor)} serializes
+ * the broadcast chunk only once for all registered outputs.
+ */
+public class SharedEncodingBroadcasterTest extends JerseyTest {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final Broadcaster<Message> broadcaster = new Broadcaster<Message>();
+    private static final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private static final AtomicInteger serializations = new AtomicInteger();
+
+    public static class Message {
+
+        private final String text;
+
+        public Message(final String text) {
+            this.text = text;
+        }
+    }
+
+    @Produces(MediaType.TEXT_PLAIN)
+    public static class CountingMessageWriter implements MessageBodyWriter<Message> {
+
+        @Override
+        public boolean isWriteable(final Class<?> type, final Type genericType, final Annotation[] annotations,
+                                   final MediaType mediaType) {
+            return type == Message.class;
+        }
+
+        @Override
+        public long getSize(final Message message, final Class<?> type, final Type genericType,
+                            final Annotation[] annotations, final MediaType mediaType) {
+            return -1;
+        }
+
+        @Override
+        public void writeTo(final Message message, final Class<?> type, final Type genericType,
+                            final Annotation[] annotations, final MediaType mediaType,
+                            final MultivaluedMap<String, Object> httpHeaders, final OutputStream entityStream)
+                throws IOException, WebApplicationException {
+            serializations.incrementAndGet();
+            entityStream.write(message.text.getBytes(UTF8));
+        }
+    }
+
+    @Path("/test")
+    public static class MyResource {
+
+        @GET
+        @Produces(MediaType.TEXT_PLAIN)
+        public ChunkedOutput<Message> get() throws IOException {
+            final ChunkedOutput<Message> result = new ChunkedOutput<Message>(Message.class, ";");
+
+            // write something to ensure the client does not get blocked on waiting for the first byte
+            result.write(new Message("first"));
+
+            broadcaster.add(result);
+            return result;
+        }
+
+        @POST
+        public String post(final String text) {
+            broadcaster.broadcast(new Message(text), executor);
+            return text;
+        }
+    }
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(MyResource.class, CountingMessageWriter.class);
+    }
+
+    @AfterClass
+    public static void shutdownExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testChunkSerializedOnce() throws IOException {
+        final InputStream is1 = getChunkStream();
+        final InputStream is2 = getChunkStream();
+        final InputStream is3 = getChunkStream();
+
+        checkStream("first;", is1, is2, is3);
+        assertEquals(3, serializations.get());
+
+        target("test").request().post(Entity.text("text1"));
+        checkStream("text1;", is1, is2, is3);
+        assertEquals(4, serializations.get());
+
+        target("test").request().post(Entity.text("text2"));
+        checkStream("text2;", is1, is2, is3);
+        assertEquals(5, serializations.get());
+
+        broadcaster.closeAll();
+    }
+
+    private InputStream getChunkStream() {
+        return target("test").request().get(InputStream.class);
+    }
+
+    private void checkStream(final String golden, final InputStream... inputStreams) throws IOException {
+        final byte[] bytes = golden.getBytes(UTF8);
+        for (final InputStream is : inputStreams) {
+            final byte[] entity = new byte[bytes.length];
+            int bytesRead = 0;
+            while (bytesRead < entity.length) {
+                final int read = is.read(entity, bytesRead, entity.length - bytesRead);
+                if (read < 0) {
+                    break;
+                }
+                bytesRead += read;
+            }
+            assertEquals(golden, new String(entity, UTF8));
+        }
+    }
+}
@@ -40,7 +40,11 @@
 package org.glassfish.jersey.tests.e2e.sse;
 
 import java.io.IOException;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
@@ -80,6 +84,8 @@ import static org.junit.Assert.fail;
  */
 public class EventOutputTest extends JerseyTest {
 
+    private static final AtomicReference<EventOutput> OPEN_OUTPUT = new AtomicReference<EventOutput>();
+
     @Override
     protected Application configure() {
         return new ResourceConfig(SseTestResource.class, SseFeature.class);
@@ -118,6 +124,15 @@ public class EventOutputTest extends JerseyTest {
             }
         }
 
+        @GET
+        @Path("open-single")
+        public EventOutput getOpenSingleEvent() throws IOException {
+            final EventOutput output = new EventOutput();
+            output.write(new OutboundEvent.Builder().data(String.class, "open").build());
+            OPEN_OUTPUT.set(output);
+            return output;
+        }
+
         @GET
         @Path("closed-single")
         public EventOutput getClosedSingleEvent() throws IOException {
@@ -179,6 +194,28 @@ public class EventOutputTest extends JerseyTest {
         assertTrue(input.isClosed());
     }
 
+    @Test
+    public void testReadSingleEventFromOpenOutput() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<InboundEvent> event = executor.submit(new Callable<InboundEvent>() {
+                @Override
+                public InboundEvent call() {
+                    return target().path("test/open-single").request().header("Connection", "close")
+                            .get().readEntity(InboundEvent.class);
+                }
+            });
+            // the event output stays open, the event must be read without waiting for the end of the stream
+            assertEquals("open", event.get(5 * getAsyncTimeoutMultiplier(), TimeUnit.SECONDS).readData());
+        } finally {
+            final EventOutput output = OPEN_OUTPUT.getAndSet(null);
+            if (output != null) {
+                output.close();
+            }
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testSseContentTypeWithCharset() {
         /**
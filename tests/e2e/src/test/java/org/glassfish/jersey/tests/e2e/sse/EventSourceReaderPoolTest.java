@@ -0,0 +1,149 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.e2e.sse;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.media.sse.EventListener;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.EventSource;
+import org.glassfish.jersey.media.sse.InboundEvent;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.glassfish.jersey.media.sse.SseFeature;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests that the {@link EventSource event sources} keep receiving events when more of them are connected than the
+ * {@link SseFeature#EVENT_SOURCE_READERS_WARNING_THRESHOLD reader threads warning threshold}.
+ */
+public class EventSourceReaderPoolTest extends JerseyTest {
+
+    private static final int THRESHOLD = 4;
+    private static final int SOURCES = 3 * THRESHOLD;
+
+    static {
+        // the shared reader pool reads the threshold once; the test runs in a dedicated JVM
+        System.setProperty(SseFeature.EVENT_SOURCE_READERS_WARNING_THRESHOLD, Integer.toString(THRESHOLD));
+    }
+
+    private static final List<EventOutput> OUTPUTS = new CopyOnWriteArrayList<EventOutput>();
+    private static final CountDownLatch CONNECTED = new CountDownLatch(SOURCES);
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(SseResource.class, SseFeature.class);
+    }
+
+    @Path("events")
+    public static class SseResource {
+
+        /**
+         * Keeps the event stream open until the test is finished.
+         */
+        @GET
+        @Produces(SseFeature.SERVER_SENT_EVENTS)
+        public EventOutput get() {
+            final EventOutput output = new EventOutput();
+            OUTPUTS.add(output);
+            CONNECTED.countDown();
+            return output;
+        }
+    }
+
+    @Test
+    public void testMoreSourcesThanThresholdReceiveEvents() throws Exception {
+        final CountDownLatch received = new CountDownLatch(SOURCES);
+        final EventSource[] sources = new EventSource[SOURCES];
+        try {
+            for (int i = 0; i < sources.length; i++) {
+                sources[i] = EventSource.target(target().path("events")).build();
+                sources[i].register(new EventListener() {
+                    @Override
+                    public void onEvent(final InboundEvent event) {
+                        received.countDown();
+                    }
+                });
+                sources[i].open();
+            }
+            assertTrue("Not all the event sources connected.",
+                    CONNECTED.await(5 * getAsyncTimeoutMultiplier(), TimeUnit.SECONDS));
+
+            for (final EventOutput output : OUTPUTS) {
+                output.write(new OutboundEvent.Builder()
+                        .mediaType(MediaType.TEXT_PLAIN_TYPE)
+                        .data(String.class, "event")
+                        .build());
+            }
+            assertTrue("Not all the event sources received the event.",
+                    received.await(5 * getAsyncTimeoutMultiplier(), TimeUnit.SECONDS));
+        } finally {
+            for (final EventSource source : sources) {
+                if (source != null) {
+                    source.close(0, TimeUnit.MILLISECONDS);
+                }
+            }
+            for (final EventOutput output : OUTPUTS) {
+                closeQuietly(output);
+            }
+        }
+    }
+
+    private static void closeQuietly(final EventOutput output) {
+        try {
+            output.close();
+        } catch (final IOException e) {
+            // ignore
+        }
+    }
+}
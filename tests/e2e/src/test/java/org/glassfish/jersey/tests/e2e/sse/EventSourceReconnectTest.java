@@ -0,0 +1,271 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.e2e.sse;
+
+import java.io.IOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.ServiceUnavailableException;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.media.sse.EventListener;
+import org.glassfish.jersey.media.sse.EventOutput;
+import org.glassfish.jersey.media.sse.EventSource;
+import org.glassfish.jersey.media.sse.InboundEvent;
+import org.glassfish.jersey.media.sse.OutboundEvent;
+import org.glassfish.jersey.media.sse.SseFeature;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests {@link EventSource} reconnect delays tracked by the timer shared by all the event sources.
+ */
+public class EventSourceReconnectTest extends JerseyTest {
+
+    private static final long RETRY_MILLIS = 1000;
+    /**
+     * Tolerance [ms] of the reconnect delays measured on the server side.
+     */
+    private static final long TOLERANCE_MILLIS = 100;
+    private static final int THROTTLED_SOURCES = 20;
+    private static final String THROTTLED_SOURCE_NAME = "throttled-event-source-";
+
+    private static final BlockingQueue<Connection> RETRIED = new LinkedBlockingQueue<Connection>();
+    private static final BlockingQueue<Connection> UNAVAILABLE = new LinkedBlockingQueue<Connection>();
+    private static final AtomicInteger UNAVAILABLE_COUNT = new AtomicInteger();
+    private static final CountDownLatch THROTTLED = new CountDownLatch(THROTTLED_SOURCES);
+
+    @Override
+    protected Application configure() {
+        return new ResourceConfig(SseResource.class, SseFeature.class);
+    }
+
+    /**
+     * Connection request received by the {@link SseResource}.
+     */
+    private static class Connection {
+
+        private final long time = System.nanoTime();
+        private final String lastEventId;
+
+        private Connection(final String lastEventId) {
+            this.lastEventId = lastEventId;
+        }
+    }
+
+    @Path("events")
+    public static class SseResource {
+
+        /**
+         * Sends a single event with the next id and the reconnect delay set and closes the connection.
+         */
+        @GET
+        @Path("retried")
+        @Produces(SseFeature.SERVER_SENT_EVENTS)
+        public EventOutput retried(@HeaderParam(SseFeature.LAST_EVENT_ID_HEADER) final String lastEventId)
+                throws IOException {
+            RETRIED.add(new Connection(lastEventId));
+            final String id = lastEventId == null ? "1" : String.valueOf(Integer.parseInt(lastEventId) + 1);
+            return single(new OutboundEvent.Builder()
+                    .id(id)
+                    .reconnectDelay(RETRY_MILLIS)
+                    .mediaType(MediaType.TEXT_PLAIN_TYPE)
+                    .data(String.class, id)
+                    .build());
+        }
+
+        /**
+         * Answers the first connection request with {@code 503 Service Unavailable} and a {@code Retry-After} header.
+         */
+        @GET
+        @Path("unavailable")
+        @Produces(SseFeature.SERVER_SENT_EVENTS)
+        public EventOutput unavailable() throws IOException {
+            UNAVAILABLE.add(new Connection(null));
+            if (UNAVAILABLE_COUNT.getAndIncrement() == 0) {
+                throw new ServiceUnavailableException(RETRY_MILLIS / 1000);
+            }
+            return single(new OutboundEvent.Builder()
+                    .mediaType(MediaType.TEXT_PLAIN_TYPE)
+                    .data(String.class, "available")
+                    .build());
+        }
+
+        /**
+         * Answers all the connection requests with {@code 503 Service Unavailable} and a long {@code Retry-After} delay.
+         */
+        @GET
+        @Path("throttled")
+        @Produces(SseFeature.SERVER_SENT_EVENTS)
+        public EventOutput throttled() {
+            THROTTLED.countDown();
+            throw new ServiceUnavailableException(60L);
+        }
+
+        private static EventOutput single(final OutboundEvent event) throws IOException {
+            final EventOutput output = new EventOutput();
+            output.write(event);
+            output.close();
+            return output;
+        }
+    }
+
+    /**
+     * Event source reconnects after the delay set by the {@code retry} field of the last received event,
+     * sending the id of the last received event.
+     */
+    @Test
+    public void testReconnectAfterConnectionLost() throws Exception {
+        final BlockingQueue<String> events = new LinkedBlockingQueue<String>();
+        final EventSource source = EventSource.target(target().path("events/retried"))
+                .reconnectingEvery(10, TimeUnit.MILLISECONDS)
+                .build();
+        source.register(new EventListener() {
+            @Override
+            public void onEvent(final InboundEvent event) {
+                events.add(event.readData());
+            }
+        });
+        try {
+            source.open();
+
+            assertEquals("1", events.poll(5 * getAsyncTimeoutMultiplier(), TimeUnit.SECONDS));
+            assertEquals("2", events.poll(5 * getAsyncTimeoutMultiplier(), TimeUnit.SECONDS));
+        } finally {
+            source.close();
+        }
+
+        final Connection first = RETRIED.poll(5, TimeUnit.SECONDS);
+        final Connection second = RETRIED.poll(5, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(first.lastEventId);
+        assertEquals("1", second.lastEventId);
+        assertDelay(first, second);
+    }
+
+    /**
+     * Event source reconnects after the delay set by the {@code Retry-After} header of a {@code 503} response.
+     */
+    @Test
+    public void testReconnectAfterServiceUnavailable() throws Exception {
+        final BlockingQueue<String> events = new LinkedBlockingQueue<String>();
+        final EventSource source = EventSource.target(target().path("events/unavailable"))
+                .reconnectingEvery(10, TimeUnit.MILLISECONDS)
+                .build();
+        source.register(new EventListener() {
+            @Override
+            public void onEvent(final InboundEvent event) {
+                events.add(event.readData());
+            }
+        });
+        try {
+            source.open();
+
+            assertEquals("available", events.poll(5 * getAsyncTimeoutMultiplier(), TimeUnit.SECONDS));
+        } finally {
+            source.close();
+        }
+
+        assertDelay(UNAVAILABLE.poll(5, TimeUnit.SECONDS), UNAVAILABLE.poll(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Event sources waiting to reconnect do not hold any thread.
+     */
+    @Test
+    public void testWaitingSourcesHoldNoThreads() throws Exception {
+        final EventSource[] sources = new EventSource[THROTTLED_SOURCES];
+        try {
+            for (int i = 0; i < sources.length; i++) {
+                sources[i] = EventSource.target(target().path("events/throttled"))
+                        .named(THROTTLED_SOURCE_NAME + i)
+                        .open();
+            }
+            assertTrue(THROTTLED.await(5 * getAsyncTimeoutMultiplier(), TimeUnit.SECONDS));
+
+            // a reader thread carries the event source name while processing the connection
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5 * getAsyncTimeoutMultiplier());
+            int processing;
+            while ((processing = countThreads(THROTTLED_SOURCE_NAME)) > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals("Event sources waiting to reconnect should not hold any thread.", 0, processing);
+        } finally {
+            for (final EventSource source : sources) {
+                if (source != null) {
+                    source.close();
+                }
+            }
+        }
+    }
+
+    private static void assertDelay(final Connection first, final Connection second) {
+        assertNotNull(first);
+        assertNotNull(second);
+        final long delay = TimeUnit.NANOSECONDS.toMillis(second.time - first.time);
+        assertTrue("Reconnected too early: " + delay + " ms.", delay >= RETRY_MILLIS - TOLERANCE_MILLIS);
+    }
+
+    private static int countThreads(final String namePrefix) {
+        int count = 0;
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith(namePrefix)) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -58,6 +58,7 @@ import org.glassfish.jersey.jetty.connector.JettyClientProperties;
 import org.glassfish.jersey.media.multipart.MultiPartProperties;
 import org.glassfish.jersey.media.sse.SseFeature;
 import org.glassfish.jersey.message.MessageProperties;
+import org.glassfish.jersey.nio.connector.NioClientProperties;
 import org.glassfish.jersey.server.ServerProperties;
 import org.glassfish.jersey.server.internal.InternalServerProperties;
 import org.glassfish.jersey.server.oauth1.OAuth1ServerProperties;
@@ -96,6 +97,7 @@ public class PropertyOverlappingCheckTest {
     private static final Class<?>[] classes = new Class[] {
             JettyClientProperties.class,
             ApacheClientProperties.class,
+            NioClientProperties.class,
             OAuth1ServerProperties.class,
             ServletProperties.class,
             CommonProperties.class,
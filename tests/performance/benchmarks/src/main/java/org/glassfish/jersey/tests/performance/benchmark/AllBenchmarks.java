@@ -59,6 +59,8 @@ public class AllBenchmarks {
                 .include(ClientBenchmark.class.getSimpleName())
                 .include(JacksonBenchmark.class.getSimpleName())
                 .include(LocatorBenchmark.class.getSimpleName())
+                .include(RoutingBenchmark.class.getSimpleName())
+                .include(ServerPipelineBenchmark.class.getSimpleName())
                 // Measure throughput in seconds (ops/s).
                 .mode(Mode.Throughput)
                 .timeUnit(TimeUnit.SECONDS)
@@ -0,0 +1,148 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MediaType;
+
+import org.glassfish.jersey.server.ApplicationHandler;
+import org.glassfish.jersey.server.ContainerResponse;
+import org.glassfish.jersey.test.util.server.ContainerRequestBuilder;
+import org.glassfish.jersey.tests.performance.benchmark.server.PipelineApplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * End-to-end in-memory {@link org.glassfish.jersey.server.ApplicationHandler} benchmark of the server request
+ * processing pipeline.
+ * <p>
+ * Every benchmark method builds a new request and lets the application handler process it including writing the
+ * response entity, so that routing, parameter injection, filters, interceptors and entity providers are all measured.
+ * Run the benchmark with the GC profiler (as the {@link #main(String[])} method does) to see the allocation rate
+ * normalized per request next to the throughput.
+ * </p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 16, time = 2500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 16, time = 2500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServerPipelineBenchmark {
+
+    private static final byte[] JSON_ENTITY =
+            "{\"id\":42,\"name\":\"pipeline\",\"description\":\"JSON entity\"}".getBytes(StandardCharsets.UTF_8);
+
+    private volatile ApplicationHandler handler;
+
+    @Setup
+    public void start() throws Exception {
+        handler = new ApplicationHandler(new PipelineApplication());
+    }
+
+    @Benchmark
+    public ContainerResponse measureText() throws Exception {
+        return handler.apply(ContainerRequestBuilder
+                .from("pipeline/text/42?name=pipeline", "GET")
+                .accept(MediaType.TEXT_PLAIN_TYPE)
+                .build()).get();
+    }
+
+    @Benchmark
+    public ContainerResponse measureJson() throws Exception {
+        return handler.apply(ContainerRequestBuilder
+                .from("pipeline/json/42?name=pipeline", "GET")
+                .accept(MediaType.APPLICATION_JSON_TYPE)
+                .build()).get();
+    }
+
+    @Benchmark
+    public ContainerResponse measureXml() throws Exception {
+        return handler.apply(ContainerRequestBuilder
+                .from("pipeline/xml/42?name=pipeline", "GET")
+                .accept(MediaType.APPLICATION_XML_TYPE)
+                .build()).get();
+    }
+
+    @Benchmark
+    public ContainerResponse measureJsonPost() throws Exception {
+        return handler.apply(ContainerRequestBuilder
+                .from("pipeline/json", "POST")
+                .accept(MediaType.APPLICATION_JSON_TYPE)
+                .type(MediaType.APPLICATION_JSON_TYPE)
+                .entity(new ByteArrayInputStream(JSON_ENTITY))
+                .build()).get();
+    }
+
+    @Benchmark
+    public ContainerResponse measureAsync() throws Exception {
+        return handler.apply(ContainerRequestBuilder
+                .from("pipeline/async/42", "GET")
+                .accept(MediaType.TEXT_PLAIN_TYPE)
+                .build()).get();
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final Options opt = new OptionsBuilder()
+                // Register our benchmarks.
+                .include(ServerPipelineBenchmark.class.getSimpleName())
+                // Report allocated bytes per operation.
+                .addProfiler(GCProfiler.class)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
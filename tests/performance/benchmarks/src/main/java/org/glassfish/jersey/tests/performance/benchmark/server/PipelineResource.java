@@ -0,0 +1,99 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark.server;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.DefaultValue;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.QueryParam;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
+import javax.ws.rs.core.MediaType;
+
+/**
+ * Resource covering the typical request processing paths - parameter injection, text, JSON and XML entities
+ * and asynchronous processing.
+ */
+@Path("pipeline")
+public class PipelineResource {
+
+    @GET
+    @Path("text/{id}")
+    @Produces(MediaType.TEXT_PLAIN)
+    public String text(@PathParam("id") final int id,
+                       @QueryParam("name") @DefaultValue("none") final String name,
+                       @HeaderParam(PipelineFilter.HEADER) final String header) {
+        return id + ":" + name + ":" + header;
+    }
+
+    @GET
+    @Path("json/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public PipelineEntity json(@PathParam("id") final int id, @QueryParam("name") final String name) {
+        return new PipelineEntity(id, name, "JSON entity");
+    }
+
+    @GET
+    @Path("xml/{id}")
+    @Produces(MediaType.APPLICATION_XML)
+    public PipelineEntity xml(@PathParam("id") final int id, @QueryParam("name") final String name) {
+        return new PipelineEntity(id, name, "XML entity");
+    }
+
+    @POST
+    @Path("json")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public PipelineEntity echo(final PipelineEntity entity) {
+        return entity;
+    }
+
+    @GET
+    @Path("async/{id}")
+    @Produces(MediaType.TEXT_PLAIN)
+    public void async(@PathParam("id") final int id, @Suspended final AsyncResponse response) {
+        response.resume("async:" + id);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS HEADER.
+ *
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ *
+ * The contents of this file are subject to the terms of either the GNU
+ * General Public License Version 2 only ("GPL") or the Common Development
+ * and Distribution License("CDDL") (collectively, the "License").  You
+ * may not use this file except in compliance with the License.  You can
+ * obtain a copy of the License at
+ * http://glassfish.java.net/public/CDDL+GPL_1_1.html
+ * or packager/legal/LICENSE.txt.  See the License for the specific
+ * language governing permissions and limitations under the License.
+ *
+ * When distributing the software, include this License Header Notice in each
+ * file and include the License file at packager/legal/LICENSE.txt.
+ *
+ * GPL Classpath Exception:
+ * Oracle designates this particular file as subject to the "Classpath"
+ * exception as provided by Oracle in the GPL Version 2 section of the License
+ * file that accompanied this code.
+ *
+ * Modifications:
+ * If applicable, add the following below the License Header, with the fields
+ * enclosed by brackets [] replaced by your own identifying information:
+ * "Portions Copyright [year] [name of copyright owner]"
+ *
+ * Contributor(s):
+ * If you wish your version of this file to be governed by only the CDDL or
+ * only the GPL Version 2, indicate your decision by adding "[Contributor]
+ * elects to include this software in this distribution under the [CDDL or GPL
+ * Version 2] license."  If you don't indicate a single choice of license, a
+ * recipient has the option to distribute your version of this file under
+ * either the CDDL, the GPL Version 2 or to extend the choice of license to
+ * its licensees as provided above.  However, if you add GPL Version 2 code
+ * and therefore, elected the GPL Version 2 license, then the option applies
+ * only if the new code is made subject to such option by the copyright
+ * holder.
+ */
+package org.glassfish.jersey.tests.performance.benchmark.server;
+
+import javax.ws.rs.client.Entity;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+import org.glassfish.jersey.client.ClientConfig;
+import org.glassfish.jersey.jackson.JacksonFeature;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.glassfish.jersey.test.JerseyTest;
+
+import org.junit.Test;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Request processing pipeline benchmark application tests.
+ */
+public class PipelineTest extends JerseyTest {
+
+    @Override
+    protected ResourceConfig configure() {
+        return new PipelineApplication();
+    }
+
+    @Override
+    protected void configureClient(final ClientConfig config) {
+        config.register(JacksonFeature.class);
+    }
+
+    @Test
+    public void testText() {
+        final Response response = target().path("pipeline/text/42").queryParam("name", "pipeline")
+                .request("text/plain").get();
+
+        assertThat("Wrong HTTP response code returned.", response.getStatus(), is(200));
+        assertThat("Unexpected response header.", response.getHeaderString(PipelineFilter.HEADER), is("intercepted"));
+        assertThat("Unexpected response entity.", response.readEntity(String.class), is("42:pipeline:request"));
+    }
+
+    @Test
+    public void testJson() {
+        final Response response = target().path("pipeline/json/42").queryParam("name", "pipeline")
+                .request(MediaType.APPLICATION_JSON_TYPE).get();
+
+        assertThat("Wrong HTTP response code returned.", response.getStatus(), is(200));
+        assertThat("Unexpected response entity.", response.readEntity(PipelineEntity.class).getName(), is("pipeline"));
+    }
+
+    @Test
+    public void testXml() {
+        final Response response = target().path("pipeline/xml/42").queryParam("name", "pipeline")
+                .request(MediaType.APPLICATION_XML_TYPE).get();
+
+        assertThat("Wrong HTTP response code returned.", response.getStatus(), is(200));
+        assertThat("Unexpected response entity.", response.readEntity(PipelineEntity.class).getId(), is(42));
+    }
+
+    @Test
+    public void testJsonPost() {
+        final Response response = target().path("pipeline/json")
+                .request(MediaType.APPLICATION_JSON_TYPE)
+                .post(Entity.json(new PipelineEntity(42, "pipeline", "posted")));
+
+        assertThat("Wrong HTTP response code returned.", response.getStatus(), is(200));
+        assertThat("Unexpected response entity.", response.readEntity(PipelineEntity.class).getDescription(), is("posted"));
+    }
+
+    @Test
+    public void testAsync() {
+        final Response response = target().path("pipeline/async/42").request("text/plain").get();
+
+        assertThat("Wrong HTTP response code returned.", response.getStatus(), is(200));
+        assertThat("Unexpected response entity.", response.readEntity(String.class), is("async:42"));
+    }
+}